@@ -0,0 +1,211 @@
+package com.logcenter.recommender.api;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.function.LongSupplier;
+
+/**
+ * 원격 호출 회로 차단기
+ * 최근 호출 윈도우의 실패율이나 지연 백분위수가 임계값을 넘으면 열려서(OPEN) 일정 시간 원격 호출을 막는다.
+ * 열린 시간이 지나면 시험 호출 하나만 허용하고(HALF_OPEN), 성공하면 닫히고 실패하면 다시 열린다.
+ *
+ * 스레드 안전
+ */
+public class CircuitBreaker {
+
+    private static final Logger logger = LoggerFactory.getLogger(CircuitBreaker.class);
+
+    /**
+     * 차단기 상태
+     */
+    public enum State {
+        /** 원격 호출 허용 */
+        CLOSED,
+        /** 원격 호출 차단 */
+        OPEN,
+        /** 시험 호출 하나만 허용 */
+        HALF_OPEN
+    }
+
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final double latencyPercentile;
+    private final long latencyThresholdMs;
+    private final long openMillis;
+    private final LongSupplier clock;
+
+    // 최근 호출 윈도우 (원형 버퍼)
+    private final boolean[] failures;
+    private final long[] latencies;
+    private int next;
+    private int count;
+
+    private State state = State.CLOSED;
+    private long openUntil;
+    private boolean probeInFlight;
+    private long openCount;
+
+    /**
+     * 생성자
+     * @param windowSize 판단에 사용할 최근 호출 수
+     * @param minimumCalls 판단에 필요한 최소 호출 수
+     * @param failureRateThreshold 차단할 실패율 (%)
+     * @param latencyPercentile 지연 판단 백분위수 (0~1, 예: 0.95)
+     * @param latencyThresholdMs 차단할 백분위수 지연 (밀리초)
+     * @param openMillis 열린 상태 유지 시간 (밀리초)
+     */
+    public CircuitBreaker(int windowSize, int minimumCalls, double failureRateThreshold,
+                          double latencyPercentile, long latencyThresholdMs, long openMillis) {
+        this(windowSize, minimumCalls, failureRateThreshold, latencyPercentile, latencyThresholdMs, openMillis,
+            () -> System.nanoTime() / 1_000_000L);
+    }
+
+    CircuitBreaker(int windowSize, int minimumCalls, double failureRateThreshold,
+                   double latencyPercentile, long latencyThresholdMs, long openMillis, LongSupplier clock) {
+        int size = Math.max(1, windowSize);
+        this.failures = new boolean[size];
+        this.latencies = new long[size];
+        this.minimumCalls = Math.max(1, Math.min(minimumCalls, size));
+        this.failureRateThreshold = failureRateThreshold;
+        this.latencyPercentile = latencyPercentile;
+        this.latencyThresholdMs = latencyThresholdMs;
+        this.openMillis = openMillis;
+        this.clock = clock;
+    }
+
+    /**
+     * 원격 호출 허용 여부 (열린 시간이 지났으면 시험 호출 하나를 허용)
+     */
+    public synchronized boolean allowRequest() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (clock.getAsLong() < openUntil) {
+                    return false;
+                }
+                state = State.HALF_OPEN;
+                probeInFlight = true;
+                logger.info("회로 차단기 시험 호출 허용");
+                return true;
+            default:
+                if (probeInFlight) {
+                    return false;
+                }
+                probeInFlight = true;
+                return true;
+        }
+    }
+
+    /**
+     * 성공한 호출 기록
+     * @param latencyMs 응답 시간 (밀리초)
+     */
+    public synchronized void recordSuccess(long latencyMs) {
+        if (state == State.HALF_OPEN) {
+            state = State.CLOSED;
+            probeInFlight = false;
+            reset();
+            logger.info("회로 차단기 닫힘 (시험 호출 성공: {}ms)", latencyMs);
+            return;
+        }
+        record(false, latencyMs);
+    }
+
+    /**
+     * 실패한 호출 기록 (시간 초과 포함)
+     * @param latencyMs 실패까지 걸린 시간 (밀리초)
+     */
+    public synchronized void recordFailure(long latencyMs) {
+        if (state == State.HALF_OPEN) {
+            open("시험 호출 실패");
+            return;
+        }
+        record(true, latencyMs);
+    }
+
+    /**
+     * 결과 없이 취소된 호출 기록
+     * 시험 호출이 취소되면(호출 스레드 인터럽트 등) 다음 요청이 다시 시험 호출을 할 수 있게 한다.
+     */
+    public synchronized void releaseProbe() {
+        if (state == State.HALF_OPEN) {
+            probeInFlight = false;
+        }
+    }
+
+    private void record(boolean failed, long latencyMs) {
+        if (state != State.CLOSED) {
+            // 열리기 전에 보낸 호출의 늦은 결과
+            return;
+        }
+        failures[next] = failed;
+        latencies[next] = latencyMs;
+        next = (next + 1) % failures.length;
+        count = Math.min(count + 1, failures.length);
+
+        if (count < minimumCalls) {
+            return;
+        }
+        double failureRate = failureRate();
+        if (failureRate >= failureRateThreshold) {
+            open(String.format("실패율 %.0f%%", failureRate));
+            return;
+        }
+        long latency = percentile(latencyPercentile);
+        if (latency >= latencyThresholdMs) {
+            open(String.format("지연 p%.0f %dms", latencyPercentile * 100, latency));
+        }
+    }
+
+    private void open(String reason) {
+        state = State.OPEN;
+        openUntil = clock.getAsLong() + openMillis;
+        probeInFlight = false;
+        openCount++;
+        reset();
+        logger.warn("회로 차단기 열림 ({}), {}ms 동안 원격 호출 차단", reason, openMillis);
+    }
+
+    private void reset() {
+        next = 0;
+        count = 0;
+    }
+
+    private double failureRate() {
+        int failed = 0;
+        for (int i = 0; i < count; i++) {
+            if (failures[i]) {
+                failed++;
+            }
+        }
+        return failed * 100.0 / count;
+    }
+
+    private long percentile(double p) {
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(p * count) - 1;
+        return sorted[Math.max(0, Math.min(count - 1, index))];
+    }
+
+    /**
+     * 최근 호출의 지연 백분위수
+     * @param p 백분위수 (0~1)
+     * @return 지연 (밀리초), 판단할 호출이 부족하면 -1
+     */
+    public synchronized long latencyPercentile(double p) {
+        return count < minimumCalls ? -1 : percentile(p);
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    /** 열린 횟수 */
+    public synchronized long getOpenCount() {
+        return openCount;
+    }
+}
\ No newline at end of file
@@ -1,34 +1,71 @@
 package com.logcenter.recommender.api;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.logcenter.recommender.api.cache.CacheManager;
 import com.logcenter.recommender.api.model.ApiResponse;
 import com.logcenter.recommender.api.model.LogFormatRequest;
+import com.logcenter.recommender.api.model.SampleResult;
+import com.logcenter.recommender.cache.PersistentCacheManager;
 import com.logcenter.recommender.model.FormatRecommendation;
 import com.logcenter.recommender.model.LogFormat;
 import com.logcenter.recommender.util.JacksonJsonUtils;
+import com.logcenter.recommender.util.WorkerThreads;
+import org.apache.http.Header;
 import org.apache.http.HttpEntity;
+import org.apache.http.HttpHeaders;
 import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
 import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.entity.ByteArrayEntity;
 import org.apache.http.entity.ContentType;
-import org.apache.http.entity.StringEntity;
 import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
 import org.apache.http.impl.client.HttpClients;
 import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.apache.http.util.EntityUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.net.URI;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * LogCenter API 클라이언트
+ * 요청은 연결 풀 크기만큼의 전송 스레드에서 비동기로 실행되고, 재시도는 지터를 준 지수 백오프로
+ * 예약되므로 대기 중에는 스레드를 점유하지 않는다. 큰 샘플 배치는 여러 요청으로 나누어 동시에 보내고
+ * 응답의 샘플별 결과를 읽는 대로 샘플 인덱스 위치에 모은다. 큰 요청 본문은 gzip으로 압축한다.
+ * 응답 캐시를 설정하면 카탈로그, 그룹/벤더 목록, 추천 응답을 캐시를 거쳐 조회한다.
  */
 public class LogFormatApiClient implements AutoCloseable {
     
@@ -37,15 +74,38 @@ public class LogFormatApiClient implements AutoCloseable {
     private final String baseUrl;
     private final String apiKey;
     private final CloseableHttpClient httpClient;
+    private final ThreadPoolExecutor transport;
+    private final ScheduledExecutorService retryScheduler;
+    private final int batchChunkSize;
+    
+    // 서버가 샘플별 배치 추천을 지원하지 않으면 요청 단위 추천으로 대체
+    private volatile boolean perSampleUnsupported;
+    
+    // 조건부 카탈로그 조회에 쓰는 영구 캐시 (없으면 매번 전체 조회)
+    private volatile PersistentCacheManager catalogCache;
+    
+    // 읽기 통과 응답 캐시 (없으면 매번 요청)
+    private volatile CacheManager responseCache;
     
     // 타임아웃 설정 (밀리초)
     private static final int CONNECTION_TIMEOUT = 5000;
     private static final int SOCKET_TIMEOUT = 30000;
     private static final int REQUEST_TIMEOUT = 30000;
     
+    // 연결 풀 설정
+    public static final int DEFAULT_POOL_SIZE = 8;
+    public static final int DEFAULT_BATCH_CHUNK_SIZE = 50;
+    private static final long KEEP_ALIVE_MS = 30000;
+    private static final int VALIDATE_AFTER_INACTIVITY_MS = 2000;
+    private static final long IDLE_EVICT_SECONDS = 60;
+    
+    // 이 크기 이상의 요청 본문은 gzip 압축 (바이트)
+    private static final int GZIP_MIN_BYTES = 1024;
+    
     // 재시도 설정
     private static final int MAX_RETRIES = 3;
     private static final long RETRY_DELAY_MS = 1000;
+    private static final long MAX_RETRY_DELAY_MS = 10000;
     
     /**
      * 생성자
@@ -53,13 +113,27 @@ public class LogFormatApiClient implements AutoCloseable {
      * @param apiKey API 인증 키
      */
     public LogFormatApiClient(String baseUrl, String apiKey) {
+        this(baseUrl, apiKey, DEFAULT_POOL_SIZE, DEFAULT_BATCH_CHUNK_SIZE);
+    }
+    
+    /**
+     * 생성자
+     * @param baseUrl API 기본 URL
+     * @param apiKey API 인증 키
+     * @param poolSize 연결 풀 크기 (동시에 보낼 수 있는 요청 수)
+     * @param batchChunkSize 배치 추천 시 요청 하나에 담을 샘플 수
+     */
+    public LogFormatApiClient(String baseUrl, String apiKey, int poolSize, int batchChunkSize) {
         this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
         this.apiKey = apiKey;
+        this.batchChunkSize = Math.max(1, batchChunkSize);
+        int connections = Math.max(1, poolSize);
         
-        // HTTP 클라이언트 설정
+        // HTTP 클라이언트 설정 (API 서버 하나만 사용하므로 경로당 연결 수 = 전체 연결 수)
         PoolingHttpClientConnectionManager cm = new PoolingHttpClientConnectionManager();
-        cm.setMaxTotal(100);
-        cm.setDefaultMaxPerRoute(20);
+        cm.setMaxTotal(connections);
+        cm.setDefaultMaxPerRoute(connections);
+        cm.setValidateAfterInactivity(VALIDATE_AFTER_INACTIVITY_MS);
         
         RequestConfig requestConfig = RequestConfig.custom()
                 .setConnectTimeout(CONNECTION_TIMEOUT)
@@ -67,148 +141,622 @@ public class LogFormatApiClient implements AutoCloseable {
                 .setConnectionRequestTimeout(REQUEST_TIMEOUT)
                 .build();
         
+        // 서버가 Keep-Alive 시간을 주면 따르되 상한을 두고, 주지 않으면 기본값 사용
+        ConnectionKeepAliveStrategy keepAlive = (response, context) -> {
+            long serverValue = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+            return serverValue > 0 ? Math.min(serverValue, KEEP_ALIVE_MS) : KEEP_ALIVE_MS;
+        };
+        
         this.httpClient = HttpClients.custom()
                 .setConnectionManager(cm)
                 .setDefaultRequestConfig(requestConfig)
+                .setKeepAliveStrategy(keepAlive)
+                .evictExpiredConnections()
+                .evictIdleConnections(IDLE_EVICT_SECONDS, TimeUnit.SECONDS)
                 .build();
         
-        logger.info("API 클라이언트 초기화: {}", baseUrl);
+        // 전송 스레드는 풀의 연결 수만큼만 두어 연결을 기다리며 쌓이지 않게 함
+        this.transport = WorkerThreads.newFixedPool("api-transport", connections);
+        this.retryScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "api-retry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        
+        logger.info("API 클라이언트 초기화: {} (연결 {}개, 배치 단위 {})", baseUrl, connections, this.batchChunkSize);
+    }
+    
+    /**
+     * 카탈로그 캐시 설정
+     * @param catalogCache 받은 카탈로그와 검증자를 저장할 영구 캐시 (null이면 사용 안 함)
+     */
+    public void setCatalogCache(PersistentCacheManager catalogCache) {
+        this.catalogCache = catalogCache;
+    }
+    
+    /**
+     * 응답 캐시 설정
+     * 같은 요청이 동시에 들어오면 한 번만 보내고, 갱신 주기가 지난 응답은 그대로 돌려주면서 백그라운드에서 다시 요청한다.
+     * 캐시된 결과는 여러 호출자가 함께 쓰므로 수정할 수 없는 목록으로 돌려준다.
+     * @param responseCache 응답 캐시 (null이면 사용 안 함)
+     */
+    public void setResponseCache(CacheManager responseCache) {
+        this.responseCache = responseCache;
     }
     
     /**
      * 로그 포맷 목록 조회
      */
     public List<LogFormat> getLogFormats() throws IOException {
-        // API 호출
-        String url = baseUrl + "/api/v1/logformats";
-        ApiResponse<List<LogFormat>> response = executeGetRequest(url, 
-                new TypeReference<ApiResponse<List<LogFormat>>>() {});
-        
-        if (response.isSuccess() && response.getData() != null) {
-            return response.getData();
-        }
-        
-        throw new IOException("로그 포맷 목록 조회 실패: " + response.getMessage());
+        return await(catalogAsync(baseUrl + "/api/v1/logformats", "로그 포맷 목록 조회 실패"));
     }
     
     /**
      * 특정 그룹의 로그 포맷 조회
      */
     public List<LogFormat> getLogFormatsByGroup(String group) throws IOException {
-        // API 호출
-        String url = baseUrl + "/api/v1/logformats?group=" + group;
-        ApiResponse<List<LogFormat>> response = executeGetRequest(url,
-                new TypeReference<ApiResponse<List<LogFormat>>>() {});
-        
-        if (response.isSuccess() && response.getData() != null) {
-            return response.getData();
+        return await(catalogAsync(baseUrl + "/api/v1/logformats?group=" + group, "그룹별 로그 포맷 조회 실패"));
+    }
+    
+    /**
+     * 그룹별 포맷 수 (전체 카탈로그 기준)
+     */
+    public Map<String, Integer> getGroupStatistics() throws IOException {
+        return await(catalogStatistics("groups", LogFormat::getGroup));
+    }
+    
+    /**
+     * 벤더별 포맷 수 (전체 카탈로그 기준)
+     */
+    public Map<String, Integer> getVendorStatistics() throws IOException {
+        return await(catalogStatistics("vendors", LogFormat::getVendor));
+    }
+    
+    private CompletableFuture<Map<String, Integer>> catalogStatistics(String name, Function<LogFormat, String> key) {
+        String url = baseUrl + "/api/v1/logformats";
+        return cached(CacheManager.LOG_FORMATS, url + "#" + name,
+            () -> catalogAsync(url, "로그 포맷 목록 조회 실패").thenApply(formats -> {
+                Map<String, Integer> counts = new LinkedHashMap<>();
+                for (LogFormat format : formats) {
+                    counts.merge(key.apply(format), 1, Integer::sum);
+                }
+                return Collections.unmodifiableMap(counts);
+            }));
+    }
+    
+    private CompletableFuture<List<LogFormat>> catalogAsync(String url, String failureMessage) {
+        return cached(CacheManager.LOG_FORMATS, url,
+            () -> fetchCatalogAsync(url, failureMessage).thenApply(Collections::unmodifiableList));
+    }
+    
+    /**
+     * 응답 캐시를 거쳐 조회 (캐시가 없으면 바로 요청)
+     */
+    private <T> CompletableFuture<T> cached(String cacheName, String key, Supplier<CompletableFuture<T>> loader) {
+        CacheManager cache = responseCache;
+        return cache != null ? cache.getAsync(cacheName, key, loader) : loader.get();
+    }
+    
+    /**
+     * 요청 지문 (같은 서버에 같은 내용으로 보내는 요청이면 같은 값)
+     */
+    private String fingerprint(String operation, LogFormatRequest request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((baseUrl + "\n" + operation + "\n").getBytes(StandardCharsets.UTF_8));
+            digest.update(JacksonJsonUtils.toJsonCompact(request).getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(operation).append(':');
+            for (byte b : digest.digest()) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256을 사용할 수 없습니다", e);
         }
-        
-        throw new IOException("그룹별 로그 포맷 조회 실패: " + response.getMessage());
+    }
+    
+    /**
+     * 카탈로그 조회 (조건부 요청)
+     * 캐시된 카탈로그가 있으면 검증자(If-None-Match, If-Modified-Since)를 보내고, 변경 없음(304)이면
+     * 캐시를 사용한다. 새 카탈로그는 응답 스트림에서 바로 포맷을 읽고 검증자와 함께 캐시에 저장한다.
+     */
+    private CompletableFuture<List<LogFormat>> fetchCatalogAsync(String url, String failureMessage) {
+        PersistentCacheManager cache = catalogCache != null && catalogCache.isEnabled() ? catalogCache : null;
+        return executeRequestWithRetry(() -> {
+            HttpGet request = new HttpGet(url);
+            addHeaders(request);
+            PersistentCacheManager.CatalogValidators validators =
+                cache != null ? cache.getRemoteCatalogValidators(url) : null;
+            if (validators != null) {
+                if (validators.getEtag() != null) {
+                    request.addHeader(HttpHeaders.IF_NONE_MATCH, validators.getEtag());
+                }
+                if (validators.getLastModified() != null) {
+                    request.addHeader(HttpHeaders.IF_MODIFIED_SINCE, validators.getLastModified());
+                }
+            }
+            return request;
+        }, response -> {
+            if (response.getStatusLine().getStatusCode() == HttpStatus.SC_NOT_MODIFIED) {
+                List<LogFormat> cached = cache != null ? cache.loadRemoteCatalog(url) : null;
+                if (cached == null) {
+                    // 다음 시도는 검증자 없이 전체 카탈로그 요청
+                    if (cache != null) {
+                        cache.removeRemoteCatalog(url);
+                    }
+                    throw new IOException("변경 없음 응답을 받았지만 캐시된 카탈로그를 읽을 수 없습니다");
+                }
+                logger.info("카탈로그가 변경되지 않아 캐시를 사용합니다: {}", url);
+                return cached;
+            }
+            
+            List<LogFormat> formats = new ArrayList<>();
+            readEnvelope(response.getEntity(), LogFormat.class, failureMessage, formats::add);
+            if (cache != null) {
+                cache.saveRemoteCatalog(url, formats, headerValue(response, HttpHeaders.ETAG),
+                    headerValue(response, HttpHeaders.LAST_MODIFIED));
+            }
+            return formats;
+        });
+    }
+    
+    private static String headerValue(HttpResponse response, String name) {
+        Header header = response.getFirstHeader(name);
+        return header != null ? header.getValue() : null;
     }
     
     /**
      * 로그 포맷 추천 요청
      */
     public List<FormatRecommendation> recommendFormats(LogFormatRequest request) throws IOException {
+        return await(recommendFormatsAsync(request));
+    }
+    
+    /**
+     * 로그 포맷 추천 요청 (비동기)
+     * 반환된 결과를 취소하면 진행 중인 요청을 끊고 남은 재시도도 보내지 않는다. 응답 캐시를 거친 요청은 다른 호출자와 함께 쓰므로
+     * 취소해도 요청은 끝까지 진행되어 캐시에 저장된다.
+     */
+    public CompletableFuture<List<FormatRecommendation>> recommendFormatsAsync(LogFormatRequest request) {
+        return recommendFormatsAsync(request, true);
+    }
+    
+    /**
+     * 로그 포맷 추천 요청 (비동기)
+     * @param request 추천 요청
+     * @param useCache false이면 응답 캐시를 거치지 않고 항상 새 요청을 보냄 (같은 요청을 다시 보내는 백업 요청 등)
+     */
+    public CompletableFuture<List<FormatRecommendation>> recommendFormatsAsync(LogFormatRequest request,
+                                                                              boolean useCache) {
+        if (useCache && responseCache != null) {
+            return cached(CacheManager.RECOMMENDATIONS, fingerprint("recommend", request),
+                () -> sendRecommendation(request).thenApply(Collections::unmodifiableList));
+        }
+        return sendRecommendation(request);
+    }
+    
+    private CompletableFuture<List<FormatRecommendation>> sendRecommendation(LogFormatRequest request) {
         // API 호출
         String url = baseUrl + "/api/v1/recommend";
-        ApiResponse<List<FormatRecommendation>> response = executePostRequest(url, request,
-                new TypeReference<ApiResponse<List<FormatRecommendation>>>() {});
+        CompletableFuture<ApiResponse<List<FormatRecommendation>>> call = executePostRequestAsync(url, request,
+                jsonReader(new TypeReference<ApiResponse<List<FormatRecommendation>>>() {}));
+        return cancelling(call.thenApply(response -> {
+                if (response.isSuccess() && response.getData() != null) {
+                    return response.getData();
+                }
+                throw new CompletionException(new IOException("로그 포맷 추천 실패: " + response.getMessage()));
+            }), call);
+    }
+    
+    /**
+     * 샘플 배치 추천
+     * 샘플을 배치 단위로 나누어 동시에 요청하고, 응답의 샘플별 결과를 샘플 인덱스 위치에 모은다.
+     * @param request 추천 요청 (필터, 결과 수는 모든 분할 요청에 그대로 사용)
+     * @return 입력 샘플 순서와 같은 순서의 샘플별 추천 결과
+     */
+    public List<List<FormatRecommendation>> recommendBatch(LogFormatRequest request) throws IOException {
+        return await(recommendBatchAsync(request));
+    }
+    
+    /**
+     * 샘플 배치 추천 (비동기)
+     * 응답 캐시가 있으면 같은 배치 요청의 결과를 캐시에서 돌려준다.
+     */
+    public CompletableFuture<List<List<FormatRecommendation>>> recommendBatchAsync(LogFormatRequest request) {
+        if (responseCache != null) {
+            return cached(CacheManager.API_RESPONSES, fingerprint("batch", request),
+                () -> recommendBatchAsync(request, null).thenApply(Collections::unmodifiableList));
+        }
+        return recommendBatchAsync(request, null);
+    }
+    
+    /**
+     * 샘플 배치 추천 (비동기, 샘플별 결과를 받는 즉시 전달)
+     * @param request 추천 요청
+     * @param listener 샘플별 결과 수신기 (전송 스레드에서 호출되며, 재시도된 분할 요청의 샘플은 다시 전달될 수 있음)
+     * @return 입력 샘플 순서와 같은 순서의 샘플별 추천 결과
+     */
+    public CompletableFuture<List<List<FormatRecommendation>>> recommendBatchAsync(LogFormatRequest request,
+                                                                                  SampleResultListener listener) {
+        List<String> samples = request.getLogSamples() != null
+            ? request.getLogSamples() : Collections.<String>emptyList();
+        AtomicReferenceArray<List<FormatRecommendation>> slots = new AtomicReferenceArray<>(samples.size());
+        SampleResultListener sink = (index, recommendations) -> {
+            slots.set(index, recommendations);
+            if (listener != null) {
+                listener.onResult(index, recommendations);
+            }
+        };
         
-        if (response.isSuccess() && response.getData() != null) {
-            return response.getData();
+        List<CompletableFuture<Void>> chunks = new ArrayList<>();
+        for (int from = 0; from < samples.size(); from += batchChunkSize) {
+            int to = Math.min(samples.size(), from + batchChunkSize);
+            LogFormatRequest chunk = copyWithSamples(request, samples.subList(from, to));
+            chunk.setSampleOffset(from);
+            chunks.add(recommendChunkAsync(chunk, sink));
         }
         
-        throw new IOException("로그 포맷 추천 실패: " + response.getMessage());
+        return cancelling(CompletableFuture.allOf(chunks.toArray(new CompletableFuture<?>[0]))
+            .thenApply(ignored -> {
+                List<List<FormatRecommendation>> results = new ArrayList<>(samples.size());
+                for (int i = 0; i < samples.size(); i++) {
+                    results.add(slots.get(i));
+                }
+                return results;
+            }), chunks.toArray(new CompletableFuture<?>[0]));
     }
     
     /**
-     * GET 요청 실행
+     * 결과가 취소되면 그 결과를 만드는 요청도 취소 (CompletableFuture는 취소를 앞 단계로 전달하지 않음)
      */
-    private <T> T executeGetRequest(String url, TypeReference<T> typeRef) throws IOException {
-        HttpGet request = new HttpGet(url);
-        addHeaders(request);
+    private static <T> CompletableFuture<T> cancelling(CompletableFuture<T> result, CompletableFuture<?>... sources) {
+        result.whenComplete((value, error) -> {
+            if (result.isCancelled()) {
+                for (CompletableFuture<?> source : sources) {
+                    source.cancel(true);
+                }
+            }
+        });
+        return result;
+    }
+    
+    /**
+     * 분할 요청 하나 추천
+     * 샘플별 배치 추천을 지원하지 않는 서버(404, 405)에는 요청 단위 추천을 보내 그 결과를 모든 샘플에 사용한다.
+     */
+    private CompletableFuture<Void> recommendChunkAsync(LogFormatRequest chunk, SampleResultListener sink) {
+        if (perSampleUnsupported) {
+            return recommendWholeChunkAsync(chunk, sink);
+        }
         
-        return executeRequestWithRetry(request, typeRef);
+        String url = baseUrl + "/api/v1/recommend/batch";
+        int offset = chunk.getSampleOffset();
+        int count = chunk.getLogSamples().size();
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        CompletableFuture<Void> call = executePostRequestAsync(url, chunk, response -> {
+            readSampleResults(response.getEntity(), offset, count, sink);
+            return null;
+        });
+        call.whenComplete((ignored, error) -> {
+            if (error == null) {
+                result.complete(null);
+            } else if (result.isDone()) {
+                return;
+            } else if (error instanceof ClientErrorException
+                    && (((ClientErrorException) error).getStatusCode() == 404
+                        || ((ClientErrorException) error).getStatusCode() == 405)) {
+                if (!perSampleUnsupported) {
+                    perSampleUnsupported = true;
+                    logger.warn("서버가 샘플별 배치 추천을 지원하지 않아 요청 단위 추천을 사용합니다");
+                }
+                recommendWholeChunkAsync(chunk, sink).whenComplete((value, fallbackError) -> {
+                    if (fallbackError == null) {
+                        result.complete(null);
+                    } else {
+                        result.completeExceptionally(fallbackError);
+                    }
+                });
+            } else {
+                result.completeExceptionally(error);
+            }
+        });
+        return cancelling(result, call);
+    }
+    
+    private CompletableFuture<Void> recommendWholeChunkAsync(LogFormatRequest chunk, SampleResultListener sink) {
+        return recommendFormatsAsync(chunk).thenAccept(recommendations -> {
+            for (int i = 0; i < chunk.getLogSamples().size(); i++) {
+                sink.onResult(chunk.getSampleOffset() + i, recommendations);
+            }
+        });
     }
     
     /**
-     * POST 요청 실행
+     * 배치 추천 응답을 스트리밍으로 읽어 샘플별 결과를 전달
+     * 응답 전체를 문자열로 만들지 않고 data 배열의 항목을 하나씩 읽는다.
+     * @param offset 요청한 첫 샘플의 인덱스
+     * @param count 요청한 샘플 수 (모든 샘플의 결과가 와야 성공)
      */
-    private <T> T executePostRequest(String url, Object body, TypeReference<T> typeRef) throws IOException {
-        HttpPost request = new HttpPost(url);
-        addHeaders(request);
+    private static void readSampleResults(HttpEntity entity, int offset, int count, SampleResultListener sink)
+            throws IOException {
+        boolean[] received = new boolean[count];
+        int[] receivedCount = new int[1];
         
-        // 요청 본문 설정
-        String jsonBody = JacksonJsonUtils.toJson(body);
-        StringEntity entity = new StringEntity(jsonBody, ContentType.APPLICATION_JSON);
-        request.setEntity(entity);
+        readEnvelope(entity, SampleResult.class, "로그 포맷 추천 실패", sample -> {
+            int index = sample.getSampleIndex();
+            if (index < offset || index >= offset + count) {
+                throw new IOException("요청 범위를 벗어난 샘플 인덱스: " + index);
+            }
+            if (sample.getError() != null) {
+                logger.debug("샘플 {} 추천 실패: {}", index, sample.getError());
+            }
+            if (!received[index - offset]) {
+                received[index - offset] = true;
+                receivedCount[0]++;
+            }
+            sink.onResult(index, sample.getRecommendations() != null
+                ? sample.getRecommendations() : Collections.<FormatRecommendation>emptyList());
+        });
         
-        return executeRequestWithRetry(request, typeRef);
+        if (receivedCount[0] < count) {
+            throw new IOException("샘플별 결과 누락: " + (count - receivedCount[0]) + "개");
+        }
     }
     
     /**
-     * 재시도 로직을 포함한 요청 실행
+     * API 응답 봉투를 스트리밍으로 읽어 data 배열의 항목을 하나씩 전달
+     * 응답 본문을 문자열로 만들지 않으므로 큰 응답도 메모리에 두 번 올라가지 않는다.
+     * @param failureMessage success가 false일 때 오류 메시지 앞부분
      */
-    private <T> T executeRequestWithRetry(HttpUriRequest request, TypeReference<T> typeRef) throws IOException {
-        IOException lastException = null;
+    private static <E> void readEnvelope(HttpEntity entity, Class<E> elementType, String failureMessage,
+                                         ElementSink<E> sink) throws IOException {
+        if (entity == null) {
+            throw new IOException("응답 본문이 비어있습니다");
+        }
         
-        for (int attempt = 1; attempt <= MAX_RETRIES; attempt++) {
-            try {
-                return executeRequest(request, typeRef);
-            } catch (IOException e) {
-                lastException = e;
-                logger.warn("API 요청 실패 (시도 {}/{}): {}", attempt, MAX_RETRIES, e.getMessage());
-                
-                if (attempt < MAX_RETRIES) {
-                    try {
-                        TimeUnit.MILLISECONDS.sleep(RETRY_DELAY_MS * attempt);
-                    } catch (InterruptedException ie) {
-                        Thread.currentThread().interrupt();
-                        throw new IOException("재시도 중 인터럽트 발생", ie);
+        ObjectMapper mapper = JacksonJsonUtils.getMapper();
+        boolean success = false;
+        boolean hasData = false;
+        String message = null;
+        
+        try (InputStream in = entity.getContent();
+             JsonParser parser = mapper.getFactory().createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("API 응답 형식 오류");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if ("data".equals(field) && value == JsonToken.START_ARRAY) {
+                    hasData = true;
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        sink.accept(mapper.readValue(parser, elementType));
                     }
+                } else if ("success".equals(field)) {
+                    success = parser.getValueAsBoolean();
+                } else if ("message".equals(field)) {
+                    message = parser.getValueAsString();
+                } else {
+                    parser.skipChildren();
                 }
             }
         }
         
-        throw new IOException("API 요청 실패 (최대 재시도 횟수 초과)", lastException);
+        if (!success || !hasData) {
+            throw new IOException(failureMessage + ": " + message);
+        }
+    }
+    
+    /**
+     * 샘플만 바꾼 요청 사본
+     */
+    private static LogFormatRequest copyWithSamples(LogFormatRequest source, List<String> samples) {
+        LogFormatRequest copy = new LogFormatRequest(new ArrayList<>(samples));
+        copy.setGroupFilter(source.getGroupFilter());
+        copy.setVendorFilter(source.getVendorFilter());
+        copy.setTopN(source.getTopN());
+        copy.setIncludeMetadata(source.isIncludeMetadata());
+        copy.setParallelProcessing(source.isParallelProcessing());
+        return copy;
+    }
+    
+    /**
+     * POST 요청 실행 (비동기)
+     */
+    private <T> CompletableFuture<T> executePostRequestAsync(String url, Object body, ResponseReader<T> reader) {
+        // 요청 본문은 한 번만 직렬화(압축)하고 시도마다 새 요청을 만듦
+        byte[] content;
+        boolean gzipped;
+        try {
+            content = JacksonJsonUtils.toJsonCompact(body).getBytes(StandardCharsets.UTF_8);
+            gzipped = content.length >= GZIP_MIN_BYTES;
+            if (gzipped) {
+                content = gzip(content);
+            }
+        } catch (IOException | RuntimeException e) {
+            CompletableFuture<T> failed = new CompletableFuture<>();
+            failed.completeExceptionally(new IOException("요청 본문 직렬화 실패", e));
+            return failed;
+        }
+        
+        byte[] requestBody = content;
+        return executeRequestWithRetry(() -> {
+            HttpPost request = new HttpPost(url);
+            addHeaders(request);
+            ByteArrayEntity entity = new ByteArrayEntity(requestBody, ContentType.APPLICATION_JSON);
+            if (gzipped) {
+                entity.setContentEncoding("gzip");
+            }
+            request.setEntity(entity);
+            return request;
+        }, reader);
+    }
+    
+    /**
+     * gzip 압축
+     */
+    static byte[] gzip(byte[] content) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, content.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(content);
+        }
+        return out.toByteArray();
+    }
+    
+    /**
+     * 응답 본문 전체를 JSON으로 읽는 응답 처리기
+     */
+    private static <T> ResponseReader<T> jsonReader(TypeReference<T> typeRef) {
+        return response -> {
+            HttpEntity entity = response.getEntity();
+            if (entity == null) {
+                throw new IOException("응답 본문이 비어있습니다");
+            }
+            String responseBody = EntityUtils.toString(entity, StandardCharsets.UTF_8);
+            logger.debug("API 응답: {}", responseBody);
+            return JacksonJsonUtils.fromJson(responseBody, typeRef);
+        };
+    }
+    
+    /**
+     * 재시도 로직을 포함한 요청 실행
+     * 실패한 시도는 지터를 준 지수 백오프 후 다시 전송하도록 예약한다 (대기 중에는 스레드를 점유하지 않음).
+     * 인증 실패 등 클라이언트 오류(4xx, 429 제외)는 재시도하지 않는다.
+     */
+    private <T> CompletableFuture<T> executeRequestWithRetry(Supplier<HttpUriRequest> requestFactory,
+                                                             ResponseReader<T> reader) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        attempt(requestFactory, reader, 1, result);
+        return result;
+    }
+    
+    private <T> void attempt(Supplier<HttpUriRequest> requestFactory, ResponseReader<T> reader,
+                             int attempt, CompletableFuture<T> result) {
+        if (result.isDone()) {
+            // 호출 측이 취소함
+            return;
+        }
+        // 호출 측이 취소하면 진행 중인 요청을 끊어 전송 스레드와 연결을 소켓 제한 시간까지 붙잡지 않음
+        AtomicReference<HttpUriRequest> inFlight = new AtomicReference<>();
+        result.whenComplete((value, error) -> {
+            HttpUriRequest request = inFlight.get();
+            if (result.isCancelled() && request != null) {
+                request.abort();
+            }
+        });
+        CompletableFuture<T> call;
+        try {
+            call = CompletableFuture.supplyAsync(() -> {
+                HttpUriRequest request = requestFactory.get();
+                inFlight.set(request);
+                if (result.isCancelled()) {
+                    request.abort();
+                }
+                try {
+                    return executeRequest(request, reader);
+                } catch (IOException e) {
+                    throw new CompletionException(e);
+                }
+            }, transport);
+        } catch (RejectedExecutionException e) {
+            result.completeExceptionally(new IOException("API 클라이언트가 종료되었습니다", e));
+            return;
+        }
+        
+        call.whenComplete((value, error) -> {
+            if (error == null) {
+                result.complete(value);
+                return;
+            }
+            if (result.isDone()) {
+                return;
+            }
+            Throwable cause = error instanceof CompletionException && error.getCause() != null
+                ? error.getCause() : error;
+            if (cause instanceof ClientErrorException) {
+                result.completeExceptionally(cause);
+                return;
+            }
+            
+            logger.warn("API 요청 실패 (시도 {}/{}): {}", attempt, MAX_RETRIES, cause.getMessage());
+            if (attempt >= MAX_RETRIES) {
+                result.completeExceptionally(new IOException("API 요청 실패 (최대 재시도 횟수 초과)", cause));
+                return;
+            }
+            try {
+                retryScheduler.schedule(() -> attempt(requestFactory, reader, attempt + 1, result),
+                    backoffDelay(attempt), TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                result.completeExceptionally(new IOException("API 클라이언트가 종료되었습니다", cause));
+            }
+        });
+    }
+    
+    /**
+     * 재시도 대기 시간 (full jitter: 0 ~ min(상한, 기본값 * 2^(시도-1)) 사이 임의 값)
+     * 여러 요청이 동시에 실패해도 재시도가 한꺼번에 몰리지 않는다.
+     * @param attempt 실패한 시도 번호 (1부터)
+     */
+    static long backoffDelay(int attempt) {
+        long ceiling = Math.min(MAX_RETRY_DELAY_MS, RETRY_DELAY_MS << Math.min(attempt - 1, 20));
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+    
+    /**
+     * 비동기 결과 기다리기 (요청 실패는 IOException으로 다시 던짐)
+     */
+    private static <T> T await(CompletableFuture<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IOException("API 요청 중 인터럽트 발생", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException("API 요청 실패", cause);
+        }
     }
     
     /**
      * 실제 HTTP 요청 실행
      */
-    private <T> T executeRequest(HttpUriRequest request, TypeReference<T> typeRef) throws IOException {
+    private <T> T executeRequest(HttpUriRequest request, ResponseReader<T> reader) throws IOException {
         logger.debug("API 요청: {} {}", request.getMethod(), request.getURI());
         
         HttpResponse response = httpClient.execute(request);
         try {
             int statusCode = response.getStatusLine().getStatusCode();
-            HttpEntity entity = response.getEntity();
             
+            if ((statusCode >= 200 && statusCode < 300) || statusCode == HttpStatus.SC_NOT_MODIFIED) {
+                // 성공 응답 (변경 없음은 조건부 요청을 보낸 처리기만 받음)
+                return reader.read(response);
+            }
+            
+            HttpEntity entity = response.getEntity();
             if (entity == null) {
                 throw new IOException("응답 본문이 비어있습니다");
             }
             
-            String responseBody = EntityUtils.toString(entity);
+            String responseBody = EntityUtils.toString(entity, StandardCharsets.UTF_8);
             logger.debug("API 응답 ({}): {}", statusCode, responseBody);
             
-            if (statusCode >= 200 && statusCode < 300) {
-                // 성공 응답
-                return JacksonJsonUtils.fromJson(responseBody, typeRef);
-            } else if (statusCode == 401) {
-                throw new IOException("인증 실패: API 키를 확인하세요");
+            if (statusCode == 401) {
+                throw new ClientErrorException(statusCode, "인증 실패: API 키를 확인하세요");
             } else if (statusCode == 429) {
                 throw new IOException("요청 제한 초과: 잠시 후 다시 시도하세요");
             } else {
-                // 오류 응답 파싱 시도
-                try {
-                    ApiResponse<?> errorResponse = JacksonJsonUtils.fromJson(responseBody, 
-                            new TypeReference<ApiResponse<?>>() {});
-                    throw new IOException("API 오류 (" + statusCode + "): " + errorResponse.getMessage());
-                } catch (Exception e) {
-                    throw new IOException("API 오류 (" + statusCode + "): " + responseBody);
+                String message = "API 오류 (" + statusCode + "): " + errorMessage(responseBody);
+                if (statusCode >= 400 && statusCode < 500) {
+                    throw new ClientErrorException(statusCode, message);
                 }
+                throw new IOException(message);
             }
         } finally {
             if (response instanceof CloseableHttpResponse) {
@@ -217,6 +765,66 @@ public class LogFormatApiClient implements AutoCloseable {
         }
     }
     
+    /**
+     * 오류 응답 메시지 (API 응답 형식이 아니면 본문 그대로)
+     */
+    private static String errorMessage(String responseBody) {
+        try {
+            ApiResponse<?> errorResponse = JacksonJsonUtils.fromJson(responseBody,
+                    new TypeReference<ApiResponse<?>>() {});
+            if (errorResponse != null && errorResponse.getMessage() != null) {
+                return errorResponse.getMessage();
+            }
+        } catch (Exception e) {
+            // 파싱 실패 시 본문 사용
+        }
+        return responseBody;
+    }
+    
+    /**
+     * 다시 보내도 결과가 같은 클라이언트 오류 (재시도하지 않음)
+     */
+    private static class ClientErrorException extends IOException {
+        private final int statusCode;
+        
+        ClientErrorException(int statusCode, String message) {
+            super(message);
+            this.statusCode = statusCode;
+        }
+        
+        int getStatusCode() {
+            return statusCode;
+        }
+    }
+    
+    /**
+     * 성공 응답 처리기
+     */
+    @FunctionalInterface
+    private interface ResponseReader<T> {
+        T read(HttpResponse response) throws IOException;
+    }
+    
+    /**
+     * 응답 data 배열 항목 처리기
+     */
+    @FunctionalInterface
+    private interface ElementSink<E> {
+        void accept(E element) throws IOException;
+    }
+    
+    /**
+     * 샘플별 추천 결과 수신기
+     */
+    @FunctionalInterface
+    public interface SampleResultListener {
+        /**
+         * @param sampleIndex 원래 배치에서의 샘플 위치
+         * @param recommendations 추천 결과 (매칭 없으면 빈 목록)
+         */
+        void onResult(int sampleIndex, List<FormatRecommendation> recommendations);
+    }
+    
     /**
      * 요청 헤더 추가
      */
@@ -254,6 +862,10 @@ public class LogFormatApiClient implements AutoCloseable {
      */
     @Override
     public void close() throws Exception {
+        // 전송 중인 요청은 끝낸 뒤 연결 풀 종료 (예약된 재시도는 전송이 거부되어 실패로 끝남)
+        retryScheduler.shutdown();
+        transport.shutdown();
+        transport.awaitTermination(SOCKET_TIMEOUT, TimeUnit.MILLISECONDS);
         if (httpClient != null) {
             httpClient.close();
             logger.info("API 클라이언트 종료");
@@ -1,5 +1,7 @@
 package com.logcenter.recommender.api.cache;
 
+import com.github.benmanes.caffeine.cache.AsyncCacheLoader;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
 import com.github.benmanes.caffeine.cache.RemovalCause;
@@ -7,25 +9,36 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
 
 /**
  * 캐시 관리자
  * Caffeine 캐시를 사용하여 API 응답을 캐싱
+ * 캐시는 읽기 통과(read-through) 방식으로도 쓸 수 있다. 같은 키를 동시에 요청하면 한 번만 불러오고,
+ * 갱신 주기가 지난 항목은 기존 값을 바로 돌려주면서 백그라운드에서 다시 불러온다.
  */
 public class CacheManager {
     
     private static final Logger logger = LoggerFactory.getLogger(CacheManager.class);
     
     // 캐시 이름별 캐시 인스턴스 관리
-    private final Map<String, Cache<String, Object>> caches = new ConcurrentHashMap<>();
+    private final Map<String, AsyncLoadingCache<LoadKey, Object>> caches = new ConcurrentHashMap<>();
     
     // 기본 캐시 설정
     private static final long DEFAULT_MAX_SIZE = 1000;
     private static final long DEFAULT_EXPIRE_MINUTES = 60;
     
+    // 기본 캐시 이름
+    public static final String LOG_FORMATS = "logFormats";
+    public static final String API_RESPONSES = "apiResponses";
+    public static final String RECOMMENDATIONS = "recommendations";
+    
     // 싱글톤 인스턴스
     private static CacheManager instance;
     
@@ -48,32 +61,65 @@ public class CacheManager {
      * 기본 캐시 초기화
      */
     private void initializeDefaultCaches() {
-        // 로그 포맷 목록 캐시 (24시간)
-        createCache("logFormats", 100, Duration.ofHours(24));
+        // 로그 포맷 목록 캐시 (24시간, 1시간마다 갱신)
+        createCache(LOG_FORMATS, 100, Duration.ofHours(24), Duration.ofHours(1));
         
-        // API 응답 캐시 (1시간)
-        createCache("apiResponses", 1000, Duration.ofHours(1));
+        // API 응답 캐시 (1시간, 10분마다 갱신)
+        createCache(API_RESPONSES, 1000, Duration.ofHours(1), Duration.ofMinutes(10));
         
-        // 추천 결과 캐시 (30분)
-        createCache("recommendations", 500, Duration.ofMinutes(30));
+        // 추천 결과 캐시 (30분, 5분마다 갱신)
+        createCache(RECOMMENDATIONS, 500, Duration.ofMinutes(30), Duration.ofMinutes(5));
     }
     
     /**
      * 새로운 캐시 생성
      */
     public void createCache(String name, long maxSize, Duration expireAfter) {
-        Cache<String, Object> cache = Caffeine.newBuilder()
+        createCache(name, maxSize, expireAfter, null);
+    }
+    
+    /**
+     * 새로운 캐시 생성 (갱신 주기 지정)
+     * @param refreshAfter 이 시간이 지난 항목은 다음 조회 때 기존 값을 돌려주고 백그라운드에서 다시 불러옴 (null이면 갱신 안 함)
+     */
+    public void createCache(String name, long maxSize, Duration expireAfter, Duration refreshAfter) {
+        Caffeine<Object, Object> builder = Caffeine.newBuilder()
                 .maximumSize(maxSize)
                 .expireAfterWrite(expireAfter)
-                .recordStats()  // 통계 기록 활성화
-                .removalListener((String key, Object value, RemovalCause cause) -> {
+                .recordStats();  // 통계 기록 활성화
+        if (refreshAfter != null && refreshAfter.compareTo(expireAfter) < 0) {
+            builder.refreshAfterWrite(refreshAfter);
+        }
+        AsyncLoadingCache<LoadKey, Object> cache = builder
+                .removalListener((LoadKey key, Object value, RemovalCause cause) -> {
                     logger.debug("캐시 항목 제거: {} - {}, 원인: {}", name, key, cause);
                 })
-                .build();
+                .buildAsync(new KeyLoader());
         
         caches.put(name, cache);
-        logger.info("캐시 생성: {} (최대 크기: {}, 만료 시간: {})", 
-                name, maxSize, expireAfter);
+        logger.info("캐시 생성: {} (최대 크기: {}, 만료 시간: {}, 갱신 주기: {})", 
+                name, maxSize, expireAfter, refreshAfter);
+    }
+    
+    /**
+     * 캐시를 거쳐 값 조회 (없으면 불러와서 저장)
+     * 같은 키를 불러오는 중이면 그 결과를 함께 기다리고, 실패한 결과는 저장하지 않는다.
+     * 반환된 결과를 취소해도 함께 기다리는 다른 호출자의 불러오기는 취소되지 않는다.
+     * @param cacheName 캐시 이름
+     * @param key 캐시 키
+     * @param loader 값을 불러오는 작업 (갱신 때도 다시 사용)
+     * @return 값
+     */
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> getAsync(String cacheName, String key,
+                                             Supplier<? extends CompletableFuture<? extends T>> loader) {
+        AsyncLoadingCache<LoadKey, Object> cache = caches.get(cacheName);
+        if (cache == null) {
+            logger.warn("존재하지 않는 캐시: {}", cacheName);
+            return (CompletableFuture<T>) loader.get();
+        }
+        
+        return cache.get(new LoadKey(key, loader)).thenApply(value -> (T) value);
     }
     
     /**
@@ -81,26 +127,26 @@ public class CacheManager {
      */
     @SuppressWarnings("unchecked")
     public <T> T get(String cacheName, String key) {
-        Cache<String, Object> cache = caches.get(cacheName);
+        Cache<LoadKey, Object> cache = synchronous(cacheName);
         if (cache == null) {
             logger.warn("존재하지 않는 캐시: {}", cacheName);
             return null;
         }
         
-        return (T) cache.getIfPresent(key);
+        return (T) cache.getIfPresent(new LoadKey(key, null));
     }
     
     /**
      * 캐시에 값 저장
      */
     public void put(String cacheName, String key, Object value) {
-        Cache<String, Object> cache = caches.get(cacheName);
+        Cache<LoadKey, Object> cache = synchronous(cacheName);
         if (cache == null) {
             logger.warn("존재하지 않는 캐시: {}", cacheName);
             return;
         }
         
-        cache.put(key, value);
+        cache.put(new LoadKey(key, null), value);
         logger.debug("캐시 저장: {} - {}", cacheName, key);
     }
     
@@ -108,13 +154,13 @@ public class CacheManager {
      * 캐시에서 값 제거
      */
     public void evict(String cacheName, String key) {
-        Cache<String, Object> cache = caches.get(cacheName);
+        Cache<LoadKey, Object> cache = synchronous(cacheName);
         if (cache == null) {
             logger.warn("존재하지 않는 캐시: {}", cacheName);
             return;
         }
         
-        cache.invalidate(key);
+        cache.invalidate(new LoadKey(key, null));
         logger.debug("캐시 제거: {} - {}", cacheName, key);
     }
     
@@ -122,7 +168,7 @@ public class CacheManager {
      * 특정 캐시 전체 초기화
      */
     public void clearCache(String cacheName) {
-        Cache<String, Object> cache = caches.get(cacheName);
+        Cache<LoadKey, Object> cache = synchronous(cacheName);
         if (cache == null) {
             logger.warn("존재하지 않는 캐시: {}", cacheName);
             return;
@@ -137,7 +183,7 @@ public class CacheManager {
      */
     public void clearAll() {
         caches.forEach((name, cache) -> {
-            cache.invalidateAll();
+            cache.synchronous().invalidateAll();
             logger.info("캐시 초기화: {}", name);
         });
     }
@@ -146,7 +192,7 @@ public class CacheManager {
      * 캐시 통계 정보
      */
     public CacheStats getStats(String cacheName) {
-        Cache<String, Object> cache = caches.get(cacheName);
+        Cache<LoadKey, Object> cache = synchronous(cacheName);
         if (cache == null) {
             return null;
         }
@@ -163,6 +209,81 @@ public class CacheManager {
         );
     }
     
+    /**
+     * 모든 캐시의 통계 정보
+     */
+    public List<CacheStats> getAllStats() {
+        List<CacheStats> all = new ArrayList<>();
+        for (String name : caches.keySet()) {
+            CacheStats stats = getStats(name);
+            if (stats != null) {
+                all.add(stats);
+            }
+        }
+        return all;
+    }
+    
+    private Cache<LoadKey, Object> synchronous(String cacheName) {
+        AsyncLoadingCache<LoadKey, Object> cache = caches.get(cacheName);
+        return cache != null ? cache.synchronous() : null;
+    }
+    
+    /**
+     * 캐시 키 (불러오기 작업을 함께 들고 있어 갱신 때 다시 사용, 같음 비교는 키 문자열만 사용)
+     */
+    private static final class LoadKey {
+        private final String key;
+        private final Supplier<? extends CompletableFuture<?>> loader;
+        
+        LoadKey(String key, Supplier<? extends CompletableFuture<?>> loader) {
+            this.key = key;
+            this.loader = loader;
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof LoadKey && key.equals(((LoadKey) o).key);
+        }
+        
+        @Override
+        public int hashCode() {
+            return key.hashCode();
+        }
+        
+        @Override
+        public String toString() {
+            return key;
+        }
+    }
+    
+    /**
+     * 키가 가진 작업으로 값을 불러오는 로더 (put으로 저장한 항목은 작업이 없으므로 갱신 때 기존 값 유지)
+     * 작업은 캐시 실행기에서 시작한다. 캐시 내부 갱신 중에 작업이 같은 캐시의 다른 키를 조회할 수 있기 때문이다.
+     */
+    private static final class KeyLoader implements AsyncCacheLoader<LoadKey, Object> {
+        @Override
+        public CompletableFuture<Object> asyncLoad(LoadKey key, Executor executor) {
+            if (key.loader == null) {
+                return CompletableFuture.completedFuture(null);
+            }
+            return start(key, executor);
+        }
+        
+        @Override
+        public CompletableFuture<Object> asyncReload(LoadKey key, Object oldValue, Executor executor) {
+            if (key.loader == null) {
+                return CompletableFuture.completedFuture(oldValue);
+            }
+            return start(key, executor);
+        }
+        
+        @SuppressWarnings("unchecked")
+        private static CompletableFuture<Object> start(LoadKey key, Executor executor) {
+            return CompletableFuture.supplyAsync(key.loader, executor)
+                    .thenCompose(future -> (CompletableFuture<Object>) future);
+        }
+    }
+    
     /**
      * 캐시 통계 정보 클래스
      */
@@ -6,6 +6,7 @@ import java.util.List;
 
 /**
  * API 응답 모델
+ * 배치 추천(/api/v1/recommend/batch)의 data는 샘플별 결과 봉투(List&lt;SampleResult&gt;)이다.
  */
 public class ApiResponse<T> {
     
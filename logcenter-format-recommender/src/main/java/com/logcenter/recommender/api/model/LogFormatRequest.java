@@ -28,6 +28,10 @@ public class LogFormatRequest {
     @JsonProperty("parallel_processing")
     private boolean parallelProcessing = true;
     
+    // 첫 샘플의 원래 배치 내 위치 (분할 요청의 샘플별 결과 인덱스 기준)
+    @JsonProperty("sample_offset")
+    private int sampleOffset = 0;
+    
     public LogFormatRequest() {
     }
     
@@ -95,4 +99,12 @@ public class LogFormatRequest {
     public void setParallelProcessing(boolean parallelProcessing) {
         this.parallelProcessing = parallelProcessing;
     }
+    
+    public int getSampleOffset() {
+        return sampleOffset;
+    }
+    
+    public void setSampleOffset(int sampleOffset) {
+        this.sampleOffset = sampleOffset;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,65 @@
+package com.logcenter.recommender.api.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.logcenter.recommender.model.FormatRecommendation;
+
+import java.util.List;
+
+/**
+ * 샘플별 추천 결과 (배치 추천 응답 data 배열의 항목)
+ */
+public class SampleResult {
+    
+    // 원래 배치에서의 샘플 위치 (요청의 sample_offset 기준)
+    @JsonProperty("sample_index")
+    private int sampleIndex;
+    
+    @JsonProperty("recommendations")
+    private List<FormatRecommendation> recommendations;
+    
+    // 이 샘플만 실패한 경우의 오류 메시지
+    @JsonProperty("error")
+    private String error;
+    
+    public SampleResult() {
+    }
+    
+    public SampleResult(int sampleIndex, List<FormatRecommendation> recommendations) {
+        this.sampleIndex = sampleIndex;
+        this.recommendations = recommendations;
+    }
+    
+    // Getters and Setters
+    public int getSampleIndex() {
+        return sampleIndex;
+    }
+    
+    public void setSampleIndex(int sampleIndex) {
+        this.sampleIndex = sampleIndex;
+    }
+    
+    public List<FormatRecommendation> getRecommendations() {
+        return recommendations;
+    }
+    
+    public void setRecommendations(List<FormatRecommendation> recommendations) {
+        this.recommendations = recommendations;
+    }
+    
+    public String getError() {
+        return error;
+    }
+    
+    public void setError(String error) {
+        this.error = error;
+    }
+    
+    @Override
+    public String toString() {
+        return "SampleResult{" +
+                "sampleIndex=" + sampleIndex +
+                ", recommendations=" + recommendations +
+                ", error='" + error + '\'' +
+                '}';
+    }
+}
\ No newline at end of file
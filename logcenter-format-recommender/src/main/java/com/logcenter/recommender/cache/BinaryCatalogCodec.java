@@ -0,0 +1,513 @@
+package com.logcenter.recommender.cache;
+
+import com.logcenter.recommender.model.LogFormat;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+
+/**
+ * 로그 포맷 카탈로그 바이너리 직렬화
+ *
+ * 파일 구조 (정수는 빅엔디안):
+ * <pre>
+ * 헤더    : MAGIC(4) | 스키마 버전(int) | 본문 길이(int) | 본문 CRC32(int)
+ * 본문    : 문자열 테이블 | 포맷 개수(varint) | 오프셋 인덱스 | 포맷 레코드
+ * 문자열  : 개수(varint) 다음에 [UTF-8 길이(varint) | 바이트] 반복
+ * 인덱스  : 포맷마다 [매칭 구역 오프셋(int) | 상세 구역 오프셋(int)], 본문 시작 기준
+ * 레코드  : 매칭 구역 | 상세 구역
+ *           문자열은 테이블 인덱스+1 (0은 null), 리스트는 개수+1 (0은 null)
+ * </pre>
+ * 매칭 구역에는 매칭에 필요한 값(포맷 정보, Grok 표현식, 필수 필드)만 있고,
+ * 타입 설명, 샘플 로그, 데이터 테이블은 상세 구역에 따로 둔다.
+ * {@link MappedCatalog}는 인덱스로 매칭 구역만 읽고, 상세 구역은 필요할 때 읽는다.
+ * 같은 문자열(필드명, 그룹명, 벤더명 등)은 테이블에 한 번만 저장되고,
+ * 읽을 때도 하나의 String 인스턴스를 공유한다.
+ */
+public final class BinaryCatalogCodec {
+
+    /** 파일 식별자 "LCFC" */
+    static final int MAGIC = 0x4C434643;
+
+    /** 스키마 버전 (LogFormat 필드 구성이나 레코드 구조가 바뀌면 올림) */
+    public static final int SCHEMA_VERSION = 2;
+
+    // 헤더 크기 (MAGIC, 버전, 길이, CRC)
+    static final int HEADER_BYTES = 16;
+
+    // 인덱스 항목 크기 (매칭 오프셋, 상세 오프셋)
+    static final int INDEX_ENTRY_BYTES = 8;
+
+    private BinaryCatalogCodec() {
+    }
+
+    /**
+     * 카탈로그 쓰기
+     * @param formats 로그 포맷 목록
+     * @param out 출력 스트림 (닫지 않음)
+     */
+    public static void write(List<LogFormat> formats, OutputStream out) throws IOException {
+        StringTable strings = new StringTable();
+        ByteArrayOutputStream recordBytes = new ByteArrayOutputStream(256 * 1024);
+        DataOutputStream records = new DataOutputStream(recordBytes);
+
+        int[] matchOffsets = new int[formats.size()];
+        int[] detailOffsets = new int[formats.size()];
+        for (int i = 0; i < formats.size(); i++) {
+            LogFormat format = formats.get(i);
+            matchOffsets[i] = records.size();
+            writeMatching(records, strings, format);
+            detailOffsets[i] = records.size();
+            writeDetail(records, strings, format);
+        }
+        records.flush();
+
+        ByteArrayOutputStream prefixBytes = new ByteArrayOutputStream(128 * 1024);
+        DataOutputStream prefix = new DataOutputStream(prefixBytes);
+        strings.writeTo(prefix);
+        writeVarInt(prefix, formats.size());
+        int recordStart = prefix.size() + formats.size() * INDEX_ENTRY_BYTES;
+        for (int i = 0; i < formats.size(); i++) {
+            prefix.writeInt(recordStart + matchOffsets[i]);
+            prefix.writeInt(recordStart + detailOffsets[i]);
+        }
+        prefix.flush();
+
+        CRC32 crc = new CRC32();
+        crc.update(prefixBytes.toByteArray());
+        crc.update(recordBytes.toByteArray());
+
+        DataOutputStream header = new DataOutputStream(out);
+        header.writeInt(MAGIC);
+        header.writeInt(SCHEMA_VERSION);
+        header.writeInt(prefixBytes.size() + recordBytes.size());
+        header.writeInt((int) crc.getValue());
+        prefixBytes.writeTo(out);
+        recordBytes.writeTo(out);
+        out.flush();
+    }
+
+    /**
+     * 카탈로그 읽기 (전체 포맷)
+     * 스트림을 한 번만 순회하며, 끝에서 길이와 체크섬을 확인한다.
+     * @param in 입력 스트림 (닫지 않음)
+     * @return 로그 포맷 목록
+     * @throws IOException 형식, 버전, 길이 또는 체크섬이 맞지 않는 경우
+     */
+    public static List<LogFormat> read(InputStream in) throws IOException {
+        DataInputStream header = new DataInputStream(in);
+        int payloadLength = readHeader(header.readInt(), header.readInt(), header.readInt());
+        int expectedCrc = header.readInt();
+
+        CountingInputStream counted = new CountingInputStream(
+            new BufferedInputStream(in, 64 * 1024), payloadLength);
+        CheckedInputStream checked = new CheckedInputStream(counted, new CRC32());
+        StreamInput data = new StreamInput(new DataInputStream(checked), payloadLength);
+
+        data.strings = readStringTable(data.in, payloadLength);
+        int formatCount = readVarInt(data.in);
+        if (formatCount < 0 || formatCount > payloadLength / INDEX_ENTRY_BYTES) {
+            throw new IOException("잘못된 포맷 개수: " + formatCount);
+        }
+        int[] offsets = new int[formatCount * 2];
+        for (int i = 0; i < offsets.length; i++) {
+            offsets[i] = data.in.readInt();
+        }
+
+        List<LogFormat> formats = new ArrayList<>(formatCount);
+        for (int i = 0; i < formatCount; i++) {
+            checkOffset(offsets[i * 2], counted.getCount());
+            LogFormat format = readMatching(data);
+            checkOffset(offsets[i * 2 + 1], counted.getCount());
+            readDetail(data, format);
+            formats.add(format);
+        }
+
+        if (counted.getCount() != payloadLength) {
+            throw new IOException("본문 길이 불일치: " + counted.getCount() + " != " + payloadLength);
+        }
+        if ((int) checked.getChecksum().getValue() != expectedCrc) {
+            throw new IOException("카탈로그 캐시 체크섬 불일치");
+        }
+        return formats;
+    }
+
+    /**
+     * 헤더 확인
+     * @return 본문 길이
+     */
+    static int readHeader(int magic, int version, int payloadLength) throws IOException {
+        if (magic != MAGIC) {
+            throw new IOException("카탈로그 캐시 형식이 아닙니다");
+        }
+        if (version != SCHEMA_VERSION) {
+            throw new IOException("지원하지 않는 카탈로그 캐시 버전: " + version);
+        }
+        if (payloadLength < 0) {
+            throw new IOException("잘못된 본문 길이: " + payloadLength);
+        }
+        return payloadLength;
+    }
+
+    private static void checkOffset(int expected, long actual) throws IOException {
+        if (expected != actual) {
+            throw new IOException("레코드 오프셋 불일치: " + expected + " != " + actual);
+        }
+    }
+
+    private static void writeMatching(DataOutputStream out, StringTable strings, LogFormat format)
+            throws IOException {
+        writeString(out, strings, format.getFormatId());
+        writeString(out, strings, format.getFormatName());
+        writeString(out, strings, format.getFormatVersion());
+        writeString(out, strings, format.getGroupName());
+        writeString(out, strings, format.getGroupId());
+        writeString(out, strings, format.getVendor());
+        writeString(out, strings, format.getModel());
+        writeString(out, strings, format.getSmType());
+        writeString(out, strings, format.getGrokPattern());
+
+        List<String> requiredFields = format.getRequiredFields();
+        writeCount(out, requiredFields);
+        if (requiredFields != null) {
+            for (String field : requiredFields) {
+                writeString(out, strings, field);
+            }
+        }
+
+        List<LogFormat.LogType> logTypes = format.getLogTypes();
+        writeCount(out, logTypes);
+        if (logTypes == null) {
+            return;
+        }
+        for (LogFormat.LogType logType : logTypes) {
+            writeString(out, strings, logType.getTypeName());
+            List<LogFormat.Pattern> patterns = logType.getPatterns();
+            writeCount(out, patterns);
+            if (patterns == null) {
+                continue;
+            }
+            for (LogFormat.Pattern pattern : patterns) {
+                writeString(out, strings, pattern.getExpName());
+                writeString(out, strings, pattern.getGrokExp());
+                writeString(out, strings, pattern.getOrder());
+            }
+        }
+    }
+
+    private static void writeDetail(DataOutputStream out, StringTable strings, LogFormat format)
+            throws IOException {
+        // 로그 타입/패턴 순서는 매칭 구역과 같음
+        if (format.getLogTypes() == null) {
+            return;
+        }
+        for (LogFormat.LogType logType : format.getLogTypes()) {
+            writeString(out, strings, logType.getTypeDescription());
+            if (logType.getPatterns() == null) {
+                continue;
+            }
+            for (LogFormat.Pattern pattern : logType.getPatterns()) {
+                writeString(out, strings, pattern.getSampleLog());
+                List<LogFormat.DataTable> dataTable = pattern.getDataTable();
+                writeCount(out, dataTable);
+                if (dataTable == null) {
+                    continue;
+                }
+                for (LogFormat.DataTable field : dataTable) {
+                    writeString(out, strings, field.getExplanation());
+                    writeString(out, strings, field.getPattern());
+                    writeString(out, strings, field.getValue());
+                    writeString(out, strings, field.getFieldName());
+                }
+            }
+        }
+    }
+
+    /**
+     * 매칭 구역 읽기 (타입 설명, 샘플 로그, 데이터 테이블은 비어 있음)
+     */
+    static LogFormat readMatching(Input in) throws IOException {
+        LogFormat format = new LogFormat();
+        format.setFormatId(in.readString());
+        format.setFormatName(in.readString());
+        format.setFormatVersion(in.readString());
+        format.setGroupName(in.readString());
+        format.setGroupId(in.readString());
+        format.setVendor(in.readString());
+        format.setModel(in.readString());
+        format.setSmType(in.readString());
+        format.setGrokPattern(in.readString());
+
+        int requiredCount = in.readCount();
+        if (requiredCount >= 0) {
+            List<String> requiredFields = new ArrayList<>(requiredCount);
+            for (int i = 0; i < requiredCount; i++) {
+                requiredFields.add(in.readString());
+            }
+            format.setRequiredFields(requiredFields);
+        }
+
+        int logTypeCount = in.readCount();
+        if (logTypeCount < 0) {
+            return format;
+        }
+        List<LogFormat.LogType> logTypes = new ArrayList<>(logTypeCount);
+        for (int i = 0; i < logTypeCount; i++) {
+            LogFormat.LogType logType = new LogFormat.LogType();
+            logType.setTypeName(in.readString());
+            int patternCount = in.readCount();
+            if (patternCount >= 0) {
+                List<LogFormat.Pattern> patterns = new ArrayList<>(patternCount);
+                for (int j = 0; j < patternCount; j++) {
+                    LogFormat.Pattern pattern = new LogFormat.Pattern();
+                    pattern.setExpName(in.readString());
+                    pattern.setGrokExp(in.readString());
+                    pattern.setOrder(in.readString());
+                    patterns.add(pattern);
+                }
+                logType.setPatterns(patterns);
+            }
+            logTypes.add(logType);
+        }
+        format.setLogTypes(logTypes);
+        return format;
+    }
+
+    /**
+     * 상세 구역을 읽어 매칭 구역으로 만든 포맷에 채움
+     */
+    static void readDetail(Input in, LogFormat format) throws IOException {
+        if (format.getLogTypes() == null) {
+            return;
+        }
+        for (LogFormat.LogType logType : format.getLogTypes()) {
+            logType.setTypeDescription(in.readString());
+            if (logType.getPatterns() == null) {
+                continue;
+            }
+            for (LogFormat.Pattern pattern : logType.getPatterns()) {
+                pattern.setSampleLog(in.readString());
+                int fieldCount = in.readCount();
+                if (fieldCount < 0) {
+                    continue;
+                }
+                List<LogFormat.DataTable> dataTable = new ArrayList<>(fieldCount);
+                for (int i = 0; i < fieldCount; i++) {
+                    LogFormat.DataTable field = new LogFormat.DataTable();
+                    field.setExplanation(in.readString());
+                    field.setPattern(in.readString());
+                    field.setValue(in.readString());
+                    field.setFieldName(in.readString());
+                    dataTable.add(field);
+                }
+                pattern.setDataTable(dataTable);
+            }
+        }
+    }
+
+    private static String[] readStringTable(DataInputStream in, int limit) throws IOException {
+        int count = readVarInt(in);
+        if (count < 0 || count > limit) {
+            throw new IOException("잘못된 문자열 테이블 크기: " + count);
+        }
+        String[] strings = new String[count];
+        byte[] buffer = new byte[256];
+        for (int i = 0; i < count; i++) {
+            int length = readVarInt(in);
+            if (length < 0 || length > limit) {
+                throw new IOException("잘못된 문자열 길이: " + length);
+            }
+            if (length > buffer.length) {
+                buffer = new byte[Math.max(length, buffer.length * 2)];
+            }
+            in.readFully(buffer, 0, length);
+            strings[i] = new String(buffer, 0, length, StandardCharsets.UTF_8);
+        }
+        return strings;
+    }
+
+    private static void writeString(DataOutputStream out, StringTable strings, String value) throws IOException {
+        writeVarInt(out, value == null ? 0 : strings.indexOf(value) + 1);
+    }
+
+    private static void writeCount(DataOutputStream out, List<?> list) throws IOException {
+        writeVarInt(out, list == null ? 0 : list.size() + 1);
+    }
+
+    static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("잘못된 varint");
+    }
+
+    /**
+     * 레코드 입력 (스트림 또는 매핑된 버퍼)
+     */
+    abstract static class Input {
+
+        abstract int readUnsignedByte() throws IOException;
+
+        /** 문자열 테이블 조회 (0부터 시작) */
+        abstract String string(int index) throws IOException;
+
+        abstract int stringCount();
+
+        /** 리스트 크기 상한 (본문 길이) */
+        abstract int limit();
+
+        int readVarInt() throws IOException {
+            int value = 0;
+            for (int shift = 0; shift < 35; shift += 7) {
+                int b = readUnsignedByte();
+                value |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IOException("잘못된 varint");
+        }
+
+        String readString() throws IOException {
+            int ref = readVarInt();
+            if (ref == 0) {
+                return null;
+            }
+            if (ref < 0 || ref > stringCount()) {
+                throw new IOException("잘못된 문자열 참조: " + ref);
+            }
+            return string(ref - 1);
+        }
+
+        int readCount() throws IOException {
+            int count = readVarInt() - 1;
+            if (count < -1 || count > limit()) {
+                throw new IOException("잘못된 리스트 크기: " + count);
+            }
+            return count;
+        }
+    }
+
+    /**
+     * 스트림 입력 (문자열 테이블을 미리 모두 읽음)
+     */
+    private static class StreamInput extends Input {
+        private final DataInputStream in;
+        private final int limit;
+        private String[] strings = new String[0];
+
+        StreamInput(DataInputStream in, int limit) {
+            this.in = in;
+            this.limit = limit;
+        }
+
+        @Override
+        int readUnsignedByte() throws IOException {
+            return in.readUnsignedByte();
+        }
+
+        @Override
+        String string(int index) {
+            return strings[index];
+        }
+
+        @Override
+        int stringCount() {
+            return strings.length;
+        }
+
+        @Override
+        int limit() {
+            return limit;
+        }
+    }
+
+    /**
+     * 쓰기용 문자열 테이블 (처음 등장한 순서대로 인덱스 부여)
+     */
+    private static class StringTable {
+        private final Map<String, Integer> indexes = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+
+        int indexOf(String value) {
+            Integer index = indexes.get(value);
+            if (index == null) {
+                index = values.size();
+                indexes.put(value, index);
+                values.add(value);
+            }
+            return index;
+        }
+
+        void writeTo(DataOutputStream out) throws IOException {
+            writeVarInt(out, values.size());
+            for (String value : values) {
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                writeVarInt(out, bytes.length);
+                out.write(bytes);
+            }
+            out.flush();
+        }
+    }
+
+    /**
+     * 본문 길이만큼만 읽도록 제한하는 스트림
+     */
+    private static class CountingInputStream extends FilterInputStream {
+        private final long limit;
+        private long count;
+
+        CountingInputStream(InputStream in, long limit) {
+            super(in);
+            this.limit = limit;
+        }
+
+        long getCount() {
+            return count;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (count >= limit) {
+                throw new EOFException("본문 길이를 넘는 읽기");
+            }
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (count >= limit) {
+                throw new EOFException("본문 길이를 넘는 읽기");
+            }
+            int n = super.read(b, off, (int) Math.min(len, limit - count));
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            throw new IOException("skip 미지원");
+        }
+    }
+}
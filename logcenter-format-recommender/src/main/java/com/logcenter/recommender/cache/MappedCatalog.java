@@ -0,0 +1,224 @@
+package com.logcenter.recommender.cache;
+
+import com.logcenter.recommender.model.LogFormat;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * 메모리 매핑된 읽기 전용 로그 포맷 카탈로그
+ *
+ * {@link BinaryCatalogCodec} 형식의 파일을 매핑하고, 오프셋 인덱스로 포맷 레코드에 접근한다.
+ * {@link #matchingViews()}는 매칭 구역만 읽은 가벼운 포맷을 만들고,
+ * 타입 설명, 샘플 로그, 데이터 테이블이 포함된 전체 포맷은 {@link #materialize(String)}로 필요할 때 만든다.
+ * 문자열은 처음 참조될 때 디코딩되어 카탈로그 안에서 공유된다.
+ * 모든 읽기는 절대 위치로 수행하므로 여러 스레드에서 동시에 호출할 수 있다.
+ */
+public final class MappedCatalog {
+
+    private final ByteBuffer payload;
+    private final int[] stringOffsets;
+    private final int[] stringLengths;
+    private final String[] strings;
+    private final int[] matchOffsets;
+    private final int[] detailOffsets;
+    private final Map<String, Integer> indexById;
+
+    private MappedCatalog(ByteBuffer payload, int[] stringOffsets, int[] stringLengths,
+                          int[] matchOffsets, int[] detailOffsets) {
+        this.payload = payload;
+        this.stringOffsets = stringOffsets;
+        this.stringLengths = stringLengths;
+        this.strings = new String[stringOffsets.length];
+        this.matchOffsets = matchOffsets;
+        this.detailOffsets = detailOffsets;
+        this.indexById = new HashMap<>(matchOffsets.length * 2);
+    }
+
+    /**
+     * 카탈로그 파일 열기
+     * 헤더와 체크섬을 확인하고 문자열/레코드 위치만 읽는다. 파일 채널은 매핑 후 닫는다.
+     * @param file 카탈로그 파일
+     * @return 매핑된 카탈로그
+     * @throws IOException 형식, 버전, 길이 또는 체크섬이 맞지 않는 경우
+     */
+    public static MappedCatalog open(Path file) throws IOException {
+        MappedByteBuffer mapped;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < BinaryCatalogCodec.HEADER_BYTES || size > Integer.MAX_VALUE) {
+                throw new IOException("잘못된 카탈로그 캐시 크기: " + size);
+            }
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+
+        int payloadLength = BinaryCatalogCodec.readHeader(mapped.getInt(0), mapped.getInt(4), mapped.getInt(8));
+        int expectedCrc = mapped.getInt(12);
+        if (payloadLength != mapped.capacity() - BinaryCatalogCodec.HEADER_BYTES) {
+            throw new IOException("본문 길이 불일치: " + (mapped.capacity() - BinaryCatalogCodec.HEADER_BYTES)
+                + " != " + payloadLength);
+        }
+
+        mapped.position(BinaryCatalogCodec.HEADER_BYTES);
+        ByteBuffer payload = mapped.slice();
+        CRC32 crc = new CRC32();
+        crc.update(payload.duplicate());
+        if ((int) crc.getValue() != expectedCrc) {
+            throw new IOException("카탈로그 캐시 체크섬 불일치");
+        }
+
+        try {
+            return index(payload);
+        } catch (IndexOutOfBoundsException e) {
+            throw new IOException("카탈로그 캐시 구조 오류", e);
+        }
+    }
+
+    private static MappedCatalog index(ByteBuffer payload) throws IOException {
+        BufferInput in = new BufferInput(payload, null, 0);
+
+        // 문자열 위치만 기록하고 디코딩은 미룸
+        int stringCount = in.readVarInt();
+        if (stringCount < 0 || stringCount > payload.capacity()) {
+            throw new IOException("잘못된 문자열 테이블 크기: " + stringCount);
+        }
+        int[] stringOffsets = new int[stringCount];
+        int[] stringLengths = new int[stringCount];
+        for (int i = 0; i < stringCount; i++) {
+            int length = in.readVarInt();
+            if (length < 0 || length > payload.capacity() - in.position) {
+                throw new IOException("잘못된 문자열 길이: " + length);
+            }
+            stringOffsets[i] = in.position;
+            stringLengths[i] = length;
+            in.position += length;
+        }
+
+        int formatCount = in.readVarInt();
+        if (formatCount < 0 || formatCount > (payload.capacity() - in.position) / BinaryCatalogCodec.INDEX_ENTRY_BYTES) {
+            throw new IOException("잘못된 포맷 개수: " + formatCount);
+        }
+        int[] matchOffsets = new int[formatCount];
+        int[] detailOffsets = new int[formatCount];
+        for (int i = 0; i < formatCount; i++) {
+            matchOffsets[i] = payload.getInt(in.position);
+            detailOffsets[i] = payload.getInt(in.position + 4);
+            in.position += BinaryCatalogCodec.INDEX_ENTRY_BYTES;
+            if (matchOffsets[i] < in.position || detailOffsets[i] < matchOffsets[i]
+                    || detailOffsets[i] > payload.capacity()) {
+                throw new IOException("잘못된 레코드 오프셋: " + matchOffsets[i] + ", " + detailOffsets[i]);
+            }
+        }
+
+        MappedCatalog catalog = new MappedCatalog(payload, stringOffsets, stringLengths, matchOffsets, detailOffsets);
+        for (int i = 0; i < formatCount; i++) {
+            // 레코드의 첫 값이 포맷 ID
+            String formatId = new BufferInput(payload, catalog, matchOffsets[i]).readString();
+            if (formatId != null) {
+                catalog.indexById.putIfAbsent(formatId, i);
+            }
+        }
+        return catalog;
+    }
+
+    /**
+     * 포맷 개수
+     */
+    public int size() {
+        return matchOffsets.length;
+    }
+
+    /**
+     * 매칭용 포맷 목록
+     * 포맷 정보, Grok 표현식, 필수 필드만 채워지고 타입 설명, 샘플 로그, 데이터 테이블은 비어 있다.
+     * @return 파일 순서의 포맷 목록 (호출할 때마다 새로 만듦)
+     */
+    public List<LogFormat> matchingViews() throws IOException {
+        List<LogFormat> formats = new ArrayList<>(matchOffsets.length);
+        for (int i = 0; i < matchOffsets.length; i++) {
+            formats.add(read(i, false));
+        }
+        return formats;
+    }
+
+    /**
+     * 전체 포맷 만들기
+     * @param formatId 포맷 ID
+     * @return 타입 설명, 샘플 로그, 데이터 테이블을 포함한 새 포맷, 없으면 null
+     */
+    public LogFormat materialize(String formatId) throws IOException {
+        Integer index = formatId != null ? indexById.get(formatId) : null;
+        return index != null ? read(index, true) : null;
+    }
+
+    private LogFormat read(int index, boolean detail) throws IOException {
+        try {
+            LogFormat format = BinaryCatalogCodec.readMatching(new BufferInput(payload, this, matchOffsets[index]));
+            if (detail) {
+                BinaryCatalogCodec.readDetail(new BufferInput(payload, this, detailOffsets[index]), format);
+            }
+            return format;
+        } catch (IndexOutOfBoundsException e) {
+            throw new IOException("카탈로그 캐시 구조 오류", e);
+        }
+    }
+
+    private String string(int index) {
+        String value = strings[index];
+        if (value == null) {
+            // 동시에 디코딩되어도 같은 값이며 String은 불변이므로 경합을 허용
+            byte[] bytes = new byte[stringLengths[index]];
+            ByteBuffer source = payload.duplicate();
+            source.position(stringOffsets[index]);
+            source.get(bytes);
+            value = new String(bytes, StandardCharsets.UTF_8);
+            strings[index] = value;
+        }
+        return value;
+    }
+
+    /**
+     * 매핑된 버퍼 입력 (절대 위치 읽기)
+     */
+    private static class BufferInput extends BinaryCatalogCodec.Input {
+        private final ByteBuffer buffer;
+        private final MappedCatalog catalog;
+        private int position;
+
+        BufferInput(ByteBuffer buffer, MappedCatalog catalog, int position) {
+            this.buffer = buffer;
+            this.catalog = catalog;
+            this.position = position;
+        }
+
+        @Override
+        int readUnsignedByte() {
+            return buffer.get(position++) & 0xFF;
+        }
+
+        @Override
+        String string(int index) {
+            return catalog.string(index);
+        }
+
+        @Override
+        int stringCount() {
+            return catalog.strings.length;
+        }
+
+        @Override
+        int limit() {
+            return buffer.capacity();
+        }
+    }
+}
@@ -2,6 +2,9 @@ package com.logcenter.recommender.cache;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonDeserializer;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.JsonSerializer;
 import com.google.gson.reflect.TypeToken;
 import com.logcenter.recommender.config.AppConfig;
 import com.logcenter.recommender.model.GrokPattern;
@@ -11,22 +14,44 @@ import org.slf4j.LoggerFactory;
 
 import java.io.*;
 import java.lang.reflect.Type;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
+import java.util.jar.JarEntry;
 
 /**
  * 영구 캐시 매니저
  * 컴파일된 Grok 패턴과 로그 포맷을 디스크에 캐시하여 초기화 시간을 단축
  *
+ * 여러 프로세스가 같은 캐시 디렉토리를 공유할 수 있다.
+ * 캐시 파일과 메타데이터는 임시 파일에 쓴 후 원자적으로 교체하므로 읽는 쪽은 잠금 없이
+ * 항상 완성된 파일만 본다. 재구축은 캐시 파일별 잠금({@link #tryLockForRebuild(String)})을
+ * 얻은 프로세스 하나만 수행하고, 메타데이터는 짧은 잠금 안에서 디스크의 내용과 병합해 저장한다.
+ * API 서버에서 받은 카탈로그는 조건부 요청에 쓸 검증자(ETag, Last-Modified)와 함께 URL별로 저장한다.
+ *
  * @since 1.0.0
  */
 public class PersistentCacheManager {
@@ -35,8 +60,18 @@ public class PersistentCacheManager {
 
     // 캐시 파일명
     private static final String CUSTOM_PATTERNS_CACHE = "custom_patterns.cache";
-    private static final String LOG_FORMATS_CACHE = "log_formats.cache";
+    private static final String LOG_FORMATS_CACHE = "log_formats.bin";
+    // 이전 버전의 JSON 형식 로그 포맷 캐시
+    private static final String LEGACY_LOG_FORMATS_CACHE = "log_formats.cache";
     private static final String METADATA_FILE = "cache_metadata.json";
+    private static final String RESULT_STORE_FILE = "recommendations.store";
+    private static final String REMOTE_CATALOG_PREFIX = "remote_catalog_";
+    private static final String REMOTE_CATALOG_SUFFIX = ".bin";
+    private static final String LOCK_SUFFIX = ".lock";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    // 같은 JVM 안의 메타데이터 쓰기 직렬화 (파일 잠금은 프로세스 단위)
+    private static final Object METADATA_MONITOR = new Object();
 
     // 기본 설정
     private static final int DEFAULT_TTL_DAYS = 7;
@@ -47,7 +82,9 @@ public class PersistentCacheManager {
     private boolean enabled;
     private int ttlDays;
     private boolean checksumEnabled;
-    private Map<String, CacheMetadata> metadataMap;
+    private volatile Map<String, CacheMetadata> metadataMap;
+    // 이번 실행에서 확인한 리소스 체크섬 (리소스는 실행 중에 바뀌지 않음)
+    private final Map<String, String> resourceChecksums = new ConcurrentHashMap<>();
 
     /**
      * 생성자
@@ -56,8 +93,13 @@ public class PersistentCacheManager {
         this.gson = new GsonBuilder()
                 .setPrettyPrinting()
                 .setDateFormat("yyyy-MM-dd HH:mm:ss")
+                // java.time 리플렉션은 Java 9 이상에서 막혀 있으므로 ISO 문자열로 저장
+                .registerTypeAdapter(LocalDateTime.class, (JsonSerializer<LocalDateTime>)
+                        (value, type, context) -> new JsonPrimitive(value.toString()))
+                .registerTypeAdapter(LocalDateTime.class, (JsonDeserializer<LocalDateTime>)
+                        (json, type, context) -> LocalDateTime.parse(json.getAsString()))
                 .create();
-        this.metadataMap = new HashMap<>();
+        this.metadataMap = new ConcurrentHashMap<>();
     }
 
     /**
@@ -166,12 +208,19 @@ public class PersistentCacheManager {
         }
 
         try {
-            Path cacheFile = cacheDirectory.resolve(CUSTOM_PATTERNS_CACHE);
-            String json = gson.toJson(patterns);
-            Files.write(cacheFile, json.getBytes(StandardCharsets.UTF_8));
+            // 컴파일된 Grok 객체는 저장하지 않음 (로드 후 다시 컴파일)
+            Map<String, GrokPattern> plain = new LinkedHashMap<>();
+            for (Map.Entry<String, GrokPattern> entry : patterns.entrySet()) {
+                GrokPattern pattern = entry.getValue();
+                GrokPattern copy = new GrokPattern(pattern.getName(), pattern.getPattern(), pattern.getType());
+                copy.setCategory(pattern.getCategory());
+                plain.put(entry.getKey(), copy);
+            }
+            byte[] json = gson.toJson(plain).getBytes(StandardCharsets.UTF_8);
+            publish(CUSTOM_PATTERNS_CACHE, out -> out.write(json));
 
             // 메타데이터 업데이트 (체크섬은 saveResourceChecksum에서 처리)
-            updateMetadata(CUSTOM_PATTERNS_CACHE, null);
+            updateMetadata(CUSTOM_PATTERNS_CACHE, null, null);
 
             logger.info("커스텀 패턴 {} 개를 캐시에 저장했습니다", patterns.size());
 
@@ -202,10 +251,11 @@ public class PersistentCacheManager {
                 return null;
             }
 
-            // 캐시 파일 읽기
-            String json = new String(Files.readAllBytes(cacheFile), StandardCharsets.UTF_8);
-            Type type = new TypeToken<List<LogFormat>>(){}.getType();
-            List<LogFormat> formats = gson.fromJson(json, type);
+            // 캐시 파일 읽기 (바이너리 카탈로그, 스트리밍)
+            List<LogFormat> formats;
+            try (InputStream in = Files.newInputStream(cacheFile)) {
+                formats = BinaryCatalogCodec.read(in);
+            }
 
             logger.info("캐시에서 {} 개의 로그 포맷을 로드했습니다", formats.size());
             return formats;
@@ -216,6 +266,165 @@ public class PersistentCacheManager {
         }
     }
 
+    /**
+     * 로그 포맷 캐시를 메모리 매핑으로 열기
+     * 전체 포맷을 읽지 않고 매칭용 포맷과 필요할 때 만드는 전체 포맷을 제공
+     * @return 매핑된 카탈로그, 캐시가 없거나 만료/손상된 경우 null
+     */
+    public MappedCatalog openLogFormatCatalog() {
+        if (!enabled) {
+            return null;
+        }
+
+        Path cacheFile = cacheDirectory.resolve(LOG_FORMATS_CACHE);
+
+        if (!Files.exists(cacheFile)) {
+            logger.debug("로그 포맷 캐시 파일이 없습니다");
+            return null;
+        }
+
+        if (isCacheExpired(LOG_FORMATS_CACHE)) {
+            logger.info("로그 포맷 캐시가 만료되었습니다");
+            return null;
+        }
+
+        try {
+            MappedCatalog catalog = MappedCatalog.open(cacheFile);
+            logger.info("로그 포맷 캐시를 매핑했습니다: {} 개", catalog.size());
+            return catalog;
+        } catch (IOException | RuntimeException e) {
+            logger.error("로그 포맷 캐시 매핑 실패", e);
+            return null;
+        }
+    }
+
+    /**
+     * 추천 결과 저장소 열기
+     * 카탈로그 버전은 로그 포맷과 커스텀 패턴 리소스의 체크섬으로 만들며, 바뀌면 저장소를 비운다.
+     * @param logFormatsPath 로그 포맷 리소스 경로
+     * @param customPatternsPath 커스텀 패턴 리소스 경로
+     * @return 추천 결과 저장소, 캐시가 비활성화되었거나 열 수 없으면 null
+     */
+    public ResultStore openResultStore(String logFormatsPath, String customPatternsPath) {
+        if (!enabled) {
+            return null;
+        }
+
+        AppConfig config = AppConfig.getInstance();
+        int maxBytes = (int) Math.min(Integer.MAX_VALUE,
+                config.getInt(AppConfig.RESULT_STORE_MAX_SIZE_MB) * 1024L * 1024L);
+
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            md.update(resourceChecksum(logFormatsPath).getBytes(StandardCharsets.UTF_8));
+            md.update(resourceChecksum(customPatternsPath).getBytes(StandardCharsets.UTF_8));
+            long catalogVersion = ByteBuffer.wrap(md.digest()).getLong();
+
+            ResultStore store = ResultStore.open(cacheDirectory.resolve(RESULT_STORE_FILE), catalogVersion, maxBytes);
+            if (store != null) {
+                logger.info("추천 결과 저장소를 열었습니다: {} 건", store.size());
+            }
+            return store;
+        } catch (IOException | NoSuchAlgorithmException | RuntimeException e) {
+            logger.error("추천 결과 저장소 열기 실패", e);
+            return null;
+        }
+    }
+
+    /**
+     * 원격 카탈로그 캐시의 검증자
+     * @param url 카탈로그 URL
+     * @return 검증자, 캐시가 없거나 검증자가 없으면 null
+     */
+    public CatalogValidators getRemoteCatalogValidators(String url) {
+        if (!enabled) {
+            return null;
+        }
+
+        String fileName = remoteCatalogFileName(url);
+        CacheMetadata metadata = metadataMap.get(fileName);
+        if (metadata == null || (metadata.getEtag() == null && metadata.getLastModified() == null)
+                || !Files.exists(cacheDirectory.resolve(fileName))) {
+            return null;
+        }
+        return new CatalogValidators(metadata.getEtag(), metadata.getLastModified());
+    }
+
+    /**
+     * 원격 카탈로그 캐시 로드 (서버가 변경 없음(304)을 알린 경우)
+     * @param url 카탈로그 URL
+     * @return 캐시된 포맷, 없거나 손상된 경우 null
+     */
+    public List<LogFormat> loadRemoteCatalog(String url) {
+        if (!enabled) {
+            return null;
+        }
+
+        Path cacheFile = cacheDirectory.resolve(remoteCatalogFileName(url));
+        try (InputStream in = Files.newInputStream(cacheFile)) {
+            List<LogFormat> formats = BinaryCatalogCodec.read(in);
+            logger.info("캐시에서 원격 카탈로그 {} 개를 로드했습니다", formats.size());
+            return formats;
+        } catch (IOException | RuntimeException e) {
+            logger.warn("원격 카탈로그 캐시 로드 실패: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 원격 카탈로그 캐시 저장
+     * 검증자가 없는 응답은 조건부 요청에 쓸 수 없으므로 저장하지 않는다.
+     * @param url 카탈로그 URL
+     * @param formats 받은 포맷
+     * @param etag 응답 ETag 헤더 (없으면 null)
+     * @param lastModified 응답 Last-Modified 헤더 (없으면 null)
+     */
+    public void saveRemoteCatalog(String url, List<LogFormat> formats, String etag, String lastModified) {
+        if (!enabled || formats == null || (etag == null && lastModified == null)) {
+            return;
+        }
+
+        String fileName = remoteCatalogFileName(url);
+        try {
+            publish(fileName, out -> BinaryCatalogCodec.write(formats, out));
+            updateMetadata(fileName, previous -> {
+                CacheMetadata metadata = new CacheMetadata();
+                metadata.setCreatedAt(LocalDateTime.now());
+                metadata.setEtag(etag);
+                metadata.setLastModified(lastModified);
+                return metadata;
+            });
+            logger.info("원격 카탈로그 {} 개를 캐시에 저장했습니다", formats.size());
+        } catch (IOException e) {
+            logger.error("원격 카탈로그 캐시 저장 실패", e);
+        }
+    }
+
+    /**
+     * 원격 카탈로그 캐시 삭제 (캐시 파일을 읽을 수 없는 경우)
+     * @param url 카탈로그 URL
+     */
+    public void removeRemoteCatalog(String url) {
+        if (!enabled) {
+            return;
+        }
+
+        String fileName = remoteCatalogFileName(url);
+        try {
+            Files.deleteIfExists(cacheDirectory.resolve(fileName));
+        } catch (IOException e) {
+            logger.debug("원격 카탈로그 캐시 삭제 실패: {}", fileName, e);
+        }
+        updateMetadata(fileName, previous -> {
+            if (previous == null) {
+                return null;
+            }
+            CacheMetadata metadata = new CacheMetadata();
+            metadata.setCreatedAt(previous.getCreatedAt());
+            return metadata;
+        });
+    }
+
     /**
      * 로그 포맷 저장
      */
@@ -225,12 +434,13 @@ public class PersistentCacheManager {
         }
 
         try {
-            Path cacheFile = cacheDirectory.resolve(LOG_FORMATS_CACHE);
-            String json = gson.toJson(formats);
-            Files.write(cacheFile, json.getBytes(StandardCharsets.UTF_8));
+            publish(LOG_FORMATS_CACHE, out -> BinaryCatalogCodec.write(formats, out));
+
+            // 이전 JSON 캐시 정리
+            Files.deleteIfExists(cacheDirectory.resolve(LEGACY_LOG_FORMATS_CACHE));
 
             // 메타데이터 업데이트 (체크섬은 saveResourceChecksum에서 처리)
-            updateMetadata(LOG_FORMATS_CACHE, null);
+            updateMetadata(LOG_FORMATS_CACHE, null, null);
 
             logger.info("로그 포맷 {} 개를 캐시에 저장했습니다", formats.size());
 
@@ -250,31 +460,17 @@ public class PersistentCacheManager {
 
         try {
             // 체크섬 계산
-            String checksum = calculateResourceChecksum(resourcePath);
+            String checksum = resourceChecksum(resourcePath);
 
             // 캐시 파일 이름 결정
-            String cacheFileName;
-            if (resourcePath.contains("custom-grok-patterns")) {
-                cacheFileName = CUSTOM_PATTERNS_CACHE;
-            } else if (resourcePath.contains("setting_logformat") ||
-                       resourcePath.contains("GROK-PATTERN-CONVERTER")) {
-                cacheFileName = LOG_FORMATS_CACHE;
-            } else {
+            String cacheFileName = cacheFileNameFor(resourcePath);
+            if (cacheFileName == null) {
                 logger.warn("알 수 없는 리소스 파일: {}", resourcePath);
                 return;
             }
 
-            // 메타데이터 업데이트
-            CacheMetadata metadata = metadataMap.get(cacheFileName);
-            if (metadata == null) {
-                metadata = new CacheMetadata();
-                metadata.setCreatedAt(LocalDateTime.now());
-            }
-            metadata.setChecksum(checksum);
-            metadataMap.put(cacheFileName, metadata);
-
-            // 메타데이터 파일 저장
-            saveMetadata();
+            // 메타데이터 업데이트 (다음 실행에서 체크섬 계산을 건너뛰기 위한 리소스 표식 포함)
+            updateMetadata(cacheFileName, checksum, resourceStamp(resourcePath));
 
             logger.debug("리소스 체크섬 저장: {} -> {}", resourcePath, checksum.substring(0, 8) + "...");
 
@@ -292,17 +488,12 @@ public class PersistentCacheManager {
         }
 
         try {
-            // 리소스 파일의 체크섬 계산
-            String currentChecksum = calculateResourceChecksum(resourcePath);
+            // 리소스 파일의 체크섬 (리소스 표식이 같으면 저장된 값 사용)
+            String currentChecksum = resourceChecksum(resourcePath);
 
             // 캐시 파일 이름 결정
-            String cacheFileName;
-            if (resourcePath.contains("custom-grok-patterns")) {
-                cacheFileName = CUSTOM_PATTERNS_CACHE;
-            } else if (resourcePath.contains("setting_logformat") ||
-                       resourcePath.contains("GROK-PATTERN-CONVERTER")) {
-                cacheFileName = LOG_FORMATS_CACHE;
-            } else {
+            String cacheFileName = cacheFileNameFor(resourcePath);
+            if (cacheFileName == null) {
                 return false;
             }
 
@@ -315,6 +506,11 @@ public class PersistentCacheManager {
             boolean valid = currentChecksum.equals(metadata.getChecksum());
             if (!valid) {
                 logger.info("리소스 파일이 변경되었습니다: {}", resourcePath);
+            } else {
+                String stamp = resourceStamp(resourcePath);
+                if (stamp != null && !stamp.equals(metadata.getResourceStamp())) {
+                    recordResourceStamp(cacheFileName, currentChecksum, stamp);
+                }
             }
 
             return valid;
@@ -325,6 +521,53 @@ public class PersistentCacheManager {
         }
     }
 
+    /**
+     * 캐시 재구축 잠금 시도 (기다리지 않음)
+     * 잠금을 얻은 쪽만 원본을 읽어 캐시를 다시 쓰고, 나머지는 캐시를 쓰지 않고 원본에서 로드한다.
+     * @param resourcePath 캐시 대상 리소스 경로
+     * @return 재구축 잠금, 캐시가 비활성화되었거나 다른 프로세스/스레드가 재구축 중이면 null
+     */
+    public RebuildLock tryLockForRebuild(String resourcePath) {
+        if (!enabled) {
+            return null;
+        }
+
+        String cacheFileName = cacheFileNameFor(resourcePath);
+        if (cacheFileName == null) {
+            return null;
+        }
+
+        FileChannel channel = null;
+        try {
+            channel = FileChannel.open(cacheDirectory.resolve(cacheFileName + LOCK_SUFFIX),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            FileLock lock = channel.tryLock();
+            if (lock != null) {
+                deleteStaleTempFiles(cacheFileName);
+                logger.debug("캐시 재구축 잠금 획득: {}", cacheFileName);
+                return new RebuildLock(channel, lock);
+            }
+        } catch (OverlappingFileLockException e) {
+            // 같은 JVM의 다른 스레드가 재구축 중
+        } catch (IOException e) {
+            logger.warn("캐시 재구축 잠금 실패: {}", cacheFileName, e);
+        }
+
+        closeQuietly(channel);
+        logger.info("다른 프로세스가 캐시를 재구축 중입니다: {}", cacheFileName);
+        return null;
+    }
+
+    /**
+     * 메타데이터를 디스크에서 다시 읽기
+     * 재구축 잠금을 얻은 후 다른 프로세스가 이미 캐시를 갱신했는지 확인할 때 사용
+     */
+    public void refreshMetadata() {
+        if (enabled) {
+            loadMetadata();
+        }
+    }
+
     /**
      * 캐시 무효화 (모든 캐시 삭제)
      */
@@ -337,7 +580,15 @@ public class PersistentCacheManager {
             // 캐시 파일 삭제
             Files.deleteIfExists(cacheDirectory.resolve(CUSTOM_PATTERNS_CACHE));
             Files.deleteIfExists(cacheDirectory.resolve(LOG_FORMATS_CACHE));
+            Files.deleteIfExists(cacheDirectory.resolve(LEGACY_LOG_FORMATS_CACHE));
             Files.deleteIfExists(cacheDirectory.resolve(METADATA_FILE));
+            Files.deleteIfExists(cacheDirectory.resolve(RESULT_STORE_FILE));
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(cacheDirectory,
+                    REMOTE_CATALOG_PREFIX + "*" + REMOTE_CATALOG_SUFFIX)) {
+                for (Path remote : stream) {
+                    Files.deleteIfExists(remote);
+                }
+            }
 
             // 메타데이터 초기화
             metadataMap.clear();
@@ -364,7 +615,7 @@ public class PersistentCacheManager {
     private boolean isCacheExpired(String cacheFileName) {
         CacheMetadata metadata = metadataMap.get(cacheFileName);
 
-        if (metadata == null) {
+        if (metadata == null || metadata.getCreatedAt() == null) {
             return true;
         }
 
@@ -391,48 +642,224 @@ public class PersistentCacheManager {
         try {
             String json = new String(Files.readAllBytes(metadataFile), StandardCharsets.UTF_8);
             Type type = new TypeToken<Map<String, CacheMetadata>>(){}.getType();
-            metadataMap = gson.fromJson(json, type);
-
-            if (metadataMap == null) {
-                metadataMap = new HashMap<>();
+            Map<String, CacheMetadata> loaded = gson.fromJson(json, type);
+
+            Map<String, CacheMetadata> merged = new ConcurrentHashMap<>();
+            if (loaded != null) {
+                loaded.forEach((name, metadata) -> {
+                    if (name != null && metadata != null) {
+                        merged.put(name, metadata);
+                    }
+                });
             }
+            metadataMap = merged;
 
             logger.debug("캐시 메타데이터 로드 완료");
 
         } catch (IOException | RuntimeException e) {
             logger.error("메타데이터 로드 실패", e);
-            metadataMap = new HashMap<>();
+            metadataMap = new ConcurrentHashMap<>();
         }
     }
 
     /**
      * 메타데이터 업데이트
+     * 메타데이터 잠금 안에서 디스크의 메타데이터를 다시 읽어 병합하므로
+     * 다른 프로세스가 저장한 항목을 덮어쓰지 않는다.
      */
-    private void updateMetadata(String cacheFileName, String checksum) {
+    private void updateMetadata(String cacheFileName, String checksum, String resourceStamp) {
         CacheMetadata metadata = new CacheMetadata();
         metadata.setCreatedAt(LocalDateTime.now());
         metadata.setChecksum(checksum);
+        metadata.setResourceStamp(resourceStamp);
 
-        metadataMap.put(cacheFileName, metadata);
+        updateMetadata(cacheFileName, previous -> metadata);
+    }
+
+    /**
+     * 메타데이터 항목 변경 (잠금 안에서 디스크의 최신 항목에 적용)
+     * @param update 현재 항목(없으면 null)을 받아 새 항목을 반환, null이면 변경하지 않음
+     */
+    private void updateMetadata(String cacheFileName, UnaryOperator<CacheMetadata> update) {
+        synchronized (METADATA_MONITOR) {
+            Path lockFile = cacheDirectory.resolve(METADATA_FILE + LOCK_SUFFIX);
+            try (FileChannel channel = FileChannel.open(lockFile,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                 FileLock ignored = channel.lock()) {
+
+                loadMetadata();
+                CacheMetadata metadata = update.apply(metadataMap.get(cacheFileName));
+                if (metadata == null) {
+                    return;
+                }
+                metadataMap.put(cacheFileName, metadata);
+
+                byte[] json = gson.toJson(metadataMap).getBytes(StandardCharsets.UTF_8);
+                publish(METADATA_FILE, out -> out.write(json));
+
+            } catch (IOException e) {
+                logger.error("메타데이터 저장 실패", e);
+            }
+        }
+    }
 
-        // 메타데이터 파일 저장
-        saveMetadata();
+    /**
+     * 유효한 캐시 항목에 리소스 표식 기록 (생성 시각은 유지)
+     * 표식이 없거나 다른 위치(jar/디렉토리)에서 기록된 메타데이터도 한 번 검증한 후에는
+     * 체크섬 계산을 건너뛸 수 있게 한다.
+     */
+    private void recordResourceStamp(String cacheFileName, String checksum, String resourceStamp) {
+        updateMetadata(cacheFileName, previous -> {
+            if (previous == null || !checksum.equals(previous.getChecksum())
+                    || resourceStamp.equals(previous.getResourceStamp())) {
+                return null;
+            }
+            CacheMetadata metadata = new CacheMetadata();
+            metadata.setCreatedAt(previous.getCreatedAt());
+            metadata.setChecksum(checksum);
+            metadata.setResourceStamp(resourceStamp);
+            return metadata;
+        });
     }
 
     /**
-     * 메타데이터 파일 저장
+     * 캐시 파일 게시 (임시 파일에 쓰고 디스크에 반영한 후 원자적으로 교체)
      */
-    private void saveMetadata() {
+    private void publish(String fileName, CacheWriter writer) throws IOException {
+        Path target = cacheDirectory.resolve(fileName);
+        Path temp = Files.createTempFile(cacheDirectory, fileName, TEMP_SUFFIX);
         try {
-            Path metadataFile = cacheDirectory.resolve(METADATA_FILE);
-            String json = gson.toJson(metadataMap);
-            Files.write(metadataFile, json.getBytes(StandardCharsets.UTF_8));
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE);
+                 OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel), 64 * 1024)) {
+                writer.write(out);
+                out.flush();
+                channel.force(true);
+            }
+            try {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * 중단된 이전 재구축이 남긴 임시 파일 삭제 (재구축 잠금을 가진 상태에서만 호출)
+     */
+    private void deleteStaleTempFiles(String cacheFileName) {
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(cacheDirectory, cacheFileName + "*" + TEMP_SUFFIX)) {
+            for (Path stale : stream) {
+                Files.deleteIfExists(stale);
+                logger.debug("남은 임시 파일 삭제: {}", stale);
+            }
+        } catch (IOException e) {
+            logger.debug("임시 파일 정리 실패: {}", cacheFileName, e);
+        }
+    }
 
+    /**
+     * 리소스 경로에 해당하는 캐시 파일 이름
+     * @return 캐시 파일 이름, 알 수 없는 리소스면 null
+     */
+    private static String cacheFileNameFor(String resourcePath) {
+        if (resourcePath == null) {
+            return null;
+        }
+        if (resourcePath.contains("custom-grok-patterns")) {
+            return CUSTOM_PATTERNS_CACHE;
+        }
+        if (resourcePath.contains("setting_logformat") ||
+            resourcePath.contains("GROK-PATTERN-CONVERTER")) {
+            return LOG_FORMATS_CACHE;
+        }
+        return null;
+    }
+
+    /**
+     * 원격 카탈로그 캐시 파일 이름 (URL의 SHA-256 앞부분)
+     */
+    private static String remoteCatalogFileName(String url) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(url.getBytes(StandardCharsets.UTF_8));
+            StringBuilder sb = new StringBuilder(REMOTE_CATALOG_PREFIX);
+            for (int i = 0; i < 8; i++) {
+                sb.append(String.format("%02x", digest[i]));
+            }
+            return sb.append(REMOTE_CATALOG_SUFFIX).toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256을 사용할 수 없습니다", e);
+        }
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        if (closeable == null) {
+            return;
+        }
+        try {
+            closeable.close();
         } catch (IOException e) {
-            logger.error("메타데이터 저장 실패", e);
+            logger.debug("닫기 실패", e);
         }
     }
 
+    /**
+     * 리소스 체크섬
+     * 리소스 표식(jar 항목 크기/CRC 또는 파일 크기/수정 시각)이 메타데이터에 저장된 값과 같으면
+     * 저장된 체크섬을 사용하고, 다르면 SHA-256을 계산한다. 한 번 구한 값은 실행 중에 재사용한다.
+     */
+    private String resourceChecksum(String resourcePath) throws IOException, NoSuchAlgorithmException {
+        String checksum = resourceChecksums.get(resourcePath);
+        if (checksum != null) {
+            return checksum;
+        }
+
+        String cacheFileName = cacheFileNameFor(resourcePath);
+        CacheMetadata metadata = cacheFileName != null ? metadataMap.get(cacheFileName) : null;
+        String stamp = resourceStamp(resourcePath);
+        if (stamp != null && metadata != null && metadata.getChecksum() != null
+                && stamp.equals(metadata.getResourceStamp())) {
+            checksum = metadata.getChecksum();
+            logger.debug("리소스가 변경되지 않아 체크섬 계산을 건너뜁니다: {}", resourcePath);
+        } else {
+            checksum = calculateResourceChecksum(resourcePath);
+        }
+
+        resourceChecksums.put(resourcePath, checksum);
+        return checksum;
+    }
+
+    /**
+     * 리소스 변경 확인용 표식
+     * jar 안의 리소스는 항목 크기와 CRC, 디렉토리의 리소스는 파일 크기와 수정 시각으로 만든다.
+     * @return 표식, 확인할 수 없으면 null
+     */
+    private String resourceStamp(String resourcePath) {
+        URL url = getClass().getClassLoader().getResource(resourcePath);
+        if (url == null) {
+            return null;
+        }
+
+        try {
+            if ("jar".equals(url.getProtocol())) {
+                URLConnection connection = url.openConnection();
+                if (connection instanceof JarURLConnection) {
+                    JarEntry entry = ((JarURLConnection) connection).getJarEntry();
+                    if (entry != null && entry.getSize() >= 0 && entry.getCrc() >= 0) {
+                        return "jar:" + entry.getSize() + ":" + Long.toHexString(entry.getCrc());
+                    }
+                }
+            } else if ("file".equals(url.getProtocol())) {
+                Path file = Paths.get(url.toURI());
+                return "file:" + Files.size(file) + ":" + Files.getLastModifiedTime(file).toMillis();
+            }
+        } catch (IOException | URISyntaxException | RuntimeException e) {
+            logger.debug("리소스 표식 확인 실패: {}", resourcePath, e);
+        }
+        return null;
+    }
+
     /**
      * 리소스 파일의 체크섬 계산
      */
@@ -462,12 +889,68 @@ public class PersistentCacheManager {
         }
     }
 
+    /**
+     * 캐시 파일 내용 쓰기
+     */
+    @FunctionalInterface
+    private interface CacheWriter {
+        void write(OutputStream out) throws IOException;
+    }
+
+    /**
+     * 캐시 재구축 잠금 (닫으면 해제)
+     */
+    public static final class RebuildLock implements Closeable {
+        private final FileChannel channel;
+        private final FileLock lock;
+
+        private RebuildLock(FileChannel channel, FileLock lock) {
+            this.channel = channel;
+            this.lock = lock;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                lock.release();
+            } finally {
+                channel.close();
+            }
+        }
+    }
+
+    /**
+     * 원격 카탈로그 조건부 요청 검증자
+     */
+    public static final class CatalogValidators {
+        private final String etag;
+        private final String lastModified;
+
+        CatalogValidators(String etag, String lastModified) {
+            this.etag = etag;
+            this.lastModified = lastModified;
+        }
+
+        /** If-None-Match에 보낼 ETag (없으면 null) */
+        public String getEtag() {
+            return etag;
+        }
+
+        /** If-Modified-Since에 보낼 Last-Modified (없으면 null) */
+        public String getLastModified() {
+            return lastModified;
+        }
+    }
+
     /**
      * 캐시 메타데이터 내부 클래스
      */
     private static class CacheMetadata {
         private LocalDateTime createdAt;
         private String checksum;
+        private String resourceStamp;
+        private String etag;
+        private String lastModified;
 
         public LocalDateTime getCreatedAt() {
             return createdAt;
@@ -484,5 +967,29 @@ public class PersistentCacheManager {
         public void setChecksum(String checksum) {
             this.checksum = checksum;
         }
+
+        public String getResourceStamp() {
+            return resourceStamp;
+        }
+
+        public void setResourceStamp(String resourceStamp) {
+            this.resourceStamp = resourceStamp;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        public void setEtag(String etag) {
+            this.etag = etag;
+        }
+
+        public String getLastModified() {
+            return lastModified;
+        }
+
+        public void setLastModified(String lastModified) {
+            this.lastModified = lastModified;
+        }
     }
 }
@@ -0,0 +1,492 @@
+package com.logcenter.recommender.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 추천 결과 영구 저장소
+ *
+ * CLI 실행 사이에 라인별 추천 결과(순위별 포맷 ID와 신뢰도)를 보관하는 메모리 매핑 해시 저장소.
+ * 파일은 헤더, 개방 주소법 슬롯 테이블, 추가 전용 레코드 영역으로 구성되며 크기가 고정되어 있다.
+ * 레코드 영역이 차거나 슬롯이 3/4 이상 차면 최근 레코드만 남기고 새 파일로 압축한다.
+ * 헤더의 카탈로그 버전(로그 포맷/커스텀 패턴 체크섬)이 다르면 저장소를 비우고 새로 시작한다.
+ *
+ * 한 프로세스만 쓰기 잠금을 얻어 기록하고, 잠금을 얻지 못한 프로세스는 읽기 전용으로 연다.
+ */
+public final class ResultStore implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResultStore.class);
+
+    private static final int MAGIC = 0x4C435253; // "LCRS"
+    private static final int VERSION = 1;
+
+    // 헤더: 매직, 버전, 카탈로그 버전, 슬롯 수, 레코드 끝 위치, 레코드 수
+    private static final int HEADER_BYTES = 32;
+    private static final int OFFSET_CATALOG_VERSION = 8;
+    private static final int OFFSET_SLOT_COUNT = 16;
+    private static final int OFFSET_DATA_END = 20;
+    private static final int OFFSET_LIVE_COUNT = 24;
+
+    // 슬롯: 지문(8) + 레코드 위치(4), 위치 0은 빈 슬롯
+    private static final int SLOT_BYTES = 12;
+    private static final int MIN_SLOTS = 1024;
+    private static final int BYTES_PER_SLOT = 64;
+    private static final int MAX_RESULTS_PER_RECORD = 255;
+
+    // 템플릿 지문과 라인 지문이 같은 값이 되지 않도록 섞는 값
+    private static final long LINE_FINGERPRINT_TWEAK = 0x9E3779B97F4A7C15L;
+    private static final long FNV_OFFSET = 0xCBF29CE484222325L;
+    private static final long FNV_PRIME = 0x100000001B3L;
+
+    private static final String LOCK_SUFFIX = ".lock";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final Path file;
+    private final long catalogVersion;
+    private final int maxBytes;
+    private final FileChannel lockChannel;
+    private final FileLock lock;
+
+    private MappedByteBuffer buffer;
+    private int slotCount;
+    private int dataStart;
+    private int dataEnd;
+    private int liveCount;
+
+    private long lookups;
+    private long hits;
+
+    private ResultStore(Path file, long catalogVersion, int maxBytes, FileChannel lockChannel, FileLock lock) {
+        this.file = file;
+        this.catalogVersion = catalogVersion;
+        this.maxBytes = maxBytes;
+        this.lockChannel = lockChannel;
+        this.lock = lock;
+    }
+
+    /**
+     * 저장소 열기
+     * 쓰기 잠금을 얻으면 카탈로그 버전이 다르거나 손상된 파일을 새로 만들고,
+     * 다른 프로세스가 쓰는 중이면 현재 파일을 읽기 전용으로 연다.
+     * @param file 저장소 파일
+     * @param catalogVersion 로그 포맷/커스텀 패턴 체크섬으로 만든 카탈로그 버전
+     * @param maxBytes 파일 최대 크기
+     * @return 저장소, 읽기 전용으로 열 파일이 없거나 버전이 다르면 null
+     */
+    public static ResultStore open(Path file, long catalogVersion, int maxBytes) throws IOException {
+        FileChannel lockChannel = FileChannel.open(file.resolveSibling(file.getFileName() + LOCK_SUFFIX),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        FileLock lock = null;
+        try {
+            lock = lockChannel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            // 같은 JVM의 다른 저장소가 쓰는 중
+        }
+
+        ResultStore store = new ResultStore(file, catalogVersion, maxBytes, lockChannel, lock);
+        try {
+            if (store.map()) {
+                return store;
+            }
+        } catch (IOException | RuntimeException e) {
+            store.close();
+            throw e;
+        }
+        store.close();
+        return null;
+    }
+
+    private boolean map() throws IOException {
+        if (isWritable()) {
+            if (!Files.exists(file) || !mapExisting(FileChannel.MapMode.READ_WRITE)) {
+                logger.info("추천 결과 저장소를 새로 만듭니다: {}", file);
+                reset(Collections.emptyList());
+            }
+            return true;
+        }
+        if (Files.exists(file) && mapExisting(FileChannel.MapMode.READ_ONLY)) {
+            logger.info("다른 프로세스가 추천 결과 저장소를 쓰는 중이므로 읽기 전용으로 엽니다");
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 기존 파일 매핑 (헤더와 카탈로그 버전이 맞을 때만)
+     */
+    private boolean mapExisting(FileChannel.MapMode mode) throws IOException {
+        StandardOpenOption[] openOptions = mode == FileChannel.MapMode.READ_WRITE
+                ? new StandardOpenOption[] {StandardOpenOption.READ, StandardOpenOption.WRITE}
+                : new StandardOpenOption[] {StandardOpenOption.READ};
+        MappedByteBuffer mapped;
+        try (FileChannel channel = FileChannel.open(file, openOptions)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES || size > Integer.MAX_VALUE) {
+                return false;
+            }
+            mapped = channel.map(mode, 0, size);
+        }
+
+        if (mapped.getInt(0) != MAGIC || mapped.getInt(4) != VERSION) {
+            logger.info("추천 결과 저장소 형식이 다릅니다: {}", file);
+            return false;
+        }
+        if (mapped.getLong(OFFSET_CATALOG_VERSION) != catalogVersion) {
+            logger.info("로그 포맷 또는 커스텀 패턴이 변경되어 추천 결과 저장소를 무효화합니다");
+            return false;
+        }
+
+        int slots = mapped.getInt(OFFSET_SLOT_COUNT);
+        int start = HEADER_BYTES + slots * SLOT_BYTES;
+        int end = mapped.getInt(OFFSET_DATA_END);
+        if (slots <= 0 || Integer.bitCount(slots) != 1 || start > mapped.capacity()
+                || end < start || end > mapped.capacity()) {
+            logger.info("추천 결과 저장소 헤더가 손상되었습니다: {}", file);
+            return false;
+        }
+
+        this.buffer = mapped;
+        this.slotCount = slots;
+        this.dataStart = start;
+        this.dataEnd = end;
+        this.liveCount = mapped.getInt(OFFSET_LIVE_COUNT);
+        return true;
+    }
+
+    /**
+     * 쓰기 가능 여부 (쓰기 잠금을 가진 경우)
+     */
+    public boolean isWritable() {
+        return lock != null;
+    }
+
+    /**
+     * 저장된 결과 수
+     */
+    public synchronized int size() {
+        return liveCount;
+    }
+
+    /**
+     * 결과 조회
+     * @param fingerprint 라인 지문
+     * @return 순위순 결과 (빈 목록은 매칭되는 포맷이 없다는 결과), 없으면 null
+     */
+    public synchronized List<Entry> get(long fingerprint) {
+        lookups++;
+        long key = nonZero(fingerprint);
+        int mask = slotCount - 1;
+        for (int probe = 0, slot = (int) key & mask; probe < slotCount; probe++, slot = (slot + 1) & mask) {
+            int position = HEADER_BYTES + slot * SLOT_BYTES;
+            long stored = buffer.getLong(position);
+            if (stored == 0) {
+                return null;
+            }
+            if (stored == key) {
+                List<Entry> entries = readRecord(buffer.getInt(position + 8), key);
+                if (entries != null) {
+                    hits++;
+                }
+                return entries;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 결과 저장 (같은 지문이 있으면 새 레코드로 교체)
+     * 읽기 전용으로 열린 경우 아무것도 하지 않는다.
+     * @param fingerprint 라인 지문
+     * @param entries 순위순 결과
+     */
+    public synchronized void put(long fingerprint, List<Entry> entries) {
+        if (!isWritable()) {
+            return;
+        }
+        long key = nonZero(fingerprint);
+        byte[] record = encodeRecord(key, entries);
+        if (record.length > (maxBytes - dataStart) / 4) {
+            return;
+        }
+
+        try {
+            if (dataEnd + record.length > buffer.capacity() || liveCount >= slotCount * 3 / 4) {
+                compact();
+            }
+            append(key, record);
+        } catch (IOException e) {
+            logger.warn("추천 결과 저장소 압축 실패", e);
+        }
+    }
+
+    private void append(long key, byte[] record) {
+        int offset = dataEnd;
+        ByteBuffer target = buffer.duplicate();
+        target.position(offset);
+        target.put(record);
+        dataEnd += record.length;
+
+        // 레코드를 쓴 후 슬롯을 가리키게 함
+        int mask = slotCount - 1;
+        for (int slot = (int) key & mask; ; slot = (slot + 1) & mask) {
+            int position = HEADER_BYTES + slot * SLOT_BYTES;
+            long stored = buffer.getLong(position);
+            if (stored == 0 || stored == key) {
+                if (stored == 0) {
+                    liveCount++;
+                }
+                buffer.putInt(position + 8, offset);
+                buffer.putLong(position, key);
+                break;
+            }
+        }
+        buffer.putInt(OFFSET_DATA_END, dataEnd);
+        buffer.putInt(OFFSET_LIVE_COUNT, liveCount);
+    }
+
+    /**
+     * 압축 (최근 레코드를 레코드 영역과 슬롯의 절반까지만 남기고 새 파일로 교체)
+     */
+    private void compact() throws IOException {
+        List<int[]> live = new ArrayList<>(liveCount);
+        for (int slot = 0; slot < slotCount; slot++) {
+            int position = HEADER_BYTES + slot * SLOT_BYTES;
+            if (buffer.getLong(position) != 0) {
+                live.add(new int[] {buffer.getInt(position + 8), slot});
+            }
+        }
+        // 레코드 위치가 뒤일수록 최근 기록
+        live.sort((a, b) -> Integer.compare(b[0], a[0]));
+
+        int byteBudget = (buffer.capacity() - dataStart) / 2;
+        int countBudget = slotCount / 2;
+        List<byte[]> kept = new ArrayList<>();
+        int keptBytes = 0;
+        for (int[] entry : live) {
+            int length = recordLength(entry[0]);
+            if (length < 0) {
+                continue;
+            }
+            if (kept.size() >= countBudget || keptBytes + length > byteBudget) {
+                break;
+            }
+            byte[] record = new byte[length];
+            ByteBuffer source = buffer.duplicate();
+            source.position(entry[0]);
+            source.get(record);
+            kept.add(record);
+            keptBytes += length;
+        }
+
+        // 오래된 것부터 다시 기록해 순서를 유지
+        Collections.reverse(kept);
+        logger.debug("추천 결과 저장소 압축: {}개 중 {}개 유지", live.size(), kept.size());
+        reset(kept);
+    }
+
+    /**
+     * 빈 파일을 만들어 레코드를 다시 기록하고 원자적으로 교체
+     */
+    private void reset(List<byte[]> records) throws IOException {
+        int slots = Integer.highestOneBit(Math.max(MIN_SLOTS, maxBytes / BYTES_PER_SLOT));
+        int start = HEADER_BYTES + slots * SLOT_BYTES;
+        int size = Math.max(maxBytes, start + MIN_SLOTS * BYTES_PER_SLOT);
+
+        Path directory = file.toAbsolutePath().getParent();
+        Path temp = Files.createTempFile(directory, file.getFileName().toString(), TEMP_SUFFIX);
+        try {
+            MappedByteBuffer mapped;
+            try (RandomAccessFile raf = new RandomAccessFile(temp.toFile(), "rw")) {
+                // 레코드 영역은 쓰는 만큼만 디스크를 사용 (희소 파일)
+                raf.setLength(size);
+                mapped = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+            }
+            mapped.putInt(0, MAGIC);
+            mapped.putInt(4, VERSION);
+            mapped.putLong(OFFSET_CATALOG_VERSION, catalogVersion);
+            mapped.putInt(OFFSET_SLOT_COUNT, slots);
+            mapped.putInt(OFFSET_DATA_END, start);
+            mapped.putInt(OFFSET_LIVE_COUNT, 0);
+
+            this.buffer = mapped;
+            this.slotCount = slots;
+            this.dataStart = start;
+            this.dataEnd = start;
+            this.liveCount = 0;
+            for (byte[] record : records) {
+                append(ByteBuffer.wrap(record).getLong(0), record);
+            }
+            mapped.force();
+
+            try {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static byte[] encodeRecord(long key, List<Entry> entries) {
+        int count = Math.min(entries.size(), MAX_RESULTS_PER_RECORD);
+        List<byte[]> ids = new ArrayList<>(count);
+        int length = 8 + 1;
+        for (int i = 0; i < count; i++) {
+            byte[] id = entries.get(i).getFormatId().getBytes(StandardCharsets.UTF_8);
+            ids.add(id);
+            length += 2 + id.length + 8;
+        }
+
+        ByteBuffer record = ByteBuffer.allocate(length);
+        record.putLong(key);
+        record.put((byte) count);
+        for (int i = 0; i < count; i++) {
+            record.putShort((short) ids.get(i).length);
+            record.put(ids.get(i));
+            record.putDouble(entries.get(i).getConfidence());
+        }
+        return record.array();
+    }
+
+    /**
+     * 레코드 읽기 (위치와 지문을 확인하고 맞지 않으면 null)
+     */
+    private List<Entry> readRecord(int offset, long key) {
+        if (recordLength(offset) < 0 || buffer.getLong(offset) != key) {
+            return null;
+        }
+        int count = buffer.get(offset + 8) & 0xFF;
+        List<Entry> entries = new ArrayList<>(count);
+        int position = offset + 9;
+        for (int i = 0; i < count; i++) {
+            int idLength = buffer.getShort(position) & 0xFFFF;
+            byte[] id = new byte[idLength];
+            ByteBuffer source = buffer.duplicate();
+            source.position(position + 2);
+            source.get(id);
+            position += 2 + idLength;
+            entries.add(new Entry(new String(id, StandardCharsets.UTF_8), buffer.getDouble(position)));
+            position += 8;
+        }
+        return entries;
+    }
+
+    /**
+     * 레코드 길이, 레코드 영역을 벗어나면 -1
+     */
+    private int recordLength(int offset) {
+        if (offset < dataStart || offset + 9 > dataEnd) {
+            return -1;
+        }
+        int count = buffer.get(offset + 8) & 0xFF;
+        int position = offset + 9;
+        for (int i = 0; i < count; i++) {
+            if (position + 2 > dataEnd) {
+                return -1;
+            }
+            position += 2 + (buffer.getShort(position) & 0xFFFF) + 8;
+            if (position > dataEnd) {
+                return -1;
+            }
+        }
+        return position - offset;
+    }
+
+    private static long nonZero(long fingerprint) {
+        return fingerprint != 0 ? fingerprint : 1;
+    }
+
+    /**
+     * 템플릿 지문 (숫자를 모두 0으로 본 라인의 해시)
+     * 타임스탬프, 포트, 카운터만 다른 라인은 같은 지문이 된다. 자릿수는 유지한다.
+     * @param line 로그 라인
+     * @param seed 결과에 영향을 주는 추천 옵션의 해시
+     */
+    public static long templateFingerprint(String line, long seed) {
+        long hash = FNV_OFFSET ^ seed;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c >= '0' && c <= '9') {
+                c = '0';
+            }
+            hash = (hash ^ c) * FNV_PRIME;
+        }
+        return hash;
+    }
+
+    /**
+     * 라인 지문 (라인 전체의 해시)
+     * @param line 로그 라인
+     * @param seed 결과에 영향을 주는 추천 옵션의 해시
+     */
+    public static long lineFingerprint(String line, long seed) {
+        long hash = FNV_OFFSET ^ seed ^ LINE_FINGERPRINT_TWEAK;
+        for (int i = 0; i < line.length(); i++) {
+            hash = (hash ^ line.charAt(i)) * FNV_PRIME;
+        }
+        return hash;
+    }
+
+    /**
+     * 변경 내용을 디스크에 반영하고 쓰기 잠금 해제
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            if (buffer != null && isWritable()) {
+                buffer.force();
+            }
+            if (lookups > 0) {
+                logger.info("추천 결과 저장소: 조회 {}건, 적중 {}건, 저장 {}건", lookups, hits, liveCount);
+            }
+        } finally {
+            try {
+                if (lock != null) {
+                    lock.release();
+                }
+            } finally {
+                lockChannel.close();
+            }
+        }
+    }
+
+    /**
+     * 저장된 추천 결과 항목
+     */
+    public static final class Entry {
+        private final String formatId;
+        private final double confidence;
+
+        public Entry(String formatId, double confidence) {
+            this.formatId = formatId;
+            this.confidence = confidence;
+        }
+
+        public String getFormatId() {
+            return formatId;
+        }
+
+        public double getConfidence() {
+            return confidence;
+        }
+    }
+}
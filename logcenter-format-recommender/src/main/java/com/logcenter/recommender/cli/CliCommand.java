@@ -9,25 +9,45 @@ import com.logcenter.recommender.cache.PersistentCacheManager;
 import com.logcenter.recommender.config.AppConfig;
 import com.logcenter.recommender.model.FormatRecommendation;
 import com.logcenter.recommender.model.LogFormat;
+import com.logcenter.recommender.service.HybridLogFormatRecommender;
 import com.logcenter.recommender.service.LogFormatRecommender;
 import com.logcenter.recommender.service.LogFormatRecommenderImpl;
+import com.logcenter.recommender.service.SourceAffinity;
+import com.logcenter.recommender.api.CircuitBreaker;
 import com.logcenter.recommender.api.LogFormatApiClient;
+import com.logcenter.recommender.api.cache.CacheManager;
 import com.logcenter.recommender.api.model.LogFormatRequest;
 import com.logcenter.recommender.config.ApiConfiguration;
+import com.logcenter.recommender.follow.CheckpointStore;
+import com.logcenter.recommender.follow.FollowSession;
+import com.logcenter.recommender.follow.LogTailer;
+import com.logcenter.recommender.follow.RollingFormatWindow;
+import com.logcenter.recommender.follow.TailCheckpoint;
+import com.logcenter.recommender.server.RecommendationServer;
+import com.logcenter.recommender.syslog.SourceFormatTracker;
+import com.logcenter.recommender.syslog.SyslogListener;
+import com.logcenter.recommender.util.LogParser;
+import com.logcenter.recommender.util.MultilineAssembler;
+import com.logcenter.recommender.util.StartupPhases;
 import picocli.CommandLine.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.*;
-import java.nio.charset.StandardCharsets;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.Map;
-import java.util.HashMap;
 
 /**
  * CLI 명령어 구현
@@ -46,9 +66,21 @@ public class CliCommand implements Callable<Integer> {
     
     private static final Logger logger = LoggerFactory.getLogger(CliCommand.class);
     
+    // 파일 분석 시 배치 크기
+    private static final int BATCH_SIZE = 100;
+    
+    // 표준 입력을 뜻하는 로그 입력
+    private static final String STDIN_INPUT = "-";
+    
+    // syslog 분류 대기 큐 크기
+    private static final int SYSLOG_QUEUE_CAPACITY = 65536;
+    
+    // syslog 송신지 최대 수
+    private static final int SYSLOG_MAX_SOURCES = 10000;
+    
     @Parameters(
         index = "0",
-        description = "분석할 로그 샘플 (텍스트 또는 파일 경로)",
+        description = "분석할 로그 샘플 (텍스트 또는 파일 경로, '-'이면 표준 입력)",
         arity = "0..1"
     )
     private String logInput;
@@ -152,12 +184,30 @@ public class CliCommand implements Callable<Integer> {
     )
     private boolean rebuildCache;
     
+    @Option(
+        names = {"--result-cache"},
+        description = "추천 결과를 캐시 디렉토리에 저장해 다음 실행에서 재사용, 숫자만 다른 라인은 저장된 결과로 근사 (기본값: 설정 파일)"
+    )
+    private boolean resultCache;
+    
+    @Option(
+        names = {"--startup-profile"},
+        description = "초기화 단계별 소요 시간을 표준 오류로 출력"
+    )
+    private boolean startupProfile;
+    
     @Option(
         names = {"--api"},
         description = "API 서버를 통한 추천 (로컬 대신)"
     )
     private boolean useApi;
     
+    @Option(
+        names = {"--hybrid"},
+        description = "API 서버를 우선 사용하고 느리거나 실패하면 로컬 엔진으로 추천 (지연 예산, 회로 차단기)"
+    )
+    private boolean hybrid;
+    
     @Option(
         names = {"--api-url"},
         description = "API 서버 URL (기본값: 설정 파일)"
@@ -170,13 +220,117 @@ public class CliCommand implements Callable<Integer> {
     )
     private String apiKey;
     
+    @Option(
+        names = {"--multiline"},
+        description = "스택 트레이스 등 여러 줄 로그를 하나의 이벤트로 묶어 분석 (그룹/벤더 필터가 있으면 해당 포맷의 시작 형식으로 구분)"
+    )
+    private boolean multiline;
+    
+    @Option(
+        names = {"--stdin"},
+        description = "표준 입력(파이프)의 로그를 스트리밍으로 분석 ('-' 입력과 동일)"
+    )
+    private boolean readStdin;
+    
+    @Option(
+        names = {"--progress-interval"},
+        description = "표준 입력/syslog 수신/서버 모드 시 진행 상황 출력 간격 ms, 0이면 출력 안 함 (기본값: 5000)",
+        defaultValue = "5000"
+    )
+    private long progressIntervalMs;
+    
+    @Option(
+        names = {"--syslog-udp"},
+        description = "syslog UDP 수신 포트 (지정하면 수신 모드로 실행)",
+        defaultValue = "0"
+    )
+    private int syslogUdpPort;
+    
+    @Option(
+        names = {"--syslog-tcp"},
+        description = "syslog TCP 수신 포트 (지정하면 수신 모드로 실행)",
+        defaultValue = "0"
+    )
+    private int syslogTcpPort;
+    
+    @Option(
+        names = {"--syslog-bind"},
+        description = "syslog 수신 주소 (기본값: 0.0.0.0)",
+        defaultValue = "0.0.0.0"
+    )
+    private String syslogBind;
+    
+    @Option(
+        names = {"--serve"},
+        description = "추천 HTTP 서버 포트 (지정하면 API 서버 모드로 실행)",
+        defaultValue = "0"
+    )
+    private int servePort;
+    
+    @Option(
+        names = {"--serve-bind"},
+        description = "추천 HTTP 서버 주소 (기본값: 127.0.0.1)",
+        defaultValue = "127.0.0.1"
+    )
+    private String serveBind;
+    
+    @Option(
+        names = {"--follow"},
+        description = "파일 끝에 추가되는 로그를 계속 분석 (tail -f)"
+    )
+    private boolean follow;
+    
+    @Option(
+        names = {"--follow-interval"},
+        description = "파일 추적 폴링 간격 ms (기본값: 1000)",
+        defaultValue = "1000"
+    )
+    private long followIntervalMs;
+    
+    @Option(
+        names = {"--window"},
+        description = "파일 추적/표준 입력 분석 시 포맷 분포를 계산할 최근 라인 수 (기본값: 100)",
+        defaultValue = "100"
+    )
+    private int windowSize;
+    
+    @Option(
+        names = {"--no-lock-in"},
+        description = "파일 추적/syslog 수신 시 소스별 포맷 고정을 사용하지 않고 모든 라인을 전체 포맷으로 분석"
+    )
+    private boolean noLockIn;
+    
+    @Option(
+        names = {"--include"},
+        description = "디렉토리 분석 시 포함할 파일 glob (예: *.log, app/**/*.gz), 여러 번 지정 가능",
+        split = ","
+    )
+    private List<String> includePatterns;
+    
+    @Option(
+        names = {"--exclude"},
+        description = "디렉토리 분석 시 제외할 파일/디렉토리 glob (예: archive, *.tmp), 여러 번 지정 가능",
+        split = ","
+    )
+    private List<String> excludePatterns;
+    
+    @Option(
+        names = {"-j", "--jobs"},
+        description = "디렉토리 분석 시 동시에 분석할 파일 수 (기본값: 매칭 스레드 수)",
+        defaultValue = "0"
+    )
+    private int jobs;
+    
     private LogFormatRecommender recommender;
     private LogFormatApiClient apiClient;
+    private CacheManager responseCache;
     private OutputFormatter formatter;
     private ApiConfiguration apiConfig;
+    private final StartupPhases startupPhases = new StartupPhases();
     
     @Override
     public Integer call() throws Exception {
+        startupPhases.recordSinceJvmStart("jvm-cli");
         try {
             // 캐시 명령 처리 (서비스 초기화 전)
             if (clearCache) {
@@ -185,6 +339,9 @@ public class CliCommand implements Callable<Integer> {
             
             // 서비스 초기화
             initializeService();
+            if (startupProfile) {
+                System.err.print(startupPhases.report());
+            }
             
             // 캐시 재구축 명령
             if (rebuildCache) {
@@ -202,6 +359,21 @@ public class CliCommand implements Callable<Integer> {
                 return listAllVendors();
             }
             
+            // syslog 수신
+            if (syslogUdpPort > 0 || syslogTcpPort > 0) {
+                return listenSyslog();
+            }
+            
+            // 추천 HTTP 서버
+            if (servePort > 0) {
+                return serve();
+            }
+            
+            // 표준 입력 분석
+            if (readStdin || STDIN_INPUT.equals(logInput)) {
+                return analyzeStream();
+            }
+            
             // 로그 입력 확인
             if (logInput == null) {
                 System.err.println("오류: 로그 입력이 필요합니다.");
@@ -209,7 +381,9 @@ public class CliCommand implements Callable<Integer> {
             }
             
             // 로그 분석 수행
-            if (isDirectory) {
+            if (follow) {
+                return followFile();
+            } else if (isDirectory) {
                 return analyzeDirectory();
             } else if (isFile || new File(logInput).exists()) {
                 return analyzeFile();
@@ -222,6 +396,12 @@ public class CliCommand implements Callable<Integer> {
             System.err.println("오류: " + e.getMessage());
             return 1;
         } finally {
+            if (recommender instanceof HybridLogFormatRecommender) {
+                System.err.println(((HybridLogFormatRecommender) recommender).getStats());
+            }
+            if (responseCache != null) {
+                printResponseCacheStats();
+            }
             if (recommender != null) {
                 recommender.shutdown();
             }
@@ -240,20 +420,22 @@ public class CliCommand implements Callable<Integer> {
      */
     private void initializeService() {
         // API 설정 로드
-        apiConfig = new ApiConfiguration();
+        apiConfig = startupPhases.run("api-config", ApiConfiguration::new);
         
         // API 사용 여부 결정
-        if (useApi || apiConfig.isApiEnabled()) {
+        if (hybrid || apiConfig.isHybridEnabled()) {
+            initializeHybridService();
+        } else if (useApi || apiConfig.isApiEnabled()) {
             // API 클라이언트 초기화
+            apiClient = createApiClient();
             String finalApiUrl = apiUrl != null ? apiUrl : apiConfig.getApiUrl();
-            String finalApiKey = apiKey != null ? apiKey : apiConfig.getApiKey();
             
-            if (finalApiUrl == null || finalApiUrl.isEmpty()) {
-                throw new RuntimeException("API URL이 설정되지 않았습니다. --api-url 옵션을 사용하거나 환경변수를 설정하세요.");
+            // 받은 카탈로그를 영구 캐시에 두고 다음 조회는 조건부 요청으로 확인
+            PersistentCacheManager cacheManager = createCacheManager();
+            if (cacheManager != null && cacheManager.isEnabled()) {
+                apiClient.setCatalogCache(cacheManager);
             }
             
-            apiClient = new LogFormatApiClient(finalApiUrl, finalApiKey);
-            
             // 연결 확인
             if (!apiClient.isHealthy()) {
                 throw new RuntimeException("API 서버에 연결할 수 없습니다: " + finalApiUrl);
@@ -269,6 +451,64 @@ public class CliCommand implements Callable<Integer> {
         formatter = new OutputFormatter(outputFormat, showDetail);
     }
     
+    /**
+     * API 클라이언트 생성
+     */
+    private LogFormatApiClient createApiClient() {
+        String finalApiUrl = apiUrl != null ? apiUrl : apiConfig.getApiUrl();
+        String finalApiKey = apiKey != null ? apiKey : apiConfig.getApiKey();
+        
+        if (finalApiUrl == null || finalApiUrl.isEmpty()) {
+            throw new RuntimeException("API URL이 설정되지 않았습니다. --api-url 옵션을 사용하거나 환경변수를 설정하세요.");
+        }
+        
+        LogFormatApiClient client = new LogFormatApiClient(finalApiUrl, finalApiKey,
+            apiConfig.getPoolSize(), apiConfig.getBatchChunkSize());
+        if (apiConfig.isCacheEnabled()) {
+            responseCache = CacheManager.getInstance();
+            client.setResponseCache(responseCache);
+        }
+        return client;
+    }
+    
+    /**
+     * 응답 캐시 적중률 출력 (조회가 있었던 캐시만)
+     */
+    private void printResponseCacheStats() {
+        for (CacheManager.CacheStats stats : responseCache.getAllStats()) {
+            if (stats.getHitCount() + stats.getMissCount() > 0) {
+                System.err.println(String.format("응답 캐시 %s: 적중률 %.1f%% (적중 %d, 불러오기 %d, 실패 %d)",
+                    stats.getName(), stats.getHitRate() * 100, stats.getHitCount(),
+                    stats.getLoadSuccessCount(), stats.getLoadFailureCount()));
+            }
+        }
+    }
+    
+    /**
+     * 하이브리드 서비스 초기화
+     * 로컬 서비스를 준비한 후 추천 요청을 원격 API 우선, 로컬 대체로 처리하는 서비스로 감싼다.
+     * 그 외 명령(포맷 목록 등)은 로컬 엔진을 사용한다.
+     */
+    private void initializeHybridService() {
+        LogFormatApiClient client = createApiClient();
+        if (!client.isHealthy()) {
+            logger.warn("API 서버에 연결할 수 없어 회로 차단기가 열릴 때까지 로컬 엔진으로 대체됩니다");
+        }
+        
+        initializeLocalService();
+        
+        CircuitBreaker breaker = new CircuitBreaker(
+            apiConfig.getBreakerWindowSize(),
+            apiConfig.getBreakerMinimumCalls(),
+            apiConfig.getBreakerFailureRate(),
+            apiConfig.getBreakerLatencyPercentile(),
+            apiConfig.getBreakerLatencyThresholdMs(),
+            TimeUnit.SECONDS.toMillis(apiConfig.getBreakerOpenSeconds()));
+        recommender = new HybridLogFormatRecommender(client, recommender, breaker,
+            apiConfig.getLatencyBudgetMs(), apiConfig.getHedgeDelayMs());
+        logger.info("하이브리드 모드: 지연 예산 {}ms", apiConfig.getLatencyBudgetMs());
+    }
+    
     /**
      * 텍스트 로그 분석
      */
@@ -298,6 +538,11 @@ public class CliCommand implements Callable<Integer> {
                 logInput, 
                 createRecommendOptions()
             );
+            
+            // 출력에는 데이터 테이블 등을 포함한 전체 포맷 사용
+            for (FormatRecommendation recommendation : recommendations) {
+                recommendation.setLogFormat(recommender.getFullFormat(recommendation.getLogFormat()));
+            }
         }
         
         formatter.printRecommendations(recommendations, showStats);
@@ -317,58 +562,279 @@ public class CliCommand implements Callable<Integer> {
             return 1;
         }
         
-        // 파일 읽기
-        List<String> lines = Files.readAllLines(path, StandardCharsets.UTF_8);
+        List<List<FormatRecommendation>> batchResults;
+        try {
+            LogFormatRecommender.RecommendOptions options = createRecommendOptions();
+            batchResults = analyzeSamples(path, options, multilineRule(options));
+        } catch (ApiBatchException e) {
+            logger.error("API 배치 추천 실패", e.getCause());
+            System.err.println("API 배치 추천 실패: " + e.getCause().getMessage());
+            return 1;
+        }
         
-        // 각 라인 분석 (배치 처리)
-        List<String> logSamples = new ArrayList<>();
-        for (String line : lines) {
-            if (!line.trim().isEmpty()) {
-                logSamples.add(line.trim());
-                if (logSamples.size() >= 100) { // 배치 크기
-                    break;
-                }
-            }
+        // 결과 집계 및 출력
+        formatter.printBatchResults(batchResults, path.getFileName().toString(), showStats);
+        
+        return 0;
+    }
+    
+    /**
+     * 파일 샘플 배치 추천 (파일 상태를 공유하지 않으므로 여러 파일에 동시에 사용 가능)
+     */
+    private List<List<FormatRecommendation>> analyzeSamples(Path path, LogFormatRecommender.RecommendOptions options,
+                                                            MultilineAssembler.EventStartRule rule)
+            throws IOException {
+        // 파일 스트리밍 읽기 (배치 크기만큼만 읽고 중단)
+        List<String> logSamples = LogParser.readSamples(path.toString(), BATCH_SIZE, rule);
+        return recommendSamples(logSamples, options);
+    }
+    
+    /**
+     * 멀티라인 이벤트 시작 규칙 (--multiline)
+     * 그룹/벤더 필터가 있으면 후보 포맷의 첫 토큰으로 판단하고, 없으면 기본 규칙 사용
+     * @return 멀티라인을 사용하지 않으면 null
+     */
+    private MultilineAssembler.EventStartRule multilineRule(LogFormatRecommender.RecommendOptions options) {
+        if (!multiline) {
+            return null;
+        }
+        return recommender != null ? recommender.eventStartRule(options) : MultilineAssembler.DEFAULT_RULE;
+    }
+    
+    /**
+     * 샘플 배치 추천 (로컬 또는 API)
+     */
+    private List<List<FormatRecommendation>> recommendSamples(List<String> logSamples,
+                                                              LogFormatRecommender.RecommendOptions options)
+            throws IOException {
+        if (apiClient == null) {
+            // 로컬 배치 추천
+            return recommender.recommendBatch(logSamples, options);
         }
         
-        // 배치 추천
-        List<List<FormatRecommendation>> batchResults;
+        // API를 통한 배치 추천 (배치 단위로 나누어 동시에 요청하고 샘플 순서대로 결과 정렬)
+        try {
+            LogFormatRequest request = new LogFormatRequest();
+            request.setLogSamples(logSamples);
+            request.setGroupFilter(groupFilter);
+            request.setVendorFilter(vendorFilter);
+            request.setTopN(topN);
+            
+            return apiClient.recommendBatch(request);
+        } catch (IOException e) {
+            throw new ApiBatchException(e);
+        }
+    }
+    
+    /**
+     * API 배치 추천 실패 (파일 읽기 실패와 구분)
+     */
+    private static class ApiBatchException extends IOException {
+        ApiBatchException(IOException cause) {
+            super(cause.getMessage(), cause);
+        }
+    }
+    
+    /**
+     * 표준 입력 스트리밍 분석 (-, --stdin)
+     * 배치 단위로 추천하며 주기적으로 진행 상황을, 입력이 끝나면 전체 요약을 출력한다.
+     * 출력 파이프가 닫히면(SIGPIPE, 예: | head) 더 읽지 않고 조용히 종료한다.
+     */
+    private Integer analyzeStream() throws IOException {
+        logger.info("표준 입력 분석 시작");
+        
+        LogFormatRecommender.RecommendOptions options = createRecommendOptions();
+        StreamAnalyzer analyzer = new StreamAnalyzer(
+            samples -> recommendSamples(samples, options),
+            BATCH_SIZE,
+            multilineRule(options),
+            StreamAnalyzer.DEFAULT_MAX_LINE_CHARS,
+            Math.max(1, windowSize));
         
+        StreamAnalyzer.Summary summary = analyzer.run(LogParser.openStreamReader(System.in), progressIntervalMs,
+            progress -> {
+                formatter.printStreamProgress(progress);
+                return !System.out.checkError();
+            });
+        
+        if (System.out.checkError()) {
+            logger.info("출력 파이프가 닫혀 표준 입력 분석을 종료합니다.");
+            return 0;
+        }
+        formatter.printStreamSummary(summary);
+        return 0;
+    }
+    
+    /**
+     * syslog 수신 분석 (--syslog-udp, --syslog-tcp)
+     * 송신지별 주요 포맷을 주기적으로 출력하며 종료(Ctrl+C)할 때까지 실행한다.
+     */
+    private Integer listenSyslog() throws IOException {
         if (apiClient != null) {
-            // API를 통한 배치 추천
-            batchResults = new ArrayList<>();
-            try {
-                LogFormatRequest request = new LogFormatRequest();
-                request.setLogSamples(logSamples);
-                request.setGroupFilter(groupFilter);
-                request.setVendorFilter(vendorFilter);
-                request.setTopN(topN);
-                
-                // API는 배치를 하나의 요청으로 처리
-                List<FormatRecommendation> recommendations = apiClient.recommendFormats(request);
-                // 각 로그에 대해 동일한 추천 결과 사용
-                for (int i = 0; i < logSamples.size(); i++) {
-                    batchResults.add(recommendations);
+            System.err.println("오류: syslog 수신은 로컬 추천에서만 지원합니다.");
+            return 1;
+        }
+        
+        // 메시지 단위 병렬 처리 (메시지 안의 패턴 매칭은 작업 스레드에서 순차 수행)
+        LogFormatRecommender.RecommendOptions options = createRecommendOptions();
+        options.setParallelProcessing(false);
+        options.setMaxResults(1);
+        
+        // 송신지별로 포맷이 고정되면 고정된 포맷의 패턴만 검증
+        SourceAffinity affinity = noLockIn ? null : new SourceAffinity(recommender, options);
+        SourceFormatTracker tracker = new SourceFormatTracker(Math.max(1, windowSize), SYSLOG_MAX_SOURCES);
+        SyslogListener listener = new SyslogListener(message -> {
+            List<FormatRecommendation> recommendations = affinity != null
+                ? affinity.recommend(message.getSource(), message.getBody())
+                : recommender.recommend(message.getBody(), options);
+            return recommendations.isEmpty() ? null : recommendations.get(0);
+        }, tracker, SYSLOG_QUEUE_CAPACITY, recommender.getParallelism());
+        
+        try {
+            if (syslogUdpPort > 0) {
+                System.out.println("syslog UDP 수신: "
+                    + listener.bindUdp(new InetSocketAddress(syslogBind, syslogUdpPort)));
+            }
+            if (syslogTcpPort > 0) {
+                System.out.println("syslog TCP 수신: "
+                    + listener.bindTcp(new InetSocketAddress(syslogBind, syslogTcpPort)));
+            }
+            listener.start();
+            
+            // 종료(Ctrl+C) 시 마지막 상태 출력
+            Thread mainThread = Thread.currentThread();
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                mainThread.interrupt();
+                formatter.printSyslogSources(tracker.getSnapshots(), listener.getReceived(), listener.getDropped());
+            }, "syslog-shutdown"));
+            
+            long interval = progressIntervalMs > 0 ? progressIntervalMs : 5000L;
+            while (!Thread.currentThread().isInterrupted()) {
+                Thread.sleep(interval);
+                if (progressIntervalMs > 0) {
+                    formatter.printSyslogSources(tracker.getSnapshots(), listener.getReceived(), listener.getDropped());
                 }
-            } catch (IOException e) {
-                logger.error("API 배치 추천 실패", e);
-                System.err.println("API 배치 추천 실패: " + e.getMessage());
-                return 1;
             }
-        } else {
-            // 로컬 배치 추천
-            batchResults = recommender.recommendBatch(
-                logSamples, 
-                createRecommendOptions()
-            );
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            listener.close();
+        }
+        return 0;
+    }
+    
+    /**
+     * 추천 HTTP 서버 (--serve)
+     * 예열한 로컬 엔진을 API 클라이언트와 같은 엔드포인트로 제공하고 종료(Ctrl+C)까지 실행
+     */
+    private Integer serve() throws IOException {
+        if (apiClient != null) {
+            System.err.println("오류: 서버 모드는 로컬 추천에서만 지원합니다.");
+            return 1;
         }
         
-        // 결과 집계 및 출력
-        formatter.printBatchResults(batchResults, path.getFileName().toString(), showStats);
+        try (RecommendationServer server = new RecommendationServer(recommender)) {
+            startupPhases.run("warm-up", server::warmUp);
+            InetSocketAddress address = server.start(new InetSocketAddress(serveBind, servePort));
+            System.out.println("추천 서버 시작: http://" + address.getHostString() + ":" + address.getPort() + "/api/v1");
+            
+            // 종료(Ctrl+C) 시 처리 현황 출력
+            Thread mainThread = Thread.currentThread();
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                mainThread.interrupt();
+                System.out.println(server);
+            }, "serve-shutdown"));
+            
+            long interval = progressIntervalMs > 0 ? progressIntervalMs : 5000L;
+            while (!Thread.currentThread().isInterrupted()) {
+                Thread.sleep(interval);
+                if (progressIntervalMs > 0) {
+                    System.out.println(server);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return 0;
+    }
+    
+    /**
+     * 파일 추적 분석 (--follow)
+     * 마지막 체크포인트부터 새 라인만 읽어 분류하고 주요 포맷이 바뀌면 출력
+     */
+    private Integer followFile() throws IOException {
+        Path path = Paths.get(logInput);
+        if (!Files.isRegularFile(path)) {
+            System.err.println("오류: 파일을 찾을 수 없습니다: " + logInput);
+            return 1;
+        }
+        if (windowSize <= 0) {
+            System.err.println("오류: --window 값은 1 이상이어야 합니다.");
+            return 1;
+        }
         
+        CheckpointStore checkpointStore = new CheckpointStore();
+        TailCheckpoint checkpoint = checkpointStore.load(path);
+        LogFormatRecommender.RecommendOptions options = createRecommendOptions();
+        
+        // 포맷이 고정되면 고정된 포맷의 패턴만 검증 (API 사용 시 제외)
+        SourceAffinity affinity = apiClient == null && !noLockIn ? new SourceAffinity(recommender, options) : null;
+        String source = path.toAbsolutePath().toString();
+        
+        try (LogTailer tailer = new LogTailer(path, LogParser.detectEncoding(logInput), checkpoint)) {
+            FollowSession session = new FollowSession(tailer, checkpointStore,
+                line -> classifyLine(line, tailer.getCharset(), options, affinity, source),
+                new RollingFormatWindow(windowSize), System.out);
+            
+            // 종료(Ctrl+C) 시 추적을 멈추고 추적 스레드가 마지막 위치를 저장할 때까지 대기
+            Thread mainThread = Thread.currentThread();
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                session.stop();
+                mainThread.interrupt();
+                try {
+                    session.awaitFinished(5000L);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }, "follow-shutdown"));
+            
+            System.out.println("파일 추적 시작: " + path
+                + (checkpoint != null ? " (offset " + checkpoint.getOffset() + "부터)" : ""));
+            session.run(followIntervalMs);
+        }
         return 0;
     }
     
+    /**
+     * 단일 라인 분류 (최상위 포맷 ID, 없으면 null)
+     * 로컬 추천은 바이트 단계 사전 필터를 통과한 라인만 디코딩하며, 포맷 고정을 사용하면 고정된 포맷부터 검증한다.
+     */
+    private String classifyLine(ByteBuffer line, Charset charset, LogFormatRecommender.RecommendOptions options,
+                                SourceAffinity affinity, String source) {
+        try {
+            List<FormatRecommendation> recommendations;
+            if (apiClient != null) {
+                LogFormatRequest request = new LogFormatRequest();
+                request.setLogSamples(List.of(charset.decode(line.duplicate()).toString()));
+                request.setGroupFilter(groupFilter);
+                request.setVendorFilter(vendorFilter);
+                request.setTopN(1);
+                recommendations = apiClient.recommendFormats(request);
+            } else if (affinity != null) {
+                recommendations = affinity.recommend(source, line, charset);
+            } else {
+                recommendations = recommender.recommend(line, charset, options);
+            }
+            if (recommendations == null || recommendations.isEmpty()) {
+                return null;
+            }
+            return recommendations.get(0).getLogFormat().getFormatId();
+        } catch (Exception e) {
+            logger.debug("라인 분류 실패: {}", e.getMessage());
+            return null;
+        }
+    }
+    
     /**
      * 디렉토리 내 로그 파일 분석
      */
@@ -381,29 +847,60 @@ public class CliCommand implements Callable<Integer> {
             return 1;
         }
         
-        // 로그 파일 찾기
-        List<Path> logFiles = new ArrayList<>();
-        Files.walk(dirPath, 1)
-            .filter(Files::isRegularFile)
-            .filter(p -> p.toString().endsWith(".log") || 
-                        p.toString().endsWith(".txt"))
-            .forEach(logFiles::add);
+        // 로그 파일 찾기 (하위 디렉토리 포함)
+        DirectoryAnalyzer analyzer = new DirectoryAnalyzer(dirPath, includePatterns, excludePatterns);
+        List<Path> logFiles = analyzer.findFiles();
         
         if (logFiles.isEmpty()) {
             System.err.println("로그 파일을 찾을 수 없습니다.");
             return 1;
         }
         
-        System.out.println(logFiles.size() + "개의 로그 파일을 발견했습니다.\n");
+        if (outputFormat != OutputFormat.JSON) {
+            System.out.println(logFiles.size() + "개의 로그 파일을 발견했습니다.\n");
+        }
         
-        // 각 파일 분석
-        for (Path logFile : logFiles) {
-            System.out.println("\n=== " + logFile.getFileName() + " ===");
-            logInput = logFile.toString();
-            analyzeFile();
+        // 로컬 분석은 매칭 스레드 풀을 파일 단위로 함께 사용 (파일 안의 매칭은 해당 스레드에서 순차 수행)
+        LogFormatRecommender.RecommendOptions options = createRecommendOptions();
+        MultilineAssembler.EventStartRule rule = multilineRule(options);
+        ExecutorService ownExecutor = null;
+        Executor executor;
+        int parallelism;
+        if (apiClient == null) {
+            executor = recommender.getExecutor();
+            parallelism = recommender.getParallelism();
+        } else {
+            parallelism = jobs > 0 ? jobs : AppConfig.getInstance().getInt(AppConfig.PARALLEL_THREAD_COUNT);
+            ownExecutor = Executors.newFixedThreadPool(parallelism);
+            executor = ownExecutor;
         }
+        int maxInFlight = jobs > 0 ? Math.min(jobs, parallelism) : parallelism;
         
-        return 0;
+        DirectoryAnalyzer.Summary summary;
+        try {
+            // 파일 결과는 완료되는 순서대로 출력
+            summary = analyzer.run(logFiles, executor, maxInFlight,
+                file -> analyzeSamples(file, options, rule),
+                result -> {
+                    if (result.isFailed()) {
+                        System.err.println("파일 분석 실패: " + result.getDisplayName()
+                            + " (" + result.getError().getMessage() + ")");
+                    } else {
+                        formatter.printBatchResults(result.getResults(), result.getDisplayName(), showStats);
+                    }
+                });
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("디렉토리 분석이 중단되었습니다.");
+            return 1;
+        } finally {
+            if (ownExecutor != null) {
+                ownExecutor.shutdownNow();
+            }
+        }
+        
+        formatter.printDirectorySummary(summary);
+        return summary.getFailedCount() == summary.getFileCount() ? 1 : 0;
     }
     
     /**
@@ -417,8 +914,11 @@ public class CliCommand implements Callable<Integer> {
                 // API에서 포맷 목록 가져오기
                 formats = apiClient.getLogFormats();
             } else {
-                // 로컬에서 포맷 목록 가져오기
-                formats = recommender.getAvailableFormats();
+                // 로컬에서 포맷 목록 가져오기 (전체 포맷)
+                formats = new ArrayList<>();
+                for (LogFormat format : recommender.getAvailableFormats()) {
+                    formats.add(recommender.getFullFormat(format));
+                }
             }
             
             formatter.printFormatList(formats);
@@ -436,14 +936,8 @@ public class CliCommand implements Callable<Integer> {
     private Integer listAllGroups() {
         try {
             if (apiClient != null) {
-                // API 모드에서는 전체 포맷을 가져와서 그룹 통계 생성
-                List<LogFormat> formats = apiClient.getLogFormats();
-                Map<String, Integer> groupStats = new HashMap<>();
-                for (LogFormat format : formats) {
-                    String group = format.getGroup();
-                    groupStats.put(group, groupStats.getOrDefault(group, 0) + 1);
-                }
-                formatter.printGroupStatistics(groupStats);
+                // API 모드에서는 전체 카탈로그 기준 그룹 통계 (응답 캐시를 거침)
+                formatter.printGroupStatistics(apiClient.getGroupStatistics());
             } else {
                 formatter.printGroupStatistics(recommender.getGroupStatistics());
             }
@@ -461,14 +955,8 @@ public class CliCommand implements Callable<Integer> {
     private Integer listAllVendors() {
         try {
             if (apiClient != null) {
-                // API 모드에서는 전체 포맷을 가져와서 벤더 통계 생성
-                List<LogFormat> formats = apiClient.getLogFormats();
-                Map<String, Integer> vendorStats = new HashMap<>();
-                for (LogFormat format : formats) {
-                    String vendor = format.getVendor();
-                    vendorStats.put(vendor, vendorStats.getOrDefault(vendor, 0) + 1);
-                }
-                formatter.printVendorStatistics(vendorStats);
+                // API 모드에서는 전체 카탈로그 기준 벤더 통계 (응답 캐시를 거침)
+                formatter.printVendorStatistics(apiClient.getVendorStatistics());
             } else {
                 formatter.printVendorStatistics(recommender.getVendorStatistics());
             }
@@ -505,21 +993,7 @@ public class CliCommand implements Callable<Integer> {
      */
     private void initializeLocalService() {
         // 캐시 매니저 초기화
-        PersistentCacheManager cacheManager = null;
-        
-        if (!noCache) {
-            cacheManager = new PersistentCacheManager();
-            
-            // 캐시 디렉토리 설정
-            if (cacheDir != null) {
-                AppConfig.getInstance().setProperty(AppConfig.PERSISTENT_CACHE_DIR, cacheDir);
-            }
-            
-            cacheManager.initialize();
-            logger.info("영구 캐시 활성화: {}", cacheManager.getCacheDir());
-        } else {
-            logger.info("캐시가 비활성화되었습니다 (--no-cache)");
-        }
+        PersistentCacheManager cacheManager = createCacheManager();
         
         // 캐시 지원 컴포넌트 생성
         PatternRepository repository;
@@ -534,15 +1008,48 @@ public class CliCommand implements Callable<Integer> {
         }
         
         // 추천 서비스 생성
-        recommender = new LogFormatRecommenderImpl(repository, grokCompiler);
+        LogFormatRecommenderImpl service = new LogFormatRecommenderImpl(repository, grokCompiler);
+        recommender = service;
         
-        if (!recommender.initialize()) {
+        if (!service.initialize(startupPhases)) {
             throw new RuntimeException("추천 서비스 초기화 실패");
         }
         
+        // 추천 결과 저장소 (선택)
+        AppConfig config = AppConfig.getInstance();
+        if (cacheManager != null && cacheManager.isEnabled()
+                && (resultCache || config.getBoolean(AppConfig.RESULT_STORE_ENABLED))) {
+            PersistentCacheManager manager = cacheManager;
+            service.setResultStore(startupPhases.run("result-store", () -> manager.openResultStore(
+                config.getString(AppConfig.LOG_FORMATS_PATH),
+                config.getString(AppConfig.CUSTOM_GROK_PATTERNS_PATH))));
+        }
+        
         logger.info("로컬 서비스 초기화 완료");
     }
     
+    /**
+     * 영구 캐시 매니저 생성
+     * @return 캐시 매니저, --no-cache면 null
+     */
+    private PersistentCacheManager createCacheManager() {
+        if (noCache) {
+            logger.info("캐시가 비활성화되었습니다 (--no-cache)");
+            return null;
+        }
+        
+        PersistentCacheManager cacheManager = new PersistentCacheManager();
+        
+        // 캐시 디렉토리 설정
+        if (cacheDir != null) {
+            AppConfig.getInstance().setProperty(AppConfig.PERSISTENT_CACHE_DIR, cacheDir);
+        }
+        
+        startupPhases.run("cache-manager", cacheManager::initialize);
+        logger.info("영구 캐시 활성화: {}", cacheManager.getCacheDir());
+        return cacheManager;
+    }
+    
     /**
      * 캐시 삭제 명령
      */
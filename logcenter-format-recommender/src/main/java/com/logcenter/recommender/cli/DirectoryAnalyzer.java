@@ -0,0 +1,321 @@
+package com.logcenter.recommender.cli;
+
+import com.logcenter.recommender.model.FormatRecommendation;
+import com.logcenter.recommender.util.LogInputStreams;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.FileSystem;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+
+/**
+ * 디렉토리 분석 파이프라인
+ * 하위 디렉토리까지 glob 포함/제외 규칙으로 로그 파일을 찾고, 주어진 실행기에서 파일 단위로 병렬 분석한다.
+ * 동시에 분석하는 파일 수는 파일 병렬도로 제한되며, 파일 결과는 완료되는 순서대로 호출 스레드에 전달된다.
+ *
+ * glob 규칙에 '/'가 없으면 파일(디렉토리) 이름에, 있으면 기준 디렉토리로부터의 상대 경로에 적용한다.
+ * 제외 규칙에 일치하는 디렉토리는 하위 전체를 건너뛴다.
+ */
+public class DirectoryAnalyzer {
+
+    private static final Logger logger = LoggerFactory.getLogger(DirectoryAnalyzer.class);
+
+    /**
+     * 파일 단위 분석 작업
+     */
+    public interface FileTask {
+        /**
+         * @return 샘플별 추천 결과
+         */
+        List<List<FormatRecommendation>> analyze(Path file) throws Exception;
+    }
+
+    private final Path root;
+    private final List<PathMatcher> includes;
+    private final List<PathMatcher> excludes;
+    private final List<Boolean> includeByName;
+    private final List<Boolean> excludeByName;
+
+    /**
+     * @param root 기준 디렉토리
+     * @param includePatterns 포함 glob (비어 있으면 .log/.txt/압축 파일)
+     * @param excludePatterns 제외 glob
+     */
+    public DirectoryAnalyzer(Path root, List<String> includePatterns, List<String> excludePatterns) {
+        this.root = root;
+        this.includes = new ArrayList<>();
+        this.excludes = new ArrayList<>();
+        this.includeByName = new ArrayList<>();
+        this.excludeByName = new ArrayList<>();
+
+        FileSystem fileSystem = root.getFileSystem();
+        if (includePatterns != null) {
+            for (String pattern : includePatterns) {
+                includes.add(fileSystem.getPathMatcher("glob:" + pattern));
+                includeByName.add(pattern.indexOf('/') < 0);
+            }
+        }
+        if (excludePatterns != null) {
+            for (String pattern : excludePatterns) {
+                excludes.add(fileSystem.getPathMatcher("glob:" + pattern));
+                excludeByName.add(pattern.indexOf('/') < 0);
+            }
+        }
+    }
+
+    /**
+     * 분석 대상 파일 탐색 (경로 순 정렬)
+     */
+    public List<Path> findFiles() throws IOException {
+        List<Path> files = new ArrayList<>();
+        Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                if (!dir.equals(root) && matchesAny(excludes, excludeByName, dir)) {
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                if (attrs.isRegularFile() && isIncluded(file)) {
+                    files.add(file);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException e) {
+                logger.warn("파일 접근 실패: {} ({})", file, e.getMessage());
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        Collections.sort(files);
+        return files;
+    }
+
+    /**
+     * 파일 병렬 분석
+     * 최대 maxInFlight개의 파일만 실행기에 제출하고, 완료된 결과를 받을 때마다 다음 파일을 제출한다.
+     * @param files 분석할 파일
+     * @param executor 파일 작업 실행기
+     * @param maxInFlight 동시에 분석할 최대 파일 수
+     * @param task 파일 분석 작업
+     * @param listener 파일 결과 수신 (호출 스레드에서 완료 순서대로 호출)
+     * @return 전체 포맷 요약
+     */
+    public Summary run(List<Path> files, Executor executor, int maxInFlight,
+                       FileTask task, Consumer<FileResult> listener) throws InterruptedException {
+        BlockingQueue<FileResult> completed = new LinkedBlockingQueue<>();
+        Summary summary = new Summary();
+        int limit = Math.max(1, maxInFlight);
+
+        Iterator<Path> pending = files.iterator();
+        int inFlight = 0;
+        int delivered = 0;
+        while (delivered < files.size()) {
+            while (pending.hasNext() && inFlight < limit) {
+                Path file = pending.next();
+                inFlight++;
+                try {
+                    executor.execute(() -> completed.add(analyzeOne(file, task)));
+                } catch (RejectedExecutionException e) {
+                    completed.add(new FileResult(file, relativize(file), null, e, 0L));
+                }
+            }
+
+            FileResult result = completed.take();
+            inFlight--;
+            delivered++;
+            summary.add(result);
+            if (listener != null) {
+                listener.accept(result);
+            }
+        }
+        return summary;
+    }
+
+    /**
+     * 기준 디렉토리로부터의 상대 경로 ('/' 구분)
+     */
+    public String relativize(Path file) {
+        Path relative = file.startsWith(root) ? root.relativize(file) : file;
+        return relative.toString().replace(relative.getFileSystem().getSeparator(), "/");
+    }
+
+    private FileResult analyzeOne(Path file, FileTask task) {
+        long start = System.currentTimeMillis();
+        try {
+            List<List<FormatRecommendation>> results = task.analyze(file);
+            return new FileResult(file, relativize(file), results, null, System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            logger.debug("파일 분석 실패: {}", file, e);
+            return new FileResult(file, relativize(file), null, e, System.currentTimeMillis() - start);
+        }
+    }
+
+    private boolean isIncluded(Path file) {
+        if (matchesAny(excludes, excludeByName, file)) {
+            return false;
+        }
+        if (includes.isEmpty()) {
+            String name = file.getFileName().toString();
+            return name.endsWith(".log") || name.endsWith(".txt") || LogInputStreams.hasCompressedExtension(file);
+        }
+        return matchesAny(includes, includeByName, file);
+    }
+
+    private boolean matchesAny(List<PathMatcher> matchers, List<Boolean> byName, Path path) {
+        Path relative = root.relativize(path);
+        for (int i = 0; i < matchers.size(); i++) {
+            Path target = byName.get(i) ? path.getFileName() : relative;
+            if (target != null && matchers.get(i).matches(target)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 파일 단위 분석 결과
+     */
+    public static final class FileResult {
+        private final Path file;
+        private final String displayName;
+        private final List<List<FormatRecommendation>> results;
+        private final Exception error;
+        private final long elapsedMs;
+
+        FileResult(Path file, String displayName, List<List<FormatRecommendation>> results,
+                   Exception error, long elapsedMs) {
+            this.file = file;
+            this.displayName = displayName;
+            this.results = results;
+            this.error = error;
+            this.elapsedMs = elapsedMs;
+        }
+
+        public Path getFile() {
+            return file;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+
+        public List<List<FormatRecommendation>> getResults() {
+            return results;
+        }
+
+        public Exception getError() {
+            return error;
+        }
+
+        public boolean isFailed() {
+            return error != null;
+        }
+
+        public long getElapsedMs() {
+            return elapsedMs;
+        }
+
+        /**
+         * 샘플별 최상위 포맷 건수
+         */
+        public Map<String, Integer> getFormatCounts() {
+            Map<String, Integer> counts = new HashMap<>();
+            if (results != null) {
+                for (List<FormatRecommendation> recommendations : results) {
+                    if (recommendations != null && !recommendations.isEmpty()) {
+                        counts.merge(recommendations.get(0).getFormatId(), 1, Integer::sum);
+                    }
+                }
+            }
+            return counts;
+        }
+    }
+
+    /**
+     * 전체 포맷 요약
+     */
+    public static final class Summary {
+        private int fileCount;
+        private int failedCount;
+        private int totalSamples;
+        private int matchedSamples;
+        private final Map<String, Integer> sampleCounts = new HashMap<>();
+        private final Map<String, Integer> dominantFiles = new HashMap<>();
+
+        void add(FileResult result) {
+            fileCount++;
+            if (result.isFailed()) {
+                failedCount++;
+                return;
+            }
+
+            totalSamples += result.getResults().size();
+            String dominant = null;
+            int dominantCount = 0;
+            for (Map.Entry<String, Integer> entry : result.getFormatCounts().entrySet()) {
+                matchedSamples += entry.getValue();
+                sampleCounts.merge(entry.getKey(), entry.getValue(), Integer::sum);
+                if (entry.getValue() > dominantCount
+                        || (entry.getValue() == dominantCount && entry.getKey().compareTo(dominant) < 0)) {
+                    dominant = entry.getKey();
+                    dominantCount = entry.getValue();
+                }
+            }
+            if (dominant != null) {
+                dominantFiles.merge(dominant, 1, Integer::sum);
+            }
+        }
+
+        public int getFileCount() {
+            return fileCount;
+        }
+
+        public int getFailedCount() {
+            return failedCount;
+        }
+
+        public int getTotalSamples() {
+            return totalSamples;
+        }
+
+        public int getMatchedSamples() {
+            return matchedSamples;
+        }
+
+        /**
+         * 포맷별 최상위 매칭 샘플 수
+         */
+        public Map<String, Integer> getSampleCounts() {
+            return Collections.unmodifiableMap(sampleCounts);
+        }
+
+        /**
+         * 포맷별 주요 포맷으로 판단된 파일 수
+         */
+        public Map<String, Integer> getDominantFiles() {
+            return Collections.unmodifiableMap(dominantFiles);
+        }
+    }
+}
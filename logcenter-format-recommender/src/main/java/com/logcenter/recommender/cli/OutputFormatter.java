@@ -2,6 +2,7 @@ package com.logcenter.recommender.cli;
 
 import com.logcenter.recommender.model.FormatRecommendation;
 import com.logcenter.recommender.model.LogFormat;
+import com.logcenter.recommender.syslog.SourceFormatTracker;
 import com.logcenter.recommender.util.JacksonJsonUtils;
 
 import java.util.*;
@@ -228,6 +229,123 @@ public class OutputFormatter {
         });
     }
     
+    /**
+     * 디렉토리 분석 전체 요약 출력
+     */
+    public void printDirectorySummary(DirectoryAnalyzer.Summary summary) {
+        if (format == OutputFormat.JSON) {
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("totalFiles", summary.getFileCount());
+            result.put("failedFiles", summary.getFailedCount());
+            result.put("totalSamples", summary.getTotalSamples());
+            result.put("matchedSamples", summary.getMatchedSamples());
+            result.put("formats", summary.getSampleCounts());
+            result.put("dominantFiles", summary.getDominantFiles());
+            System.out.println(JacksonJsonUtils.toJson(result));
+            return;
+        }
+        
+        System.out.println("\n=== 디렉토리 전체 요약 ===");
+        System.out.println("분석한 파일: " + summary.getFileCount()
+            + (summary.getFailedCount() > 0 ? " (실패 " + summary.getFailedCount() + ")" : ""));
+        System.out.println("분석된 로그 라인: " + summary.getTotalSamples()
+            + ", 매칭된 로그 라인: " + summary.getMatchedSamples());
+        
+        System.out.println("\n포맷별 매칭:");
+        summary.getSampleCounts().entrySet().stream()
+            .sorted(Map.Entry.<String, Integer>comparingByValue().reversed()
+                .thenComparing(Map.Entry.comparingByKey()))
+            .forEach(entry -> System.out.printf("  - %s: %d건, 주요 포맷 파일 %d개\n",
+                entry.getKey(), entry.getValue(), summary.getDominantFiles().getOrDefault(entry.getKey(), 0)));
+    }
+    
+    /**
+     * 표준 입력 분석 진행 상황 출력 (한 줄)
+     */
+    public void printStreamProgress(StreamAnalyzer.Summary summary) {
+        if (format == OutputFormat.JSON) {
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("totalEvents", summary.getTotalEvents());
+            result.put("matchedEvents", summary.getMatchedEvents());
+            result.put("recentDominant", summary.getRecentDominant());
+            result.put("recentDominantRatio", summary.getRecentDominantRatio());
+            System.out.println(JacksonJsonUtils.toJsonCompact(result));
+        } else {
+            System.out.printf("[진행] %d건 처리, %d건 매칭, 최근 주요 포맷: %s (%.1f%%)\n",
+                summary.getTotalEvents(), summary.getMatchedEvents(),
+                summary.getRecentDominant(), summary.getRecentDominantRatio() * 100);
+        }
+        System.out.flush();
+    }
+    
+    /**
+     * 표준 입력 분석 전체 요약 출력
+     */
+    public void printStreamSummary(StreamAnalyzer.Summary summary) {
+        if (format == OutputFormat.JSON) {
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("totalEvents", summary.getTotalEvents());
+            result.put("matchedEvents", summary.getMatchedEvents());
+            result.put("failedEvents", summary.getFailedEvents());
+            result.put("truncatedLines", summary.getTruncatedLines());
+            result.put("elapsedMs", summary.getElapsedMs());
+            result.put("formats", summary.getFormatCounts());
+            System.out.println(JacksonJsonUtils.toJson(result));
+            return;
+        }
+        
+        System.out.println("\n=== 표준 입력 분석 요약 ===");
+        System.out.println("분석된 로그: " + summary.getTotalEvents()
+            + ", 매칭된 로그: " + summary.getMatchedEvents()
+            + (summary.getFailedEvents() > 0 ? " (추천 실패 " + summary.getFailedEvents() + ")" : ""));
+        if (summary.getTruncatedLines() > 0) {
+            System.out.println("최대 길이를 넘어 잘린 라인: " + summary.getTruncatedLines());
+        }
+        System.out.printf("처리 시간: %.1f초\n", summary.getElapsedMs() / 1000.0);
+        
+        System.out.println("\n포맷별 매칭:");
+        long matched = summary.getMatchedEvents();
+        summary.getFormatCounts().entrySet().stream()
+            .sorted(Map.Entry.<String, Long>comparingByValue().reversed()
+                .thenComparing(Map.Entry.comparingByKey()))
+            .forEach(entry -> System.out.printf("  - %s: %d건 (%.1f%%)\n",
+                entry.getKey(), entry.getValue(), entry.getValue() * 100.0 / matched));
+    }
+    
+    /**
+     * syslog 송신지별 포맷 상태 출력
+     */
+    public void printSyslogSources(List<SourceFormatTracker.SourceSnapshot> sources, long received, long dropped) {
+        if (format == OutputFormat.JSON) {
+            List<Map<String, Object>> items = new ArrayList<>();
+            for (SourceFormatTracker.SourceSnapshot source : sources) {
+                Map<String, Object> item = new LinkedHashMap<>();
+                item.put("source", source.getSource());
+                item.put("messages", source.getTotalMessages());
+                item.put("matched", source.getMatchedMessages());
+                item.put("topFormat", source.getTopFormat());
+                item.put("topRatio", source.getTopRatio());
+                item.put("confidence", source.getTopConfidence());
+                items.add(item);
+            }
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("received", received);
+            result.put("dropped", dropped);
+            result.put("sources", items);
+            System.out.println(JacksonJsonUtils.toJsonCompact(result));
+            System.out.flush();
+            return;
+        }
+        
+        System.out.printf("\n=== syslog 송신지별 포맷 (수신 %d, 버림 %d) ===\n", received, dropped);
+        for (SourceFormatTracker.SourceSnapshot source : sources) {
+            System.out.printf("  - %s: %s (최근 %.1f%%, 신뢰도 %.1f%%), 메시지 %d건\n",
+                source.getSource(), source.getTopFormat(), source.getTopRatio() * 100,
+                source.getTopConfidence(), source.getTotalMessages());
+        }
+        System.out.flush();
+    }
+    
     /**
      * 그룹 통계 출력
      */
@@ -0,0 +1,320 @@
+package com.logcenter.recommender.cli;
+
+import com.logcenter.recommender.follow.RollingFormatWindow;
+import com.logcenter.recommender.model.FormatRecommendation;
+import com.logcenter.recommender.util.MultilineAssembler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 표준 입력(파이프) 스트리밍 분석
+ * 입력을 라인 단위로 읽어 배치 크기만큼 모아 추천하고, 포맷별 누적 건수와 최근 윈도우의 주요 포맷을 유지한다.
+ * 메모리 사용량은 배치 크기, 라인 최대 길이, 멀티라인 이벤트 최대 크기로 제한된다.
+ *
+ * 읽을 데이터가 당장 없으면 모아 둔 배치를 먼저 추천하므로 입력이 천천히 들어와도 결과가 늦지 않는다.
+ * 입력이 끝나거나(EOF) 진행 상황 수신자가 중단을 요청하면(출력 파이프가 닫힘 등) 남은 배치를 정리하고 종료한다.
+ *
+ * 스레드 안전하지 않음
+ */
+public class StreamAnalyzer {
+
+    private static final Logger logger = LoggerFactory.getLogger(StreamAnalyzer.class);
+
+    /** 라인당 기본 최대 문자 수 (초과분은 버림) */
+    public static final int DEFAULT_MAX_LINE_CHARS = 64 * 1024;
+
+    /** 분류 결과가 없는 이벤트의 포맷 ID */
+    public static final String UNKNOWN_FORMAT = "UNKNOWN";
+
+    /**
+     * 배치 추천
+     */
+    public interface BatchTask {
+        /**
+         * @return 샘플별 추천 결과 (입력 순서)
+         */
+        List<List<FormatRecommendation>> recommend(List<String> samples) throws Exception;
+    }
+
+    /**
+     * 진행 상황 수신자
+     */
+    public interface ProgressListener {
+        /**
+         * @return 계속 읽으려면 true, 중단하려면 false
+         */
+        boolean onProgress(Summary summary);
+    }
+
+    private final BatchTask task;
+    private final int batchSize;
+    private final MultilineAssembler.EventStartRule rule;
+    private final int maxLineChars;
+    private final int windowSize;
+
+    /**
+     * @param task 배치 추천 작업
+     * @param batchSize 한 번에 추천할 최대 이벤트 수
+     * @param rule 멀티라인 이벤트 시작 규칙 (null이면 라인 단위)
+     * @param maxLineChars 라인당 최대 문자 수
+     * @param windowSize 주요 포맷을 계산할 최근 이벤트 수
+     */
+    public StreamAnalyzer(BatchTask task, int batchSize, MultilineAssembler.EventStartRule rule,
+                          int maxLineChars, int windowSize) {
+        this.task = task;
+        this.batchSize = Math.max(1, batchSize);
+        this.rule = rule;
+        this.maxLineChars = Math.max(1, maxLineChars);
+        this.windowSize = Math.max(1, windowSize);
+    }
+
+    /**
+     * 입력 끝까지 분석 (리더는 닫지 않음)
+     * @param reader 입력
+     * @param progressIntervalMs 진행 상황 전달 간격 (0 이하이면 전달하지 않음)
+     * @param listener 진행 상황 수신자 (null 가능)
+     * @return 누적 요약
+     */
+    public Summary run(Reader reader, long progressIntervalMs, ProgressListener listener) throws IOException {
+        Summary summary = new Summary(windowSize);
+        LineReader lines = new LineReader(reader, maxLineChars);
+        MultilineAssembler assembler = rule != null ? new MultilineAssembler(rule) : null;
+        List<String> batch = new ArrayList<>(batchSize);
+
+        boolean progressEnabled = listener != null && progressIntervalMs > 0;
+        long nextProgress = System.currentTimeMillis() + progressIntervalMs;
+        boolean stopped = false;
+
+        String line;
+        while ((line = lines.readLine()) != null) {
+            addSample(batch, assembler != null ? assembler.offer(line) : line);
+
+            // 배치가 찼거나 더 읽으면 대기하게 되는 경우 추천
+            if (batch.size() >= batchSize || (!batch.isEmpty() && !lines.ready())) {
+                recommend(batch, summary);
+            }
+
+            if (progressEnabled && System.currentTimeMillis() >= nextProgress) {
+                nextProgress = System.currentTimeMillis() + progressIntervalMs;
+                if (!listener.onProgress(summary)) {
+                    stopped = true;
+                    break;
+                }
+            }
+        }
+
+        if (!stopped) {
+            if (assembler != null) {
+                addSample(batch, assembler.flush());
+            }
+            recommend(batch, summary);
+        }
+        summary.truncatedLines = lines.truncated;
+        summary.elapsedMs = System.currentTimeMillis() - summary.startMs;
+        logger.info("스트림 분석 종료: {} 이벤트, {} 매칭{}", summary.totalEvents, summary.matchedEvents,
+            stopped ? " (중단)" : "");
+        return summary;
+    }
+
+    private static void addSample(List<String> batch, String sample) {
+        if (sample == null) {
+            return;
+        }
+        String trimmed = sample.trim();
+        if (!trimmed.isEmpty()) {
+            batch.add(trimmed);
+        }
+    }
+
+    private void recommend(List<String> batch, Summary summary) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            List<List<FormatRecommendation>> results = task.recommend(batch);
+            for (int i = 0; i < batch.size(); i++) {
+                List<FormatRecommendation> recommendations = results != null && i < results.size()
+                    ? results.get(i) : null;
+                summary.add(recommendations != null && !recommendations.isEmpty()
+                    ? recommendations.get(0).getFormatId() : null);
+            }
+        } catch (Exception e) {
+            logger.warn("배치 추천 실패 ({}건): {}", batch.size(), e.getMessage());
+            summary.failedEvents += batch.size();
+            summary.totalEvents += batch.size();
+        }
+        batch.clear();
+    }
+
+    /**
+     * 길이 제한이 있는 라인 리더 ('\n', '\r\n' 구분)
+     * BufferedReader.readLine과 달리 긴 라인도 최대 길이까지만 보관한다.
+     */
+    private static final class LineReader {
+        private final Reader reader;
+        private final int maxChars;
+        private final char[] buffer = new char[8192];
+        private final StringBuilder line = new StringBuilder();
+        private int position;
+        private int limit;
+        private boolean eof;
+        long truncated;
+
+        LineReader(Reader reader, int maxChars) {
+            this.reader = reader;
+            this.maxChars = maxChars;
+        }
+
+        /**
+         * 다음 라인 (입력 끝이면 null)
+         */
+        String readLine() throws IOException {
+            line.setLength(0);
+            boolean overflow = false;
+            while (true) {
+                if (position >= limit && !fill()) {
+                    if (line.length() == 0 && !overflow) {
+                        return null;
+                    }
+                    break;
+                }
+                int start = position;
+                while (position < limit && buffer[position] != '\n') {
+                    position++;
+                }
+                int end = position;
+                boolean found = position < limit;
+                if (found) {
+                    position++;
+                }
+
+                int room = maxChars - line.length();
+                if (end - start > room) {
+                    overflow = true;
+                }
+                line.append(buffer, start, Math.min(end - start, room));
+                if (found) {
+                    break;
+                }
+            }
+
+            if (overflow) {
+                truncated++;
+            }
+            int length = line.length();
+            if (length > 0 && line.charAt(length - 1) == '\r') {
+                line.setLength(length - 1);
+            }
+            return line.toString();
+        }
+
+        /**
+         * 읽어 둔 문자가 있거나 대기 없이 읽을 수 있으면 true
+         */
+        boolean ready() throws IOException {
+            return position < limit || (!eof && reader.ready());
+        }
+
+        private boolean fill() throws IOException {
+            if (eof) {
+                return false;
+            }
+            int read;
+            do {
+                read = reader.read(buffer, 0, buffer.length);
+            } while (read == 0);
+            if (read < 0) {
+                eof = true;
+                return false;
+            }
+            position = 0;
+            limit = read;
+            return true;
+        }
+    }
+
+    /**
+     * 스트림 누적 요약
+     */
+    public static final class Summary {
+        private final long startMs = System.currentTimeMillis();
+        private final Map<String, Long> formatCounts = new HashMap<>();
+        private final RollingFormatWindow window;
+        private long totalEvents;
+        private long matchedEvents;
+        private long failedEvents;
+        private long truncatedLines;
+        private long elapsedMs;
+
+        Summary(int windowSize) {
+            this.window = new RollingFormatWindow(windowSize);
+        }
+
+        void add(String formatId) {
+            totalEvents++;
+            if (formatId != null) {
+                matchedEvents++;
+                formatCounts.merge(formatId, 1L, Long::sum);
+            }
+            window.add(formatId != null ? formatId : UNKNOWN_FORMAT);
+        }
+
+        public long getTotalEvents() {
+            return totalEvents;
+        }
+
+        public long getMatchedEvents() {
+            return matchedEvents;
+        }
+
+        /**
+         * 추천 실패로 분류하지 못한 이벤트 수
+         */
+        public long getFailedEvents() {
+            return failedEvents;
+        }
+
+        /**
+         * 최대 길이를 넘어 잘린 라인 수
+         */
+        public long getTruncatedLines() {
+            return truncatedLines;
+        }
+
+        /**
+         * 경과 시간 (진행 중이면 현재까지)
+         */
+        public long getElapsedMs() {
+            return elapsedMs > 0 ? elapsedMs : System.currentTimeMillis() - startMs;
+        }
+
+        /**
+         * 포맷별 최상위 매칭 이벤트 수
+         */
+        public Map<String, Long> getFormatCounts() {
+            return Collections.unmodifiableMap(formatCounts);
+        }
+
+        /**
+         * 최근 윈도우의 주요 포맷 (없으면 null)
+         */
+        public String getRecentDominant() {
+            return window.getDominant();
+        }
+
+        /**
+         * 최근 윈도우의 주요 포맷 비율 (0.0 ~ 1.0)
+         */
+        public double getRecentDominantRatio() {
+            return window.getDominantRatio();
+        }
+    }
+}
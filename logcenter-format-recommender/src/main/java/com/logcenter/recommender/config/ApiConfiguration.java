@@ -92,6 +92,94 @@ public class ApiConfiguration {
         return Integer.parseInt(retries);
     }
     
+    /**
+     * 연결 풀 크기 (동시에 보낼 수 있는 요청 수)
+     */
+    public int getPoolSize() {
+        String size = properties.getProperty("api.pool.size", "8");
+        return Integer.parseInt(size);
+    }
+    
+    /**
+     * 배치 추천 시 요청 하나에 담을 샘플 수
+     */
+    public int getBatchChunkSize() {
+        String size = properties.getProperty("api.batch.chunk.size", "50");
+        return Integer.parseInt(size);
+    }
+    
+    /**
+     * 하이브리드 모드 사용 여부 (원격 API 우선, 로컬 엔진 대체)
+     */
+    public boolean isHybridEnabled() {
+        String enabled = properties.getProperty("api.hybrid.enabled", "false");
+        return Boolean.parseBoolean(enabled);
+    }
+    
+    /**
+     * 하이브리드 모드 요청당 지연 예산 (밀리초)
+     */
+    public long getLatencyBudgetMs() {
+        String budget = properties.getProperty("api.latency.budget.ms", "2000");
+        return Long.parseLong(budget);
+    }
+    
+    /**
+     * 백업 요청을 보낼 때까지 기다릴 시간 (밀리초, 0이면 백업 요청 없음)
+     */
+    public long getHedgeDelayMs() {
+        String delay = properties.getProperty("api.hedge.delay.ms", "500");
+        return Long.parseLong(delay);
+    }
+    
+    /**
+     * 회로 차단기 판단에 사용할 최근 호출 수
+     */
+    public int getBreakerWindowSize() {
+        String size = properties.getProperty("api.breaker.window.size", "20");
+        return Integer.parseInt(size);
+    }
+    
+    /**
+     * 회로 차단기 판단에 필요한 최소 호출 수
+     */
+    public int getBreakerMinimumCalls() {
+        String calls = properties.getProperty("api.breaker.minimum.calls", "10");
+        return Integer.parseInt(calls);
+    }
+    
+    /**
+     * 회로 차단기를 여는 실패율 (%)
+     */
+    public double getBreakerFailureRate() {
+        String rate = properties.getProperty("api.breaker.failure.rate", "50");
+        return Double.parseDouble(rate);
+    }
+    
+    /**
+     * 회로 차단기 지연 판단 백분위수 (%)
+     */
+    public double getBreakerLatencyPercentile() {
+        String percentile = properties.getProperty("api.breaker.latency.percentile", "95");
+        return Double.parseDouble(percentile) / 100.0;
+    }
+    
+    /**
+     * 회로 차단기를 여는 백분위수 지연 (밀리초)
+     */
+    public long getBreakerLatencyThresholdMs() {
+        String threshold = properties.getProperty("api.breaker.latency.threshold.ms", "1500");
+        return Long.parseLong(threshold);
+    }
+    
+    /**
+     * 회로 차단기 열린 상태 유지 시간 (초)
+     */
+    public int getBreakerOpenSeconds() {
+        String seconds = properties.getProperty("api.breaker.open.seconds", "30");
+        return Integer.parseInt(seconds);
+    }
+    
     /**
      * 캐시 사용 여부
      */
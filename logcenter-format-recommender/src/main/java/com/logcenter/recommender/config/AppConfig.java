@@ -19,6 +19,7 @@ public class AppConfig {
     public static final String GROK_PATTERNS_PATH = "grok.patterns.path";
     public static final String CUSTOM_GROK_PATTERNS_PATH = "grok.patterns.custom.path";
     public static final String LOG_FORMATS_PATH = "log.formats.path";
+    public static final String LOG_FORMATS_LOAD_PROFILE = "log.formats.load.profile";
     public static final String PARALLEL_PROCESSING_ENABLED = "processing.parallel.enabled";
     public static final String PARALLEL_THREAD_COUNT = "processing.parallel.threads";
     public static final String CACHE_ENABLED = "cache.enabled";
@@ -35,6 +36,11 @@ public class AppConfig {
     public static final String PERSISTENT_CACHE_DIR = "cache.persistent.dir";
     public static final String PERSISTENT_CACHE_TTL_DAYS = "cache.persistent.ttl.days";
     public static final String PERSISTENT_CACHE_CHECKSUM_ENABLED = "cache.persistent.checksum.enabled";
+    public static final String RESULT_STORE_ENABLED = "cache.result.enabled";
+    public static final String RESULT_STORE_MAX_SIZE_MB = "cache.result.max.size.mb";
+    
+    // 파일 추적(--follow) 설정 키
+    public static final String FOLLOW_CHECKPOINT_DIR = "follow.checkpoint.dir";
     
     // 기본값
     private static final Map<String, String> DEFAULT_VALUES = new ConcurrentHashMap<>();
@@ -44,6 +50,7 @@ public class AppConfig {
         DEFAULT_VALUES.put(GROK_PATTERNS_PATH, "grok-patterns/patterns");
         DEFAULT_VALUES.put(CUSTOM_GROK_PATTERNS_PATH, "custom-grok-patterns");
         DEFAULT_VALUES.put(LOG_FORMATS_PATH, "setting_logformat.json");
+        DEFAULT_VALUES.put(LOG_FORMATS_LOAD_PROFILE, "full");
         DEFAULT_VALUES.put(PARALLEL_PROCESSING_ENABLED, "true");
         DEFAULT_VALUES.put(PARALLEL_THREAD_COUNT, "4");
         DEFAULT_VALUES.put(CACHE_ENABLED, "true");
@@ -60,6 +67,11 @@ public class AppConfig {
         DEFAULT_VALUES.put(PERSISTENT_CACHE_DIR, ".logcenter/cache");
         DEFAULT_VALUES.put(PERSISTENT_CACHE_TTL_DAYS, "7");
         DEFAULT_VALUES.put(PERSISTENT_CACHE_CHECKSUM_ENABLED, "true");
+        DEFAULT_VALUES.put(RESULT_STORE_ENABLED, "false");
+        DEFAULT_VALUES.put(RESULT_STORE_MAX_SIZE_MB, "16");
+        
+        // 파일 추적 기본값
+        DEFAULT_VALUES.put(FOLLOW_CHECKPOINT_DIR, ".logcenter/checkpoints");
     }
     
     private AppConfig() {
@@ -52,6 +52,11 @@ public class PatternFilter {
         Pattern.compile("^\\^?%\\{DATA:[^}]+\\}\\$?$")
     };
     
+    /**
+     * Grok 참조(%{...})와 반복 횟수({n,m})
+     */
+    private static final Pattern REFERENCE_OR_REPETITION = Pattern.compile("%\\{[^}]*\\}|\\{\\d+(,\\d*)?\\}");
+    
     /**
      * 패턴이 너무 일반적인지 확인
      * 
@@ -108,6 +113,27 @@ public class PatternFilter {
         return count;
     }
     
+    /**
+     * 패턴에 숫자 리터럴이 있는지 확인 (예: HTTP/1.1, 메시지 ID)
+     * Grok 참조와 반복 횟수의 숫자는 제외하고, 문자 범위나 역참조의 숫자는 리터럴로 본다.
+     * 
+     * @param pattern Grok 패턴 문자열
+     * @return 숫자 리터럴이 있으면 true
+     */
+    public static boolean hasLiteralDigits(String pattern) {
+        if (pattern == null) {
+            return false;
+        }
+        String literals = REFERENCE_OR_REPETITION.matcher(pattern).replaceAll("");
+        for (int i = 0; i < literals.length(); i++) {
+            char c = literals.charAt(i);
+            if (c >= '0' && c <= '9') {
+                return true;
+            }
+        }
+        return false;
+    }
+    
     /**
      * MESSAGE나 GREEDYDATA가 주요 필드인지 확인
      */
@@ -0,0 +1,141 @@
+package com.logcenter.recommender.follow;
+
+import com.logcenter.recommender.config.AppConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Properties;
+
+/**
+ * 파일 추적 체크포인트 저장소
+ * 추적 대상 파일별로 체크포인트를 ~/.logcenter/checkpoints 아래 properties 파일로 저장한다.
+ */
+public class CheckpointStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(CheckpointStore.class);
+
+    private static final String DEFAULT_CHECKPOINT_DIR = ".logcenter/checkpoints";
+    private static final String FILE_SUFFIX = ".checkpoint";
+
+    private final Path directory;
+
+    /**
+     * 설정된 기본 디렉토리 사용
+     */
+    public CheckpointStore() {
+        this(resolveDirectory(AppConfig.getInstance()
+            .getString(AppConfig.FOLLOW_CHECKPOINT_DIR, DEFAULT_CHECKPOINT_DIR)));
+    }
+
+    public CheckpointStore(Path directory) {
+        this.directory = directory;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * 체크포인트 로드
+     * @return 저장된 체크포인트, 없거나 읽을 수 없으면 null
+     */
+    public TailCheckpoint load(Path source) {
+        String path = source.toAbsolutePath().normalize().toString();
+        Path file = checkpointFile(path);
+        if (!Files.exists(file)) {
+            return null;
+        }
+
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(file)) {
+            properties.load(in);
+            if (!path.equals(properties.getProperty("path"))) {
+                return null;
+            }
+            return new TailCheckpoint(path,
+                Long.parseLong(properties.getProperty("offset", "0")),
+                properties.getProperty("fileKey"),
+                Long.parseLong(properties.getProperty("updatedAt", "0")));
+        } catch (IOException | NumberFormatException e) {
+            logger.warn("체크포인트 로드 실패: {} - {}", file, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 체크포인트 저장 (임시 파일에 쓴 후 이동)
+     */
+    public void save(TailCheckpoint checkpoint) throws IOException {
+        Files.createDirectories(directory);
+
+        Properties properties = new Properties();
+        properties.setProperty("path", checkpoint.getPath());
+        properties.setProperty("offset", String.valueOf(checkpoint.getOffset()));
+        if (checkpoint.getFileKey() != null) {
+            properties.setProperty("fileKey", checkpoint.getFileKey());
+        }
+        properties.setProperty("updatedAt", String.valueOf(checkpoint.getUpdatedAt()));
+
+        Path target = checkpointFile(checkpoint.getPath());
+        Path temp = Files.createTempFile(directory, target.getFileName().toString(), ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                properties.store(out, "logformat-recommender follow checkpoint");
+            }
+            try {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * 체크포인트 삭제
+     */
+    public void delete(Path source) throws IOException {
+        Files.deleteIfExists(checkpointFile(source.toAbsolutePath().normalize().toString()));
+    }
+
+    private Path checkpointFile(String path) {
+        return directory.resolve(hash(path) + FILE_SUFFIX);
+    }
+
+    private static String hash(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(value.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder();
+            for (int i = 0; i < 16; i++) {
+                hex.append(String.format("%02x", hash[i]));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            return Integer.toHexString(value.hashCode());
+        }
+    }
+
+    private static Path resolveDirectory(String dir) {
+        String userHome = System.getProperty("user.home");
+        if (dir.startsWith("~")) {
+            dir = dir.replaceFirst("~", userHome);
+        } else if (!dir.startsWith("/")) {
+            dir = userHome + File.separator + dir;
+        }
+        return Paths.get(dir);
+    }
+}
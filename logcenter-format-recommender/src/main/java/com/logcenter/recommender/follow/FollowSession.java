@@ -0,0 +1,193 @@
+package com.logcenter.recommender.follow;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 파일 추적 세션 (--follow)
+ * 새로 추가된 라인을 계속 분류하여 최근 윈도우의 포맷 분포를 유지하고,
+ * 주요 포맷이 바뀔 때마다 한 줄을 출력한다. 폴링마다 체크포인트를 저장하여
+ * 다시 시작하면 마지막 위치부터 이어서 읽는다.
+ * 라인은 디코딩하지 않은 바이트로 분류기에 전달되므로 분류기가 필요한 라인만 디코딩한다.
+ */
+public class FollowSession {
+
+    private static final Logger logger = LoggerFactory.getLogger(FollowSession.class);
+
+    /** 분류 결과가 없는 라인의 포맷 ID */
+    public static final String UNKNOWN_FORMAT = "UNKNOWN";
+
+    /** 한 번의 폴링에서 읽는 최대 라인 수 (처음 따라잡을 때도 중단 요청과 체크포인트 저장이 늦지 않도록) */
+    public static final int MAX_LINES_PER_POLL = 10_000;
+
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    /**
+     * 라인 분류기
+     */
+    public interface LineClassifier {
+        /**
+         * @param line 라인 바이트 (앞뒤 공백 제외, 호출 중에만 유효)
+         * @return 포맷 ID (결과 없으면 null)
+         */
+        String classify(ByteBuffer line);
+    }
+
+    private final LogTailer tailer;
+    private final CheckpointStore checkpointStore;
+    private final LineClassifier classifier;
+    private final RollingFormatWindow window;
+    private final PrintStream out;
+
+    private long totalLines;
+    private long lastSavedOffset = -1;
+    // 마지막 폴링이 최대 라인 수에서 멈춰 아직 읽을 라인이 남음
+    private boolean backlog;
+
+    // 종료 요청 (분류기가 인터럽트 상태를 지워도 라인마다 확인)
+    private volatile boolean stopRequested;
+    private final CountDownLatch finished = new CountDownLatch(1);
+
+    /**
+     * @param tailer 파일 추적기
+     * @param checkpointStore 체크포인트 저장소 (null이면 저장하지 않음)
+     * @param classifier 라인 바이트 → 포맷 ID (결과 없으면 null)
+     * @param window 포맷 분포 윈도우
+     * @param out 변경 알림 출력 대상
+     */
+    public FollowSession(LogTailer tailer, CheckpointStore checkpointStore,
+                         LineClassifier classifier, RollingFormatWindow window, PrintStream out) {
+        this.tailer = tailer;
+        this.checkpointStore = checkpointStore;
+        this.classifier = classifier;
+        this.window = window;
+        this.out = out;
+    }
+
+    /**
+     * 한 번 폴링하여 새 라인 분류
+     * 최대 {@link #MAX_LINES_PER_POLL}개 라인까지 읽고, 종료 요청이나 인터럽트가 있으면 그 라인에서 멈춘다.
+     * @return 처리한 라인 수 (빈 라인 제외)
+     */
+    public synchronized int pollOnce() throws IOException {
+        int[] processed = new int[1];
+        int[] delivered = new int[1];
+        tailer.pollBytes(line -> {
+            delivered[0]++;
+            if (trim(line)) {
+                String formatId = classifier.classify(line);
+                if (window.add(formatId != null ? formatId : UNKNOWN_FORMAT)) {
+                    printDominantChange();
+                }
+                processed[0]++;
+            }
+            return delivered[0] < MAX_LINES_PER_POLL && !isStopping();
+        });
+        backlog = delivered[0] >= MAX_LINES_PER_POLL;
+        totalLines += processed[0];
+        saveCheckpoint();
+        return processed[0];
+    }
+
+    /**
+     * 스레드가 인터럽트될 때까지 주기적으로 폴링
+     * @param intervalMs 폴링 간격 (밀리초)
+     */
+    public void run(long intervalMs) throws IOException {
+        logger.info("파일 추적 시작: {} (offset {})", tailer.getPath(), tailer.getOffset());
+        try {
+            while (!isStopping()) {
+                pollOnce();
+                // 따라잡는 중이면 쉬지 않고 다음 묶음을 읽음
+                if (!backlog && !isStopping()) {
+                    Thread.sleep(intervalMs);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            saveCheckpoint();
+            finished.countDown();
+            logger.info("파일 추적 종료: {} ({} 라인 처리)", tailer.getPath(), totalLines);
+        }
+    }
+
+    /**
+     * 종료 요청 (모니터를 잡지 않으므로 종료 훅에서 호출 가능)
+     * 진행 중인 폴링은 현재 라인을 마치고 멈추며, {@link #run(long)}은 체크포인트를 저장하고 끝난다.
+     */
+    public void stop() {
+        stopRequested = true;
+    }
+
+    /**
+     * {@link #run(long)}이 마지막 체크포인트를 저장하고 끝날 때까지 대기
+     * @return 제한 시간 안에 끝나면 true
+     */
+    public boolean awaitFinished(long timeoutMs) throws InterruptedException {
+        return finished.await(timeoutMs, TimeUnit.MILLISECONDS);
+    }
+
+    private boolean isStopping() {
+        return stopRequested || Thread.currentThread().isInterrupted();
+    }
+
+    /**
+     * 현재 위치 저장 (변경이 있을 때만)
+     */
+    public synchronized void saveCheckpoint() {
+        if (checkpointStore == null || tailer.getOffset() == lastSavedOffset) {
+            return;
+        }
+        try {
+            checkpointStore.save(tailer.checkpoint());
+            lastSavedOffset = tailer.getOffset();
+        } catch (IOException e) {
+            logger.warn("체크포인트 저장 실패: {} - {}", tailer.getPath(), e.getMessage());
+        }
+    }
+
+    public RollingFormatWindow getWindow() {
+        return window;
+    }
+
+    public long getTotalLines() {
+        return totalLines;
+    }
+
+    /**
+     * 앞뒤 공백 바이트(0x20 이하) 제외 (String.trim과 동일, ASCII 호환 인코딩 기준)
+     * @return 남은 내용이 있으면 true
+     */
+    static boolean trim(ByteBuffer line) {
+        int start = line.position();
+        int end = line.limit();
+        while (start < end && (line.get(start) & 0xFF) <= ' ') {
+            start++;
+        }
+        while (end > start && (line.get(end - 1) & 0xFF) <= ' ') {
+            end--;
+        }
+        line.limit(end);
+        line.position(start);
+        return start < end;
+    }
+
+    private void printDominantChange() {
+        out.printf("[%s] 주요 포맷: %s (%.1f%%, %d/%d 라인)%n",
+            LocalDateTime.now().format(TIME_FORMAT),
+            window.getDominant(),
+            window.getDominantRatio() * 100,
+            window.count(window.getDominant()),
+            window.size());
+        out.flush();
+    }
+}
@@ -0,0 +1,261 @@
+package com.logcenter.recommender.follow;
+
+import com.logcenter.recommender.util.MappedLogReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+
+/**
+ * 증가하는 로그 파일 추적기 (tail -F)
+ * 마지막 바이트 위치부터 새로 추가된 완전한 라인만 읽는다.
+ * 파일이 교체(rotate)되면 이전 파일의 남은 내용을 마저 읽은 뒤 새 파일 처음부터,
+ * 파일이 잘리면(truncate) 처음부터 다시 읽는다.
+ */
+public class LogTailer implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(LogTailer.class);
+
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    private final Path path;
+    private final Charset charset;
+    private final ByteBuffer readBuffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+
+    private FileChannel channel;
+    private String fileKey;
+    private long offset;
+
+    // 아직 줄바꿈이 오지 않은 마지막 라인 조각 (최대 라인 길이까지)
+    private byte[] pending = new byte[256];
+    private int pendingLength;
+    private ByteBuffer pendingView;
+    // 최대 라인 길이를 넘어 버리는 현재 라인의 나머지 바이트 수 (0보다 크면 잘라내는 중)
+    private long skippedLength;
+
+    // 이번 폴링에서 핸들러가 중단을 요청함
+    private boolean stopped;
+
+    /**
+     * @param path 추적할 파일
+     * @param charset 파일 인코딩
+     * @param checkpoint 이어서 읽을 체크포인트 (없으면 null, 파일 처음부터)
+     */
+    public LogTailer(Path path, Charset charset, TailCheckpoint checkpoint) {
+        this.path = path.toAbsolutePath().normalize();
+        this.charset = charset != null ? charset : StandardCharsets.UTF_8;
+        if (checkpoint != null) {
+            this.offset = checkpoint.getOffset();
+            this.fileKey = checkpoint.getFileKey();
+        }
+    }
+
+    /**
+     * 새로 추가된 라인 읽기
+     * 핸들러가 false를 반환하면 그 라인까지 처리한 위치에서 멈추고 나머지는 다음 폴링에서 읽는다.
+     * @return 전달한 라인 수
+     */
+    public int poll(MappedLogReader.LineHandler handler) throws IOException {
+        return pollBytes(line -> handler.onLine(decode(line)));
+    }
+
+    /**
+     * 새로 추가된 라인을 디코딩 없이 읽기 (필요한 라인만 {@link #decode(ByteBuffer)})
+     * @return 전달한 라인 수
+     */
+    public int pollBytes(MappedLogReader.ByteLineHandler handler) throws IOException {
+        stopped = false;
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            // 교체 중이면 다음 폴링에서 새 파일을 연다
+            return channel != null ? drain(handler) : 0;
+        }
+
+        String currentKey = attributes.fileKey() != null ? attributes.fileKey().toString() : null;
+        int lines = 0;
+
+        if (fileKey != null && currentKey != null && !fileKey.equals(currentKey)) {
+            logger.info("파일 교체 감지: {}", path);
+            lines += drain(handler);
+            if (stopped) {
+                // 이전 파일을 다 읽기 전에 멈추면 다음 폴링에서 이어서 읽음
+                return lines;
+            }
+            closeChannel();
+            resetPosition();
+        }
+        fileKey = currentKey;
+
+        if (channel == null) {
+            channel = FileChannel.open(path, StandardOpenOption.READ);
+        }
+
+        long size = channel.size();
+        if (size < readPosition()) {
+            logger.info("파일 잘림 감지: {} ({} -> {} bytes)", path, readPosition(), size);
+            resetPosition();
+        }
+
+        return lines + readAvailable(handler);
+    }
+
+    /**
+     * 현재 위치의 체크포인트
+     */
+    public TailCheckpoint checkpoint() {
+        return new TailCheckpoint(path.toString(), offset, fileKey, System.currentTimeMillis());
+    }
+
+    /**
+     * 처리 완료된 바이트 위치 (마지막 완전한 라인 다음)
+     */
+    public long getOffset() {
+        return offset;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    @Override
+    public void close() throws IOException {
+        closeChannel();
+    }
+
+    /**
+     * 라인 바이트 디코딩 (버퍼 위치는 변경하지 않음)
+     */
+    public String decode(ByteBuffer line) {
+        return charset.decode(line.duplicate()).toString();
+    }
+
+    public Charset getCharset() {
+        return charset;
+    }
+
+    /**
+     * 교체된 이전 파일의 남은 내용을 읽고, 줄바꿈 없는 마지막 조각도 라인으로 전달
+     */
+    private int drain(MappedLogReader.ByteLineHandler handler) throws IOException {
+        if (channel == null) {
+            return 0;
+        }
+        int lines = readAvailable(handler);
+        if (!stopped && (pendingLength > 0 || skippedLength > 0)) {
+            stopped = !handler.onLine(pendingLine());
+            lines++;
+            completeLine(0);
+        }
+        return lines;
+    }
+
+    /**
+     * 줄바꿈까지 읽은 라인 전달
+     * 최대 라인 길이를 넘는 라인은 {@link MappedLogReader}와 같이 앞부분만 한 번 전달하고 나머지는 버린다.
+     * 잘린 라인도 줄바꿈이 온 뒤에 전달하므로 처리 위치(체크포인트)는 항상 라인 경계에 있다.
+     */
+    private int readAvailable(MappedLogReader.ByteLineHandler handler) throws IOException {
+        int lines = 0;
+        long position = readPosition();
+        while (true) {
+            readBuffer.clear();
+            int read = channel.read(readBuffer, position);
+            if (read <= 0) {
+                break;
+            }
+            position += read;
+
+            byte[] bytes = readBuffer.array();
+            int lineStart = 0;
+            for (int i = 0; i < read; i++) {
+                if (bytes[i] != '\n') {
+                    continue;
+                }
+                appendPending(bytes, lineStart, i - lineStart);
+                stopped = !handler.onLine(pendingLine());
+                lines++;
+                completeLine(1);
+                lineStart = i + 1;
+                if (stopped) {
+                    // 버퍼의 나머지는 다음 폴링에서 offset부터 다시 읽음
+                    return lines;
+                }
+            }
+            appendPending(bytes, lineStart, read - lineStart);
+        }
+        return lines;
+    }
+
+    /**
+     * 다음에 읽을 파일 위치 (처리 위치 + 아직 줄바꿈이 오지 않은 현재 라인)
+     */
+    private long readPosition() {
+        return offset + pendingLength + skippedLength;
+    }
+
+    /**
+     * 현재 라인을 처리 완료로 표시
+     * @param terminatorLength 라인 끝 줄바꿈 길이
+     */
+    private void completeLine(int terminatorLength) {
+        offset += pendingLength + skippedLength + terminatorLength;
+        pendingLength = 0;
+        skippedLength = 0;
+    }
+
+    private void appendPending(byte[] bytes, int from, int length) {
+        int kept = Math.min(length, MappedLogReader.MAX_LINE_BYTES - pendingLength);
+        skippedLength += length - kept;
+        if (kept <= 0) {
+            return;
+        }
+        if (pendingLength + kept > pending.length) {
+            pending = Arrays.copyOf(pending, Math.min(MappedLogReader.MAX_LINE_BYTES,
+                Math.max(pending.length * 2, pendingLength + kept)));
+        }
+        System.arraycopy(bytes, from, pending, pendingLength, kept);
+        pendingLength += kept;
+    }
+
+    /**
+     * 조립된 라인 바이트 (CR 제외)
+     */
+    private ByteBuffer pendingLine() {
+        int end = pendingLength;
+        if (end > 0 && pending[end - 1] == '\r') {
+            end--;
+        }
+        if (pendingView == null || pendingView.array() != pending) {
+            pendingView = ByteBuffer.wrap(pending);
+        }
+        pendingView.clear();
+        pendingView.limit(end);
+        return pendingView;
+    }
+
+    private void resetPosition() {
+        offset = 0;
+        pendingLength = 0;
+        skippedLength = 0;
+    }
+
+    private void closeChannel() throws IOException {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+}
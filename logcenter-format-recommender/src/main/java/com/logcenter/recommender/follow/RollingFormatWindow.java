@@ -0,0 +1,123 @@
+package com.logcenter.recommender.follow;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 최근 N개 라인의 포맷 분포
+ * 고정 크기 링 버퍼로 오래된 분류 결과를 밀어내며 포맷별 개수를 유지한다.
+ * 최다 포맷이 동률이면 기존 주요 포맷을 유지하여 결과가 흔들리지 않도록 한다.
+ *
+ * 스레드 안전하지 않음
+ */
+public class RollingFormatWindow {
+
+    private final String[] ring;
+    private final Map<String, Integer> counts = new HashMap<>();
+    private int next;
+    private int size;
+    private String dominant;
+
+    /**
+     * @param capacity 윈도우 크기 (라인 수)
+     */
+    public RollingFormatWindow(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("윈도우 크기는 1 이상이어야 합니다: " + capacity);
+        }
+        this.ring = new String[capacity];
+    }
+
+    /**
+     * 분류 결과 추가
+     * @param formatId 포맷 ID
+     * @return 주요 포맷이 바뀌었으면 true
+     */
+    public boolean add(String formatId) {
+        if (size == ring.length) {
+            String evicted = ring[next];
+            int remaining = counts.get(evicted) - 1;
+            if (remaining == 0) {
+                counts.remove(evicted);
+            } else {
+                counts.put(evicted, remaining);
+            }
+        } else {
+            size++;
+        }
+        ring[next] = formatId;
+        next = (next + 1) % ring.length;
+        counts.merge(formatId, 1, Integer::sum);
+
+        String leader = leader();
+        if (leader != null && !leader.equals(dominant)) {
+            dominant = leader;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 현재 주요 포맷 (비어있으면 null)
+     */
+    public String getDominant() {
+        return dominant;
+    }
+
+    /**
+     * 주요 포맷 비율 (0.0 ~ 1.0)
+     */
+    public double getDominantRatio() {
+        return size == 0 || dominant == null ? 0.0 : (double) count(dominant) / size;
+    }
+
+    /**
+     * 포맷 개수
+     */
+    public int count(String formatId) {
+        Integer count = counts.get(formatId);
+        return count != null ? count : 0;
+    }
+
+    /**
+     * 윈도우에 들어있는 라인 수
+     */
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return ring.length;
+    }
+
+    /**
+     * 포맷별 개수 (많은 순)
+     */
+    public Map<String, Integer> getDistribution() {
+        List<Map.Entry<String, Integer>> entries = new ArrayList<>(counts.entrySet());
+        entries.sort((e1, e2) -> {
+            int compare = Integer.compare(e2.getValue(), e1.getValue());
+            return compare != 0 ? compare : e1.getKey().compareTo(e2.getKey());
+        });
+        Map<String, Integer> distribution = new LinkedHashMap<>();
+        for (Map.Entry<String, Integer> entry : entries) {
+            distribution.put(entry.getKey(), entry.getValue());
+        }
+        return distribution;
+    }
+
+    private String leader() {
+        String leader = dominant;
+        int leaderCount = dominant != null ? count(dominant) : 0;
+        for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+            if (entry.getValue() > leaderCount) {
+                leader = entry.getKey();
+                leaderCount = entry.getValue();
+            }
+        }
+        return leaderCount > 0 ? leader : null;
+    }
+}
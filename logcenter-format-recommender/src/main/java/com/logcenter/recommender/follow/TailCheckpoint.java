@@ -0,0 +1,47 @@
+package com.logcenter.recommender.follow;
+
+/**
+ * 파일 추적 체크포인트
+ * 마지막으로 처리한 바이트 위치와 파일 식별자를 보관
+ */
+public class TailCheckpoint {
+
+    private final String path;
+    private final long offset;
+    private final String fileKey;
+    private final long updatedAt;
+
+    public TailCheckpoint(String path, long offset, String fileKey, long updatedAt) {
+        this.path = path;
+        this.offset = offset;
+        this.fileKey = fileKey;
+        this.updatedAt = updatedAt;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * 다음에 읽을 바이트 위치 (완전한 라인까지만 반영)
+     */
+    public long getOffset() {
+        return offset;
+    }
+
+    /**
+     * 파일 시스템 식별자 (inode 등, 지원하지 않으면 null)
+     */
+    public String getFileKey() {
+        return fileKey;
+    }
+
+    public long getUpdatedAt() {
+        return updatedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "TailCheckpoint{path='" + path + "', offset=" + offset + ", fileKey='" + fileKey + "'}";
+    }
+}
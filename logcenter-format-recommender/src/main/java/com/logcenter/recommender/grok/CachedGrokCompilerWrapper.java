@@ -63,12 +63,16 @@ public class CachedGrokCompilerWrapper extends GrokCompilerWrapper {
             logger.info("캐시가 없거나 유효하지 않아 파일에서 로드합니다");
             int loadedCount = super.loadCustomPatterns();
             
-            // 4. 로드 성공 시 캐시에 저장
+            // 4. 로드 성공 시 캐시에 저장 (다른 프로세스가 재구축 중이면 저장하지 않음)
             if (loadedCount > 0) {
-                Map<String, GrokPattern> patterns = getAllCustomPatterns();
-                cacheManager.saveCustomPatterns(patterns);
-                cacheManager.saveResourceChecksum(customPatternPath);
-                logger.info("커스텀 패턴을 캐시에 저장했습니다");
+                try (PersistentCacheManager.RebuildLock lock = cacheManager.tryLockForRebuild(customPatternPath)) {
+                    if (lock != null) {
+                        Map<String, GrokPattern> patterns = getAllCustomPatterns();
+                        cacheManager.saveCustomPatterns(patterns);
+                        cacheManager.saveResourceChecksum(customPatternPath);
+                        logger.info("커스텀 패턴을 캐시에 저장했습니다");
+                    }
+                }
             }
             
             return loadedCount;
@@ -1,16 +1,19 @@
 package com.logcenter.recommender.grok;
 
+import com.logcenter.recommender.cache.MappedCatalog;
 import com.logcenter.recommender.cache.PersistentCacheManager;
 import com.logcenter.recommender.config.AppConfig;
 import com.logcenter.recommender.model.LogFormat;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.util.List;
 
 /**
  * 캐시 기능이 추가된 패턴 저장소
  * 로그 포맷 데이터를 영구 캐시에 저장하여 로딩 시간 단축
+ * 캐시는 메모리 매핑으로 열어 매칭용 포맷만 상주시키고, 전체 포맷은 출력할 때 만든다.
  */
 public class CachedPatternRepository extends FilePatternRepository {
     
@@ -19,11 +22,15 @@ public class CachedPatternRepository extends FilePatternRepository {
     private final PersistentCacheManager cacheManager;
     private final String logFormatsPath;
     
+    // 매칭용 포맷을 제공 중인 매핑된 카탈로그 (없으면 전체 포맷이 상주)
+    private volatile MappedCatalog catalog;
+    
     /**
      * 생성자
      */
     public CachedPatternRepository(PersistentCacheManager cacheManager) {
-        super();
+        // 캐시는 전체 포맷으로 만들고, 매칭용 포맷은 매핑된 카탈로그에서 얻음
+        super(AppConfig.getInstance().getString(AppConfig.LOG_FORMATS_PATH), FormatLoadProfile.FULL);
         this.cacheManager = cacheManager;
         this.logFormatsPath = AppConfig.getInstance()
                 .getString(AppConfig.LOG_FORMATS_PATH, "setting_logformat.json");
@@ -41,38 +48,38 @@ public class CachedPatternRepository extends FilePatternRepository {
         }
         
         try {
-            // 1. 캐시에서 로드 시도
-            List<LogFormat> cachedFormats = cacheManager.loadLogFormats();
+            // 1. 캐시가 유효하면 매핑된 카탈로그에서 매칭용 포맷 로드
+            if (cacheManager.isResourceCacheValid(logFormatsPath) && useCatalog()) {
+                logger.info("캐시에서 {}개의 로그 포맷을 로드했습니다", size());
+                return true;
+            }
             
-            // 2. 캐시가 유효한지 확인
-            if (cachedFormats != null && 
-                cacheManager.isResourceCacheValid(logFormatsPath)) {
-                
-                logger.info("캐시에서 로그 포맷을 로드합니다");
+            try (PersistentCacheManager.RebuildLock lock = cacheManager.tryLockForRebuild(logFormatsPath)) {
+                // 2. 잠금을 기다리는 동안 다른 프로세스가 캐시를 만들었으면 그대로 사용
+                if (lock != null) {
+                    cacheManager.refreshMetadata();
+                    if (cacheManager.isResourceCacheValid(logFormatsPath) && useCatalog()) {
+                        logger.info("다른 프로세스가 만든 캐시에서 {}개의 로그 포맷을 로드했습니다", size());
+                        return true;
+                    }
+                }
                 
-                // 캐시된 포맷 설정
-                boolean success = setLogFormats(cachedFormats);
+                // 3. 캐시 미스 - 일반 초기화
+                logger.info("캐시가 없거나 유효하지 않아 파일에서 로드합니다");
+                boolean success = super.initialize();
                 
-                if (success) {
-                    logger.info("캐시에서 {}개의 로그 포맷을 로드했습니다", cachedFormats.size());
-                    return true;
+                // 4. 재구축 잠금을 가진 경우에만 캐시에 저장하고 매칭용 포맷으로 교체
+                if (success && lock != null) {
+                    List<LogFormat> formats = getAllFormats();
+                    cacheManager.saveLogFormats(formats);
+                    cacheManager.saveResourceChecksum(logFormatsPath);
+                    logger.info("로그 포맷을 캐시에 저장했습니다");
+                    useCatalog();
                 }
+                
+                return success;
             }
             
-            // 3. 캐시 미스 - 일반 초기화
-            logger.info("캐시가 없거나 유효하지 않아 파일에서 로드합니다");
-            boolean success = super.initialize();
-            
-            // 4. 초기화 성공 시 캐시에 저장
-            if (success) {
-                List<LogFormat> formats = getAllFormats();
-                cacheManager.saveLogFormats(formats);
-                cacheManager.saveResourceChecksum(logFormatsPath);
-                logger.info("로그 포맷을 캐시에 저장했습니다");
-            }
-            
-            return success;
-            
         } catch (Exception e) {
             logger.error("캐시 로드 중 오류 발생, 일반 초기화로 대체", e);
             return super.initialize();
@@ -85,15 +92,20 @@ public class CachedPatternRepository extends FilePatternRepository {
      */
     @Override
     public int reloadFormats() {
+        catalog = null;
         int count = super.reloadFormats();
         
         // 재로드 성공 시 캐시 갱신
         if (count > 0 && cacheManager != null && cacheManager.isEnabled()) {
-            try {
+            try (PersistentCacheManager.RebuildLock lock = cacheManager.tryLockForRebuild(logFormatsPath)) {
+                if (lock == null) {
+                    return count;
+                }
                 List<LogFormat> formats = getAllFormats();
                 cacheManager.saveLogFormats(formats);
                 cacheManager.saveResourceChecksum(logFormatsPath);
                 logger.info("재로드된 로그 포맷을 캐시에 저장했습니다");
+                useCatalog();
             } catch (Exception e) {
                 logger.error("캐시 저장 실패", e);
             }
@@ -102,6 +114,46 @@ public class CachedPatternRepository extends FilePatternRepository {
         return count;
     }
     
+    /**
+     * 출력용 전체 포맷 (매핑된 카탈로그에서 만듦)
+     */
+    @Override
+    public LogFormat getFullFormat(String formatId) {
+        MappedCatalog current = catalog;
+        if (current != null) {
+            try {
+                LogFormat full = current.materialize(formatId);
+                if (full != null) {
+                    return full;
+                }
+            } catch (IOException e) {
+                logger.warn("캐시에서 전체 포맷을 만들지 못했습니다: {}", formatId, e);
+            }
+        }
+        return super.getFullFormat(formatId);
+    }
+    
+    /**
+     * 매핑된 카탈로그의 매칭용 포맷으로 저장소 교체
+     * @return 교체 성공 여부
+     */
+    private boolean useCatalog() {
+        MappedCatalog mapped = cacheManager.openLogFormatCatalog();
+        if (mapped == null) {
+            return false;
+        }
+        try {
+            if (!setLogFormats(mapped.matchingViews())) {
+                return false;
+            }
+            catalog = mapped;
+            return true;
+        } catch (IOException e) {
+            logger.warn("매핑된 카탈로그에서 포맷을 읽지 못했습니다", e);
+            return false;
+        }
+    }
+    
     /**
      * 캐시 무효화
      */
@@ -8,6 +8,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.*;
+import java.lang.ref.SoftReference;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
@@ -16,6 +17,9 @@ import java.util.stream.Collectors;
 /**
  * 파일 기반 패턴 저장소 구현체
  * GROK-PATTERN-CONVERTER.sql 파일에서 로그 포맷 데이터를 로드하고 관리
+ *
+ * {@link FormatLoadProfile#MATCHING} 프로파일에서는 매칭에 쓰는 필드만 남기고 반복 문자열을 공유하며,
+ * 타입 설명, 샘플 로그, 데이터 테이블은 {@link #getFullFormat(String)}이 필요할 때 파일에서 다시 읽는다.
  */
 public class FilePatternRepository implements PatternRepository {
     
@@ -26,6 +30,10 @@ public class FilePatternRepository implements PatternRepository {
     private final Map<String, List<LogFormat>> formatsByGroup;
     private final Map<String, List<LogFormat>> formatsByVendor;
     private final String resourcePath;
+    private final FormatLoadProfile loadProfile;
+    private volatile FormatIndex formatIndex = FormatIndex.empty();
+    // MATCHING 프로파일의 전체 포맷 (메모리가 부족하면 해제되고 다시 읽음)
+    private volatile SoftReference<Map<String, LogFormat>> fullFormats = new SoftReference<>(null);
     private boolean initialized = false;
     
     /**
@@ -40,7 +48,18 @@ public class FilePatternRepository implements PatternRepository {
      * @param resourcePath 리소스 파일 경로
      */
     public FilePatternRepository(String resourcePath) {
+        this(resourcePath, FormatLoadProfile.fromValue(
+            AppConfig.getInstance().getString(AppConfig.LOG_FORMATS_LOAD_PROFILE)));
+    }
+    
+    /**
+     * 리소스 경로와 로드 프로파일을 지정하는 생성자
+     * @param resourcePath 리소스 파일 경로
+     * @param loadProfile 로드 프로파일
+     */
+    public FilePatternRepository(String resourcePath, FormatLoadProfile loadProfile) {
         this.resourcePath = resourcePath;
+        this.loadProfile = loadProfile != null ? loadProfile : FormatLoadProfile.FULL;
         this.logFormats = new ArrayList<>();
         this.formatsById = new ConcurrentHashMap<>();
         this.formatsByGroup = new ConcurrentHashMap<>();
@@ -70,6 +89,10 @@ public class FilePatternRepository implements PatternRepository {
             }
             
             List<LogFormat> formats = parseFormatsFromFile(inputStream);
+            fullFormats = new SoftReference<>(null);
+            if (loadProfile == FormatLoadProfile.MATCHING) {
+                formats = toMatchingFormats(formats);
+            }
             
             // TODO: 너무 일반적인 패턴만 가진 포맷 필터링 - PatternFilter 구현 후 활성화
             
@@ -96,6 +119,9 @@ public class FilePatternRepository implements PatternRepository {
                 }
             }
             
+            // 복합 인덱스 생성
+            rebuildIndex();
+            
             logger.info("{}개의 로그 포맷을 로드했습니다", formats.size());
             logger.info("그룹: {}개, 벤더: {}개", 
                 formatsByGroup.size(), formatsByVendor.size());
@@ -166,6 +192,108 @@ public class FilePatternRepository implements PatternRepository {
         }
     }
     
+    /**
+     * 매칭용 포맷으로 변환
+     * 타입 설명, 샘플 로그, 데이터 테이블을 버리고 같은 문자열(그룹, 벤더, 필드명, Grok 표현식 등)은
+     * 하나의 인스턴스를 공유하도록 한다.
+     */
+    private static List<LogFormat> toMatchingFormats(List<LogFormat> formats) {
+        Map<String, String> shared = new HashMap<>();
+        List<LogFormat> slim = new ArrayList<>(formats.size());
+        for (LogFormat format : formats) {
+            LogFormat copy = new LogFormat();
+            copy.setFormatId(share(shared, format.getFormatId()));
+            copy.setFormatName(share(shared, format.getFormatName()));
+            copy.setFormatVersion(share(shared, format.getFormatVersion()));
+            copy.setGroupName(share(shared, format.getGroupName()));
+            copy.setGroupId(share(shared, format.getGroupId()));
+            copy.setVendor(share(shared, format.getVendor()));
+            copy.setModel(share(shared, format.getModel()));
+            copy.setSmType(share(shared, format.getSmType()));
+            copy.setGrokPattern(share(shared, format.getGrokPattern()));
+            if (format.getRequiredFields() != null) {
+                List<String> requiredFields = new ArrayList<>(format.getRequiredFields().size());
+                for (String field : format.getRequiredFields()) {
+                    requiredFields.add(share(shared, field));
+                }
+                copy.setRequiredFields(requiredFields);
+            }
+            if (format.getLogTypes() != null) {
+                List<LogFormat.LogType> logTypes = new ArrayList<>(format.getLogTypes().size());
+                for (LogFormat.LogType logType : format.getLogTypes()) {
+                    LogFormat.LogType typeCopy = new LogFormat.LogType();
+                    typeCopy.setTypeName(share(shared, logType.getTypeName()));
+                    if (logType.getPatterns() != null) {
+                        List<LogFormat.Pattern> patterns = new ArrayList<>(logType.getPatterns().size());
+                        for (LogFormat.Pattern pattern : logType.getPatterns()) {
+                            LogFormat.Pattern patternCopy = new LogFormat.Pattern();
+                            patternCopy.setExpName(share(shared, pattern.getExpName()));
+                            patternCopy.setGrokExp(share(shared, pattern.getGrokExp()));
+                            patternCopy.setOrder(share(shared, pattern.getOrder()));
+                            patterns.add(patternCopy);
+                        }
+                        typeCopy.setPatterns(patterns);
+                    }
+                    logTypes.add(typeCopy);
+                }
+                copy.setLogTypes(logTypes);
+            }
+            slim.add(copy);
+        }
+        return slim;
+    }
+    
+    private static String share(Map<String, String> shared, String value) {
+        if (value == null) {
+            return null;
+        }
+        String existing = shared.putIfAbsent(value, value);
+        return existing != null ? existing : value;
+    }
+    
+    /**
+     * 로드 프로파일 반환
+     */
+    public FormatLoadProfile getLoadProfile() {
+        return loadProfile;
+    }
+    
+    @Override
+    public LogFormat getFullFormat(String formatId) {
+        if (loadProfile != FormatLoadProfile.MATCHING || formatId == null) {
+            return getFormatById(formatId);
+        }
+        Map<String, LogFormat> full = fullFormats.get();
+        if (full == null) {
+            full = loadFullFormats();
+        }
+        LogFormat format = full.get(formatId);
+        return format != null ? format : getFormatById(formatId);
+    }
+    
+    /**
+     * 전체 포맷을 파일에서 다시 읽기 (MATCHING 프로파일의 출력용)
+     */
+    private synchronized Map<String, LogFormat> loadFullFormats() {
+        Map<String, LogFormat> full = fullFormats.get();
+        if (full != null) {
+            return full;
+        }
+        full = new HashMap<>();
+        try (InputStream inputStream = getResourceAsStream(resourcePath)) {
+            if (inputStream != null) {
+                for (LogFormat format : parseFormatsFromFile(inputStream)) {
+                    full.put(format.getFormatId(), format);
+                }
+                logger.debug("전체 로그 포맷 {}개를 다시 읽었습니다", full.size());
+            }
+        } catch (IOException e) {
+            logger.warn("전체 로그 포맷을 읽지 못했습니다: {}", resourcePath, e);
+        }
+        fullFormats = new SoftReference<>(full);
+        return full;
+    }
+    
     @Override
     public List<LogFormat> getAllFormats() {
         return new ArrayList<>(formatsById.values());
@@ -188,6 +316,11 @@ public class FilePatternRepository implements PatternRepository {
         return formats != null ? new ArrayList<>(formats) : new ArrayList<>();
     }
     
+    @Override
+    public List<LogFormat> findCandidates(String groupName, String vendor, String model, String smType) {
+        return formatIndex.find(groupName, vendor, model, smType);
+    }
+    
     @Override
     public Map<String, Integer> getGroupStatistics() {
         Map<String, Integer> stats = new HashMap<>();
@@ -221,6 +354,15 @@ public class FilePatternRepository implements PatternRepository {
         formatsById.clear();
         formatsByGroup.clear();
         formatsByVendor.clear();
+        formatIndex = FormatIndex.empty();
+    }
+    
+    /**
+     * 복합 인덱스 재생성
+     * getAllFormats()와 같은 순서로 후보 배열을 구성
+     */
+    private void rebuildIndex() {
+        formatIndex = FormatIndex.build(new ArrayList<>(formatsById.values()));
     }
     
     /**
@@ -296,6 +438,7 @@ public class FilePatternRepository implements PatternRepository {
             }
         }
         
+        rebuildIndex();
         return true;
     }
 }
\ No newline at end of file
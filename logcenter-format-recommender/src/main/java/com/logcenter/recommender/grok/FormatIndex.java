@@ -0,0 +1,222 @@
+package com.logcenter.recommender.grok;
+
+import com.logcenter.recommender.model.LogFormat;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 로그 포맷 복합 인덱스
+ * 그룹/벤더/모델/SM 타입 조합별 후보 포맷 배열을 미리 계산하여 보관
+ *
+ * 키는 대소문자, 공백, '_', '-'를 무시하여 비교한다 (예: "Web Server" == "WEBSERVER").
+ * 인덱스는 생성 후 변경되지 않으며, 저장소가 재로드되면 새 인스턴스로 교체된다.
+ */
+public final class FormatIndex {
+
+    private static final LogFormat[] EMPTY = new LogFormat[0];
+    private static final char KEY_SEPARATOR = '\u0001';
+
+    private static final FormatIndex EMPTY_INDEX = new FormatIndex(Collections.<LogFormat>emptyList());
+
+    private final LogFormat[] allFormats;
+    private final Map<String, LogFormat[]> byGroup;
+    private final Map<String, LogFormat[]> byVendor;
+    private final Map<String, LogFormat[]> byModel;
+    private final Map<String, LogFormat[]> bySmType;
+    private final Map<String, LogFormat[]> byGroupAndVendor;
+
+    // 그 외 조합은 최초 조회 시 계산하여 보관 (알려진 키 조합만 저장)
+    private final Map<String, LogFormat[]> combinations = new ConcurrentHashMap<>();
+
+    private FormatIndex(Collection<LogFormat> formats) {
+        Map<String, List<LogFormat>> groups = new HashMap<>();
+        Map<String, List<LogFormat>> vendors = new HashMap<>();
+        Map<String, List<LogFormat>> models = new HashMap<>();
+        Map<String, List<LogFormat>> smTypes = new HashMap<>();
+        Map<String, List<LogFormat>> groupVendors = new HashMap<>();
+
+        List<LogFormat> all = new ArrayList<>(formats.size());
+        for (LogFormat format : formats) {
+            if (format == null) {
+                continue;
+            }
+            all.add(format);
+
+            String group = normalizeKey(format.getGroupName());
+            String vendor = normalizeKey(format.getVendor());
+            addTo(groups, group, format);
+            addTo(vendors, vendor, format);
+            addTo(models, normalizeKey(format.getModel()), format);
+            addTo(smTypes, normalizeKey(format.getSmType()), format);
+            if (group != null && vendor != null) {
+                addTo(groupVendors, compositeKey(group, vendor, null, null), format);
+            }
+        }
+
+        this.allFormats = all.toArray(EMPTY);
+        this.byGroup = freeze(groups);
+        this.byVendor = freeze(vendors);
+        this.byModel = freeze(models);
+        this.bySmType = freeze(smTypes);
+        this.byGroupAndVendor = freeze(groupVendors);
+    }
+
+    /**
+     * 포맷 목록으로 인덱스 생성
+     * @param formats 로그 포맷 목록 (순서 유지)
+     * @return 생성된 인덱스
+     */
+    public static FormatIndex build(Collection<LogFormat> formats) {
+        if (formats == null || formats.isEmpty()) {
+            return EMPTY_INDEX;
+        }
+        return new FormatIndex(formats);
+    }
+
+    /**
+     * 빈 인덱스 반환
+     */
+    public static FormatIndex empty() {
+        return EMPTY_INDEX;
+    }
+
+    /**
+     * 조건에 맞는 후보 포맷 조회
+     * null 또는 빈 조건은 전체를 의미
+     * @return 읽기 전용 후보 리스트 (미리 계산된 배열의 뷰)
+     */
+    public List<LogFormat> find(String groupName, String vendor, String model, String smType) {
+        LogFormat[] candidates = lookup(normalizeKey(groupName), normalizeKey(vendor),
+            normalizeKey(model), normalizeKey(smType));
+        return Collections.unmodifiableList(Arrays.asList(candidates));
+    }
+
+    /**
+     * 조건에 맞는 후보 포맷 개수
+     */
+    public int count(String groupName, String vendor, String model, String smType) {
+        return lookup(normalizeKey(groupName), normalizeKey(vendor),
+            normalizeKey(model), normalizeKey(smType)).length;
+    }
+
+    /**
+     * 인덱스된 전체 포맷 개수
+     */
+    public int size() {
+        return allFormats.length;
+    }
+
+    private LogFormat[] lookup(String group, String vendor, String model, String smType) {
+        if (group == null && vendor == null && model == null && smType == null) {
+            return allFormats;
+        }
+
+        // 단일 조건 및 그룹+벤더 조합은 미리 계산된 배열 사용
+        if (model == null && smType == null) {
+            if (vendor == null) {
+                return orEmpty(byGroup.get(group));
+            }
+            if (group == null) {
+                return orEmpty(byVendor.get(vendor));
+            }
+            return orEmpty(byGroupAndVendor.get(compositeKey(group, vendor, null, null)));
+        }
+        if (group == null && vendor == null) {
+            if (smType == null) {
+                return orEmpty(byModel.get(model));
+            }
+            if (model == null) {
+                return orEmpty(bySmType.get(smType));
+            }
+        }
+
+        // 존재하지 않는 키가 하나라도 있으면 결과 없음 (캐시하지 않음)
+        LogFormat[] smallest = null;
+        for (LogFormat[] part : new LogFormat[][] {
+                select(byGroup, group), select(byVendor, vendor),
+                select(byModel, model), select(bySmType, smType)}) {
+            if (part == null) {
+                continue;
+            }
+            if (part.length == 0) {
+                return EMPTY;
+            }
+            if (smallest == null || part.length < smallest.length) {
+                smallest = part;
+            }
+        }
+
+        final LogFormat[] base = smallest;
+        return combinations.computeIfAbsent(compositeKey(group, vendor, model, smType),
+            key -> intersect(base, group, vendor, model, smType));
+    }
+
+    private static LogFormat[] intersect(LogFormat[] base, String group, String vendor,
+                                         String model, String smType) {
+        List<LogFormat> matched = new ArrayList<>();
+        for (LogFormat format : base) {
+            if (matches(group, format.getGroupName())
+                    && matches(vendor, format.getVendor())
+                    && matches(model, format.getModel())
+                    && matches(smType, format.getSmType())) {
+                matched.add(format);
+            }
+        }
+        return matched.isEmpty() ? EMPTY : matched.toArray(EMPTY);
+    }
+
+    private static boolean matches(String key, String value) {
+        return key == null || key.equals(normalizeKey(value));
+    }
+
+    /**
+     * 조건이 없으면 null, 조건이 있으면 해당 배열 (없으면 빈 배열)
+     */
+    private static LogFormat[] select(Map<String, LogFormat[]> index, String key) {
+        if (key == null) {
+            return null;
+        }
+        return orEmpty(index.get(key));
+    }
+
+    private static LogFormat[] orEmpty(LogFormat[] formats) {
+        return formats != null ? formats : EMPTY;
+    }
+
+    private static void addTo(Map<String, List<LogFormat>> index, String key, LogFormat format) {
+        if (key != null) {
+            index.computeIfAbsent(key, k -> new ArrayList<>()).add(format);
+        }
+    }
+
+    private static Map<String, LogFormat[]> freeze(Map<String, List<LogFormat>> index) {
+        Map<String, LogFormat[]> frozen = new HashMap<>(index.size() * 2);
+        index.forEach((key, formats) -> frozen.put(key, formats.toArray(EMPTY)));
+        return Collections.unmodifiableMap(frozen);
+    }
+
+    private static String compositeKey(String group, String vendor, String model, String smType) {
+        return String.valueOf(group) + KEY_SEPARATOR + vendor + KEY_SEPARATOR
+            + model + KEY_SEPARATOR + smType;
+    }
+
+    /**
+     * 인덱스 키 정규화 (대문자 변환, 공백/'_'/'-' 제거)
+     * @return 정규화된 키, 비어있으면 null
+     */
+    static String normalizeKey(String value) {
+        if (value == null) {
+            return null;
+        }
+        StringBuilder key = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (Character.isWhitespace(c) || c == '_' || c == '-') {
+                continue;
+            }
+            key.append(Character.toUpperCase(c));
+        }
+        return key.length() > 0 ? key.toString() : null;
+    }
+}
@@ -0,0 +1,42 @@
+package com.logcenter.recommender.grok;
+
+/**
+ * 로그 포맷 로드 프로파일
+ */
+public enum FormatLoadProfile {
+    /** 파일의 모든 필드를 상주 */
+    FULL("full"),
+    /** 매칭에 쓰는 필드만 상주하고 나머지는 필요할 때 다시 로드 */
+    MATCHING("matching");
+
+    private final String value;
+
+    FormatLoadProfile(String value) {
+        this.value = value;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    /**
+     * 설정값으로 프로파일 찾기
+     * @param value 설정값 (대소문자 무시)
+     * @return 프로파일, 알 수 없는 값이면 FULL
+     */
+    public static FormatLoadProfile fromValue(String value) {
+        if (value != null) {
+            for (FormatLoadProfile profile : values()) {
+                if (profile.value.equalsIgnoreCase(value.trim())) {
+                    return profile;
+                }
+            }
+        }
+        return FULL;
+    }
+
+    @Override
+    public String toString() {
+        return value;
+    }
+}
@@ -35,6 +35,16 @@ public interface PatternRepository {
      */
     LogFormat getFormatById(String formatId);
     
+    /**
+     * 출력용 전체 로그 포맷 가져오기
+     * 매칭용으로 축약된 포맷만 가진 저장소는 타입 설명과 데이터 테이블을 채운 포맷을 만들어 반환
+     * @param formatId 포맷 ID
+     * @return LogFormat 객체, 없으면 null
+     */
+    default LogFormat getFullFormat(String formatId) {
+        return getFormatById(formatId);
+    }
+    
     /**
      * 그룹별로 로그 포맷 검색
      * @param groupName 그룹 이름 (예: Firewall, Web Server)
@@ -49,6 +59,17 @@ public interface PatternRepository {
      */
     List<LogFormat> getFormatsByVendor(String vendor);
     
+    /**
+     * 복합 조건으로 후보 포맷 검색 (그룹/벤더/모델/SM 타입)
+     * 대소문자와 공백을 무시하며, null 또는 빈 조건은 전체를 의미
+     * @param groupName 그룹 이름
+     * @param vendor 벤더명
+     * @param model 모델명
+     * @param smType SM 타입
+     * @return 미리 계산된 읽기 전용 후보 리스트
+     */
+    List<LogFormat> findCandidates(String groupName, String vendor, String model, String smType);
+    
     /**
      * 그룹별 포맷 개수 통계
      * @return 그룹별 포맷 개수 맵
@@ -6,6 +6,7 @@ import com.logcenter.recommender.model.LogFormat;
 import com.logcenter.recommender.model.MatchResult;
 import com.logcenter.recommender.filter.PatternFilter;
 import com.logcenter.recommender.util.GrokPatternParser;
+import com.logcenter.recommender.util.WorkerThreads;
 import io.krakens.grok.api.Grok;
 import io.krakens.grok.api.Match;
 import org.slf4j.Logger;
@@ -24,7 +25,7 @@ public class AdvancedLogMatcher implements LogMatcher {
     private static final Logger logger = LoggerFactory.getLogger(AdvancedLogMatcher.class);
     
     private final GrokCompilerWrapper grokCompiler;
-    private final ExecutorService executorService;
+    private final ThreadPoolExecutor executorService;
     private final Map<String, FieldValidator> fieldValidators;
     private final Map<String, Double> groupWeights;
     private MatchOptions options;
@@ -32,9 +33,8 @@ public class AdvancedLogMatcher implements LogMatcher {
     
     public AdvancedLogMatcher(GrokCompilerWrapper grokCompiler) {
         this.grokCompiler = grokCompiler;
-        this.executorService = Executors.newFixedThreadPool(
-            Runtime.getRuntime().availableProcessors()
-        );
+        this.executorService = WorkerThreads.newFixedPool("matcher-worker",
+            Runtime.getRuntime().availableProcessors());
         this.fieldValidators = initializeValidators();
         this.groupWeights = initializeGroupWeights();
         this.options = new MatchOptions();
@@ -76,12 +76,18 @@ public class AdvancedLogMatcher implements LogMatcher {
         long startTime = System.currentTimeMillis();
         
         try {
-            // 타임아웃 설정으로 매칭 실행
-            Future<MatchResult> future = executorService.submit(() -> 
-                performMatch(logLine, logFormat)
-            );
-            
-            MatchResult result = future.get(options.getMaxMatchTime(), TimeUnit.MILLISECONDS);
+            MatchResult result;
+            if (WorkerThreads.isWorkerOf(executorService)) {
+                // matchAll 작업 안에서는 같은 풀로 다시 넘기지 않음 (타임아웃은 matchAll에서 적용)
+                result = performMatch(logLine, logFormat);
+            } else {
+                // 타임아웃 설정으로 매칭 실행
+                Future<MatchResult> future = executorService.submit(() -> 
+                    performMatch(logLine, logFormat)
+                );
+                
+                result = future.get(options.getMaxMatchTime(), TimeUnit.MILLISECONDS);
+            }
             
             long matchTime = System.currentTimeMillis() - startTime;
             result.setMatchTime(matchTime);
@@ -226,40 +232,28 @@ public class AdvancedLogMatcher implements LogMatcher {
             ))
             .collect(Collectors.toList());
         
-        // 결과 수집
-        List<MatchResult> results = futures.stream()
-            .map(future -> {
-                try {
-                    return future.get(options.getMaxMatchTime(), TimeUnit.MILLISECONDS);
-                } catch (Exception e) {
-                    logger.debug("매칭 실패: {}", e.getMessage());
-                    return null;
-                }
-            })
-            .filter(result -> result != null && 
-                (result.isCompleteMatch() || result.isPartialMatch()))
-            .sorted((r1, r2) -> {
-                // 먼저 구체적인 필드 점수를 계산
-                double score1 = calculateSpecificFieldScore(r1.getExtractedFields());
-                double score2 = calculateSpecificFieldScore(r2.getExtractedFields());
-                
-                // 1. 구체적인 필드 점수가 높은 것 우선
-                if (Math.abs(score1 - score2) > 0.1) {
-                    return Double.compare(score2, score1);
-                }
-                
-                // 2. 필드 수가 많은 것 우선 (log_time, message 제외)
-                int fieldCount1 = getEffectiveFieldCount(r1.getExtractedFields());
-                int fieldCount2 = getEffectiveFieldCount(r2.getExtractedFields());
-                int fieldDiff = fieldCount2 - fieldCount1;
-                if (fieldDiff != 0) {
-                    return fieldDiff;
-                }
-                
-                // 3. 마지막으로 신뢰도로 정렬
-                return Double.compare(r2.getConfidence(), r1.getConfidence());
-            })
-            .collect(Collectors.toList());
+        // 결과 수집 (정렬 키는 결과당 한 번만 계산)
+        TopKSelector<MatchResult> selector = new TopKSelector<>(futures.size());
+        for (CompletableFuture<MatchResult> future : futures) {
+            MatchResult result;
+            try {
+                result = future.get(options.getMaxMatchTime(), TimeUnit.MILLISECONDS);
+            } catch (Exception e) {
+                logger.debug("매칭 실패: {}", e.getMessage());
+                continue;
+            }
+            if (result == null || (!result.isCompleteMatch() && !result.isPartialMatch())) {
+                continue;
+            }
+            
+            // 1. 구체적인 필드 점수 등급, 2. 필드 수 (log_time, message 제외), 3. 신뢰도
+            Map<String, Object> fields = result.getExtractedFields();
+            selector.add(result,
+                RankingKeys.specificScoreTier(fields),
+                RankingKeys.effectiveFieldCount(fields),
+                result.getConfidence());
+        }
+        List<MatchResult> results = selector.select(0);
         
         // 다중 완전 매칭 시 신뢰도 조정
         adjustMultipleMatchConfidence(results);
@@ -508,49 +502,7 @@ public class AdvancedLogMatcher implements LogMatcher {
      * 구체적인 필드 점수 계산
      */
     private double calculateSpecificFieldScore(Map<String, Object> captures) {
-        double score = 0.0;
-        
-        // 구체적인 필드 목록
-        Set<String> specificFields = new HashSet<>(Arrays.asList(
-            "src_ip", "dst_ip", "src_port", "dst_port",
-            "protocol", "action", "rule_id", "attack_id",
-            "user_id", "session_id", "event_id",
-            "src", "dst", "source", "destination"
-        ));
-        
-        // 일반적인 필드
-        Set<String> genericFields = new HashSet<>(Arrays.asList(
-            "message", "data", "text", "info", "description"
-        ));
-        
-        int specificCount = 0;
-        int genericCount = 0;
-        
-        for (String field : captures.keySet()) {
-            String lowerField = field.toLowerCase();
-            if (specificFields.contains(lowerField)) {
-                specificCount++;
-            } else if (genericFields.contains(lowerField)) {
-                genericCount++;
-            }
-        }
-        
-        // 구체적인 필드가 많을수록 높은 점수
-        if (specificCount > 0) {
-            // 2개 이상이면 0.5 이상의 점수를 보장
-            if (specificCount >= 2) {
-                score = Math.min(0.5 + (specificCount - 2) * 0.25, 1.0);
-            } else {
-                score = specificCount * 0.25;
-            }
-        }
-        
-        // 일반적인 필드만 있으면 점수 감소
-        if (specificCount == 0 && genericCount > 0) {
-            score = 0.2;
-        }
-        
-        return score;
+        return RankingKeys.specificFieldScore(captures);
     }
     
     /**
@@ -714,17 +666,6 @@ public class AdvancedLogMatcher implements LogMatcher {
      * log_time과 message 필드를 제외한 유효한 필드 수 계산
      */
     private int getEffectiveFieldCount(Map<String, Object> fields) {
-        if (fields == null || fields.isEmpty()) {
-            return 0;
-        }
-        
-        // 제외할 필드 목록
-        Set<String> excludedFields = new HashSet<>(Arrays.asList(
-            "log_time", "message", "msg", "raw_message"
-        ));
-        
-        return (int) fields.keySet().stream()
-            .filter(key -> !excludedFields.contains(key.toLowerCase()))
-            .count();
+        return RankingKeys.effectiveFieldCount(fields);
     }
 }
\ No newline at end of file
@@ -0,0 +1,192 @@
+package com.logcenter.recommender.matcher;
+
+import com.logcenter.recommender.grok.GrokCompilerWrapper;
+import com.logcenter.recommender.model.LogFormat;
+import com.logcenter.recommender.util.MultilineAssembler;
+import io.krakens.grok.api.Grok;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * 카탈로그 기반 이벤트 시작 규칙
+ * 포맷의 Grok 표현식 첫 토큰(예: %{LOG_TIME:log_time})으로 이벤트 시작 여부를 판단한다.
+ * 정규식 전에 샘플 로그에서 얻은 첫 글자 종류(숫자/영문/기호)로 먼저 걸러낸다.
+ * 샘플 로그가 없는 포맷(매칭 전용 카탈로그 뷰 등)은 첫 글자로 거르지 않고 정규식으로만 판단한다.
+ *
+ * 첫 토큰이 빈 문자열과도 일치하는 경우(TEXT1, SKIP, DATA 등)는 판단에 사용할 수 없으므로
+ * 사용 가능한 토큰이 없으면 기본 규칙을 사용한다.
+ */
+public final class FormatStartRule implements MultilineAssembler.EventStartRule {
+
+    private static final Logger logger = LoggerFactory.getLogger(FormatStartRule.class);
+
+    // Grok 표현식 첫 토큰 (선택적 '^' 다음의 %{NAME} 또는 %{NAME:field})
+    private static final Pattern HEAD_TOKEN = Pattern.compile("^\\^?%\\{(\\w+)(?::[\\w.\\-\\[\\]]+)?\\}");
+
+    private final List<Pattern> headPatterns;
+    // 첫 글자 검사 생략 (샘플 로그가 없어 첫 글자 종류를 모름)
+    private final boolean allowAny;
+    private final boolean allowDigit;
+    private final boolean allowLetter;
+    private final Set<Character> allowedSymbols;
+
+    private FormatStartRule(List<Pattern> headPatterns, boolean allowAny, boolean allowDigit, boolean allowLetter,
+                            Set<Character> allowedSymbols) {
+        this.headPatterns = headPatterns;
+        this.allowAny = allowAny;
+        this.allowDigit = allowDigit;
+        this.allowLetter = allowLetter;
+        this.allowedSymbols = allowedSymbols;
+    }
+
+    /**
+     * 포맷에 맞는 시작 규칙 생성
+     * @return 포맷 기반 규칙, 만들 수 없으면 기본 규칙
+     */
+    public static MultilineAssembler.EventStartRule forFormat(LogFormat format, GrokCompilerWrapper grokCompiler) {
+        if (format == null || format.getLogTypes() == null || grokCompiler == null) {
+            return MultilineAssembler.DEFAULT_RULE;
+        }
+
+        Set<String> headTokens = new LinkedHashSet<>();
+        List<String> samples = new ArrayList<>();
+        for (LogFormat.LogType logType : format.getLogTypes()) {
+            if (logType.getPatterns() == null) {
+                continue;
+            }
+            for (LogFormat.Pattern pattern : logType.getPatterns()) {
+                String head = headToken(pattern.getGrokExp());
+                if (head == null) {
+                    // 첫 토큰을 알 수 없는 패턴이 있으면 포맷 전체에 적용할 수 없음
+                    return MultilineAssembler.DEFAULT_RULE;
+                }
+                headTokens.add(head);
+                if (pattern.getSampleLog() != null && !pattern.getSampleLog().isEmpty()) {
+                    samples.add(pattern.getSampleLog());
+                }
+            }
+        }
+
+        List<Pattern> headPatterns = new ArrayList<>();
+        for (String token : headTokens) {
+            Pattern compiled = compileHead(token, grokCompiler);
+            if (compiled == null) {
+                return MultilineAssembler.DEFAULT_RULE;
+            }
+            headPatterns.add(compiled);
+        }
+        if (headPatterns.isEmpty()) {
+            return MultilineAssembler.DEFAULT_RULE;
+        }
+
+        // 샘플 로그 첫 글자 종류 (샘플이 없으면 첫 글자 검사 생략)
+        boolean digit = false;
+        boolean letter = false;
+        Set<Character> symbols = new HashSet<>();
+        for (String sample : samples) {
+            char c = sample.charAt(0);
+            if (Character.isDigit(c)) {
+                digit = true;
+            } else if (Character.isLetter(c)) {
+                letter = true;
+            } else {
+                symbols.add(c);
+            }
+        }
+
+        logger.debug("포맷 시작 규칙 생성: {} -> {}", format.getFormatId(), headTokens);
+        return new FormatStartRule(headPatterns, samples.isEmpty(), digit, letter, symbols);
+    }
+
+    /**
+     * 여러 후보 포맷 중 하나라도 시작으로 보는 라인을 시작으로 판단하는 규칙 생성
+     * 그룹/벤더 필터로 후보가 좁혀졌을 때 사용한다.
+     * @return 후보 포맷 기반 규칙, 시작 규칙을 만들 수 없는 포맷이 하나라도 있으면 기본 규칙
+     */
+    public static MultilineAssembler.EventStartRule forFormats(Collection<LogFormat> formats,
+                                                               GrokCompilerWrapper grokCompiler) {
+        if (formats == null || formats.isEmpty()) {
+            return MultilineAssembler.DEFAULT_RULE;
+        }
+
+        List<MultilineAssembler.EventStartRule> rules = new ArrayList<>(formats.size());
+        for (LogFormat format : formats) {
+            MultilineAssembler.EventStartRule rule = forFormat(format, grokCompiler);
+            if (rule == MultilineAssembler.DEFAULT_RULE) {
+                // 이 포맷의 이벤트를 놓치지 않도록 전체에 기본 규칙 사용
+                return MultilineAssembler.DEFAULT_RULE;
+            }
+            rules.add(rule);
+        }
+        if (rules.size() == 1) {
+            return rules.get(0);
+        }
+        return line -> {
+            for (MultilineAssembler.EventStartRule rule : rules) {
+                if (rule.isStart(line)) {
+                    return true;
+                }
+            }
+            return false;
+        };
+    }
+
+    @Override
+    public boolean isStart(String line) {
+        if (line == null || line.isEmpty()) {
+            return false;
+        }
+
+        char c = line.charAt(0);
+        if (!allowAny
+                && !(allowDigit && Character.isDigit(c))
+                && !(allowLetter && Character.isLetter(c))
+                && !allowedSymbols.contains(c)) {
+            return false;
+        }
+
+        for (Pattern pattern : headPatterns) {
+            if (pattern.matcher(line).lookingAt()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Grok 표현식의 첫 토큰 이름
+     */
+    static String headToken(String grokExp) {
+        if (grokExp == null) {
+            return null;
+        }
+        Matcher matcher = HEAD_TOKEN.matcher(grokExp);
+        return matcher.find() ? matcher.group(1) : null;
+    }
+
+    /**
+     * 첫 토큰을 정규식으로 컴파일 (빈 문자열과 일치하면 사용 불가)
+     */
+    private static Pattern compileHead(String token, GrokCompilerWrapper grokCompiler) {
+        Grok grok = grokCompiler.compileSafe("%{" + token + "}");
+        if (grok == null) {
+            return null;
+        }
+        try {
+            Pattern pattern = Pattern.compile(grok.getNamedRegex());
+            return pattern.matcher("").lookingAt() ? null : pattern;
+        } catch (PatternSyntaxException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,558 @@
+package com.logcenter.recommender.matcher;
+
+import com.logcenter.recommender.grok.PatternNormalizer;
+import com.logcenter.recommender.model.LogFormat;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Pattern;
+
+/**
+ * 리터럴 기반 후보 포맷 사전 필터
+ * Grok 표현식에서 매칭 시 반드시 나타나야 하는 ASCII 리터럴과 구분자(구두점) 개수를 추출해 두고,
+ * 라인을 한 번 훑어 이를 만족하지 못하는 포맷을 정규식 매칭 전에 제외한다.
+ *
+ * 디코딩 전 바이트({@link ByteBuffer})에도 그대로 적용할 수 있으므로, 후보가 하나도 남지 않는 라인은
+ * 문자열로 디코딩하지 않고 버릴 수 있다. ASCII 문자가 같은 1바이트로 인코딩되는 문자셋만 해당된다.
+ *
+ * 선택적이거나 판단이 어려운 부분(그룹, 문자 클래스, 수량자가 붙은 문자, %{...})은 조건에서 빼므로
+ * 실제로 매칭될 수 있는 포맷을 제외하지는 않는다. 대소문자는 구분하지 않는다.
+ */
+public final class LiteralPrefilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(LiteralPrefilter.class);
+
+    // 리터럴 해석을 포기하는 표현식 (주석 모드 플래그)
+    private static final Pattern COMMENTS_FLAG = Pattern.compile("\\(\\?[a-zA-Z]*x");
+
+    // 문자셋별 ASCII 호환 여부
+    private static final ConcurrentMap<Charset, Boolean> ASCII_COMPATIBLE = new ConcurrentHashMap<>();
+
+    // 조건 없는 패턴 (항상 통과)
+    private static final PatternRule ANY = new PatternRule(new int[0], new int[0], new int[0]);
+
+    // 구두점별 카운터 인덱스 (그 외 -1)
+    private static final int[] PUNCT_INDEX = new int[128];
+    private static final int PUNCT_COUNT;
+
+    static {
+        Arrays.fill(PUNCT_INDEX, -1);
+        int count = 0;
+        for (int c = 0x21; c < 0x7F; c++) {
+            if (!Character.isLetterOrDigit(c)) {
+                PUNCT_INDEX[c] = count++;
+            }
+        }
+        PUNCT_COUNT = count;
+    }
+
+    private final byte[][] literals;
+    private final int[][] literalsByFirstByte;
+    private final Map<String, PatternRule[]> rulesByFormat;
+
+    private final ThreadLocal<ScanState> scanState;
+
+    private LiteralPrefilter(byte[][] literals, Map<String, PatternRule[]> rulesByFormat) {
+        this.literals = literals;
+        this.rulesByFormat = rulesByFormat;
+        this.literalsByFirstByte = indexByFirstByte(literals);
+        this.scanState = ThreadLocal.withInitial(() -> new ScanState(literals.length));
+    }
+
+    /**
+     * 포맷 목록으로 필터 생성
+     */
+    public static LiteralPrefilter build(List<LogFormat> formats) {
+        Map<String, Integer> literalIds = new LinkedHashMap<>();
+        Map<String, PatternRule[]> rules = new HashMap<>();
+        int constrained = 0;
+        int patterns = 0;
+
+        if (formats != null) {
+            for (LogFormat format : formats) {
+                if (format == null || format.getFormatId() == null) {
+                    continue;
+                }
+                List<PatternRule> formatRules = new ArrayList<>();
+                if (format.getLogTypes() != null) {
+                    for (LogFormat.LogType logType : format.getLogTypes()) {
+                        if (logType.getPatterns() == null) {
+                            continue;
+                        }
+                        for (LogFormat.Pattern pattern : logType.getPatterns()) {
+                            if (pattern.getGrokExp() != null) {
+                                formatRules.add(compileRule(pattern.getGrokExp(), literalIds));
+                            }
+                        }
+                    }
+                }
+                // 하위 호환용 단일 패턴
+                if (format.getGrokPattern() != null && !format.getGrokPattern().trim().isEmpty()) {
+                    formatRules.add(compileRule(format.getGrokPattern(), literalIds));
+                }
+
+                for (PatternRule rule : formatRules) {
+                    patterns++;
+                    if (rule != ANY) {
+                        constrained++;
+                    }
+                }
+                rules.put(format.getFormatId(), formatRules.toArray(new PatternRule[0]));
+            }
+        }
+
+        byte[][] literals = new byte[literalIds.size()][];
+        for (Map.Entry<String, Integer> entry : literalIds.entrySet()) {
+            literals[entry.getValue()] = entry.getKey().getBytes(StandardCharsets.US_ASCII);
+        }
+        logger.debug("리터럴 사전 필터 생성: 포맷 {}개, 패턴 {}개 (조건 있는 패턴 {}개), 리터럴 {}개",
+            rules.size(), patterns, constrained, literals.length);
+        return new LiteralPrefilter(literals, rules);
+    }
+
+    /**
+     * ASCII 문자가 같은 1바이트로 인코딩되는 문자셋인지 확인 (바이트 필터 사용 가능 여부)
+     */
+    public static boolean isAsciiCompatible(Charset charset) {
+        if (charset == null) {
+            return false;
+        }
+        return ASCII_COMPATIBLE.computeIfAbsent(charset, LiteralPrefilter::encodesAsciiAsIs);
+    }
+
+    private static boolean encodesAsciiAsIs(Charset charset) {
+        byte[] expected = new byte[0x7F - 0x20];
+        for (int i = 0; i < expected.length; i++) {
+            expected[i] = (byte) (0x20 + i);
+        }
+        try {
+            return Arrays.equals(new String(expected, StandardCharsets.US_ASCII).getBytes(charset),
+                expected);
+        } catch (UnsupportedOperationException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 디코딩 전 라인 바이트로 후보 포맷 필터링 (position~limit, 버퍼 위치는 변경하지 않음)
+     * @return 남은 후보 (모두 남으면 candidates 그대로, 없으면 빈 리스트)
+     */
+    public List<LogFormat> survivors(ByteBuffer line, List<LogFormat> candidates) {
+        if (candidates == null || candidates.isEmpty()) {
+            return Collections.emptyList();
+        }
+        ScanState state = scanState.get();
+        state.reset();
+        for (int i = line.position(), end = line.limit(); i < end; i++) {
+            int b = line.get(i) & 0xFF;
+            if (b >= 0x80) {
+                continue;
+            }
+            state.count(b);
+            int[] bucket = literalsByFirstByte[lower(b)];
+            if (bucket != null) {
+                for (int id : bucket) {
+                    if (!state.isSeen(id) && matchesAt(line, i, end, literals[id])) {
+                        state.markSeen(id);
+                    }
+                }
+            }
+        }
+        return select(state, candidates);
+    }
+
+    /**
+     * 문자열 라인으로 후보 포맷 필터링
+     * @return 남은 후보 (모두 남으면 candidates 그대로, 없으면 빈 리스트)
+     */
+    public List<LogFormat> survivors(CharSequence line, List<LogFormat> candidates) {
+        if (candidates == null || candidates.isEmpty()) {
+            return Collections.emptyList();
+        }
+        ScanState state = scanState.get();
+        state.reset();
+        for (int i = 0, end = line.length(); i < end; i++) {
+            char c = line.charAt(i);
+            if (c >= 0x80) {
+                continue;
+            }
+            state.count(c);
+            int[] bucket = literalsByFirstByte[lower(c)];
+            if (bucket != null) {
+                for (int id : bucket) {
+                    if (!state.isSeen(id) && matchesAt(line, i, end, literals[id])) {
+                        state.markSeen(id);
+                    }
+                }
+            }
+        }
+        return select(state, candidates);
+    }
+
+    /**
+     * 필터에 등록된 리터럴 수
+     */
+    public int literalCount() {
+        return literals.length;
+    }
+
+    private List<LogFormat> select(ScanState state, List<LogFormat> candidates) {
+        List<LogFormat> survivors = null;
+        for (int i = 0; i < candidates.size(); i++) {
+            LogFormat format = candidates.get(i);
+            boolean passed = passes(format, state);
+            if (survivors == null) {
+                if (passed) {
+                    continue;
+                }
+                // 처음 탈락한 포맷이 나오면 그 앞까지 복사
+                survivors = new ArrayList<>(candidates.subList(0, i));
+            } else if (passed) {
+                survivors.add(format);
+            }
+        }
+        if (survivors == null) {
+            return candidates;
+        }
+        return survivors.isEmpty() ? Collections.<LogFormat>emptyList() : survivors;
+    }
+
+    private boolean passes(LogFormat format, ScanState state) {
+        PatternRule[] rules = rulesByFormat.get(format.getFormatId());
+        if (rules == null) {
+            // 필터 생성 이후 추가된 포맷은 판단하지 않음
+            return true;
+        }
+        for (PatternRule rule : rules) {
+            if (rule.passes(state)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Grok 표현식에서 필수 리터럴과 구두점 개수 추출
+     */
+    static PatternRule compileRule(String grokExp, Map<String, Integer> literalIds) {
+        List<String> pieces = requiredPieces(PatternNormalizer.normalize(grokExp));
+        if (pieces == null || pieces.isEmpty()) {
+            return ANY;
+        }
+
+        int[] punctMin = new int[PUNCT_COUNT];
+        List<Integer> ids = new ArrayList<>();
+        for (String piece : pieces) {
+            for (int i = 0; i < piece.length(); i++) {
+                int index = PUNCT_INDEX[piece.charAt(i)];
+                if (index >= 0) {
+                    punctMin[index]++;
+                }
+            }
+            // 한 글자 구두점은 개수 조건으로 충분
+            if (piece.length() == 1 && PUNCT_INDEX[piece.charAt(0)] >= 0) {
+                continue;
+            }
+            String key = piece.toLowerCase(Locale.ROOT);
+            Integer id = literalIds.get(key);
+            if (id == null) {
+                id = literalIds.size();
+                literalIds.put(key, id);
+            }
+            if (!ids.contains(id)) {
+                ids.add(id);
+            }
+        }
+
+        int punctTypes = 0;
+        for (int min : punctMin) {
+            if (min > 0) {
+                punctTypes++;
+            }
+        }
+        int[] punctIndexes = new int[punctTypes];
+        int[] punctCounts = new int[punctTypes];
+        for (int i = 0, j = 0; i < punctMin.length; i++) {
+            if (punctMin[i] > 0) {
+                punctIndexes[j] = i;
+                punctCounts[j++] = punctMin[i];
+            }
+        }
+        int[] literalIdArray = new int[ids.size()];
+        for (int i = 0; i < literalIdArray.length; i++) {
+            literalIdArray[i] = ids.get(i);
+        }
+        return new PatternRule(literalIdArray, punctIndexes, punctCounts);
+    }
+
+    /**
+     * 표현식 최상위의 필수 리터럴 조각 (공백/비ASCII 제외)
+     * @return 조각 목록, 해석할 수 없는 표현식이면 null
+     */
+    static List<String> requiredPieces(String expression) {
+        if (expression == null || COMMENTS_FLAG.matcher(expression).find()) {
+            return null;
+        }
+
+        List<String> pieces = new ArrayList<>();
+        StringBuilder run = new StringBuilder();
+        int n = expression.length();
+        int i = 0;
+        while (i < n) {
+            char c = expression.charAt(i);
+            if (c == '%' && i + 1 < n && expression.charAt(i + 1) == '{') {
+                int close = expression.indexOf('}', i);
+                if (close < 0) {
+                    return null;
+                }
+                flush(run, pieces);
+                i = close + 1;
+            } else if (c == '\\') {
+                if (i + 1 >= n) {
+                    return null;
+                }
+                char escaped = expression.charAt(i + 1);
+                if (Character.isLetterOrDigit(escaped)) {
+                    // 공백, 숫자 등 단순 문자 클래스만 허용 (16진수/유니코드 코드, 인용, 역참조 등은 해석하지 않음)
+                    if ("sSdDwWbBAzZGhHvVRXntrfea".indexOf(escaped) < 0) {
+                        return null;
+                    }
+                    flush(run, pieces);
+                } else if (escaped > ' ' && escaped < 0x7F) {
+                    run.append(escaped);
+                } else {
+                    flush(run, pieces);
+                }
+                i += 2;
+            } else if (c == '[') {
+                flush(run, pieces);
+                i = skipClass(expression, i);
+                if (i < 0) {
+                    return null;
+                }
+            } else if (c == '(') {
+                flush(run, pieces);
+                i = skipGroup(expression, i);
+                if (i < 0) {
+                    return null;
+                }
+            } else if (c == ')' || c == '|') {
+                // 최상위 선택(|)이 있으면 필수 리터럴을 정할 수 없음
+                return null;
+            } else if (c == '?' || c == '*') {
+                dropLast(run);
+                flush(run, pieces);
+                i++;
+            } else if (c == '{') {
+                dropLast(run);
+                flush(run, pieces);
+                int close = expression.indexOf('}', i);
+                i = close < 0 ? i + 1 : close + 1;
+            } else if (c == '+' || c == '.' || c == '^' || c == '$' || c <= ' ' || c >= 0x7F) {
+                flush(run, pieces);
+                i++;
+            } else {
+                run.append(c);
+                i++;
+            }
+        }
+        flush(run, pieces);
+        return pieces;
+    }
+
+    private static int skipClass(String expression, int start) {
+        int i = start + 1;
+        int n = expression.length();
+        if (i < n && expression.charAt(i) == '^') {
+            i++;
+        }
+        if (i < n && expression.charAt(i) == ']') {
+            i++;
+        }
+        while (i < n) {
+            char c = expression.charAt(i);
+            if (c == '\\') {
+                i += 2;
+            } else if (c == '[') {
+                // 중첩 클래스
+                i = skipClass(expression, i);
+                if (i < 0) {
+                    return -1;
+                }
+            } else if (c == ']') {
+                return i + 1;
+            } else {
+                i++;
+            }
+        }
+        return -1;
+    }
+
+    private static int skipGroup(String expression, int start) {
+        int depth = 0;
+        int i = start;
+        int n = expression.length();
+        while (i < n) {
+            char c = expression.charAt(i);
+            if (c == '\\') {
+                i += 2;
+            } else if (c == '[') {
+                i = skipClass(expression, i);
+                if (i < 0) {
+                    return -1;
+                }
+            } else if (c == '(') {
+                depth++;
+                i++;
+            } else if (c == ')') {
+                depth--;
+                i++;
+                if (depth == 0) {
+                    return i;
+                }
+            } else {
+                i++;
+            }
+        }
+        return -1;
+    }
+
+    private static void dropLast(StringBuilder run) {
+        if (run.length() > 0) {
+            run.setLength(run.length() - 1);
+        }
+    }
+
+    private static void flush(StringBuilder run, List<String> pieces) {
+        if (run.length() > 0) {
+            pieces.add(run.toString());
+            run.setLength(0);
+        }
+    }
+
+    private static int[][] indexByFirstByte(byte[][] literals) {
+        int[] counts = new int[128];
+        for (byte[] literal : literals) {
+            counts[literal[0]]++;
+        }
+        int[][] index = new int[128][];
+        int[] fill = new int[128];
+        for (int id = 0; id < literals.length; id++) {
+            int first = literals[id][0];
+            if (index[first] == null) {
+                index[first] = new int[counts[first]];
+            }
+            index[first][fill[first]++] = id;
+        }
+        return index;
+    }
+
+    private static boolean matchesAt(ByteBuffer line, int from, int end, byte[] literal) {
+        if (end - from < literal.length) {
+            return false;
+        }
+        for (int k = 1; k < literal.length; k++) {
+            int b = line.get(from + k) & 0xFF;
+            if (b >= 0x80 || lower(b) != literal[k]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean matchesAt(CharSequence line, int from, int end, byte[] literal) {
+        if (end - from < literal.length) {
+            return false;
+        }
+        for (int k = 1; k < literal.length; k++) {
+            char c = line.charAt(from + k);
+            if (c >= 0x80 || lower(c) != literal[k]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int lower(int c) {
+        return c >= 'A' && c <= 'Z' ? c + ('a' - 'A') : c;
+    }
+
+    /**
+     * 패턴별 조건: 필수 리터럴 모두 포함, 구두점별 최소 개수 이상
+     */
+    static final class PatternRule {
+        private final int[] literalIds;
+        private final int[] punctIndexes;
+        private final int[] punctMins;
+
+        PatternRule(int[] literalIds, int[] punctIndexes, int[] punctMins) {
+            this.literalIds = literalIds;
+            this.punctIndexes = punctIndexes;
+            this.punctMins = punctMins;
+        }
+
+        boolean passes(ScanState state) {
+            for (int i = 0; i < punctIndexes.length; i++) {
+                if (state.punctCounts[punctIndexes[i]] < punctMins[i]) {
+                    return false;
+                }
+            }
+            for (int id : literalIds) {
+                if (!state.isSeen(id)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * 스레드별 스캔 상태 (리터럴 발견 여부는 세대 번호로 초기화 비용 없이 재사용)
+     */
+    static final class ScanState {
+        private final int[] seenGeneration;
+        private final int[] punctCounts = new int[PUNCT_COUNT];
+        private int generation;
+
+        ScanState(int literalCount) {
+            this.seenGeneration = new int[literalCount];
+        }
+
+        void reset() {
+            generation++;
+            if (generation == 0) {
+                Arrays.fill(seenGeneration, 0);
+                generation = 1;
+            }
+            Arrays.fill(punctCounts, 0);
+        }
+
+        void count(int c) {
+            int index = PUNCT_INDEX[c];
+            if (index >= 0) {
+                punctCounts[index]++;
+            }
+        }
+
+        boolean isSeen(int id) {
+            return seenGeneration[id] == generation;
+        }
+
+        void markSeen(int id) {
+            seenGeneration[id] = generation;
+        }
+    }
+}
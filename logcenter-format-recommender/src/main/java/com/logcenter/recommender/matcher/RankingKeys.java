@@ -0,0 +1,117 @@
+package com.logcenter.recommender.matcher;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 매칭 결과 정렬 키 계산 유틸리티
+ * 추출된 필드 맵으로부터 정렬에 사용하는 정수 키를 계산
+ */
+public final class RankingKeys {
+
+    // 구체적인 필드 목록
+    static final Set<String> SPECIFIC_FIELDS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+        "src_ip", "dst_ip", "src_port", "dst_port",
+        "protocol", "action", "rule_id", "attack_id",
+        "user_id", "session_id", "event_id",
+        "src", "dst", "source", "destination"
+    )));
+
+    // 일반적인 필드
+    static final Set<String> GENERIC_FIELDS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+        "message", "data", "text", "info", "description"
+    )));
+
+    // 유효 필드 수 계산 시 제외할 필드 목록
+    static final Set<String> EXCLUDED_FIELDS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+        "log_time", "message", "msg", "raw_message"
+    )));
+
+    private RankingKeys() {
+    }
+
+    /**
+     * 구체적인 필드 수 계산
+     */
+    public static int specificFieldCount(Map<String, ?> fields) {
+        if (fields == null || fields.isEmpty()) {
+            return 0;
+        }
+
+        int count = 0;
+        for (String key : fields.keySet()) {
+            if (SPECIFIC_FIELDS.contains(key.toLowerCase())) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * log_time과 message 필드를 제외한 유효한 필드 수 계산
+     */
+    public static int effectiveFieldCount(Map<String, ?> fields) {
+        if (fields == null || fields.isEmpty()) {
+            return 0;
+        }
+
+        int count = 0;
+        for (String key : fields.keySet()) {
+            if (!EXCLUDED_FIELDS.contains(key.toLowerCase())) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 구체적인 필드 점수 계산 (0.0 ~ 1.0)
+     * 구체적인 필드가 2개 이상이면 0.5 이상, 일반 필드만 있으면 0.2
+     */
+    public static double specificFieldScore(Map<String, ?> fields) {
+        if (fields == null || fields.isEmpty()) {
+            return 0.0;
+        }
+
+        int specificCount = 0;
+        int genericCount = 0;
+        for (String field : fields.keySet()) {
+            String lowerField = field.toLowerCase();
+            if (SPECIFIC_FIELDS.contains(lowerField)) {
+                specificCount++;
+            } else if (GENERIC_FIELDS.contains(lowerField)) {
+                genericCount++;
+            }
+        }
+
+        if (specificCount >= 2) {
+            return Math.min(0.5 + (specificCount - 2) * 0.25, 1.0);
+        }
+        if (specificCount == 1) {
+            return 0.25;
+        }
+        return genericCount > 0 ? 0.2 : 0.0;
+    }
+
+    /**
+     * 구체적인 필드 점수의 정렬 등급
+     * 기존 비교 규칙(점수 차이 0.1 이하는 동일)과 같은 순서를 갖는 정수 등급:
+     * 0.0 → 0, 0.2/0.25 → 1, 0.5 → 2, 0.75 → 3, 1.0 → 4
+     */
+    public static int specificScoreTier(Map<String, ?> fields) {
+        double score = specificFieldScore(fields);
+        if (score >= 1.0) {
+            return 4;
+        }
+        if (score >= 0.75) {
+            return 3;
+        }
+        if (score >= 0.5) {
+            return 2;
+        }
+        return score > 0.0 ? 1 : 0;
+    }
+}
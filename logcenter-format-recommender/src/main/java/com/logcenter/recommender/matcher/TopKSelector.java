@@ -0,0 +1,168 @@
+package com.logcenter.recommender.matcher;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 상위 K개 결과 선택기
+ * 후보별 정렬 키를 추가 시점에 한 번만 계산하여 기본형 배열에 저장하고,
+ * 크기 K의 힙으로 상위 결과를 선택한다. 비교 중에는 객체를 생성하지 않는다.
+ *
+ * 정렬 순서: 1차 키 내림차순 → 2차 키 내림차순 → 신뢰도 내림차순 → 추가 순서
+ * (키가 모두 같으면 기존 안정 정렬과 동일하게 먼저 추가된 항목이 앞에 온다)
+ *
+ * 스레드 안전하지 않음
+ *
+ * @param <T> 결과 타입
+ */
+public final class TopKSelector<T> {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private Object[] items;
+    private int[] primaryKeys;
+    private int[] secondaryKeys;
+    private double[] confidences;
+    private int size;
+
+    public TopKSelector() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param expectedSize 예상 후보 수
+     */
+    public TopKSelector(int expectedSize) {
+        int capacity = Math.max(expectedSize, 1);
+        this.items = new Object[capacity];
+        this.primaryKeys = new int[capacity];
+        this.secondaryKeys = new int[capacity];
+        this.confidences = new double[capacity];
+    }
+
+    /**
+     * 후보 추가
+     * @param item 결과 객체
+     * @param primaryKey 1차 정렬 키 (클수록 우선)
+     * @param secondaryKey 2차 정렬 키 (클수록 우선)
+     * @param confidence 신뢰도 (클수록 우선)
+     */
+    public void add(T item, int primaryKey, int secondaryKey, double confidence) {
+        if (size == items.length) {
+            int capacity = size + (size >> 1) + 1;
+            items = Arrays.copyOf(items, capacity);
+            primaryKeys = Arrays.copyOf(primaryKeys, capacity);
+            secondaryKeys = Arrays.copyOf(secondaryKeys, capacity);
+            confidences = Arrays.copyOf(confidences, capacity);
+        }
+        items[size] = item;
+        primaryKeys[size] = primaryKey;
+        secondaryKeys[size] = secondaryKey;
+        confidences[size] = confidence;
+        size++;
+    }
+
+    /**
+     * 추가된 후보 수
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 상위 K개 선택 (우선순위 순)
+     * @param k 선택할 개수 (0 이하이면 전체)
+     * @return 정렬된 상위 결과 리스트
+     */
+    @SuppressWarnings("unchecked")
+    public List<T> select(int k) {
+        int limit = (k <= 0 || k > size) ? size : k;
+        if (limit == 0) {
+            return Collections.emptyList();
+        }
+
+        // 루트가 가장 낮은 순위인 최소 힙 (후보 인덱스 저장)
+        int[] heap = new int[limit];
+        int heapSize = 0;
+        for (int i = 0; i < size; i++) {
+            if (heapSize < limit) {
+                heap[heapSize] = i;
+                siftUp(heap, heapSize);
+                heapSize++;
+            } else if (outranks(i, heap[0])) {
+                heap[0] = i;
+                siftDown(heap, 0, heapSize);
+            }
+        }
+
+        // 가장 낮은 순위부터 꺼내어 뒤에서부터 채움
+        Object[] ordered = new Object[heapSize];
+        for (int pos = heapSize - 1; pos >= 0; pos--) {
+            ordered[pos] = items[heap[0]];
+            heapSize--;
+            if (heapSize > 0) {
+                heap[0] = heap[heapSize];
+                siftDown(heap, 0, heapSize);
+            }
+        }
+
+        List<T> result = new ArrayList<>(ordered.length);
+        for (Object item : ordered) {
+            result.add((T) item);
+        }
+        return result;
+    }
+
+    /**
+     * a가 b보다 높은 순위인지 확인
+     */
+    private boolean outranks(int a, int b) {
+        if (primaryKeys[a] != primaryKeys[b]) {
+            return primaryKeys[a] > primaryKeys[b];
+        }
+        if (secondaryKeys[a] != secondaryKeys[b]) {
+            return secondaryKeys[a] > secondaryKeys[b];
+        }
+        int confidenceCompare = Double.compare(confidences[a], confidences[b]);
+        if (confidenceCompare != 0) {
+            return confidenceCompare > 0;
+        }
+        return a < b;
+    }
+
+    private void siftUp(int[] heap, int pos) {
+        int node = heap[pos];
+        while (pos > 0) {
+            int parentPos = (pos - 1) >>> 1;
+            int parent = heap[parentPos];
+            if (!outranks(parent, node)) {
+                break;
+            }
+            heap[pos] = parent;
+            pos = parentPos;
+        }
+        heap[pos] = node;
+    }
+
+    private void siftDown(int[] heap, int pos, int heapSize) {
+        int node = heap[pos];
+        int half = heapSize >>> 1;
+        while (pos < half) {
+            int childPos = 2 * pos + 1;
+            int child = heap[childPos];
+            int rightPos = childPos + 1;
+            if (rightPos < heapSize && outranks(child, heap[rightPos])) {
+                childPos = rightPos;
+                child = heap[childPos];
+            }
+            if (!outranks(node, child)) {
+                break;
+            }
+            heap[pos] = child;
+            pos = childPos;
+        }
+        heap[pos] = node;
+    }
+}
@@ -15,7 +15,7 @@ public class GrokPattern {
     private String pattern;           // 패턴 정규식
     private String type;              // 패턴 타입 (CUSTOM, STANDARD)
     private String category;          // 패턴 카테고리 (IP, PORT, DATE, TEXT 등)
-    private Grok compiledGrok;        // 컴파일된 Grok 객체 (캐싱용)
+    private transient Grok compiledGrok; // 컴파일된 Grok 객체 (캐싱용, 직렬화 제외)
     private boolean isCompiled;       // 컴파일 여부
     
     public GrokPattern() {
@@ -14,7 +14,8 @@ public class ValidationResult {
         PASS("통과"),
         FAIL("실패"),
         WARNING("경고"),
-        SKIPPED("건너뜀");
+        SKIPPED("건너뜀"),
+        TIMEOUT("시간 초과");
         
         private final String description;
         
@@ -67,6 +68,14 @@ public class ValidationResult {
         }
     }
     
+    /**
+     * 제한 시간 안에 검증을 끝내지 못함 (패턴 오류인 FAIL과 구분)
+     */
+    public void markTimedOut(String message) {
+        errorMessages.add(message);
+        status = Status.TIMEOUT;
+    }
+    
     public boolean hasErrors() {
         return !errorMessages.isEmpty();
     }
@@ -0,0 +1,602 @@
+package com.logcenter.recommender.server;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.logcenter.recommender.api.model.ApiResponse;
+import com.logcenter.recommender.api.model.LogFormatRequest;
+import com.logcenter.recommender.api.model.SampleResult;
+import com.logcenter.recommender.model.FormatRecommendation;
+import com.logcenter.recommender.model.LogFormat;
+import com.logcenter.recommender.service.LogFormatRecommender;
+import com.logcenter.recommender.util.JacksonJsonUtils;
+import com.logcenter.recommender.util.WorkerThreads;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 추천 HTTP 서버 (serve 모드)
+ * 초기화된 로컬 추천 엔진 하나를 {@link com.logcenter.recommender.api.LogFormatApiClient}가 사용하는
+ * 엔드포인트와 JSON 형식 그대로 제공한다. 카탈로그와 컴파일된 패턴은 엔진에 상주하므로 요청마다
+ * JVM 시작, 카탈로그 파싱, 패턴 컴파일 비용이 들지 않는다.
+ *
+ * JDK 내장 HTTP 서버(NIO 셀렉터 기반)를 사용하고, 요청은 작업 스레드에서 처리한다.
+ * 동시에 처리하는 추천 요청 수, 요청 본문 크기(압축 해제 후 포함), 요청당 샘플 수를 제한하며
+ * 동시 처리 한도를 넘는 추천 요청은 기다리게 하지 않고 503으로 바로 거절한다.
+ */
+public class RecommendationServer implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecommendationServer.class);
+
+    /** 요청 본문 최대 바이트 수 (압축 해제 후) */
+    public static final int DEFAULT_MAX_BODY_BYTES = 8 * 1024 * 1024;
+
+    /** 요청당 최대 샘플 수 */
+    public static final int DEFAULT_MAX_SAMPLES = 10000;
+
+    private static final String API_PREFIX = "/api/v1";
+
+    // 이 크기 이상의 응답은 클라이언트가 허용하면 gzip 압축 (바이트)
+    private static final int GZIP_MIN_BYTES = 1024;
+
+    // 연결 대기열 크기, 종료 시 진행 중인 응답을 기다리는 시간 (초)
+    private static final int BACKLOG = 128;
+    private static final int STOP_DELAY_SECONDS = 1;
+
+    // 거절 응답과 조회 요청이 추천 요청 뒤에 밀리지 않도록 두는 여분 작업 스레드 수
+    private static final int SPARE_THREADS = 2;
+
+    private final LogFormatRecommender recommender;
+    private final int maxConcurrent;
+    private final int maxBodyBytes;
+    private final int maxSamples;
+    private final Semaphore permits;
+    private final ObjectWriter writer;
+
+    // 그룹별 직렬화된 카탈로그 (전체 카탈로그는 빈 문자열 키)
+    private final Map<String, CatalogBody> catalogs = new ConcurrentHashMap<>();
+
+    private final AtomicLong served = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final long startedAt = System.currentTimeMillis();
+
+    private HttpServer server;
+    private ThreadPoolExecutor workers;
+
+    /**
+     * @param recommender 초기화된 추천 엔진 (요청 스레드에서 동시에 호출됨)
+     */
+    public RecommendationServer(LogFormatRecommender recommender) {
+        this(recommender, Math.max(2, recommender.getParallelism()), DEFAULT_MAX_BODY_BYTES, DEFAULT_MAX_SAMPLES);
+    }
+
+    /**
+     * @param recommender 초기화된 추천 엔진
+     * @param maxConcurrent 동시에 처리할 추천 요청 수
+     * @param maxBodyBytes 요청 본문 최대 바이트 수 (압축 해제 후)
+     * @param maxSamples 요청당 최대 샘플 수
+     */
+    public RecommendationServer(LogFormatRecommender recommender, int maxConcurrent, int maxBodyBytes, int maxSamples) {
+        this.recommender = recommender;
+        this.maxConcurrent = Math.max(1, maxConcurrent);
+        this.maxBodyBytes = Math.max(1, maxBodyBytes);
+        this.maxSamples = Math.max(1, maxSamples);
+        this.permits = new Semaphore(this.maxConcurrent);
+        this.writer = JacksonJsonUtils.getMapper().writer().without(SerializationFeature.INDENT_OUTPUT);
+    }
+
+    /**
+     * 엔진 예열
+     * 매칭에 쓰는 패턴을 모두 컴파일하고 전체 카탈로그 응답을 미리 만든다.
+     * @return 컴파일한 패턴 수
+     */
+    public int warmUp() {
+        int compiled = recommender.warmUp();
+        catalog(null);
+        return compiled;
+    }
+
+    /**
+     * 포트를 열고 요청 처리 시작
+     * @return 실제 바인드 주소 (포트 0이면 할당된 포트)
+     */
+    public synchronized InetSocketAddress start(InetSocketAddress address) throws IOException {
+        if (server != null) {
+            throw new IllegalStateException("이미 시작된 서버입니다");
+        }
+        HttpServer http = HttpServer.create(address, BACKLOG);
+        http.createContext(API_PREFIX + "/", this::handle);
+        workers = WorkerThreads.newFixedPool("api-server", maxConcurrent + SPARE_THREADS);
+        http.setExecutor(workers);
+        http.start();
+        server = http;
+        logger.info("추천 서버 시작: {} (동시 추천 {}개)", http.getAddress(), maxConcurrent);
+        return http.getAddress();
+    }
+
+    @Override
+    public synchronized void close() {
+        if (server == null) {
+            return;
+        }
+        server.stop(STOP_DELAY_SECONDS);
+        workers.shutdown();
+        try {
+            workers.awaitTermination(STOP_DELAY_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        server = null;
+        logger.info("추천 서버 종료: {}", this);
+    }
+
+    /**
+     * 처리한 요청 수 (성공 응답)
+     */
+    public long getServed() {
+        return served.get();
+    }
+
+    /**
+     * 동시 처리 한도를 넘어 거절한 요청 수
+     */
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    /**
+     * 처리 중 오류가 난 요청 수 (잘못된 요청 포함)
+     */
+    public long getFailed() {
+        return failed.get();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("추천 서버: 처리 %d, 거절 %d, 오류 %d, 처리 중 %d",
+            served.get(), rejected.get(), failed.get(), maxConcurrent - permits.availablePermits());
+    }
+
+    // ---- 요청 처리 ----
+
+    private void handle(HttpExchange exchange) {
+        try {
+            String path = exchange.getRequestURI().getPath();
+            switch (path) {
+                case API_PREFIX + "/health":
+                    requireMethod(exchange, "GET");
+                    health(exchange);
+                    break;
+                case API_PREFIX + "/logformats":
+                    requireMethod(exchange, "GET");
+                    logFormats(exchange);
+                    break;
+                case API_PREFIX + "/groups":
+                    requireMethod(exchange, "GET");
+                    send(exchange, 200, ok(recommender.getGroupStatistics()));
+                    break;
+                case API_PREFIX + "/vendors":
+                    requireMethod(exchange, "GET");
+                    send(exchange, 200, ok(recommender.getVendorStatistics()));
+                    break;
+                case API_PREFIX + "/recommend":
+                    requireMethod(exchange, "POST");
+                    limited(exchange, this::recommend);
+                    break;
+                case API_PREFIX + "/recommend/batch":
+                    requireMethod(exchange, "POST");
+                    limited(exchange, this::recommendBatch);
+                    break;
+                default:
+                    throw new RequestException(404, "알 수 없는 경로: " + path);
+            }
+            served.incrementAndGet();
+        } catch (RequestException e) {
+            if (e.getStatus() != 503) {
+                failed.incrementAndGet();
+            }
+            sendError(exchange, e.getStatus(), e.getMessage());
+        } catch (IOException e) {
+            if (exchange.getResponseCode() != -1) {
+                // 응답을 보내는 중 클라이언트가 연결을 끊음 (상태 코드를 이미 보냈으므로 오류 응답 불가)
+                logger.debug("응답 전송 중단: {} ({})", exchange.getRequestURI(), e.getMessage());
+                return;
+            }
+            failed.incrementAndGet();
+            logger.error("요청 처리 중 오류: {}", exchange.getRequestURI(), e);
+            sendError(exchange, 500, "요청 처리 중 오류: " + e.getMessage());
+        } catch (Exception e) {
+            failed.incrementAndGet();
+            logger.error("요청 처리 중 오류: {}", exchange.getRequestURI(), e);
+            sendError(exchange, 500, "요청 처리 중 오류: " + e.getMessage());
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static void requireMethod(HttpExchange exchange, String method) throws RequestException {
+        if (!method.equals(exchange.getRequestMethod())) {
+            exchange.getResponseHeaders().set("Allow", method);
+            throw new RequestException(405, "허용되지 않는 메서드: " + exchange.getRequestMethod());
+        }
+    }
+
+    /**
+     * 동시 처리 한도 안에서 실행 (한도를 넘으면 기다리지 않고 503)
+     */
+    private void limited(HttpExchange exchange, Handler handler) throws Exception {
+        if (!permits.tryAcquire()) {
+            rejected.incrementAndGet();
+            exchange.getResponseHeaders().set("Retry-After", "1");
+            throw new RequestException(503, "동시 처리 한도 초과 (" + maxConcurrent + ")");
+        }
+        try {
+            handler.handle(exchange);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void health(HttpExchange exchange) throws IOException {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("status", "UP");
+        status.put("formats", recommender.getAvailableFormats().size());
+        status.put("uptime_ms", System.currentTimeMillis() - startedAt);
+        status.put("in_flight", maxConcurrent - permits.availablePermits());
+        send(exchange, 200, ok(status));
+    }
+
+    /**
+     * 카탈로그 조회 (If-None-Match가 현재 ETag와 같으면 304)
+     */
+    private void logFormats(HttpExchange exchange) throws IOException {
+        CatalogBody body = catalog(queryParameter(exchange, "group"));
+        exchange.getResponseHeaders().set("ETag", body.etag);
+        String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+        if (body.etag.equals(ifNoneMatch)) {
+            exchange.sendResponseHeaders(304, -1);
+            return;
+        }
+        sendBytes(exchange, 200, body.json);
+    }
+
+    private CatalogBody catalog(String group) {
+        String key = group != null ? group : "";
+        CatalogBody cached = catalogs.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        List<LogFormat> formats = new ArrayList<>();
+        for (LogFormat format : group != null
+                ? recommender.getFormatsByGroup(group) : recommender.getAvailableFormats()) {
+            formats.add(recommender.getFullFormat(format));
+        }
+        CatalogBody body = new CatalogBody(toBytes(ok(formats)));
+        // 알 수 없는 그룹 이름으로 캐시가 커지지 않도록 포맷이 있는 그룹만 보관
+        if (group == null || !formats.isEmpty()) {
+            catalogs.put(key, body);
+        }
+        return body;
+    }
+
+    /**
+     * 추천 (샘플이 여럿이면 포맷별로 평균 신뢰도를 내어 합침)
+     */
+    private void recommend(HttpExchange exchange) throws IOException {
+        LogFormatRequest request = readRequest(exchange);
+        LogFormatRecommender.RecommendOptions options = request.toRecommendOptions();
+        List<String> samples = request.getLogSamples();
+
+        List<FormatRecommendation> result;
+        if (samples.size() == 1) {
+            result = new ArrayList<>();
+            for (FormatRecommendation recommendation : recommender.recommend(samples.get(0), options)) {
+                result.add(forResponse(recommendation, request.isIncludeMetadata()));
+            }
+        } else {
+            result = merge(recommender.recommendBatch(samples, options), options.getMaxResults(),
+                request.isIncludeMetadata());
+        }
+        send(exchange, 200, ok(result));
+    }
+
+    /**
+     * 샘플별 추천 (data는 요청의 sample_offset 기준 인덱스를 가진 샘플별 결과)
+     * 결과 목록 전체를 문자열로 만들지 않고 샘플 하나씩 응답 스트림에 쓴다.
+     */
+    private void recommendBatch(HttpExchange exchange) throws IOException {
+        LogFormatRequest request = readRequest(exchange);
+        List<List<FormatRecommendation>> results =
+            recommender.recommendBatch(request.getLogSamples(), request.toRecommendOptions());
+
+        boolean gzip = acceptsGzip(exchange);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=UTF-8");
+        if (gzip) {
+            exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+        }
+        exchange.sendResponseHeaders(200, 0);
+        OutputStream out = gzip ? new GZIPOutputStream(exchange.getResponseBody()) : exchange.getResponseBody();
+        try (JsonGenerator generator = JacksonJsonUtils.getMapper().getFactory().createGenerator(out)) {
+            generator.writeStartObject();
+            generator.writeBooleanField("success", true);
+            generator.writeStringField("message", "success");
+            generator.writeArrayFieldStart("data");
+            for (int i = 0; i < results.size(); i++) {
+                List<FormatRecommendation> recommendations = new ArrayList<>();
+                if (results.get(i) != null) {
+                    for (FormatRecommendation recommendation : results.get(i)) {
+                        recommendations.add(forResponse(recommendation, request.isIncludeMetadata()));
+                    }
+                }
+                writer.writeValue(generator, new SampleResult(request.getSampleOffset() + i, recommendations));
+            }
+            generator.writeEndArray();
+            generator.writeNumberField("timestamp", System.currentTimeMillis());
+            generator.writeEndObject();
+        }
+    }
+
+    /**
+     * 여러 샘플의 추천 결과를 포맷별로 합침 (평균 신뢰도 순)
+     */
+    private List<FormatRecommendation> merge(List<List<FormatRecommendation>> perSample, int maxResults,
+                                             boolean includeMetadata) {
+        Map<String, FormatRecommendation> first = new LinkedHashMap<>();
+        Map<String, double[]> totals = new LinkedHashMap<>();
+        for (List<FormatRecommendation> recommendations : perSample) {
+            if (recommendations == null) {
+                continue;
+            }
+            for (FormatRecommendation recommendation : recommendations) {
+                String formatId = recommendation.getLogFormat().getFormatId();
+                first.putIfAbsent(formatId, recommendation);
+                double[] total = totals.computeIfAbsent(formatId, id -> new double[2]);
+                total[0] += recommendation.getConfidence();
+                total[1]++;
+            }
+        }
+
+        List<FormatRecommendation> merged = new ArrayList<>();
+        for (Map.Entry<String, FormatRecommendation> entry : first.entrySet()) {
+            double[] total = totals.get(entry.getKey());
+            FormatRecommendation recommendation = forResponse(entry.getValue(), includeMetadata);
+            recommendation.setConfidence(total[0] / total[1]);
+            recommendation.setMatchCount((int) total[1]);
+            merged.add(recommendation);
+        }
+        merged.sort(Comparator.comparingDouble(FormatRecommendation::getConfidence).reversed());
+        return merged.size() > maxResults ? new ArrayList<>(merged.subList(0, maxResults)) : merged;
+    }
+
+    /**
+     * 응답용 추천 결과 (엔진이 보관하는 결과를 바꾸지 않도록 복사본을 만들어 수정)
+     */
+    private FormatRecommendation forResponse(FormatRecommendation recommendation, boolean includeMetadata) {
+        FormatRecommendation copy = JacksonJsonUtils.getMapper().convertValue(recommendation, FormatRecommendation.class);
+        if (includeMetadata) {
+            copy.setLogFormat(recommender.getFullFormat(recommendation.getLogFormat()));
+        }
+        return copy;
+    }
+
+    /**
+     * 추천 요청 읽기 (gzip 본문 지원, 크기와 샘플 수 제한)
+     */
+    private LogFormatRequest readRequest(HttpExchange exchange) throws IOException {
+        String length = exchange.getRequestHeaders().getFirst("Content-Length");
+        if (length != null && parseLong(length) > maxBodyBytes) {
+            throw new RequestException(413, "요청 본문이 너무 큽니다 (최대 " + maxBodyBytes + "바이트)");
+        }
+
+        InputStream in = new LimitedInputStream(exchange.getRequestBody(), maxBodyBytes);
+        if ("gzip".equalsIgnoreCase(exchange.getRequestHeaders().getFirst("Content-Encoding"))) {
+            in = new LimitedInputStream(new GZIPInputStream(in), maxBodyBytes);
+        }
+
+        LogFormatRequest request;
+        try {
+            request = JacksonJsonUtils.getMapper().readValue(in, LogFormatRequest.class);
+        } catch (JsonProcessingException e) {
+            throw new RequestException(400, "요청 형식 오류: " + e.getOriginalMessage());
+        }
+        if (request == null || request.getLogSamples() == null || request.getLogSamples().isEmpty()) {
+            throw new RequestException(400, "log_samples가 비어있습니다");
+        }
+        if (request.getLogSamples().size() > maxSamples) {
+            throw new RequestException(413, "샘플이 너무 많습니다 (최대 " + maxSamples + "개)");
+        }
+        if (request.getTopN() <= 0) {
+            throw new RequestException(400, "top_n은 1 이상이어야 합니다");
+        }
+        return request;
+    }
+
+    private static long parseLong(String value) throws RequestException {
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            throw new RequestException(400, "잘못된 Content-Length: " + value);
+        }
+    }
+
+    private static String queryParameter(HttpExchange exchange, String name) throws IOException {
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null) {
+            return null;
+        }
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = eq >= 0 ? pair.substring(0, eq) : pair;
+            if (name.equals(key)) {
+                return eq >= 0 ? URLDecoder.decode(pair.substring(eq + 1), "UTF-8") : "";
+            }
+        }
+        return null;
+    }
+
+    // ---- 응답 ----
+
+    private static <T> ApiResponse<T> ok(T data) {
+        return new ApiResponse<>(true, "success", data);
+    }
+
+    private byte[] toBytes(Object value) {
+        try {
+            return writer.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("응답 직렬화 실패", e);
+        }
+    }
+
+    private void send(HttpExchange exchange, int status, Object body) throws IOException {
+        sendBytes(exchange, status, toBytes(body));
+    }
+
+    private void sendBytes(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=UTF-8");
+        byte[] content = body;
+        if (body.length >= GZIP_MIN_BYTES && acceptsGzip(exchange)) {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(body.length / 4);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(buffer)) {
+                gzip.write(body);
+            }
+            content = buffer.toByteArray();
+            exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+        }
+        exchange.sendResponseHeaders(status, content.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(content);
+        }
+    }
+
+    private void sendError(HttpExchange exchange, int status, String message) {
+        try {
+            exchange.getResponseHeaders().remove("Content-Encoding");
+            byte[] body = toBytes(new ApiResponse<>(false, message, null));
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=UTF-8");
+            exchange.sendResponseHeaders(status, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } catch (IOException e) {
+            // 응답을 이미 보내기 시작했거나 연결이 끊긴 경우
+            logger.debug("오류 응답 전송 실패: {}", e.getMessage());
+        }
+    }
+
+    private static boolean acceptsGzip(HttpExchange exchange) {
+        String accept = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+        return accept != null && accept.toLowerCase().contains("gzip");
+    }
+
+    private interface Handler {
+        void handle(HttpExchange exchange) throws IOException;
+    }
+
+    /**
+     * 직렬화된 카탈로그 응답과 ETag
+     */
+    private static final class CatalogBody {
+        private final byte[] json;
+        private final String etag;
+
+        CatalogBody(byte[] json) {
+            this.json = json;
+            this.etag = "\"" + sha256Prefix(json) + "\"";
+        }
+
+        private static String sha256Prefix(byte[] content) {
+            try {
+                byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+                StringBuilder hex = new StringBuilder();
+                for (int i = 0; i < 8; i++) {
+                    hex.append(String.format("%02x", digest[i]));
+                }
+                return hex.toString();
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256을 사용할 수 없습니다", e);
+            }
+        }
+    }
+
+    /**
+     * 상태 코드를 가진 요청 오류
+     */
+    private static final class RequestException extends IOException {
+        private final int status;
+
+        RequestException(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+
+        int getStatus() {
+            return status;
+        }
+    }
+
+    /**
+     * 읽은 바이트 수가 한도를 넘으면 413 오류를 내는 입력 스트림
+     */
+    private static final class LimitedInputStream extends FilterInputStream {
+        private final long limit;
+        private long count;
+
+        LimitedInputStream(InputStream in, long limit) {
+            super(in);
+            this.limit = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count(n);
+            }
+            return n;
+        }
+
+        private void count(int n) throws RequestException {
+            count += n;
+            if (count > limit) {
+                throw new RequestException(413, "요청 본문이 너무 큽니다 (최대 " + limit + "바이트)");
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,436 @@
+package com.logcenter.recommender.service;
+
+import com.logcenter.recommender.api.CircuitBreaker;
+import com.logcenter.recommender.api.LogFormatApiClient;
+import com.logcenter.recommender.api.model.LogFormatRequest;
+import com.logcenter.recommender.model.FormatRecommendation;
+import com.logcenter.recommender.model.LogFormat;
+import com.logcenter.recommender.util.MultilineAssembler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+
+/**
+ * 하이브리드 추천 서비스 (원격 API 우선, 로컬 엔진 대체)
+ * 추천 요청마다 지연 예산 안에서 원격 API의 결과를 기다리고, 예산을 넘기거나 원격 호출이 실패하거나
+ * 회로 차단기가 열려 있으면 같은 요청을 로컬 엔진으로 처리한다. 최근 원격 지연이 예산보다 길면
+ * 원격 호출을 보내지 않는다. 단일 라인 요청은 백업 지연이 지나도 응답이 없으면 같은 요청을 한 번 더 보내
+ * 먼저 도착한 결과를 사용한다 (hedged request).
+ *
+ * 포맷 조회, 통계, 포맷 고정 검증 등 추천 외의 기능은 로컬 엔진에 위임한다.
+ */
+public class HybridLogFormatRecommender implements LogFormatRecommender {
+
+    private static final Logger logger = LoggerFactory.getLogger(HybridLogFormatRecommender.class);
+
+    // 예산 초과가 예상되어도 원격으로 보낼 요청 간격
+    private static final int BUDGET_PROBE_INTERVAL = 10;
+
+    private final LogFormatApiClient apiClient;
+    private final LogFormatRecommender local;
+    private final CircuitBreaker breaker;
+    private final long latencyBudgetMs;
+    private final long hedgeDelayMs;
+    private final Stats stats = new Stats();
+    private final AtomicLong skippedForBudget = new AtomicLong();
+
+    /**
+     * 생성자
+     * @param apiClient 원격 API 클라이언트 (종료 시 함께 닫음)
+     * @param local 로컬 추천 서비스 (초기화된 상태)
+     * @param breaker 원격 호출 회로 차단기
+     * @param latencyBudgetMs 요청당 지연 예산 (밀리초)
+     * @param hedgeDelayMs 백업 요청을 보낼 때까지 기다릴 시간 (밀리초, 0 이하면 백업 요청 없음)
+     */
+    public HybridLogFormatRecommender(LogFormatApiClient apiClient, LogFormatRecommender local,
+                                      CircuitBreaker breaker, long latencyBudgetMs, long hedgeDelayMs) {
+        this.apiClient = apiClient;
+        this.local = local;
+        this.breaker = breaker;
+        this.latencyBudgetMs = latencyBudgetMs;
+        this.hedgeDelayMs = hedgeDelayMs;
+    }
+
+    @Override
+    public List<FormatRecommendation> recommend(String logSample, RecommendOptions options) {
+        return route(() -> toRequest(Collections.singletonList(logSample), options),
+            () -> local.recommend(logSample, options));
+    }
+
+    @Override
+    public List<FormatRecommendation> recommend(ByteBuffer line, Charset charset, RecommendOptions options) {
+        // 로컬 대체 시에는 디코딩 전 사전 필터를 그대로 사용
+        return route(() -> toRequest(Collections.singletonList(charset.decode(line.duplicate()).toString()),
+                options),
+            () -> local.recommend(line, charset, options));
+    }
+
+    /**
+     * 단일 요청 처리 (원격 우선, 필요하면 백업 요청, 실패 시 로컬)
+     */
+    private List<FormatRecommendation> route(Supplier<LogFormatRequest> request,
+                                             Supplier<List<FormatRecommendation>> fallback) {
+        Route route = chooseRoute();
+        if (route != Route.REMOTE) {
+            stats.count(route, 1);
+            return fallback.get();
+        }
+
+        long start = System.nanoTime();
+        LogFormatRequest remoteRequest = request.get();
+        CompletableFuture<List<FormatRecommendation>> primary = call(remoteRequest, true);
+        CompletableFuture<List<FormatRecommendation>> backup = null;
+        try {
+            CompletableFuture<List<FormatRecommendation>> winner = primary;
+            if (hedgeDelayMs > 0 && hedgeDelayMs < latencyBudgetMs) {
+                try {
+                    return served(primary.get(hedgeDelayMs, TimeUnit.MILLISECONDS), false);
+                } catch (TimeoutException e) {
+                    // 아직 응답이 없으면 차단기가 닫혀 있을 때만 같은 요청을 한 번 더 보냄
+                    // (응답 캐시를 거치면 진행 중인 첫 요청을 함께 기다리게 되므로 캐시 없이 보냄)
+                    if (breaker.getState() == CircuitBreaker.State.CLOSED) {
+                        backup = call(remoteRequest, false);
+                        winner = firstSuccessful(primary, backup);
+                    }
+                }
+            }
+            List<FormatRecommendation> result = winner.get(remaining(start), TimeUnit.MILLISECONDS);
+            boolean primarySucceeded = primary.isDone() && !primary.isCompletedExceptionally();
+            return served(result, backup != null && !primarySucceeded);
+        } catch (TimeoutException e) {
+            breaker.recordFailure(latencyBudgetMs);
+            stats.count(Route.LOCAL_BUDGET, 1);
+        } catch (ExecutionException e) {
+            logger.debug("원격 추천 실패, 로컬 엔진 사용: {}", e.getCause().getMessage());
+            stats.count(Route.LOCAL_ERROR, 1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            stats.count(Route.LOCAL_ERROR, 1);
+        } finally {
+            primary.cancel(true);
+            if (backup != null) {
+                backup.cancel(true);
+            }
+        }
+        return fallback.get();
+    }
+
+    private List<FormatRecommendation> served(List<FormatRecommendation> result, boolean byBackup) {
+        stats.count(Route.REMOTE, 1);
+        if (byBackup) {
+            stats.backupWins.incrementAndGet();
+        }
+        return result;
+    }
+
+    @Override
+    public List<List<FormatRecommendation>> recommendBatch(List<String> logSamples, RecommendOptions options) {
+        Route route = chooseRoute();
+        if (route != Route.REMOTE) {
+            stats.count(route, logSamples.size());
+            return local.recommendBatch(logSamples, options);
+        }
+
+        // 받은 샘플 결과는 예산을 넘겨도 사용하고, 받지 못한 샘플만 로컬 엔진으로 처리
+        AtomicReferenceArray<List<FormatRecommendation>> slots = new AtomicReferenceArray<>(logSamples.size());
+        CompletableFuture<List<List<FormatRecommendation>>> remote = call(
+            () -> apiClient.recommendBatchAsync(toRequest(logSamples, options), slots::set));
+        Route missed = Route.LOCAL_ERROR;
+        try {
+            List<List<FormatRecommendation>> results = remote.get(latencyBudgetMs, TimeUnit.MILLISECONDS);
+            stats.count(Route.REMOTE, logSamples.size());
+            return results;
+        } catch (TimeoutException e) {
+            breaker.recordFailure(latencyBudgetMs);
+            missed = Route.LOCAL_BUDGET;
+        } catch (ExecutionException e) {
+            logger.debug("원격 배치 추천 실패, 로컬 엔진 사용: {}", e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            remote.cancel(true);
+        }
+
+        List<Integer> missing = new ArrayList<>();
+        List<List<FormatRecommendation>> results = new ArrayList<>(logSamples.size());
+        for (int i = 0; i < logSamples.size(); i++) {
+            List<FormatRecommendation> received = slots.get(i);
+            results.add(received);
+            if (received == null) {
+                missing.add(i);
+            }
+        }
+        if (!missing.isEmpty()) {
+            List<String> missingSamples = new ArrayList<>(missing.size());
+            for (int index : missing) {
+                missingSamples.add(logSamples.get(index));
+            }
+            List<List<FormatRecommendation>> localResults = local.recommendBatch(missingSamples, options);
+            for (int i = 0; i < missing.size(); i++) {
+                results.set(missing.get(i), localResults.get(i));
+            }
+        }
+        stats.count(Route.REMOTE, logSamples.size() - missing.size());
+        stats.count(missed, missing.size());
+        return results;
+    }
+
+    /**
+     * 처리 경로 결정 (차단기가 열려 있거나 예산을 넘길 것으로 예상되면 로컬)
+     * 최근 원격 호출의 절반 이상이 예산을 다 썼으면 원격 호출을 보내지 않는다.
+     * 지연이 회복되었는지 알 수 있도록 이런 요청 중 일부는 원격으로 보낸다.
+     */
+    private Route chooseRoute() {
+        long median = breaker.latencyPercentile(0.5);
+        if (median >= latencyBudgetMs && skippedForBudget.incrementAndGet() % BUDGET_PROBE_INTERVAL != 0) {
+            return Route.LOCAL_BUDGET;
+        }
+        return breaker.allowRequest() ? Route.REMOTE : Route.LOCAL_BREAKER_OPEN;
+    }
+
+    private CompletableFuture<List<FormatRecommendation>> call(LogFormatRequest request, boolean useCache) {
+        return call(() -> apiClient.recommendFormatsAsync(request, useCache));
+    }
+
+    /**
+     * 원격 호출 시작 (결과를 회로 차단기에 기록)
+     * 취소된 호출(예산 초과, 백업 요청 경쟁에서 진 요청, 호출 스레드 인터럽트)은 실패로 기록하지 않고, 예산 초과는 호출 측이 기록한다.
+     * 취소된 호출이 시험 호출이었으면 다음 요청이 다시 시험 호출을 할 수 있게 풀어준다.
+     */
+    private <T> CompletableFuture<T> call(Supplier<CompletableFuture<T>> remote) {
+        long start = System.nanoTime();
+        CompletableFuture<T> future = remote.get();
+        future.whenComplete((value, error) -> {
+            long latency = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            if (error == null) {
+                breaker.recordSuccess(latency);
+            } else if (error instanceof CancellationException) {
+                breaker.releaseProbe();
+            } else {
+                breaker.recordFailure(latency);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * 먼저 성공한 결과 (둘 다 실패하면 나중 실패)
+     */
+    private static <T> CompletableFuture<T> firstSuccessful(CompletableFuture<T> first, CompletableFuture<T> second) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        AtomicLong failures = new AtomicLong();
+        for (CompletableFuture<T> future : Arrays.asList(first, second)) {
+            future.whenComplete((value, error) -> {
+                if (error == null) {
+                    result.complete(value);
+                } else if (failures.incrementAndGet() == 2) {
+                    result.completeExceptionally(error);
+                }
+            });
+        }
+        return result;
+    }
+
+    private long remaining(long startNanos) {
+        return Math.max(0, latencyBudgetMs - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+    }
+
+    private static LogFormatRequest toRequest(List<String> samples, RecommendOptions options) {
+        LogFormatRequest request = new LogFormatRequest(samples);
+        if (options != null) {
+            request.setGroupFilter(options.getGroupFilter());
+            request.setVendorFilter(options.getVendorFilter());
+            request.setTopN(options.getMaxResults());
+        }
+        return request;
+    }
+
+    /**
+     * 경로별 처리 통계
+     */
+    public Stats getStats() {
+        return stats;
+    }
+
+    public CircuitBreaker getCircuitBreaker() {
+        return breaker;
+    }
+
+    // 추천 외 기능은 로컬 엔진에 위임
+
+    @Override
+    public List<FormatRecommendation> recommend(String logSample) {
+        return local.recommend(logSample);
+    }
+
+    @Override
+    public List<FormatRecommendation> recommendBatch(List<String> logSamples) {
+        return local.recommendBatch(logSamples);
+    }
+
+    @Override
+    public List<FormatRecommendation> recommendInGroup(String logSample, String groupName) {
+        return local.recommendInGroup(logSample, groupName);
+    }
+
+    @Override
+    public void setOptions(RecommendOptions options) {
+        local.setOptions(options);
+    }
+
+    @Override
+    public List<LogFormat> getAvailableFormats() {
+        return local.getAvailableFormats();
+    }
+
+    @Override
+    public LogFormat getFullFormat(LogFormat format) {
+        return local.getFullFormat(format);
+    }
+
+    @Override
+    public List<LogFormat> getFormatsByGroup(String groupName) {
+        return local.getFormatsByGroup(groupName);
+    }
+
+    @Override
+    public boolean initialize() {
+        return local.initialize();
+    }
+
+    @Override
+    public int reloadFormats() {
+        return local.reloadFormats();
+    }
+
+    @Override
+    public FormatRecommendation matchFormat(String logSample, LogFormat format, RecommendOptions options) {
+        return local.matchFormat(logSample, format, options);
+    }
+
+    @Override
+    public Map<String, Integer> getGroupStatistics() {
+        return local.getGroupStatistics();
+    }
+
+    @Override
+    public Map<String, Integer> getVendorStatistics() {
+        return local.getVendorStatistics();
+    }
+
+    @Override
+    public Executor getExecutor() {
+        return local.getExecutor();
+    }
+
+    @Override
+    public int getParallelism() {
+        return local.getParallelism();
+    }
+
+    @Override
+    public int warmUp() {
+        return local.warmUp();
+    }
+
+    @Override
+    public MultilineAssembler.EventStartRule eventStartRule(RecommendOptions options) {
+        return local.eventStartRule(options);
+    }
+
+    @Override
+    public void shutdown() {
+        local.shutdown();
+        try {
+            apiClient.close();
+        } catch (Exception e) {
+            logger.error("API 클라이언트 종료 중 오류", e);
+        }
+    }
+
+    /**
+     * 처리 경로
+     */
+    private enum Route {
+        REMOTE, LOCAL_BREAKER_OPEN, LOCAL_BUDGET, LOCAL_ERROR
+    }
+
+    /**
+     * 경로별 처리 라인 수
+     */
+    public static final class Stats {
+        private final AtomicLong remote = new AtomicLong();
+        private final AtomicLong backupWins = new AtomicLong();
+        private final AtomicLong localBreakerOpen = new AtomicLong();
+        private final AtomicLong localBudget = new AtomicLong();
+        private final AtomicLong localError = new AtomicLong();
+
+        private void count(Route path, long lines) {
+            switch (path) {
+                case REMOTE:
+                    remote.addAndGet(lines);
+                    break;
+                case LOCAL_BREAKER_OPEN:
+                    localBreakerOpen.addAndGet(lines);
+                    break;
+                case LOCAL_BUDGET:
+                    localBudget.addAndGet(lines);
+                    break;
+                default:
+                    localError.addAndGet(lines);
+                    break;
+            }
+        }
+
+        /** 원격 API가 처리한 라인 수 */
+        public long getRemote() {
+            return remote.get();
+        }
+
+        /** 백업 요청의 응답으로 처리한 라인 수 (원격 처리에 포함) */
+        public long getBackupWins() {
+            return backupWins.get();
+        }
+
+        /** 회로 차단기가 열려 로컬 엔진이 처리한 라인 수 */
+        public long getLocalBreakerOpen() {
+            return localBreakerOpen.get();
+        }
+
+        /** 지연 예산을 넘겨(또는 넘길 것으로 예상되어) 로컬 엔진이 처리한 라인 수 */
+        public long getLocalBudget() {
+            return localBudget.get();
+        }
+
+        /** 원격 호출 실패로 로컬 엔진이 처리한 라인 수 */
+        public long getLocalError() {
+            return localError.get();
+        }
+
+        public long getLocal() {
+            return getLocalBreakerOpen() + getLocalBudget() + getLocalError();
+        }
+
+        @Override
+        public String toString() {
+            return String.format("하이브리드 처리: 원격 %d (백업 요청 %d), 로컬 %d (차단기 %d, 지연 예산 %d, 원격 오류 %d)",
+                getRemote(), getBackupWins(), getLocal(), getLocalBreakerOpen(), getLocalBudget(), getLocalError());
+        }
+    }
+}
\ No newline at end of file
@@ -2,8 +2,14 @@ package com.logcenter.recommender.service;
 
 import com.logcenter.recommender.model.FormatRecommendation;
 import com.logcenter.recommender.model.LogFormat;
+import com.logcenter.recommender.util.MultilineAssembler;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * 로그 포맷 추천 서비스 인터페이스
@@ -27,6 +33,7 @@ public interface LogFormatRecommender {
     
     /**
      * 특정 그룹 내에서만 포맷 추천
+     * 옵션의 벤더/모델/SM 타입 필터도 함께 적용됨
      * @param logSample 로그 샘플
      * @param groupName 그룹명 (예: FIREWALL, WEBSERVER)
      * @return 추천 결과 리스트
@@ -45,6 +52,16 @@ public interface LogFormatRecommender {
      */
     List<LogFormat> getAvailableFormats();
     
+    /**
+     * 출력용 전체 로그 포맷 조회
+     * 매칭에 쓰는 포맷에 타입 설명, 데이터 테이블 등이 빠져 있으면 채운 포맷을 반환
+     * @param format 매칭 결과 등에서 얻은 로그 포맷
+     * @return 전체 로그 포맷, 구할 수 없으면 입력 포맷
+     */
+    default LogFormat getFullFormat(LogFormat format) {
+        return format;
+    }
+    
     /**
      * 특정 그룹의 로그 포맷 목록 조회
      * @param groupName 그룹명
@@ -72,6 +89,36 @@ public interface LogFormatRecommender {
      */
     List<FormatRecommendation> recommend(String logSample, RecommendOptions options);
     
+    /**
+     * 디코딩 전 라인 바이트에 대한 추천
+     * 구현체는 후보 포맷이 하나도 남지 않는 라인을 디코딩하지 않고 건너뛸 수 있다.
+     * @param line 라인 바이트 (position~limit, 버퍼 위치는 변경하지 않음)
+     * @param charset 라인 인코딩
+     * @param options 추천 옵션
+     * @return 추천 결과 리스트
+     */
+    default List<FormatRecommendation> recommend(ByteBuffer line, Charset charset, RecommendOptions options) {
+        return recommend(charset.decode(line.duplicate()).toString(), options);
+    }
+    
+    /**
+     * 한 포맷만 매칭 (포맷이 고정된 소스의 라인 검증용)
+     * 구현체는 캐시와 사전 필터 없이 해당 포맷의 패턴만 매칭할 수 있다.
+     * @param logSample 로그 샘플
+     * @param format 매칭할 포맷
+     * @param options 추천 옵션 (최소 신뢰도, 부분 매칭 포함 여부 적용)
+     * @return 매칭 결과, 매칭되지 않으면 null
+     */
+    default FormatRecommendation matchFormat(String logSample, LogFormat format, RecommendOptions options) {
+        for (FormatRecommendation recommendation : recommend(logSample, options)) {
+            if (recommendation.getLogFormat() != null
+                    && Objects.equals(recommendation.getLogFormat().getFormatId(), format.getFormatId())) {
+                return recommendation;
+            }
+        }
+        return null;
+    }
+    
     /**
      * 배치 추천 (배치별 결과 반환)
      * @param logSamples 로그 샘플 리스트
@@ -97,6 +144,41 @@ public interface LogFormatRecommender {
      */
     void shutdown();
     
+    /**
+     * 추천 작업 실행기
+     * 파일 단위 병렬 분석이 매칭 스레드 풀을 함께 사용할 때 쓴다.
+     * 이 실행기 안에서 호출한 추천은 다시 병렬화하지 않고 호출 스레드에서 매칭한다.
+     */
+    default Executor getExecutor() {
+        return ForkJoinPool.commonPool();
+    }
+    
+    /**
+     * 추천 작업 실행기의 동시 실행 스레드 수
+     */
+    default int getParallelism() {
+        return Runtime.getRuntime().availableProcessors();
+    }
+    
+    /**
+     * 엔진 예열 (매칭에 쓰는 패턴을 미리 컴파일)
+     * 오래 실행되는 서버에서 첫 요청들이 패턴 컴파일 비용을 치르지 않게 한다.
+     * @return 컴파일한 패턴 수
+     */
+    default int warmUp() {
+        return 0;
+    }
+    
+    /**
+     * 멀티라인 이벤트 시작 규칙
+     * 필터로 좁혀진 후보 포맷의 첫 토큰으로 이벤트 시작을 판단한다.
+     * @param options 추천 옵션 (그룹/벤더 필터)
+     * @return 후보 포맷 기반 규칙, 필터가 없거나 만들 수 없으면 기본 규칙
+     */
+    default MultilineAssembler.EventStartRule eventStartRule(RecommendOptions options) {
+        return MultilineAssembler.DEFAULT_RULE;
+    }
+    
     /**
      * 추천 옵션 클래스
      */
@@ -111,6 +193,8 @@ public interface LogFormatRecommender {
         private int parallelThreads = 0;          // 병렬 스레드 수 (0=자동)
         private String groupFilter = null;        // 그룹 필터
         private String vendorFilter = null;       // 벤더 필터
+        private String modelFilter = null;        // 모델 필터
+        private String smTypeFilter = null;       // SM 타입 필터
         
         // Getters and Setters
         public int getMaxResults() {
@@ -193,6 +277,22 @@ public interface LogFormatRecommender {
             this.vendorFilter = vendorFilter;
         }
         
+        public String getModelFilter() {
+            return modelFilter;
+        }
+        
+        public void setModelFilter(String modelFilter) {
+            this.modelFilter = modelFilter;
+        }
+        
+        public String getSmTypeFilter() {
+            return smTypeFilter;
+        }
+        
+        public void setSmTypeFilter(String smTypeFilter) {
+            this.smTypeFilter = smTypeFilter;
+        }
+        
         /**
          * 빌더 패턴 지원
          */
@@ -239,6 +339,26 @@ public interface LogFormatRecommender {
                 return this;
             }
             
+            public Builder groupFilter(String groupFilter) {
+                options.setGroupFilter(groupFilter);
+                return this;
+            }
+            
+            public Builder vendorFilter(String vendorFilter) {
+                options.setVendorFilter(vendorFilter);
+                return this;
+            }
+            
+            public Builder modelFilter(String modelFilter) {
+                options.setModelFilter(modelFilter);
+                return this;
+            }
+            
+            public Builder smTypeFilter(String smTypeFilter) {
+                options.setSmTypeFilter(smTypeFilter);
+                return this;
+            }
+            
             public RecommendOptions build() {
                 return options;
             }
@@ -1,17 +1,30 @@
 package com.logcenter.recommender.service;
 
+import com.logcenter.recommender.cache.ResultStore;
+import com.logcenter.recommender.filter.PatternFilter;
 import com.logcenter.recommender.grok.GrokCompilerWrapper;
 import com.logcenter.recommender.grok.PatternRepository;
 import com.logcenter.recommender.matcher.AdvancedLogMatcher;
+import com.logcenter.recommender.matcher.FormatStartRule;
+import com.logcenter.recommender.matcher.LiteralPrefilter;
 import com.logcenter.recommender.matcher.LogMatcher;
+import com.logcenter.recommender.matcher.RankingKeys;
+import com.logcenter.recommender.matcher.TopKSelector;
 import com.logcenter.recommender.model.FormatRecommendation;
 import com.logcenter.recommender.model.LogFormat;
 import com.logcenter.recommender.model.MatchResult;
+import com.logcenter.recommender.util.MultilineAssembler;
+import com.logcenter.recommender.util.StartupPhases;
+import com.logcenter.recommender.util.WorkerThreads;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -24,13 +37,23 @@ public class LogFormatRecommenderImpl implements LogFormatRecommender {
     private final PatternRepository patternRepository;
     private final GrokCompilerWrapper grokCompiler;
     private final LogMatcher logMatcher;
-    private final ExecutorService executorService;
-    private RecommendOptions options;
+    private final ThreadPoolExecutor executorService;
+    // 기본 옵션 (호출별 옵션은 매칭 경로에 인자로 전달하며 이 필드를 바꾸지 않음)
+    private volatile RecommendOptions options;
+    
+    // 리터럴 사전 필터 (초기화/재로드 시 생성)
+    private volatile LiteralPrefilter literalPrefilter;
     
     // 캐시 (옵션에 따라 사용)
     private final Map<String, List<FormatRecommendation>> cache;
     private final Map<String, Long> cacheTimestamps;
     
+    // CLI 실행 사이에 추천 결과를 재사용하는 영구 저장소 (없으면 null)
+    private volatile ResultStore resultStore;
+    
+    // 포맷별 숫자 리터럴 포함 여부 (템플릿 지문 재사용 시 확인, 재로드 시 비움)
+    private final Map<String, Boolean> literalDigitFormats = new ConcurrentHashMap<>();
+    
     /**
      * 생성자
      */
@@ -44,7 +67,7 @@ public class LogFormatRecommenderImpl implements LogFormatRecommender {
         // 병렬 처리용 스레드 풀
         int threads = options.getParallelThreads() > 0 ? 
             options.getParallelThreads() : Runtime.getRuntime().availableProcessors();
-        this.executorService = Executors.newFixedThreadPool(threads);
+        this.executorService = WorkerThreads.newFixedPool("recommender-worker", threads);
         
         // 캐시 초기화
         this.cache = new ConcurrentHashMap<>();
@@ -53,23 +76,45 @@ public class LogFormatRecommenderImpl implements LogFormatRecommender {
     
     @Override
     public boolean initialize() {
+        return initialize(new StartupPhases());
+    }
+    
+    /**
+     * 초기화 (단계별 시간 기록)
+     * Grok 패턴 등록(표준 -> 커스텀)과 포맷 카탈로그 로드(-> 리터럴 사전 필터)는
+     * 서로 독립이므로 추천 풀에서 동시에 실행한다.
+     * @param phases 단계 실행기 (프로파일 출력용으로 호출 측과 공유)
+     * @return 초기화 성공 여부
+     */
+    public boolean initialize(StartupPhases phases) {
         try {
-            // Grok 패턴 로드
-            boolean standardLoaded = grokCompiler.loadStandardPatterns();
-            int customLoaded = grokCompiler.loadCustomPatterns();
+            // Grok 패턴 로드 (커스텀 패턴은 같은 컴파일러에 등록하므로 표준 패턴 다음에)
+            CompletableFuture<Boolean> standardLoaded = phases.submit("grok-standard", executorService,
+                grokCompiler::loadStandardPatterns);
+            CompletableFuture<Integer> customLoaded = phases.submit("grok-custom", executorService,
+                grokCompiler::loadCustomPatterns, standardLoaded);
+            
+            // 패턴 저장소 초기화 및 리터럴 사전 필터 생성
+            CompletableFuture<Boolean> repoInitialized = phases.submit("format-catalog", executorService,
+                patternRepository::initialize);
+            CompletableFuture<LiteralPrefilter> prefilter = phases.submit("literal-prefilter", executorService,
+                () -> repoInitialized.join() ? LiteralPrefilter.build(patternRepository.getAllFormats()) : null,
+                repoInitialized);
+            
+            boolean grokLoaded = StartupPhases.join(standardLoaded) && StartupPhases.join(customLoaded) > 0;
+            LiteralPrefilter built = StartupPhases.join(prefilter);
             
-            if (!standardLoaded || customLoaded == 0) {
+            if (!grokLoaded) {
                 logger.error("Grok 패턴 로드 실패");
                 return false;
             }
-            
-            // 패턴 저장소 초기화
-            boolean repoInitialized = patternRepository.initialize();
-            if (!repoInitialized) {
+            if (!StartupPhases.join(repoInitialized)) {
                 logger.error("패턴 저장소 초기화 실패");
                 return false;
             }
             
+            literalPrefilter = built;
+            
             logger.info("로그 포맷 추천 서비스 초기화 완료");
             return true;
             
@@ -81,60 +126,75 @@ public class LogFormatRecommenderImpl implements LogFormatRecommender {
     
     @Override
     public List<FormatRecommendation> recommend(String logSample) {
+        return recommendWith(logSample, options);
+    }
+    
+    /**
+     * 주어진 옵션으로 단일 샘플 추천
+     */
+    private List<FormatRecommendation> recommendWith(String logSample, RecommendOptions options) {
         if (logSample == null || logSample.trim().isEmpty()) {
             return Collections.emptyList();
         }
         
         // 캐시 확인
         if (options.isEnableCaching()) {
-            List<FormatRecommendation> cached = getCachedResult(logSample);
+            List<FormatRecommendation> cached = getCachedResult(logSample, options);
             if (cached != null) {
                 return cached;
             }
         }
         
-        // 모든 포맷에 대해 매칭 수행
-        List<LogFormat> formats = patternRepository.getAllFormats();
-        List<FormatRecommendation> recommendations = performMatching(logSample, formats);
+        // 필터에 해당하는 후보 포맷에 대해서만 매칭 수행
+        List<LogFormat> formats = resolveCandidates(options.getGroupFilter(), options);
+        if (formats.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<FormatRecommendation> recommendations = performMatching(logSample, formats, options);
         
         // 캐싱
         if (options.isEnableCaching() && !recommendations.isEmpty()) {
-            cacheResult(logSample, recommendations);
+            cacheResult(logSample, recommendations, options);
         }
         
         return recommendations;
     }
     
+    /**
+     * 추천 결과 영구 저장소 설정 (shutdown 시 함께 닫음)
+     * @param resultStore 추천 결과 저장소, null이면 사용하지 않음
+     */
+    public void setResultStore(ResultStore resultStore) {
+        this.resultStore = resultStore;
+    }
+    
     @Override
     public List<FormatRecommendation> recommendBatch(List<String> logSamples) {
         if (logSamples == null || logSamples.isEmpty()) {
             return Collections.emptyList();
         }
+        RecommendOptions options = this.options;
         
         // 각 샘플에 대한 추천 결과를 병합
         Map<String, FormatRecommendation> mergedResults = new ConcurrentHashMap<>();
         
-        // 병렬 처리
-        List<CompletableFuture<Void>> futures = logSamples.stream()
-            .map(sample -> CompletableFuture.runAsync(() -> {
-                List<FormatRecommendation> results = recommend(sample);
-                
-                // 결과 병합
-                for (FormatRecommendation result : results) {
-                    mergedResults.merge(result.getLogFormat().getFormatId(), result,
-                        (existing, newResult) -> {
-                            // 평균 신뢰도 계산
-                            double avgConfidence = (existing.getConfidence() + newResult.getConfidence()) / 2.0;
-                            existing.setConfidence(avgConfidence);
-                            existing.setMatchCount(existing.getMatchCount() + 1);
-                            return existing;
-                        });
-                }
-            }, executorService))
-            .collect(Collectors.toList());
-        
-        // 모든 작업 완료 대기
-        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        // 샘플 단위 작업은 풀 스레드에서 실행되므로 내부 매칭은 순차로 수행됨
+        runOnPool(logSamples, sample -> {
+            List<FormatRecommendation> results = recommendWith(sample, options);
+            
+            // 결과 병합
+            for (FormatRecommendation result : results) {
+                mergedResults.merge(result.getLogFormat().getFormatId(), result,
+                    (existing, newResult) -> {
+                        // 평균 신뢰도 계산
+                        double avgConfidence = (existing.getConfidence() + newResult.getConfidence()) / 2.0;
+                        existing.setConfidence(avgConfidence);
+                        existing.setMatchCount(existing.getMatchCount() + 1);
+                        return existing;
+                    });
+            }
+            return null;
+        });
         
         // 결과 정렬 및 필터링
         return mergedResults.values().stream()
@@ -149,30 +209,30 @@ public class LogFormatRecommenderImpl implements LogFormatRecommender {
             return Collections.emptyList();
         }
         
-        // 특정 그룹의 포맷만 가져오기
-        List<LogFormat> formats = patternRepository.getFormatsByGroup(groupName);
+        // 특정 그룹의 포맷만 가져오기 (나머지 필터는 옵션에서 적용)
+        RecommendOptions options = this.options;
+        List<LogFormat> formats = resolveCandidates(groupName, options);
         
         if (formats.isEmpty()) {
-            logger.warn("그룹 '{}'에 포맷이 없습니다", groupName);
             return Collections.emptyList();
         }
         
-        return performMatching(logSample, formats);
+        return performMatching(logSample, formats, options);
     }
     
     @Override
     public void setOptions(RecommendOptions options) {
-        this.options = options != null ? options : new RecommendOptions();
+        RecommendOptions applied = options != null ? options : new RecommendOptions();
+        this.options = applied;
         
-        // 스레드 풀 재설정
-        if (options != null && options.getParallelThreads() > 0) {
-            executorService.shutdown();
-            ((ThreadPoolExecutor) executorService).setCorePoolSize(options.getParallelThreads());
+        // 스레드 풀 크기 재설정
+        if (applied.getParallelThreads() > 0) {
+            WorkerThreads.resize(executorService, applied.getParallelThreads());
         }
         
         // 캐시 크기 조정
-        if (cache.size() > options.getCacheSize()) {
-            clearOldCache();
+        if (cache.size() > applied.getCacheSize()) {
+            clearOldCache(applied);
         }
     }
     
@@ -181,6 +241,15 @@ public class LogFormatRecommenderImpl implements LogFormatRecommender {
         return patternRepository.getAllFormats();
     }
     
+    @Override
+    public LogFormat getFullFormat(LogFormat format) {
+        if (format == null) {
+            return null;
+        }
+        LogFormat full = patternRepository.getFullFormat(format.getFormatId());
+        return full != null ? full : format;
+    }
+    
     @Override
     public List<LogFormat> getFormatsByGroup(String groupName) {
         return patternRepository.getFormatsByGroup(groupName);
@@ -193,16 +262,181 @@ public class LogFormatRecommenderImpl implements LogFormatRecommender {
         cacheTimestamps.clear();
         
         // 포맷 재로드
-        return patternRepository.reloadFormats();
+        literalDigitFormats.clear();
+        int reloaded = patternRepository.reloadFormats();
+        literalPrefilter = LiteralPrefilter.build(patternRepository.getAllFormats());
+        return reloaded;
+    }
+    
+    /**
+     * 필터 조건에 맞는 후보 포맷 조회 (매칭 전 적용)
+     * @param groupName 그룹 필터 (null이면 전체)
+     * @param options 나머지 필터를 가진 옵션
+     * @return 후보 포맷 리스트
+     */
+    private List<LogFormat> resolveCandidates(String groupName, RecommendOptions options) {
+        List<LogFormat> formats = patternRepository.findCandidates(
+            groupName,
+            options.getVendorFilter(),
+            options.getModelFilter(),
+            options.getSmTypeFilter());
+        
+        if (formats.isEmpty()) {
+            logger.warn("필터에 해당하는 포맷이 없습니다 - 그룹: {}, 벤더: {}, 모델: {}, SM 타입: {}",
+                groupName, options.getVendorFilter(), options.getModelFilter(), options.getSmTypeFilter());
+        } else {
+            logger.debug("후보 포맷 {}개 (전체 {}개)", formats.size(), patternRepository.size());
+        }
+        
+        return formats;
+    }
+    
+    /**
+     * 실제 매칭 수행 (리터럴 사전 필터를 통과한 포맷만 매칭)
+     */
+    private List<FormatRecommendation> performMatching(String logSample, List<LogFormat> formats,
+                                                       RecommendOptions options) {
+        LiteralPrefilter prefilter = literalPrefilter;
+        if (prefilter != null) {
+            formats = prefilter.survivors(logSample, formats);
+            if (formats.isEmpty()) {
+                return Collections.emptyList();
+            }
+        }
+        return matchWithStore(logSample, formats, options);
+    }
+    
+    /**
+     * 추천 결과 저장소를 거쳐 매칭
+     * 매칭된 결과는 템플릿 지문(숫자를 0으로 본 라인)으로, 매칭 없음은 라인 지문으로 저장한다.
+     * 템플릿 지문으로 찾은 결과는 저장된 포맷만 다시 매칭해 필드를 채우고,
+     * 신뢰도가 저장된 값과 다르거나 숫자 리터럴(HTTP/1.1, 메시지 ID 등)이 있는 다른 후보가
+     * 현재 라인과 매칭되면 전체 매칭으로 대체한다.
+     * 숫자 값 범위에 따라 매칭이 갈리는 Grok 패턴(IP 옥텟, 월 등)만 다른 후보는 다시 확인하지 않으므로
+     * 템플릿 지문 재사용은 근사이다.
+     */
+    private List<FormatRecommendation> matchWithStore(String logSample, List<LogFormat> formats,
+                                                      RecommendOptions options) {
+        ResultStore store = resultStore;
+        if (store == null) {
+            return matchCandidates(logSample, formats, options);
+        }
+        
+        long seed = optionsFingerprint(options);
+        long templateKey = ResultStore.templateFingerprint(logSample, seed);
+        List<ResultStore.Entry> stored = store.get(templateKey);
+        if (stored != null && !stored.isEmpty()) {
+            List<FormatRecommendation> restored = restoreRecommendations(logSample, stored, formats, options);
+            if (restored != null) {
+                return restored;
+            }
+        }
+        
+        long lineKey = ResultStore.lineFingerprint(logSample, seed);
+        stored = store.get(lineKey);
+        if (stored != null && stored.isEmpty()) {
+            return Collections.emptyList();
+        }
+        
+        List<FormatRecommendation> recommendations = matchCandidates(logSample, formats, options);
+        if (recommendations.isEmpty()) {
+            store.put(lineKey, Collections.emptyList());
+        } else {
+            List<ResultStore.Entry> entries = new ArrayList<>(recommendations.size());
+            for (FormatRecommendation rec : recommendations) {
+                entries.add(new ResultStore.Entry(rec.getLogFormat().getFormatId(), rec.getConfidence()));
+            }
+            store.put(templateKey, entries);
+        }
+        return recommendations;
+    }
+    
+    /**
+     * 저장된 포맷만 다시 매칭해 추천 결과 복원
+     * @param formats 현재 라인의 후보 포맷 (숫자 리터럴이 있는 포맷은 저장된 라인과 결과가 다를 수 있어 다시 확인)
+     * @return 저장된 순위의 추천 결과, 포맷이 없거나 신뢰도가 달라졌거나 다른 후보가 매칭되면 null
+     */
+    private List<FormatRecommendation> restoreRecommendations(String logSample, List<ResultStore.Entry> stored,
+                                                              List<LogFormat> formats, RecommendOptions options) {
+        Set<String> storedIds = new HashSet<>();
+        for (ResultStore.Entry entry : stored) {
+            storedIds.add(entry.getFormatId());
+        }
+        for (LogFormat format : formats) {
+            if (storedIds.contains(format.getFormatId()) || !hasLiteralDigits(format)) {
+                continue;
+            }
+            FormatRecommendation rec = matchAndCreateRecommendation(logSample, format);
+            if (rec != null && rec.getConfidence() >= options.getMinConfidence()
+                    && (options.isIncludePartialMatches() || rec.isCompleteMatch())) {
+                return null;
+            }
+        }
+        
+        List<FormatRecommendation> recommendations = new ArrayList<>(stored.size());
+        for (ResultStore.Entry entry : stored) {
+            LogFormat format = patternRepository.getFormatById(entry.getFormatId());
+            if (format == null) {
+                return null;
+            }
+            FormatRecommendation rec = matchAndCreateRecommendation(logSample, format);
+            if (rec == null || Double.compare(rec.getConfidence(), entry.getConfidence()) != 0) {
+                return null;
+            }
+            recommendations.add(rec);
+        }
+        return recommendations;
+    }
+    
+    /**
+     * 포맷의 매칭 패턴에 숫자 리터럴이 있는지 확인 (포맷별로 한 번만 계산)
+     */
+    private boolean hasLiteralDigits(LogFormat format) {
+        return literalDigitFormats.computeIfAbsent(format.getFormatId(), id -> {
+            if (PatternFilter.hasLiteralDigits(format.getGrokPattern())) {
+                return true;
+            }
+            if (format.getLogTypes() != null) {
+                for (LogFormat.LogType logType : format.getLogTypes()) {
+                    if (logType.getPatterns() == null) {
+                        continue;
+                    }
+                    for (LogFormat.Pattern pattern : logType.getPatterns()) {
+                        if (PatternFilter.hasLiteralDigits(pattern.getGrokExp())) {
+                            return true;
+                        }
+                    }
+                }
+            }
+            return false;
+        });
+    }
+    
+    /**
+     * 추천 결과에 영향을 주는 옵션의 해시 (저장소 지문에 섞음)
+     */
+    private static long optionsFingerprint(RecommendOptions options) {
+        return ResultStore.lineFingerprint(optionsKey(options), 0);
+    }
+    
+    /**
+     * 추천 결과에 영향을 주는 옵션 (필터, 신뢰도, 부분 매칭, 결과 개수)
+     */
+    private static String optionsKey(RecommendOptions options) {
+        return options.getGroupFilter() + "|" + options.getVendorFilter() + "|"
+            + options.getModelFilter() + "|" + options.getSmTypeFilter() + "|"
+            + options.getMinConfidence() + "|" + options.isIncludePartialMatches() + "|"
+            + options.getMaxResults();
     }
     
     /**
-     * 실제 매칭 수행
+     * 후보 포맷 매칭 및 상위 결과 선택
      */
-    private List<FormatRecommendation> performMatching(String logSample, List<LogFormat> formats) {
+    private List<FormatRecommendation> matchCandidates(String logSample, List<LogFormat> formats,
+                                                       RecommendOptions options) {
         List<FormatRecommendation> recommendations = new ArrayList<>();
         
-        if (options.isParallelProcessing()) {
+        if (options.isParallelProcessing() && !isWorkerThread()) {
             // 병렬 매칭
             List<CompletableFuture<FormatRecommendation>> futures = formats.stream()
                 .map(format -> CompletableFuture.supplyAsync(() -> 
@@ -230,32 +464,23 @@ public class LogFormatRecommenderImpl implements LogFormatRecommender {
             }
         }
         
-        // 결과 필터링 및 정렬
-        return recommendations.stream()
-            .filter(rec -> rec.getConfidence() >= options.getMinConfidence())
-            .filter(rec -> options.isIncludePartialMatches() || rec.isCompleteMatch())
-            .sorted((r1, r2) -> {
-                // 1. 구체적인 필드가 많은 것 우선
-                int specificCount1 = countSpecificFields(r1.getMatchedFields());
-                int specificCount2 = countSpecificFields(r2.getMatchedFields());
-                
-                if (specificCount1 != specificCount2) {
-                    return specificCount2 - specificCount1;
-                }
-                
-                // 2. 전체 필드 수가 많은 것 우선 (log_time, message 제외)
-                int fieldCount1 = getEffectiveFieldCount(r1.getMatchedFields());
-                int fieldCount2 = getEffectiveFieldCount(r2.getMatchedFields());
-                
-                if (fieldCount1 != fieldCount2) {
-                    return fieldCount2 - fieldCount1;
-                }
-                
-                // 3. 마지막으로 신뢰도로 정렬
-                return Double.compare(r2.getConfidence(), r1.getConfidence());
-            })
-            .limit(options.getMaxResults())
-            .collect(Collectors.toList());
+        // 결과 필터링 및 상위 N개 선택 (정렬 키는 추천당 한 번만 계산)
+        TopKSelector<FormatRecommendation> selector = new TopKSelector<>(recommendations.size());
+        for (FormatRecommendation rec : recommendations) {
+            if (rec.getConfidence() < options.getMinConfidence()
+                    || (!options.isIncludePartialMatches() && !rec.isCompleteMatch())) {
+                continue;
+            }
+            
+            // 1. 구체적인 필드 수, 2. 전체 필드 수 (log_time, message 제외), 3. 신뢰도
+            Map<String, Object> fields = rec.getMatchedFields();
+            selector.add(rec,
+                RankingKeys.specificFieldCount(fields),
+                RankingKeys.effectiveFieldCount(fields),
+                rec.getConfidence());
+        }
+        
+        return selector.select(options.getMaxResults());
     }
     
     /**
@@ -301,8 +526,8 @@ public class LogFormatRecommenderImpl implements LogFormatRecommender {
     /**
      * 캐시에서 결과 가져오기
      */
-    private List<FormatRecommendation> getCachedResult(String logSample) {
-        String cacheKey = generateCacheKey(logSample);
+    private List<FormatRecommendation> getCachedResult(String logSample, RecommendOptions options) {
+        String cacheKey = generateCacheKey(logSample, options);
         Long timestamp = cacheTimestamps.get(cacheKey);
         
         if (timestamp != null) {
@@ -322,13 +547,13 @@ public class LogFormatRecommenderImpl implements LogFormatRecommender {
     /**
      * 결과 캐싱
      */
-    private void cacheResult(String logSample, List<FormatRecommendation> result) {
+    private void cacheResult(String logSample, List<FormatRecommendation> result, RecommendOptions options) {
         // 캐시 크기 확인
         if (cache.size() >= options.getCacheSize()) {
-            clearOldCache();
+            clearOldCache(options);
         }
         
-        String cacheKey = generateCacheKey(logSample);
+        String cacheKey = generateCacheKey(logSample, options);
         cache.put(cacheKey, new ArrayList<>(result));
         cacheTimestamps.put(cacheKey, System.currentTimeMillis());
     }
@@ -336,7 +561,7 @@ public class LogFormatRecommenderImpl implements LogFormatRecommender {
     /**
      * 오래된 캐시 제거
      */
-    private void clearOldCache() {
+    private void clearOldCache(RecommendOptions options) {
         long currentTime = System.currentTimeMillis();
         
         // 만료된 항목 제거
@@ -366,49 +591,11 @@ public class LogFormatRecommenderImpl implements LogFormatRecommender {
     
     /**
      * 캐시 키 생성
+     * 서버 모드에서는 클라이언트가 라인과 옵션을 정하므로 해시 대신 라인 전체와
+     * 결과에 영향을 주는 옵션 전체를 키로 사용한다.
      */
-    private String generateCacheKey(String logSample) {
-        // 간단한 해시 사용
-        return String.valueOf(logSample.hashCode());
-    }
-    
-    /**
-     * 구체적인 필드 수 계산
-     */
-    private int countSpecificFields(Map<String, Object> fields) {
-        if (fields == null || fields.isEmpty()) {
-            return 0;
-        }
-        
-        // 구체적인 필드 목록
-        Set<String> specificFields = new HashSet<>(Arrays.asList(
-            "src_ip", "dst_ip", "src_port", "dst_port",
-            "protocol", "action", "rule_id", "attack_id",
-            "user_id", "session_id", "event_id",
-            "src", "dst", "source", "destination"
-        ));
-        
-        return (int) fields.keySet().stream()
-            .filter(key -> specificFields.contains(key.toLowerCase()))
-            .count();
-    }
-    
-    /**
-     * log_time과 message 필드를 제외한 유효한 필드 수 계산
-     */
-    private int getEffectiveFieldCount(Map<String, Object> fields) {
-        if (fields == null || fields.isEmpty()) {
-            return 0;
-        }
-        
-        // 제외할 필드 목록
-        Set<String> excludedFields = new HashSet<>(Arrays.asList(
-            "log_time", "message", "msg", "raw_message"
-        ));
-        
-        return (int) fields.keySet().stream()
-            .filter(key -> !excludedFields.contains(key.toLowerCase()))
-            .count();
+    static String generateCacheKey(String logSample, RecommendOptions options) {
+        return optionsKey(options) + "|" + logSample;
     }
     
     /**
@@ -428,38 +615,89 @@ public class LogFormatRecommenderImpl implements LogFormatRecommender {
         if (logMatcher instanceof AdvancedLogMatcher) {
             ((AdvancedLogMatcher) logMatcher).shutdown();
         }
+        
+        ResultStore store = resultStore;
+        if (store != null) {
+            resultStore = null;
+            try {
+                store.close();
+            } catch (IOException e) {
+                logger.warn("추천 결과 저장소 닫기 실패", e);
+            }
+        }
     }
     
     @Override
     public List<FormatRecommendation> recommend(String logSample, RecommendOptions options) {
-        if (options != null) {
-            this.options = options;
+        return recommendWith(logSample, options != null ? options : this.options);
+    }
+    
+    @Override
+    public List<FormatRecommendation> recommend(ByteBuffer line, Charset charset, RecommendOptions requested) {
+        RecommendOptions options = requested != null ? requested : this.options;
+        
+        LiteralPrefilter prefilter = literalPrefilter;
+        if (prefilter == null || !LiteralPrefilter.isAsciiCompatible(charset)) {
+            return recommendWith(charset.decode(line.duplicate()).toString(), options);
+        }
+        
+        // 바이트 단계에서 후보가 모두 탈락하면 디코딩하지 않음
+        List<LogFormat> survivors = prefilter.survivors(line, resolveCandidates(options.getGroupFilter(), options));
+        if (survivors.isEmpty()) {
+            return Collections.emptyList();
+        }
+        
+        String logSample = charset.decode(line.duplicate()).toString();
+        if (logSample.trim().isEmpty()) {
+            return Collections.emptyList();
+        }
+        
+        if (options.isEnableCaching()) {
+            List<FormatRecommendation> cached = getCachedResult(logSample, options);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        
+        List<FormatRecommendation> recommendations = matchWithStore(logSample, survivors, options);
+        if (options.isEnableCaching() && !recommendations.isEmpty()) {
+            cacheResult(logSample, recommendations, options);
         }
-        return recommend(logSample);
+        return recommendations;
     }
     
     @Override
-    public List<List<FormatRecommendation>> recommendBatch(List<String> logSamples, RecommendOptions options) {
-        if (options != null) {
-            this.options = options;
+    public FormatRecommendation matchFormat(String logSample, LogFormat format, RecommendOptions requested) {
+        RecommendOptions options = requested != null ? requested : this.options;
+        if (logSample == null || logSample.trim().isEmpty() || format == null) {
+            return null;
         }
         
+        FormatRecommendation recommendation = matchAndCreateRecommendation(logSample, format);
+        if (recommendation == null || recommendation.getConfidence() < options.getMinConfidence()
+                || (!options.isIncludePartialMatches() && !recommendation.isCompleteMatch())) {
+            return null;
+        }
+        return recommendation;
+    }
+    
+    @Override
+    public List<List<FormatRecommendation>> recommendBatch(List<String> logSamples, RecommendOptions requested) {
+        RecommendOptions options = requested != null ? requested : this.options;
         List<List<FormatRecommendation>> results = new ArrayList<>();
         
         if (logSamples == null || logSamples.isEmpty()) {
             return results;
         }
         
-        // 병렬 처리 활성화 여부 확인
-        if (options != null && options.isParallelProcessing() && logSamples.size() > 10) {
-            // 병렬 처리
-            results = logSamples.parallelStream()
-                .map(sample -> recommend(sample, options))
-                .collect(Collectors.toList());
+        // 병렬 처리 활성화 여부 확인 (이미 풀 스레드이면 호출 스레드에서 순차 처리)
+        if (options.isParallelProcessing() && logSamples.size() > 10 && !isWorkerThread()) {
+            // 병렬 처리 (샘플 순서 유지)
+            results = runOnPool(logSamples, sample -> recommendWith(sample, options));
         } else {
             // 순차 처리
             for (String sample : logSamples) {
-                results.add(recommend(sample, options));
+                results.add(recommendWith(sample, options));
             }
         }
         
@@ -476,6 +714,74 @@ public class LogFormatRecommenderImpl implements LogFormatRecommender {
         return patternRepository.getVendorStatistics();
     }
     
+    @Override
+    public Executor getExecutor() {
+        return executorService;
+    }
+    
+    @Override
+    public int getParallelism() {
+        return executorService.getMaximumPoolSize();
+    }
+    
+    @Override
+    public MultilineAssembler.EventStartRule eventStartRule(RecommendOptions requested) {
+        RecommendOptions options = requested != null ? requested : this.options;
+        if (options.getGroupFilter() == null && options.getVendorFilter() == null
+                && options.getModelFilter() == null && options.getSmTypeFilter() == null) {
+            // 전체 카탈로그에는 시작 규칙을 만들 수 없는 포맷이 섞여 있음
+            return MultilineAssembler.DEFAULT_RULE;
+        }
+        return FormatStartRule.forFormats(resolveCandidates(options.getGroupFilter(), options), grokCompiler);
+    }
+    
+    @Override
+    public int warmUp() {
+        // 매칭기와 같은 표현식으로 컴파일해야 컴파일 캐시를 함께 사용함 (매칭기가 건너뛰는 패턴은 제외)
+        int compiled = 0;
+        for (LogFormat format : getAvailableFormats()) {
+            if (format.getLogTypes() == null) {
+                continue;
+            }
+            for (LogFormat.LogType logType : format.getLogTypes()) {
+                if (logType.getPatterns() == null) {
+                    continue;
+                }
+                for (LogFormat.Pattern pattern : logType.getPatterns()) {
+                    String expression = pattern.getGrokExp();
+                    if (expression != null && !PatternFilter.isOverlyGeneric(expression)
+                            && grokCompiler.compileSafe(expression) != null) {
+                        compiled++;
+                    }
+                }
+            }
+        }
+        logger.info("패턴 예열 완료: {}개 컴파일", compiled);
+        return compiled;
+    }
+    
+    /**
+     * 현재 스레드가 추천 풀의 작업 스레드인지 확인
+     */
+    private boolean isWorkerThread() {
+        return WorkerThreads.isWorkerOf(executorService);
+    }
+    
+    /**
+     * 항목별 작업을 추천 풀에서 실행하고 입력 순서대로 결과 반환
+     */
+    private <T, R> List<R> runOnPool(List<T> items, Function<T, R> task) {
+        List<CompletableFuture<R>> futures = items.stream()
+            .map(item -> CompletableFuture.supplyAsync(() -> task.apply(item), executorService))
+            .collect(Collectors.toList());
+        
+        List<R> results = new ArrayList<>(futures.size());
+        for (CompletableFuture<R> future : futures) {
+            results.add(future.join());
+        }
+        return results;
+    }
+    
     /**
      * 패턴 저장소 반환 (캐시 관리용)
      */
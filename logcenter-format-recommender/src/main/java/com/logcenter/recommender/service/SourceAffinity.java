@@ -0,0 +1,386 @@
+package com.logcenter.recommender.service;
+
+import com.logcenter.recommender.follow.RollingFormatWindow;
+import com.logcenter.recommender.model.FormatRecommendation;
+import com.logcenter.recommender.model.LogFormat;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 소스별 포맷 고정 (파일, 호스트, syslog 송신지)
+ * 소스의 최근 라인 대부분이 같은 포맷으로 분류되면 그 포맷으로 고정하고, 이후 라인은 고정된 포맷의 패턴만 검증한다.
+ * 패턴은 마지막으로 일치한 패턴부터 검사하므로 안정 상태에서는 라인당 정규식 하나만 실행된다.
+ *
+ * 검증에 실패한 라인은 전체 포맷으로 다시 추천하고, 최근 검증 윈도우의 불일치 비율이 임계값을 넘으면
+ * 고정을 풀고 처음부터 다시 감지한다 (펌웨어 업그레이드 등으로 포맷이 바뀐 경우).
+ *
+ * 스레드 안전 (소스 단위로 동기화, 매칭은 동기화 밖에서 수행)
+ */
+public class SourceAffinity {
+
+    private static final Logger logger = LoggerFactory.getLogger(SourceAffinity.class);
+
+    /** 고정 판단에 사용할 최근 라인 수 */
+    public static final int DEFAULT_LOCK_WINDOW = 20;
+
+    /** 고정에 필요한 주요 포맷 비율 */
+    public static final double DEFAULT_LOCK_RATIO = 0.9;
+
+    /** 불일치 비율을 계산할 최근 검증 수 */
+    public static final int DEFAULT_DRIFT_WINDOW = 100;
+
+    /** 다시 감지를 시작할 불일치 비율 */
+    public static final double DEFAULT_DRIFT_THRESHOLD = 0.2;
+
+    /** 최대 소스 수 (초과 시 가장 오래 전에 사용한 소스 제거) */
+    public static final int DEFAULT_MAX_SOURCES = 10000;
+
+    // 불일치 비율을 판단하기 위한 최소 검증 수
+    private static final int MIN_DRIFT_SAMPLES = 10;
+
+    private static final String UNKNOWN_FORMAT = "UNKNOWN";
+
+    private final LogFormatRecommender recommender;
+    private final LogFormatRecommender.RecommendOptions options;
+    private final int lockWindow;
+    private final double lockRatio;
+    private final int driftWindow;
+    private final double driftThreshold;
+    private final int maxSources;
+    private final Map<String, SourceState> sources = new ConcurrentHashMap<>();
+
+    private final AtomicLong verifiedLines = new AtomicLong();
+    private final AtomicLong detectedLines = new AtomicLong();
+    private final AtomicLong locks = new AtomicLong();
+    private final AtomicLong redetections = new AtomicLong();
+
+    public SourceAffinity(LogFormatRecommender recommender, LogFormatRecommender.RecommendOptions options) {
+        this(recommender, options, DEFAULT_LOCK_WINDOW, DEFAULT_LOCK_RATIO,
+            DEFAULT_DRIFT_WINDOW, DEFAULT_DRIFT_THRESHOLD, DEFAULT_MAX_SOURCES);
+    }
+
+    /**
+     * @param recommender 추천 서비스
+     * @param options 추천 옵션
+     * @param lockWindow 고정 판단에 사용할 최근 라인 수
+     * @param lockRatio 고정에 필요한 주요 포맷 비율 (0.0 ~ 1.0)
+     * @param driftWindow 불일치 비율을 계산할 최근 검증 수
+     * @param driftThreshold 다시 감지를 시작할 불일치 비율 (0.0 ~ 1.0)
+     * @param maxSources 최대 소스 수
+     */
+    public SourceAffinity(LogFormatRecommender recommender, LogFormatRecommender.RecommendOptions options,
+                          int lockWindow, double lockRatio, int driftWindow, double driftThreshold,
+                          int maxSources) {
+        this.recommender = recommender;
+        this.options = options;
+        this.lockWindow = Math.max(1, lockWindow);
+        this.lockRatio = lockRatio;
+        this.driftWindow = Math.max(1, driftWindow);
+        this.driftThreshold = driftThreshold;
+        this.maxSources = Math.max(1, maxSources);
+    }
+
+    /**
+     * 소스의 라인 추천
+     * @param source 소스 식별자 (파일 경로, 송신지 IP 등)
+     * @param line 로그 라인
+     * @return 추천 결과 (고정된 포맷으로 검증된 라인은 해당 포맷 하나)
+     */
+    public List<FormatRecommendation> recommend(String source, String line) {
+        SourceState state = state(source);
+        FormatRecommendation verified = verify(state, line);
+        if (verified != null) {
+            return Collections.singletonList(verified);
+        }
+        return detect(state, recommender.recommend(line, options));
+    }
+
+    /**
+     * 소스의 디코딩 전 라인 추천
+     * 고정되지 않은 소스는 바이트 단계 사전 필터를 거치고, 고정된 소스는 라인을 디코딩해 검증한다.
+     */
+    public List<FormatRecommendation> recommend(String source, ByteBuffer line, Charset charset) {
+        SourceState state = state(source);
+        if (state.locked != null) {
+            String decoded = charset.decode(line.duplicate()).toString();
+            FormatRecommendation verified = verify(state, decoded);
+            if (verified != null) {
+                return Collections.singletonList(verified);
+            }
+            return detect(state, recommender.recommend(decoded, options));
+        }
+        return detect(state, recommender.recommend(line, charset, options));
+    }
+
+    /**
+     * 소스가 고정된 포맷 ID (없으면 null)
+     */
+    public String getLockedFormat(String source) {
+        SourceState state = sources.get(source);
+        LockedFormat locked = state != null ? state.locked : null;
+        return locked != null ? locked.format.getFormatId() : null;
+    }
+
+    /**
+     * 소스의 최근 검증 불일치 비율 (고정되지 않았으면 0)
+     */
+    public double getMismatchRate(String source) {
+        SourceState state = sources.get(source);
+        return state != null ? state.mismatchRate() : 0.0;
+    }
+
+    /**
+     * 소스 상태 초기화
+     */
+    public void reset(String source) {
+        sources.remove(source);
+    }
+
+    /**
+     * 고정된 포맷으로 검증된 라인 수
+     */
+    public long getVerifiedLines() {
+        return verifiedLines.get();
+    }
+
+    /**
+     * 전체 포맷으로 추천한 라인 수
+     */
+    public long getDetectedLines() {
+        return detectedLines.get();
+    }
+
+    /**
+     * 포맷을 고정한 횟수
+     */
+    public long getLocks() {
+        return locks.get();
+    }
+
+    /**
+     * 불일치로 고정을 풀고 다시 감지한 횟수
+     */
+    public long getRedetections() {
+        return redetections.get();
+    }
+
+    private SourceState state(String source) {
+        SourceState state = sources.get(source);
+        if (state == null) {
+            if (sources.size() >= maxSources) {
+                evictOldest();
+            }
+            state = sources.computeIfAbsent(source, SourceState::new);
+        }
+        state.lastUsed = System.currentTimeMillis();
+        return state;
+    }
+
+    private FormatRecommendation verify(SourceState state, String line) {
+        LockedFormat locked = state.locked;
+        if (locked == null) {
+            return null;
+        }
+        FormatRecommendation verified = locked.verify(line);
+        if (verified != null) {
+            verifiedLines.incrementAndGet();
+        }
+        if (state.recordVerification(locked, verified != null)) {
+            redetections.incrementAndGet();
+            logger.info("포맷 불일치 증가로 다시 감지: {} (고정 포맷 {})", state.source, locked.format.getFormatId());
+        }
+        return verified;
+    }
+
+    private List<FormatRecommendation> detect(SourceState state, List<FormatRecommendation> recommendations) {
+        detectedLines.incrementAndGet();
+        FormatRecommendation top = recommendations == null || recommendations.isEmpty() ? null : recommendations.get(0);
+        LockedFormat locked = state.recordDetection(top);
+        if (locked != null) {
+            locks.incrementAndGet();
+            logger.info("소스 포맷 고정: {} -> {}", state.source, locked.format.getFormatId());
+        }
+        return recommendations;
+    }
+
+    private void evictOldest() {
+        SourceState oldest = null;
+        for (SourceState state : sources.values()) {
+            if (oldest == null || state.lastUsed < oldest.lastUsed) {
+                oldest = state;
+            }
+        }
+        if (oldest != null) {
+            sources.remove(oldest.source, oldest);
+        }
+    }
+
+    /**
+     * 소스별 상태
+     */
+    private final class SourceState {
+        private final String source;
+        private volatile LockedFormat locked;
+        private volatile long lastUsed;
+
+        // 고정 전: 최근 분류 결과
+        private RollingFormatWindow detections = new RollingFormatWindow(lockWindow);
+
+        // 고정 후: 최근 검증 결과 (true = 불일치)
+        private final boolean[] misses = new boolean[driftWindow];
+        private int next;
+        private int size;
+        private int missCount;
+
+        SourceState(String source) {
+            this.source = source;
+        }
+
+        /**
+         * 전체 추천 결과 기록
+         * @return 이 기록으로 포맷이 고정되었으면 고정 포맷, 아니면 null
+         */
+        synchronized LockedFormat recordDetection(FormatRecommendation top) {
+            if (locked != null) {
+                return null;
+            }
+            String formatId = top != null && top.getLogFormat() != null ? top.getLogFormat().getFormatId() : null;
+            detections.add(formatId != null ? formatId : UNKNOWN_FORMAT);
+
+            // 부분 매칭은 패턴별 검증으로 다시 확인할 수 없으므로 완전 매칭일 때만 고정
+            if (formatId != null && top.isCompleteMatch() && detections.size() == detections.capacity()
+                    && formatId.equals(detections.getDominant()) && detections.getDominantRatio() >= lockRatio) {
+                locked = new LockedFormat(top.getLogFormat());
+                clearVerifications();
+                return locked;
+            }
+            return null;
+        }
+
+        /**
+         * 검증 결과 기록
+         * @return 불일치 비율이 임계값을 넘어 고정을 풀었으면 true
+         */
+        synchronized boolean recordVerification(LockedFormat verifiedWith, boolean matched) {
+            if (locked != verifiedWith) {
+                return false;
+            }
+            if (size == misses.length) {
+                if (misses[next]) {
+                    missCount--;
+                }
+            } else {
+                size++;
+            }
+            misses[next] = !matched;
+            if (!matched) {
+                missCount++;
+            }
+            next = (next + 1) % misses.length;
+
+            if (size >= Math.min(MIN_DRIFT_SAMPLES, misses.length) && (double) missCount / size > driftThreshold) {
+                locked = null;
+                detections = new RollingFormatWindow(lockWindow);
+                clearVerifications();
+                return true;
+            }
+            return false;
+        }
+
+        synchronized double mismatchRate() {
+            return locked == null || size == 0 ? 0.0 : (double) missCount / size;
+        }
+
+        private void clearVerifications() {
+            Arrays.fill(misses, false);
+            next = 0;
+            size = 0;
+            missCount = 0;
+        }
+    }
+
+    /**
+     * 고정된 포맷과 패턴별 검증 사본
+     * 패턴마다 해당 패턴 하나만 가진 포맷 사본을 만들어 두고, 마지막으로 일치한 패턴부터 검사한다.
+     */
+    private final class LockedFormat {
+        private final LogFormat format;
+        private final List<LogFormat> views;
+        private volatile int preferred;
+
+        LockedFormat(LogFormat format) {
+            this.format = format;
+            this.views = patternViews(format);
+        }
+
+        FormatRecommendation verify(String line) {
+            int first = preferred;
+            for (int i = 0; i < views.size(); i++) {
+                int index = (first + i) % views.size();
+                FormatRecommendation recommendation = recommender.matchFormat(line, views.get(index), options);
+                if (recommendation != null) {
+                    if (index != first) {
+                        preferred = index;
+                    }
+                    recommendation.setLogFormat(format);
+                    return recommendation;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * 패턴 하나씩만 가진 포맷 사본 목록 (패턴 목록이 없으면 포맷 자체)
+     */
+    static List<LogFormat> patternViews(LogFormat format) {
+        List<LogFormat> views = new ArrayList<>();
+        if (format.getLogTypes() != null) {
+            for (LogFormat.LogType logType : format.getLogTypes()) {
+                if (logType.getPatterns() == null) {
+                    continue;
+                }
+                for (LogFormat.Pattern pattern : logType.getPatterns()) {
+                    if (pattern.getGrokExp() != null) {
+                        views.add(singlePatternView(format, logType, pattern));
+                    }
+                }
+            }
+        }
+        if (views.isEmpty()) {
+            views.add(format);
+        }
+        return views;
+    }
+
+    private static LogFormat singlePatternView(LogFormat format, LogFormat.LogType logType, LogFormat.Pattern pattern) {
+        LogFormat.LogType viewType = new LogFormat.LogType();
+        viewType.setTypeName(logType.getTypeName());
+        viewType.setTypeDescription(logType.getTypeDescription());
+        viewType.setPatterns(Collections.singletonList(pattern));
+
+        LogFormat view = new LogFormat();
+        view.setFormatId(format.getFormatId());
+        view.setFormatName(format.getFormatName());
+        view.setFormatVersion(format.getFormatVersion());
+        view.setGroupName(format.getGroupName());
+        view.setGroupId(format.getGroupId());
+        view.setVendor(format.getVendor());
+        view.setModel(format.getModel());
+        view.setSmType(format.getSmType());
+        view.setRequiredFields(format.getRequiredFields());
+        view.setLogTypes(Collections.singletonList(viewType));
+        // 대표 패턴은 비워 두어 불일치 시 추가 정규식을 실행하지 않음
+        return view;
+    }
+}
@@ -0,0 +1,198 @@
+package com.logcenter.recommender.syslog;
+
+import com.logcenter.recommender.follow.RollingFormatWindow;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 송신지별 포맷 감지 상태
+ * 송신지마다 최근 N개 메시지의 포맷 분포와 포맷별 평균 신뢰도를 유지한다.
+ * 송신지 수가 최대값을 넘으면 가장 오래 전에 수신한 송신지를 제거한다.
+ *
+ * 스레드 안전 (송신지 단위로 동기화)
+ */
+public class SourceFormatTracker {
+
+    /** 분류 결과가 없는 메시지의 포맷 ID */
+    public static final String UNKNOWN_FORMAT = "UNKNOWN";
+
+    private final int windowSize;
+    private final int maxSources;
+    private final Map<String, SourceState> sources = new ConcurrentHashMap<>();
+
+    /**
+     * @param windowSize 송신지별 최근 메시지 수
+     * @param maxSources 최대 송신지 수
+     */
+    public SourceFormatTracker(int windowSize, int maxSources) {
+        this.windowSize = Math.max(1, windowSize);
+        this.maxSources = Math.max(1, maxSources);
+    }
+
+    /**
+     * 분류 결과 기록
+     * @param source 송신지
+     * @param formatId 최상위 포맷 ID (없으면 null)
+     * @param confidence 최상위 포맷 신뢰도
+     * @return 송신지의 주요 포맷이 바뀌었으면 true
+     */
+    public boolean record(String source, String formatId, double confidence) {
+        SourceState state = sources.get(source);
+        if (state == null) {
+            if (sources.size() >= maxSources) {
+                evictOldest();
+            }
+            state = sources.computeIfAbsent(source, key -> new SourceState(key, windowSize));
+        }
+        return state.add(formatId, confidence);
+    }
+
+    /**
+     * 송신지 상태 조회
+     * @return 없으면 null
+     */
+    public SourceSnapshot getSnapshot(String source) {
+        SourceState state = sources.get(source);
+        return state != null ? state.snapshot() : null;
+    }
+
+    /**
+     * 모든 송신지 상태 (메시지 수 많은 순)
+     */
+    public List<SourceSnapshot> getSnapshots() {
+        List<SourceSnapshot> snapshots = new ArrayList<>();
+        for (SourceState state : sources.values()) {
+            snapshots.add(state.snapshot());
+        }
+        snapshots.sort((s1, s2) -> {
+            int compare = Long.compare(s2.getTotalMessages(), s1.getTotalMessages());
+            return compare != 0 ? compare : s1.getSource().compareTo(s2.getSource());
+        });
+        return snapshots;
+    }
+
+    public int getSourceCount() {
+        return sources.size();
+    }
+
+    private void evictOldest() {
+        SourceState oldest = null;
+        for (SourceState state : sources.values()) {
+            if (oldest == null || state.lastSeen < oldest.lastSeen) {
+                oldest = state;
+            }
+        }
+        if (oldest != null) {
+            sources.remove(oldest.source, oldest);
+        }
+    }
+
+    private static final class SourceState {
+        private final String source;
+        private final RollingFormatWindow window;
+        private final Map<String, double[]> confidence = new HashMap<>();
+        private long totalMessages;
+        private long matchedMessages;
+        private volatile long lastSeen;
+
+        SourceState(String source, int windowSize) {
+            this.source = source;
+            this.window = new RollingFormatWindow(windowSize);
+        }
+
+        synchronized boolean add(String formatId, double score) {
+            totalMessages++;
+            lastSeen = System.currentTimeMillis();
+            if (formatId != null) {
+                matchedMessages++;
+                double[] sum = confidence.computeIfAbsent(formatId, key -> new double[2]);
+                sum[0] += score;
+                sum[1]++;
+            }
+            return window.add(formatId != null ? formatId : UNKNOWN_FORMAT);
+        }
+
+        synchronized SourceSnapshot snapshot() {
+            String top = window.getDominant();
+            double[] sum = top != null ? confidence.get(top) : null;
+            return new SourceSnapshot(source, totalMessages, matchedMessages, top,
+                window.getDominantRatio(), sum != null ? sum[0] / sum[1] : 0.0,
+                lastSeen, Collections.unmodifiableMap(window.getDistribution()));
+        }
+    }
+
+    /**
+     * 송신지 상태 스냅샷
+     */
+    public static final class SourceSnapshot {
+        private final String source;
+        private final long totalMessages;
+        private final long matchedMessages;
+        private final String topFormat;
+        private final double topRatio;
+        private final double topConfidence;
+        private final long lastSeen;
+        private final Map<String, Integer> distribution;
+
+        SourceSnapshot(String source, long totalMessages, long matchedMessages, String topFormat,
+                       double topRatio, double topConfidence, long lastSeen, Map<String, Integer> distribution) {
+            this.source = source;
+            this.totalMessages = totalMessages;
+            this.matchedMessages = matchedMessages;
+            this.topFormat = topFormat;
+            this.topRatio = topRatio;
+            this.topConfidence = topConfidence;
+            this.lastSeen = lastSeen;
+            this.distribution = distribution;
+        }
+
+        public String getSource() {
+            return source;
+        }
+
+        public long getTotalMessages() {
+            return totalMessages;
+        }
+
+        public long getMatchedMessages() {
+            return matchedMessages;
+        }
+
+        /**
+         * 최근 윈도우의 주요 포맷 (없으면 null)
+         */
+        public String getTopFormat() {
+            return topFormat;
+        }
+
+        /**
+         * 최근 윈도우에서 주요 포맷 비율 (0.0 ~ 1.0)
+         */
+        public double getTopRatio() {
+            return topRatio;
+        }
+
+        /**
+         * 주요 포맷의 평균 신뢰도
+         */
+        public double getTopConfidence() {
+            return topConfidence;
+        }
+
+        public long getLastSeen() {
+            return lastSeen;
+        }
+
+        /**
+         * 최근 윈도우의 포맷별 메시지 수 (많은 순)
+         */
+        public Map<String, Integer> getDistribution() {
+            return distribution;
+        }
+    }
+}
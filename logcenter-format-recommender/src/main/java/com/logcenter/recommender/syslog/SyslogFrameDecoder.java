@@ -0,0 +1,156 @@
+package com.logcenter.recommender.syslog;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+/**
+ * TCP syslog 프레임 분리기 (RFC 6587)
+ * 프레임마다 첫 바이트가 숫자이면 옥텟 카운팅("길이 SP 메시지"), 아니면 LF 구분으로 처리한다.
+ * 연결 하나에 하나씩 사용하며, 미완성 프레임만 내부 버퍼에 보관한다.
+ * 최대 프레임 크기를 넘는 부분은 버리고 앞부분만 전달한다.
+ *
+ * 스레드 안전하지 않음
+ */
+public class SyslogFrameDecoder {
+
+    // 옥텟 카운트 최대 자릿수
+    private static final int MAX_LENGTH_DIGITS = 9;
+
+    private final int maxFrameBytes;
+    private final byte[] frame;
+    private int frameLength;
+
+    // 옥텟 카운팅 상태: -1이면 길이 읽기 전, 그 외에는 남은 바이트 수
+    private long remaining = -1;
+    private boolean octetCounting;
+    private int lengthDigits;
+    private long declaredLength;
+    private boolean discarding;
+
+    private long truncatedFrames;
+
+    /**
+     * @param maxFrameBytes 프레임 최대 바이트 수
+     */
+    public SyslogFrameDecoder(int maxFrameBytes) {
+        this.maxFrameBytes = Math.max(16, maxFrameBytes);
+        this.frame = new byte[this.maxFrameBytes];
+    }
+
+    /**
+     * 수신 바이트 처리
+     * @param in 수신 버퍼 (모두 소비됨)
+     * @param out 완성된 프레임 수신
+     */
+    public void decode(ByteBuffer in, Consumer<String> out) {
+        while (in.hasRemaining()) {
+            if (octetCounting) {
+                readOctetCounted(in, out);
+                continue;
+            }
+
+            byte b = in.get();
+            if (frameLength == 0 && !discarding && lengthDigits == 0 && b >= '1' && b <= '9') {
+                // 옥텟 카운팅 후보: 숫자 뒤 공백이 오면 확정
+                lengthDigits = 1;
+                declaredLength = b - '0';
+                append(b);
+                continue;
+            }
+            if (lengthDigits > 0) {
+                if (b >= '0' && b <= '9' && lengthDigits < MAX_LENGTH_DIGITS) {
+                    lengthDigits++;
+                    declaredLength = declaredLength * 10 + (b - '0');
+                    append(b);
+                    continue;
+                }
+                if (b == ' ') {
+                    frameLength = 0;
+                    lengthDigits = 0;
+                    octetCounting = true;
+                    remaining = declaredLength;
+                    if (remaining == 0) {
+                        finishOctetFrame(out);
+                    }
+                    continue;
+                }
+                // 숫자로 시작하는 일반 LF 구분 메시지
+                lengthDigits = 0;
+            }
+
+            if (b == '\n') {
+                emit(out);
+            } else {
+                append(b);
+            }
+        }
+    }
+
+    /**
+     * 연결 종료 시 남은 LF 구분 프레임 전달
+     */
+    public void flush(Consumer<String> out) {
+        if (!octetCounting && (frameLength > 0 || discarding)) {
+            emit(out);
+        }
+        lengthDigits = 0;
+        octetCounting = false;
+        frameLength = 0;
+        discarding = false;
+    }
+
+    /**
+     * 최대 크기를 넘어 잘린 프레임 수
+     */
+    public long getTruncatedFrames() {
+        return truncatedFrames;
+    }
+
+    private void readOctetCounted(ByteBuffer in, Consumer<String> out) {
+        int count = (int) Math.min(remaining, in.remaining());
+        int room = maxFrameBytes - frameLength;
+        int copy = Math.min(count, room);
+        in.get(frame, frameLength, copy);
+        frameLength += copy;
+        if (count > copy) {
+            discarding = true;
+            in.position(in.position() + (count - copy));
+        }
+        remaining -= count;
+        if (remaining == 0) {
+            finishOctetFrame(out);
+        }
+    }
+
+    private void finishOctetFrame(Consumer<String> out) {
+        octetCounting = false;
+        remaining = -1;
+        emit(out);
+    }
+
+    private void append(byte b) {
+        if (frameLength < maxFrameBytes) {
+            frame[frameLength++] = b;
+        } else {
+            discarding = true;
+        }
+    }
+
+    private void emit(Consumer<String> out) {
+        int length = frameLength;
+        if (length > 0 && frame[length - 1] == '\r') {
+            length--;
+        }
+        if (discarding) {
+            truncatedFrames++;
+        }
+        String message = new String(frame, 0, length, StandardCharsets.UTF_8);
+        frameLength = 0;
+        discarding = false;
+        lengthDigits = 0;
+        if (!message.isEmpty()) {
+            out.accept(message);
+        }
+    }
+}
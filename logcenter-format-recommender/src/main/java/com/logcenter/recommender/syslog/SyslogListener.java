@@ -0,0 +1,352 @@
+package com.logcenter.recommender.syslog;
+
+import com.logcenter.recommender.model.FormatRecommendation;
+import com.logcenter.recommender.util.WorkerThreads;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * syslog 수신기 (UDP, TCP)
+ * 하나의 NIO 셀렉터 스레드가 UDP 데이터그램과 TCP 연결을 모두 읽어 메시지로 분리하고,
+ * 크기가 제한된 큐를 거쳐 작업 스레드가 분류한 뒤 송신지별 포맷 상태({@link SourceFormatTracker})에 기록한다.
+ *
+ * 큐가 가득 차면 새 메시지는 버리고 개수만 센다 (수신 스레드는 대기하지 않음).
+ * UDP는 데이터그램 하나를 메시지 하나로, TCP는 옥텟 카운팅과 LF 구분을 모두 지원한다 ({@link SyslogFrameDecoder}).
+ */
+public class SyslogListener implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(SyslogListener.class);
+
+    /** 메시지(프레임) 최대 바이트 수 */
+    public static final int MAX_MESSAGE_BYTES = 64 * 1024;
+
+    // 작업 스레드 큐 대기 시간
+    private static final long POLL_TIMEOUT_MS = 200;
+
+    // UDP 수신 버퍼 크기 (순간 유입량 흡수)
+    private static final int UDP_RECEIVE_BUFFER = 4 * 1024 * 1024;
+
+    /**
+     * 메시지 분류기
+     */
+    public interface MessageClassifier {
+        /**
+         * @return 최상위 추천 (없으면 null)
+         */
+        FormatRecommendation classify(SyslogMessage message) throws Exception;
+    }
+
+    private final MessageClassifier classifier;
+    private final SourceFormatTracker tracker;
+    private final BlockingQueue<SyslogMessage> queue;
+    private final int workers;
+    private final Selector selector;
+    private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(MAX_MESSAGE_BYTES);
+    private final List<Closeable> channels = new ArrayList<>();
+
+    private final AtomicLong received = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    private volatile boolean running;
+    private Thread ioThread;
+    private ThreadPoolExecutor workerPool;
+
+    /**
+     * @param classifier 메시지 분류기 (작업 스레드에서 동시에 호출됨)
+     * @param tracker 송신지별 포맷 상태
+     * @param queueCapacity 분류 대기 큐 크기
+     * @param workers 분류 작업 스레드 수
+     */
+    public SyslogListener(MessageClassifier classifier, SourceFormatTracker tracker,
+                          int queueCapacity, int workers) throws IOException {
+        this.classifier = classifier;
+        this.tracker = tracker;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+        this.workers = Math.max(1, workers);
+        this.selector = Selector.open();
+    }
+
+    /**
+     * UDP 포트 열기 (start 전에 호출)
+     * @return 실제 바인드 주소 (포트 0이면 할당된 포트)
+     */
+    public InetSocketAddress bindUdp(InetSocketAddress address) throws IOException {
+        DatagramChannel channel = DatagramChannel.open();
+        try {
+            channel.setOption(StandardSocketOptions.SO_REUSEADDR, true);
+            channel.setOption(StandardSocketOptions.SO_RCVBUF, UDP_RECEIVE_BUFFER);
+            channel.bind(address);
+            channel.configureBlocking(false);
+            channel.register(selector, SelectionKey.OP_READ);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        channels.add(channel);
+        return (InetSocketAddress) channel.getLocalAddress();
+    }
+
+    /**
+     * TCP 포트 열기 (start 전에 호출)
+     * @return 실제 바인드 주소 (포트 0이면 할당된 포트)
+     */
+    public InetSocketAddress bindTcp(InetSocketAddress address) throws IOException {
+        ServerSocketChannel channel = ServerSocketChannel.open();
+        try {
+            channel.setOption(StandardSocketOptions.SO_REUSEADDR, true);
+            channel.bind(address);
+            channel.configureBlocking(false);
+            channel.register(selector, SelectionKey.OP_ACCEPT);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        channels.add(channel);
+        return (InetSocketAddress) channel.getLocalAddress();
+    }
+
+    /**
+     * 수신 및 분류 시작
+     */
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+
+        workerPool = WorkerThreads.newFixedPool("syslog-worker", workers);
+        for (int i = 0; i < workers; i++) {
+            workerPool.execute(this::workLoop);
+        }
+
+        ioThread = new Thread(this::ioLoop, "syslog-io");
+        ioThread.setDaemon(true);
+        ioThread.start();
+        logger.info("syslog 수신 시작 (작업 스레드 {}개, 큐 {})", workers, queue.remainingCapacity());
+    }
+
+    @Override
+    public synchronized void close() {
+        running = false;
+        selector.wakeup();
+        if (ioThread != null) {
+            try {
+                ioThread.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (workerPool != null) {
+            workerPool.shutdownNow();
+        }
+        for (SelectionKey key : selector.keys()) {
+            closeQuietly(key.channel());
+        }
+        for (Closeable channel : channels) {
+            closeQuietly(channel);
+        }
+        closeQuietly(selector);
+        logger.info("syslog 수신 종료: 수신 {}, 처리 {}, 버림 {}", received.get(), processed.get(), dropped.get());
+    }
+
+    public SourceFormatTracker getTracker() {
+        return tracker;
+    }
+
+    /**
+     * 수신한 메시지 수
+     */
+    public long getReceived() {
+        return received.get();
+    }
+
+    /**
+     * 큐가 가득 차서 버린 메시지 수
+     */
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    /**
+     * 분류를 마친 메시지 수 (분류 실패 포함)
+     */
+    public long getProcessed() {
+        return processed.get();
+    }
+
+    /**
+     * 분류 중 오류가 난 메시지 수
+     */
+    public long getFailed() {
+        return failed.get();
+    }
+
+    /**
+     * 분류 대기 중인 메시지 수
+     */
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    private void ioLoop() {
+        while (running) {
+            try {
+                selector.select();
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        accept((ServerSocketChannel) key.channel());
+                    } else if (key.isReadable()) {
+                        if (key.channel() instanceof DatagramChannel) {
+                            readDatagrams((DatagramChannel) key.channel());
+                        } else {
+                            readStream(key);
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                if (running) {
+                    logger.warn("syslog 수신 오류: {}", e.getMessage());
+                }
+            } catch (RuntimeException e) {
+                logger.error("syslog 수신 스레드 오류", e);
+            }
+        }
+    }
+
+    private void accept(ServerSocketChannel server) throws IOException {
+        SocketChannel channel;
+        while ((channel = server.accept()) != null) {
+            channel.configureBlocking(false);
+            String source = hostOf(channel.getRemoteAddress());
+            channel.register(selector, SelectionKey.OP_READ, new Connection(source));
+            logger.debug("syslog TCP 연결: {}", source);
+        }
+    }
+
+    private void readDatagrams(DatagramChannel channel) throws IOException {
+        SocketAddress sender;
+        while (running) {
+            readBuffer.clear();
+            sender = channel.receive(readBuffer);
+            if (sender == null) {
+                return;
+            }
+            readBuffer.flip();
+            enqueue(hostOf(sender), StandardCharsets.UTF_8.decode(readBuffer).toString());
+        }
+    }
+
+    private void readStream(SelectionKey key) {
+        SocketChannel channel = (SocketChannel) key.channel();
+        Connection connection = (Connection) key.attachment();
+        int read;
+        try {
+            readBuffer.clear();
+            read = channel.read(readBuffer);
+        } catch (IOException e) {
+            logger.debug("syslog TCP 읽기 실패: {} ({})", connection.source, e.getMessage());
+            read = -1;
+        }
+
+        if (read > 0) {
+            readBuffer.flip();
+            connection.decoder.decode(readBuffer, frame -> enqueue(connection.source, frame));
+        } else if (read < 0) {
+            connection.decoder.flush(frame -> enqueue(connection.source, frame));
+            key.cancel();
+            closeQuietly(channel);
+            logger.debug("syslog TCP 연결 종료: {}", connection.source);
+        }
+    }
+
+    private void enqueue(String source, String frame) {
+        received.incrementAndGet();
+        if (!queue.offer(SyslogParser.parse(source, frame, System.currentTimeMillis()))) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    private void workLoop() {
+        while (running) {
+            SyslogMessage message;
+            try {
+                message = queue.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (message == null) {
+                continue;
+            }
+
+            try {
+                FormatRecommendation top = classifier.classify(message);
+                tracker.record(message.getSource(),
+                    top != null ? top.getFormatId() : null,
+                    top != null ? top.getConfidence() : 0.0);
+            } catch (Exception e) {
+                failed.incrementAndGet();
+                logger.debug("syslog 메시지 분류 실패: {}", e.getMessage());
+            } finally {
+                processed.incrementAndGet();
+            }
+        }
+    }
+
+    private static String hostOf(SocketAddress address) {
+        if (address instanceof InetSocketAddress) {
+            InetSocketAddress inet = (InetSocketAddress) address;
+            return inet.getAddress() != null ? inet.getAddress().getHostAddress() : inet.getHostString();
+        }
+        return String.valueOf(address);
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            logger.debug("채널 닫기 실패: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * TCP 연결별 상태
+     */
+    private static final class Connection {
+        private final String source;
+        private final SyslogFrameDecoder decoder = new SyslogFrameDecoder(MAX_MESSAGE_BYTES);
+
+        Connection(String source) {
+            this.source = source;
+        }
+    }
+}
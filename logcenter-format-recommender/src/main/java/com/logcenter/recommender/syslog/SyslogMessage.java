@@ -0,0 +1,93 @@
+package com.logcenter.recommender.syslog;
+
+/**
+ * 수신한 syslog 메시지
+ * PRI 값과 RFC 5424 헤더 일부만 분리하며, 포맷 분류에는 {@link #getBody()}를 사용한다.
+ */
+public class SyslogMessage {
+
+    /** RFC 3164 (BSD) */
+    public static final int RFC3164 = 0;
+
+    /** RFC 5424 */
+    public static final int RFC5424 = 1;
+
+    private final String source;
+    private final int priority;
+    private final int version;
+    private final String hostname;
+    private final String appName;
+    private final String body;
+    private final long receivedAt;
+
+    public SyslogMessage(String source, int priority, int version, String hostname, String appName,
+                         String body, long receivedAt) {
+        this.source = source;
+        this.priority = priority;
+        this.version = version;
+        this.hostname = hostname;
+        this.appName = appName;
+        this.body = body;
+        this.receivedAt = receivedAt;
+    }
+
+    /**
+     * 송신지 IP
+     */
+    public String getSource() {
+        return source;
+    }
+
+    /**
+     * PRI 값 (없으면 -1)
+     */
+    public int getPriority() {
+        return priority;
+    }
+
+    public int getFacility() {
+        return priority < 0 ? -1 : priority >> 3;
+    }
+
+    public int getSeverity() {
+        return priority < 0 ? -1 : priority & 7;
+    }
+
+    /**
+     * 메시지 형식 ({@link #RFC3164}, {@link #RFC5424})
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * 호스트명 (RFC 5424만, 없으면 null)
+     */
+    public String getHostname() {
+        return hostname;
+    }
+
+    /**
+     * 앱 이름 (RFC 5424만, 없으면 null)
+     */
+    public String getAppName() {
+        return appName;
+    }
+
+    /**
+     * 분류 대상 본문
+     * RFC 3164는 PRI 이후 전체(타임스탬프, 호스트 포함), RFC 5424는 MSG 부분
+     */
+    public String getBody() {
+        return body;
+    }
+
+    public long getReceivedAt() {
+        return receivedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "SyslogMessage{source=" + source + ", pri=" + priority + ", body=" + body + "}";
+    }
+}
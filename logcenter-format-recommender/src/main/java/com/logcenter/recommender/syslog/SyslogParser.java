@@ -0,0 +1,138 @@
+package com.logcenter.recommender.syslog;
+
+/**
+ * syslog 메시지 파서 (RFC 3164, RFC 5424)
+ * PRI가 없거나 RFC 5424 헤더가 올바르지 않으면 PRI 이후 전체를 본문으로 사용한다.
+ */
+public final class SyslogParser {
+
+    private static final String NIL = "-";
+
+    private SyslogParser() {
+    }
+
+    /**
+     * @param source 송신지 IP
+     * @param raw 프레임 하나 (끝의 CR/LF/NUL은 무시)
+     * @param receivedAt 수신 시각
+     */
+    public static SyslogMessage parse(String source, String raw, long receivedAt) {
+        int end = raw.length();
+        while (end > 0 && (raw.charAt(end - 1) == '\n' || raw.charAt(end - 1) == '\r' || raw.charAt(end - 1) == 0)) {
+            end--;
+        }
+
+        int priority = -1;
+        int start = 0;
+        int close = parsePriority(raw, end);
+        if (close > 0) {
+            priority = Integer.parseInt(raw.substring(1, close));
+            start = close + 1;
+        }
+
+        // RFC 5424: VERSION SP TIMESTAMP SP HOSTNAME SP APP-NAME SP PROCID SP MSGID SP SD [SP MSG]
+        if (priority >= 0 && end - start >= 2 && raw.charAt(start) == '1' && raw.charAt(start + 1) == ' ') {
+            SyslogMessage message = parse5424(source, priority, raw, start + 2, end, receivedAt);
+            if (message != null) {
+                return message;
+            }
+        }
+        return new SyslogMessage(source, priority, SyslogMessage.RFC3164, null, null,
+            raw.substring(start, end), receivedAt);
+    }
+
+    /**
+     * "&lt;PRI&gt;" 확인
+     * @return '&gt;' 위치, PRI가 아니면 -1
+     */
+    private static int parsePriority(String raw, int end) {
+        if (end < 3 || raw.charAt(0) != '<') {
+            return -1;
+        }
+        int value = 0;
+        int i = 1;
+        while (i < end && i <= 4 && Character.isDigit(raw.charAt(i))) {
+            value = value * 10 + (raw.charAt(i) - '0');
+            i++;
+        }
+        if (i == 1 || i > 4 || i >= end || raw.charAt(i) != '>' || value > 191) {
+            return -1;
+        }
+        return i;
+    }
+
+    private static SyslogMessage parse5424(String source, int priority, String raw, int start, int end,
+                                           long receivedAt) {
+        String[] fields = new String[5];
+        int position = start;
+        for (int i = 0; i < fields.length; i++) {
+            int space = raw.indexOf(' ', position);
+            if (space < 0 || space >= end || space == position) {
+                return null;
+            }
+            fields[i] = raw.substring(position, space);
+            position = space + 1;
+        }
+
+        int sdEnd = skipStructuredData(raw, position, end);
+        if (sdEnd < 0) {
+            return null;
+        }
+
+        String body = "";
+        if (sdEnd < end) {
+            if (raw.charAt(sdEnd) != ' ') {
+                return null;
+            }
+            int bodyStart = sdEnd + 1;
+            // UTF-8 BOM
+            if (bodyStart < end && raw.charAt(bodyStart) == '\uFEFF') {
+                bodyStart++;
+            }
+            body = raw.substring(bodyStart, end);
+        }
+        return new SyslogMessage(source, priority, SyslogMessage.RFC5424,
+            nil(fields[1]), nil(fields[2]), body, receivedAt);
+    }
+
+    /**
+     * STRUCTURED-DATA 건너뛰기 ("-" 또는 [id param="value" ...] 반복, 값 안의 \" \] \\ 이스케이프)
+     * @return SD 다음 위치, 형식이 올바르지 않으면 -1
+     */
+    private static int skipStructuredData(String raw, int position, int end) {
+        if (position >= end) {
+            return -1;
+        }
+        if (raw.charAt(position) == '-') {
+            return position + 1;
+        }
+
+        int i = position;
+        while (i < end && raw.charAt(i) == '[') {
+            boolean quoted = false;
+            i++;
+            while (i < end) {
+                char c = raw.charAt(i);
+                if (quoted && c == '\\') {
+                    i += 2;
+                    continue;
+                }
+                if (c == '"') {
+                    quoted = !quoted;
+                } else if (c == ']' && !quoted) {
+                    break;
+                }
+                i++;
+            }
+            if (i >= end) {
+                return -1;
+            }
+            i++;
+        }
+        return i == position ? -1 : i;
+    }
+
+    private static String nil(String value) {
+        return NIL.equals(value) ? null : value;
+    }
+}
@@ -0,0 +1,67 @@
+package com.logcenter.recommender.util;
+
+/**
+ * 마감 시각이 있는 매칭 입력
+ * 정규식 엔진은 입력을 charAt으로 읽으므로 읽는 도중 마감 시각을 확인하면
+ * 역추적이 폭주하는 매칭을 스레드 인터럽트 없이 매칭 중인 스레드 안에서 끝낼 수 있다.
+ * 매칭 한 번에 하나씩 만들어 쓴다 (스레드 안전하지 않음).
+ */
+public final class DeadlineCharSequence implements CharSequence {
+
+    // 시각을 확인하는 charAt 호출 간격 (2의 거듭제곱)
+    private static final int CHECK_INTERVAL = 1 << 12;
+
+    private final String text;
+    private final long deadlineNanos;
+    private int reads;
+
+    /**
+     * @param text 매칭할 문자열
+     * @param deadlineNanos 마감 시각 (System.nanoTime 기준)
+     */
+    public DeadlineCharSequence(String text, long deadlineNanos) {
+        this.text = text;
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    @Override
+    public int length() {
+        return text.length();
+    }
+
+    /**
+     * @throws DeadlineExceededException 마감 시각이 지난 경우
+     */
+    @Override
+    public char charAt(int index) {
+        if ((++reads & (CHECK_INTERVAL - 1)) == 0 && System.nanoTime() - deadlineNanos > 0) {
+            throw new DeadlineExceededException();
+        }
+        return text.charAt(index);
+    }
+
+    /**
+     * 매칭이 끝난 뒤 캡처 값을 꺼낼 때 쓰이므로 마감 시각을 확인하지 않는다
+     */
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        return text.subSequence(start, end);
+    }
+
+    @Override
+    public String toString() {
+        return text;
+    }
+
+    /**
+     * 마감 시각이 지나 매칭을 중단함
+     */
+    public static final class DeadlineExceededException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        DeadlineExceededException() {
+            // 역추적 깊은 곳에서 자주 던져지므로 스택 추적을 만들지 않음
+            super("매칭 마감 시각 초과", null, false, false);
+        }
+    }
+}
@@ -0,0 +1,312 @@
+package com.logcenter.recommender.util;
+
+import com.logcenter.recommender.config.AppConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 로그 파일 인코딩 감지기
+ * 파일 앞부분(및 큰 파일의 중간/끝 일부 윈도우)만 읽어 BOM 확인, 엄격한 UTF-8 검증,
+ * 레거시 문자셋(EUC-KR/CP949 등) 점수 비교 순으로 인코딩을 결정한다.
+ * 감지 결과는 파일 경로별로 캐시되며, 크기나 수정 시각이 바뀌면 다시 감지한다.
+ */
+public final class EncodingDetector {
+
+    private static final Logger logger = LoggerFactory.getLogger(EncodingDetector.class);
+
+    // 앞부분 검사 크기
+    static final int PREFIX_BYTES = 64 * 1024;
+
+    // 큰 파일의 중간/끝 샘플 윈도우 크기
+    static final int WINDOW_BYTES = 16 * 1024;
+
+    // 캐시 최대 항목 수 (초과 시 비움)
+    private static final int MAX_CACHE_ENTRIES = 1024;
+
+    // 기본 레거시 후보 (설정된 기본 인코딩 다음으로 시도)
+    private static final String[] LEGACY_CANDIDATES = {"EUC-KR", "x-windows-949"};
+
+    private static final Map<String, CachedCharset> CACHE = new ConcurrentHashMap<>();
+
+    private EncodingDetector() {
+    }
+
+    /**
+     * 파일 인코딩 감지 (캐시 사용)
+     */
+    public static Charset detect(Path path) throws IOException {
+        Path key = path.toAbsolutePath().normalize();
+        long size = Files.size(key);
+        long modified = Files.getLastModifiedTime(key).toMillis();
+
+        CachedCharset cached = CACHE.get(key.toString());
+        if (cached != null && cached.size == size && cached.modified == modified) {
+            return cached.charset;
+        }
+
+        Charset charset = detect(readSamples(key, size));
+        if (CACHE.size() >= MAX_CACHE_ENTRIES) {
+            CACHE.clear();
+        }
+        CACHE.put(key.toString(), new CachedCharset(size, modified, charset));
+        logger.debug("인코딩 감지: {} -> {}", key, charset);
+        return charset;
+    }
+
+    /**
+     * 바이트 샘플 인코딩 감지
+     */
+    public static Charset detect(byte[] bytes) {
+        List<byte[]> samples = new ArrayList<>(1);
+        samples.add(bytes);
+        return detect(samples);
+    }
+
+    /**
+     * 감지 결과 캐시 비우기
+     */
+    public static void clearCache() {
+        CACHE.clear();
+    }
+
+    private static Charset detect(List<byte[]> samples) {
+        byte[] prefix = samples.isEmpty() ? new byte[0] : samples.get(0);
+
+        Charset bomCharset = detectBom(prefix);
+        if (bomCharset != null) {
+            return bomCharset;
+        }
+
+        boolean ascii = true;
+        for (byte[] sample : samples) {
+            if (!isAscii(sample)) {
+                ascii = false;
+                break;
+            }
+        }
+        if (ascii || decodesStrictly(StandardCharsets.UTF_8, samples)) {
+            return StandardCharsets.UTF_8;
+        }
+
+        // 레거시 문자셋 중 엄격 디코딩에 성공하고 점수가 가장 높은 것 선택
+        Charset best = null;
+        double bestScore = Double.NEGATIVE_INFINITY;
+        for (Charset candidate : legacyCandidates()) {
+            if (!decodesStrictly(candidate, samples)) {
+                continue;
+            }
+            double score = score(candidate, samples);
+            if (score > bestScore) {
+                best = candidate;
+                bestScore = score;
+            }
+        }
+
+        return best != null ? best : StandardCharsets.ISO_8859_1;
+    }
+
+    /**
+     * BOM으로 인코딩 확인
+     */
+    private static Charset detectBom(byte[] bytes) {
+        if (bytes.length >= 3 && bytes[0] == (byte) 0xEF && bytes[1] == (byte) 0xBB && bytes[2] == (byte) 0xBF) {
+            return StandardCharsets.UTF_8;
+        }
+        if (bytes.length >= 2) {
+            if (bytes[0] == (byte) 0xFF && bytes[1] == (byte) 0xFE) {
+                return StandardCharsets.UTF_16LE;
+            }
+            if (bytes[0] == (byte) 0xFE && bytes[1] == (byte) 0xFF) {
+                return StandardCharsets.UTF_16BE;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 설정된 기본 인코딩과 레거시 후보 목록 (UTF-8 제외, 중복 제거)
+     */
+    private static Set<Charset> legacyCandidates() {
+        Set<Charset> candidates = new LinkedHashSet<>();
+        addCandidate(candidates, AppConfig.getInstance().getString(AppConfig.DEFAULT_ENCODING));
+        for (String name : LEGACY_CANDIDATES) {
+            addCandidate(candidates, name);
+        }
+        return candidates;
+    }
+
+    private static void addCandidate(Set<Charset> candidates, String name) {
+        if (name == null || name.trim().isEmpty()) {
+            return;
+        }
+        try {
+            Charset charset = Charset.forName(name.trim());
+            if (!StandardCharsets.UTF_8.equals(charset) && MappedLogReader.supports(charset)) {
+                candidates.add(charset);
+            }
+        } catch (Exception e) {
+            logger.warn("지원하지 않는 인코딩 후보: {}", name);
+        }
+    }
+
+    /**
+     * 엄격 디코딩 검사
+     * 샘플 끝에서 잘린 멀티바이트 문자는 오류로 보지 않는다.
+     */
+    private static boolean decodesStrictly(Charset charset, List<byte[]> samples) {
+        CharsetDecoder decoder = newDecoder(charset);
+        CharBuffer out = CharBuffer.allocate(4096);
+        for (byte[] sample : samples) {
+            decoder.reset();
+            ByteBuffer in = ByteBuffer.wrap(sample);
+            while (true) {
+                out.clear();
+                CoderResult result = decoder.decode(in, out, false);
+                if (result.isError()) {
+                    return false;
+                }
+                if (result.isUnderflow()) {
+                    break;
+                }
+            }
+            // 잘린 문자로 간주할 수 있는 길이보다 많이 남았으면 오류
+            if (in.remaining() > 3) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 비 ASCII 문자의 그럴듯함 점수 (한글 음절 우대, 제어/사용자 정의 문자 감점)
+     */
+    private static double score(Charset charset, List<byte[]> samples) {
+        CharsetDecoder decoder = newDecoder(charset);
+        CharBuffer out = CharBuffer.allocate(4096);
+        double total = 0;
+        long count = 0;
+        for (byte[] sample : samples) {
+            decoder.reset();
+            ByteBuffer in = ByteBuffer.wrap(sample);
+            CoderResult result;
+            do {
+                out.clear();
+                result = decoder.decode(in, out, false);
+                out.flip();
+                while (out.hasRemaining()) {
+                    char c = out.get();
+                    if (c < 0x80) {
+                        continue;
+                    }
+                    total += charScore(c);
+                    count++;
+                }
+            } while (result.isOverflow());
+        }
+        return count == 0 ? 0 : total / count;
+    }
+
+    private static double charScore(char c) {
+        if (c >= 0xAC00 && c <= 0xD7A3) {
+            return 1.0;      // 한글 음절
+        }
+        if ((c >= 0x3130 && c <= 0x318F) || (c >= 0x4E00 && c <= 0x9FFF)
+                || (c >= 0x3000 && c <= 0x303F) || (c >= 0xFF00 && c <= 0xFFEF)) {
+            return 0.5;      // 한글 자모, 한자, CJK 기호, 전각 문자
+        }
+        if (c >= 0xC0 && c <= 0xFF) {
+            return 0.3;      // 라틴 확장 문자
+        }
+        if (c < 0xA0 || (c >= 0xE000 && c <= 0xF8FF) || c == 0xFFFD) {
+            return -1.0;     // C1 제어 문자, 사용자 정의 영역, 대체 문자
+        }
+        return 0;
+    }
+
+    private static CharsetDecoder newDecoder(Charset charset) {
+        return charset.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPORT)
+            .onUnmappableCharacter(CodingErrorAction.REPORT);
+    }
+
+    private static boolean isAscii(byte[] bytes) {
+        for (byte b : bytes) {
+            if (b < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 앞부분과 (큰 파일의 경우) 중간/끝 윈도우 읽기
+     * 윈도우는 첫 줄바꿈 다음부터 사용하여 멀티바이트 문자 중간에서 시작하지 않도록 한다.
+     */
+    private static List<byte[]> readSamples(Path path, long size) throws IOException {
+        List<byte[]> samples = new ArrayList<>(3);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            samples.add(read(channel, 0, (int) Math.min(size, PREFIX_BYTES)));
+            if (size > PREFIX_BYTES * 4L) {
+                samples.add(alignToLine(read(channel, size / 2, WINDOW_BYTES)));
+                samples.add(alignToLine(read(channel, size - WINDOW_BYTES, WINDOW_BYTES)));
+            }
+        }
+        return samples;
+    }
+
+    private static byte[] read(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read <= 0) {
+                break;
+            }
+        }
+        byte[] bytes = new byte[buffer.position()];
+        buffer.flip();
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    private static byte[] alignToLine(byte[] window) {
+        for (int i = 0; i < window.length; i++) {
+            if (window[i] == '\n') {
+                byte[] aligned = new byte[window.length - i - 1];
+                System.arraycopy(window, i + 1, aligned, 0, aligned.length);
+                return aligned;
+            }
+        }
+        return new byte[0];
+    }
+
+    private static final class CachedCharset {
+        private final long size;
+        private final long modified;
+        private final Charset charset;
+
+        CachedCharset(long size, long modified, Charset charset) {
+            this.size = size;
+            this.modified = modified;
+            this.charset = charset;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.logcenter.recommender.util;
+
+import java.io.BufferedInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * 로그 입력 스트림 유틸리티
+ * 순환(rotate)된 압축 로그(.gz, .zip)를 디스크에 풀지 않고 스트리밍으로 읽는다.
+ */
+public final class LogInputStreams {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * 압축 형식
+     */
+    public enum Compression {
+        NONE, GZIP, ZIP
+    }
+
+    private LogInputStreams() {
+    }
+
+    /**
+     * 압축 형식 판단 (확장자 우선, 없으면 매직 바이트 확인)
+     */
+    public static Compression compressionOf(Path path) throws IOException {
+        String name = path.getFileName().toString().toLowerCase(Locale.ROOT);
+        if (name.endsWith(".gz") || name.endsWith(".gzip")) {
+            return Compression.GZIP;
+        }
+        if (name.endsWith(".zip")) {
+            return Compression.ZIP;
+        }
+
+        byte[] magic = new byte[4];
+        int length = 0;
+        try (InputStream in = Files.newInputStream(path)) {
+            int read;
+            while (length < magic.length && (read = in.read(magic, length, magic.length - length)) > 0) {
+                length += read;
+            }
+        }
+        if (length >= 2 && magic[0] == (byte) 0x1F && magic[1] == (byte) 0x8B) {
+            return Compression.GZIP;
+        }
+        if (length >= 4 && magic[0] == 'P' && magic[1] == 'K' && magic[2] == 3 && magic[3] == 4) {
+            return Compression.ZIP;
+        }
+        return Compression.NONE;
+    }
+
+    /**
+     * 압축 파일 여부
+     */
+    public static boolean isCompressed(Path path) throws IOException {
+        return compressionOf(path) != Compression.NONE;
+    }
+
+    /**
+     * 압축 로그 파일명 여부 (디렉토리 검색용, 파일을 열지 않음)
+     */
+    public static boolean hasCompressedExtension(Path path) {
+        String name = path.getFileName().toString().toLowerCase(Locale.ROOT);
+        return name.endsWith(".gz") || name.endsWith(".gzip") || name.endsWith(".zip");
+    }
+
+    /**
+     * 압축을 해제하며 읽는 입력 스트림 열기
+     * gzip은 여러 멤버가 이어진 파일도 끝까지 읽고, zip은 모든 파일 항목을 순서대로 이어서 읽는다.
+     */
+    public static InputStream open(Path path) throws IOException {
+        Compression compression = compressionOf(path);
+        InputStream raw = new BufferedInputStream(Files.newInputStream(path), BUFFER_SIZE);
+        try {
+            switch (compression) {
+                case GZIP:
+                    return new GZIPInputStream(raw, BUFFER_SIZE);
+                case ZIP:
+                    return new ZipEntriesInputStream(new ZipInputStream(raw));
+                default:
+                    return raw;
+            }
+        } catch (IOException e) {
+            raw.close();
+            throw e;
+        }
+    }
+
+    /**
+     * zip 항목들을 하나의 스트림으로 이어서 읽기
+     * 항목 사이에는 줄바꿈을 넣어 앞 항목의 마지막 라인과 합쳐지지 않도록 한다.
+     */
+    private static final class ZipEntriesInputStream extends FilterInputStream {
+
+        private final ZipInputStream zip;
+        private boolean inEntry;
+        private boolean pendingSeparator;
+        private boolean started;
+        private boolean finished;
+
+        ZipEntriesInputStream(ZipInputStream zip) {
+            super(zip);
+            this.zip = zip;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            int read = read(single, 0, 1);
+            return read < 0 ? -1 : single[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            while (!finished) {
+                if (!inEntry && !nextEntry()) {
+                    finished = true;
+                    break;
+                }
+                if (pendingSeparator) {
+                    pendingSeparator = false;
+                    buffer[offset] = '\n';
+                    return 1;
+                }
+                int read = zip.read(buffer, offset, length);
+                if (read > 0) {
+                    return read;
+                }
+                zip.closeEntry();
+                inEntry = false;
+            }
+            return -1;
+        }
+
+        private boolean nextEntry() throws IOException {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                if (!entry.isDirectory()) {
+                    inEntry = true;
+                    pendingSeparator = started;
+                    started = true;
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            byte[] discard = new byte[(int) Math.min(n, 8192)];
+            long skipped = 0;
+            while (skipped < n) {
+                int read = read(discard, 0, (int) Math.min(discard.length, n - skipped));
+                if (read < 0) {
+                    break;
+                }
+                skipped += read;
+            }
+            return skipped;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return finished ? 0 : zip.available();
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+    }
+}
@@ -22,8 +22,11 @@ public class LogParser {
     
     private static final Logger logger = LoggerFactory.getLogger(LogParser.class);
     
+    // 문자 리더에서 한 번에 읽는 문자 수
+    private static final int READ_BUFFER_CHARS = 8 * 1024;
+    
     // 일반적인 로그 타임스탬프 패턴
-    private static final List<Pattern> TIMESTAMP_PATTERNS = Arrays.asList(
+    static final List<Pattern> TIMESTAMP_PATTERNS = Arrays.asList(
         Pattern.compile("^\\d{4}-\\d{2}-\\d{2}[T\\s]\\d{2}:\\d{2}:\\d{2}"),  // ISO 8601
         Pattern.compile("^\\d{14}\\s+"),                                      // YYYYMMDDHHmmss
         Pattern.compile("^\\w{3}\\s+\\d{1,2}\\s+\\d{2}:\\d{2}:\\d{2}"),     // Syslog format
@@ -32,7 +35,7 @@ public class LogParser {
     );
     
     // 멀티라인 로그 시작 패턴
-    private static final List<Pattern> MULTILINE_START_PATTERNS = Arrays.asList(
+    static final List<Pattern> MULTILINE_START_PATTERNS = Arrays.asList(
         Pattern.compile("^\\s+at\\s+"),           // Java stack trace
         Pattern.compile("^\\s*Caused by:"),       // Java exception
         Pattern.compile("^\\s*\\.{3}\\s*\\d+\\s+more"), // Java truncated stack
@@ -60,11 +63,210 @@ public class LogParser {
         
         if (fileSize > maxSize) {
             logger.warn("파일 크기가 제한을 초과합니다: {} bytes (최대: {} bytes)", fileSize, maxSize);
-            // 파일의 처음 부분만 읽기
-            return readFirstNBytes(path, maxSize, charset);
+        }
+        long limit = fileSize > maxSize ? maxSize : 0;
+        
+        if (!MappedLogReader.supports(charset)) {
+            return limit > 0 ? readFirstNBytes(path, limit, charset) : Files.readAllLines(path, charset);
+        }
+        
+        // 메모리 매핑 리더로 처음 부분만 읽기 (재인코딩 없이 바이트 오프셋 기준)
+        try (MappedLogReader reader = MappedLogReader.open(path, charset)) {
+            return reader.readLines(limit);
+        }
+    }
+    
+    /**
+     * 로그 파일에서 비어있지 않은 라인을 최대 maxSamples개까지 스트리밍으로 읽기
+     * 필요한 만큼만 디코딩하고 나머지 파일은 읽지 않는다. 압축 파일(.gz, .zip)은 풀면서 읽는다.
+     * @return 앞뒤 공백이 제거된 로그 샘플
+     */
+    public static List<String> readSamples(String filePath, int maxSamples) throws IOException {
+        return readSamples(filePath, maxSamples, null);
+    }
+    
+    /**
+     * 로그 파일에서 멀티라인 이벤트를 최대 maxSamples개까지 스트리밍으로 읽기
+     * @param rule 이벤트 시작 규칙 (null이면 라인 단위)
+     */
+    public static List<String> readSamples(String filePath, int maxSamples,
+                                           MultilineAssembler.EventStartRule rule) throws IOException {
+        Path path = Paths.get(filePath);
+        if (!Files.exists(path)) {
+            throw new IOException("파일이 존재하지 않습니다: " + filePath);
+        }
+        
+        if (LogInputStreams.isCompressed(path)) {
+            try (InputStream in = LogInputStreams.open(path)) {
+                return readSamples(in, maxSamples, rule);
+            }
+        }
+        
+        Charset charset = detectEncoding(filePath);
+        List<String> samples = new ArrayList<>();
+        SampleCollector collector = new SampleCollector(samples, maxSamples, rule);
+        
+        if (!MappedLogReader.supports(charset)) {
+            try (BufferedReader reader = Files.newBufferedReader(path, charset)) {
+                readLines(reader, collector);
+            }
+        } else {
+            try (MappedLogReader reader = MappedLogReader.open(path, charset)) {
+                reader.forEachLine(collector);
+            }
+        }
+        collector.finish();
+        return samples;
+    }
+    
+    /**
+     * 입력 스트림에서 비어있지 않은 라인을 최대 maxSamples개까지 읽기
+     * 인코딩은 스트림 앞부분으로 감지한다. 스트림은 닫지 않는다.
+     */
+    public static List<String> readSamples(InputStream input, int maxSamples) throws IOException {
+        return readSamples(input, maxSamples, null);
+    }
+    
+    /**
+     * 입력 스트림에서 멀티라인 이벤트를 최대 maxSamples개까지 읽기
+     * @param rule 이벤트 시작 규칙 (null이면 라인 단위)
+     */
+    public static List<String> readSamples(InputStream input, int maxSamples,
+                                           MultilineAssembler.EventStartRule rule) throws IOException {
+        BufferedInputStream in = new BufferedInputStream(input, EncodingDetector.PREFIX_BYTES);
+        in.mark(EncodingDetector.PREFIX_BYTES);
+        byte[] prefix = new byte[EncodingDetector.PREFIX_BYTES];
+        int length = 0;
+        int read;
+        while (length < prefix.length && (read = in.read(prefix, length, prefix.length - length)) > 0) {
+            length += read;
+        }
+        in.reset();
+        Charset charset = EncodingDetector.detect(Arrays.copyOf(prefix, length));
+        
+        List<String> samples = new ArrayList<>();
+        SampleCollector collector = new SampleCollector(samples, maxSamples, rule);
+        readLines(new InputStreamReader(in, charset), collector);
+        collector.finish();
+        return samples;
+    }
+    
+    /**
+     * 파이프 입력을 문자 리더로 열기
+     * 이미 도착한 앞부분(최대 64KB)만으로 인코딩을 감지하므로 입력이 천천히 들어와도
+     * 첫 데이터 이후에는 기다리지 않는다. 스트림은 닫지 않는다.
+     */
+    public static Reader openStreamReader(InputStream input) throws IOException {
+        BufferedInputStream in = new BufferedInputStream(input, EncodingDetector.PREFIX_BYTES);
+        in.mark(EncodingDetector.PREFIX_BYTES);
+        byte[] prefix = new byte[EncodingDetector.PREFIX_BYTES];
+        int length = Math.max(0, in.read(prefix, 0, prefix.length));
+        int read;
+        while (length > 0 && length < prefix.length && in.available() > 0
+                && (read = in.read(prefix, length, prefix.length - length)) > 0) {
+            length += read;
+        }
+        in.reset();
+        return new InputStreamReader(in, EncodingDetector.detect(Arrays.copyOf(prefix, length)));
+    }
+    
+    /**
+     * 비어있지 않은 라인(또는 멀티라인 이벤트)을 최대 개수까지 수집
+     */
+    private static final class SampleCollector implements MappedLogReader.LineHandler {
+        private final List<String> samples;
+        private final int maxSamples;
+        private final MultilineAssembler assembler;
+        
+        SampleCollector(List<String> samples, int maxSamples, MultilineAssembler.EventStartRule rule) {
+            this.samples = samples;
+            this.maxSamples = maxSamples;
+            this.assembler = rule != null ? new MultilineAssembler(rule) : null;
+        }
+        
+        @Override
+        public boolean onLine(String line) {
+            add(assembler != null ? assembler.offer(line) : line);
+            return !isFull();
+        }
+        
+        /**
+         * 조립 중인 마지막 이벤트 추가
+         */
+        void finish() {
+            if (assembler != null && !isFull()) {
+                add(assembler.flush());
+            }
+        }
+        
+        private void add(String sample) {
+            if (sample == null) {
+                return;
+            }
+            String trimmed = sample.trim();
+            if (!trimmed.isEmpty()) {
+                samples.add(trimmed);
+            }
         }
         
-        return Files.readAllLines(path, charset);
+        private boolean isFull() {
+            return maxSamples > 0 && samples.size() >= maxSamples;
+        }
+    }
+    
+    /**
+     * 문자 리더에서 라인 단위로 읽기 (줄바꿈: LF, CRLF, CR)
+     * 버퍼 단위로 읽어 줄바꿈을 찾는다 (압축 해제 입력의 주 경로이므로 문자 단위 read를 피함).
+     * 메모리 매핑 경로와 같이 긴 라인은 최대 길이까지만 남기고 나머지는 버리므로
+     * 줄바꿈 없는 거대한 압축 입력도 메모리를 모두 쓰지 않는다.
+     */
+    private static void readLines(Reader reader, MappedLogReader.LineHandler handler) throws IOException {
+        char[] buffer = new char[READ_BUFFER_CHARS];
+        StringBuilder line = new StringBuilder();
+        boolean afterCr = false;
+        boolean pending = false;
+        int read;
+        while ((read = reader.read(buffer, 0, buffer.length)) != -1) {
+            int lineStart = 0;
+            for (int i = 0; i < read; i++) {
+                char c = buffer[i];
+                if (c != '\n' && c != '\r') {
+                    continue;
+                }
+                if (c == '\n' && afterCr && i == lineStart) {
+                    // CRLF의 LF (CR에서 이미 라인을 끝냄)
+                    afterCr = false;
+                    lineStart = i + 1;
+                    continue;
+                }
+                appendCapped(line, buffer, lineStart, i);
+                if (!handler.onLine(line.toString())) {
+                    return;
+                }
+                line.setLength(0);
+                pending = false;
+                afterCr = c == '\r';
+                lineStart = i + 1;
+            }
+            if (lineStart < read) {
+                appendCapped(line, buffer, lineStart, read);
+                pending = true;
+                afterCr = false;
+            }
+        }
+        if (pending) {
+            handler.onLine(line.toString());
+        }
+    }
+    
+    /**
+     * 라인에 문자 추가 (최대 길이를 넘는 부분은 버림)
+     */
+    private static void appendCapped(StringBuilder line, char[] buffer, int from, int to) {
+        int length = Math.min(to - from, MappedLogReader.MAX_LINE_BYTES - line.length());
+        if (length > 0) {
+            line.append(buffer, from, length);
+        }
     }
     
     /**
@@ -113,105 +315,26 @@ public class LogParser {
         }
         
         List<String> mergedLogs = new ArrayList<>();
-        StringBuilder currentLog = new StringBuilder();
-        
-        for (String line : lines) {
-            if (isNewLogEntry(line) && currentLog.length() > 0) {
-                // 새로운 로그 엔트리 시작
-                mergedLogs.add(currentLog.toString());
-                currentLog = new StringBuilder(line);
-            } else if (currentLog.length() > 0) {
-                // 현재 로그에 추가 (멀티라인)
-                currentLog.append("\n").append(line);
-            } else {
-                // 첫 번째 라인
-                currentLog.append(line);
-            }
+        Iterator<String> events = MultilineAssembler.events(lines.iterator(), MultilineAssembler.DEFAULT_RULE);
+        while (events.hasNext()) {
+            mergedLogs.add(events.next());
         }
-        
-        // 마지막 로그 추가
-        if (currentLog.length() > 0) {
-            mergedLogs.add(currentLog.toString());
-        }
-        
         return mergedLogs;
     }
     
-    /**
-     * 새로운 로그 엔트리 시작 여부 판단
-     */
-    private static boolean isNewLogEntry(String line) {
-        if (line == null || line.trim().isEmpty()) {
-            return false;
-        }
-        
-        // 타임스탬프로 시작하는지 확인
-        for (Pattern pattern : TIMESTAMP_PATTERNS) {
-            if (pattern.matcher(line).find()) {
-                return true;
-            }
-        }
-        
-        // 멀티라인 계속 패턴인지 확인
-        for (Pattern pattern : MULTILINE_START_PATTERNS) {
-            if (pattern.matcher(line).find()) {
-                return false;
-            }
-        }
-        
-        // 기본적으로 새로운 엔트리로 간주
-        return true;
-    }
-    
     /**
      * 인코딩 자동 감지
+     * 파일 앞부분만 검사하며 결과는 파일별로 캐시된다 ({@link EncodingDetector})
      */
     public static Charset detectEncoding(String filePath) {
         try {
-            byte[] bytes = Files.readAllBytes(Paths.get(filePath));
-            return detectEncoding(bytes);
+            return EncodingDetector.detect(Paths.get(filePath));
         } catch (IOException e) {
             logger.warn("인코딩 감지 실패, UTF-8 사용: {}", e.getMessage());
             return StandardCharsets.UTF_8;
         }
     }
     
-    /**
-     * 바이트 배열에서 인코딩 감지
-     */
-    private static Charset detectEncoding(byte[] bytes) {
-        // BOM 확인
-        if (bytes.length >= 3) {
-            if (bytes[0] == (byte) 0xEF && bytes[1] == (byte) 0xBB && bytes[2] == (byte) 0xBF) {
-                return StandardCharsets.UTF_8;
-            }
-        }
-        if (bytes.length >= 2) {
-            if (bytes[0] == (byte) 0xFF && bytes[1] == (byte) 0xFE) {
-                return StandardCharsets.UTF_16LE;
-            }
-            if (bytes[0] == (byte) 0xFE && bytes[1] == (byte) 0xFF) {
-                return StandardCharsets.UTF_16BE;
-            }
-        }
-        
-        // UTF-8 유효성 검사
-        try {
-            new String(bytes, StandardCharsets.UTF_8);
-            return StandardCharsets.UTF_8;
-        } catch (Exception e) {
-            // UTF-8이 아닌 경우
-        }
-        
-        // 기본값
-        String defaultEncoding = AppConfig.getInstance().getString(AppConfig.DEFAULT_ENCODING);
-        try {
-            return Charset.forName(defaultEncoding);
-        } catch (Exception e) {
-            return StandardCharsets.UTF_8;
-        }
-    }
-    
     /**
      * 로그에서 타임스탬프 추출
      */
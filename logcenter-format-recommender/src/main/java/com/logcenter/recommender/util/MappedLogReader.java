@@ -0,0 +1,291 @@
+package com.logcenter.recommender.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 메모리 매핑 기반 로그 파일 리더
+ * 파일을 고정 크기 윈도우로 차례로 매핑하여 라인을 순차로 읽는다.
+ * 라인은 핸들러에 전달될 때만 디코딩되며, 힙 사용량은 파일 크기와 무관하게
+ * (윈도우 매핑 + 최대 라인 길이) 이내로 유지된다.
+ * {@link ByteLineHandler}를 사용하면 디코딩 없이 매핑된 바이트를 그대로 받아 필요한 라인만 디코딩할 수 있다.
+ *
+ * '\n'이 단일 바이트 0x0A로 인코딩되는 문자셋(UTF-8, EUC-KR, ISO-8859-1 등)만 지원하며,
+ * UTF-16 등은 {@link #supports(Charset)}로 확인 후 기존 방식으로 읽어야 한다.
+ */
+public class MappedLogReader implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(MappedLogReader.class);
+
+    // 한 번에 매핑하는 최대 영역 크기
+    static final int DEFAULT_WINDOW_SIZE = 32 * 1024 * 1024;
+
+    /** 최대 라인 길이 (초과분은 잘라냄) */
+    public static final int MAX_LINE_BYTES = 1024 * 1024;
+
+    private static final byte LF = '\n';
+    private static final byte CR = '\r';
+
+    private final Path path;
+    private final Charset charset;
+    private final FileChannel channel;
+    private final long size;
+    private final int windowSize;
+
+    /**
+     * 라인 핸들러
+     */
+    public interface LineHandler {
+        /**
+         * @param line 디코딩된 라인 (줄바꿈 제외)
+         * @return 계속 읽으려면 true, 중단하려면 false
+         */
+        boolean onLine(String line);
+    }
+
+    /**
+     * 바이트 라인 핸들러
+     */
+    public interface ByteLineHandler {
+        /**
+         * @param line 라인 바이트 (position~limit, 줄바꿈/CR 제외). 호출 중에만 유효하며 다음 라인에 재사용됨
+         * @return 계속 읽으려면 true, 중단하려면 false
+         */
+        boolean onLine(ByteBuffer line);
+    }
+
+    // 매핑 윈도우 내 라인 범위 [from, to) 처리
+    private interface RawLineHandler {
+        boolean onLine(ByteBuffer window, int from, int to);
+    }
+
+    private MappedLogReader(Path path, Charset charset, int windowSize) throws IOException {
+        this.path = path;
+        this.charset = charset;
+        this.windowSize = Math.max(windowSize, 2);
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.size = channel.size();
+    }
+
+    /**
+     * 리더 열기
+     */
+    public static MappedLogReader open(Path path, Charset charset) throws IOException {
+        return open(path, charset, DEFAULT_WINDOW_SIZE);
+    }
+
+    static MappedLogReader open(Path path, Charset charset, int windowSize) throws IOException {
+        Charset effective = charset != null ? charset : StandardCharsets.UTF_8;
+        if (!supports(effective)) {
+            throw new IOException("메모리 매핑 리더가 지원하지 않는 인코딩입니다: " + effective);
+        }
+        return new MappedLogReader(path, effective, windowSize);
+    }
+
+    /**
+     * 줄바꿈이 단일 바이트 0x0A인 문자셋인지 확인
+     */
+    public static boolean supports(Charset charset) {
+        if (charset == null) {
+            return true;
+        }
+        try {
+            return Arrays.equals("\n".getBytes(charset), new byte[] {LF});
+        } catch (UnsupportedOperationException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 파일 크기 (바이트)
+     */
+    public long size() {
+        return size;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * 처음 maxBytes 바이트에 걸친 라인 읽기 (마지막 라인은 끝까지 포함, 0 이하이면 전체)
+     */
+    public List<String> readLines(long maxBytes) throws IOException {
+        long end = maxBytes <= 0 || maxBytes >= size ? size : alignToLineEnd(maxBytes);
+        List<String> lines = new ArrayList<>();
+        forEachLine(end, line -> {
+            lines.add(line);
+            return true;
+        });
+        return lines;
+    }
+
+    /**
+     * 파일 전체 라인 순회
+     * 윈도우 경계에 걸친 라인은 다음 윈도우를 라인 시작 위치부터 다시 매핑하여 처리한다.
+     * @return 끝까지 읽었으면 true, 핸들러가 중단했으면 false
+     */
+    public boolean forEachLine(LineHandler handler) throws IOException {
+        return forEachLine(size, handler);
+    }
+
+    private boolean forEachLine(long end, LineHandler handler) throws IOException {
+        byte[][] lineBuffer = {new byte[256]};
+        return scanLines(end, (window, from, to) -> {
+            lineBuffer[0] = ensureCapacity(lineBuffer[0], to - from);
+            return handler.onLine(decode(window, from, to, lineBuffer[0]));
+        });
+    }
+
+    /**
+     * 파일 전체 라인을 디코딩 없이 순회 (매핑 버퍼를 복사하지 않고 범위만 지정하여 전달)
+     * @return 끝까지 읽었으면 true, 핸들러가 중단했으면 false
+     */
+    public boolean forEachLineBytes(ByteLineHandler handler) throws IOException {
+        return scanLines(size, (window, from, to) -> {
+            int end = to;
+            if (end > from && window.get(end - 1) == CR) {
+                end--;
+            }
+            window.limit(Math.min(end, from + MAX_LINE_BYTES));
+            window.position(from);
+            boolean proceed = handler.onLine(window);
+            window.clear();
+            return proceed;
+        });
+    }
+
+    /**
+     * 라인 바이트 디코딩 (position~limit, 버퍼 위치는 변경하지 않음)
+     */
+    public String decode(ByteBuffer line) {
+        return charset.decode(line.duplicate()).toString();
+    }
+
+    /**
+     * 파일 처음부터 end(라인 경계)까지의 라인 순회
+     */
+    private boolean scanLines(long end, RawLineHandler handler) throws IOException {
+        long position = bomLength();
+        boolean truncating = false;
+
+        while (position < end) {
+            long remaining = end - position;
+            int mapped = (int) Math.min(windowSize, remaining);
+            boolean lastWindow = mapped == remaining;
+            ByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, mapped);
+
+            int lineStart = 0;
+            for (int i = 0; i < mapped; i++) {
+                if (window.get(i) != LF) {
+                    continue;
+                }
+                if (truncating) {
+                    truncating = false;
+                } else if (!handler.onLine(window, lineStart, i)) {
+                    return false;
+                }
+                lineStart = i + 1;
+            }
+
+            if (lastWindow) {
+                // 줄바꿈 없이 끝나는 마지막 라인
+                if (lineStart < mapped && !truncating && !handler.onLine(window, lineStart, mapped)) {
+                    return false;
+                }
+                break;
+            }
+
+            if (lineStart > 0) {
+                position += lineStart;
+            } else {
+                // 윈도우 전체가 하나의 라인: 최대 길이까지만 전달하고 나머지는 건너뜀
+                if (!truncating) {
+                    logger.warn("라인이 너무 길어 잘라냅니다: {} (offset {})", path, position);
+                    if (!handler.onLine(window, 0, mapped)) {
+                        return false;
+                    }
+                    truncating = true;
+                }
+                position += mapped;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * offset 이후 첫 줄바꿈 바로 다음 위치 (없으면 파일 끝)
+     */
+    private long alignToLineEnd(long offset) throws IOException {
+        if (offset >= size) {
+            return size;
+        }
+        // offset 직전 바이트가 줄바꿈이면 이미 라인 경계
+        ByteBuffer buffer = ByteBuffer.allocate(8192);
+        long position = offset - 1;
+        while (position < size) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == LF) {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    /**
+     * 파일 시작의 UTF-8 BOM 길이 (없으면 0)
+     */
+    private long bomLength() throws IOException {
+        if (size < 3 || !StandardCharsets.UTF_8.equals(charset)) {
+            return 0;
+        }
+        ByteBuffer bom = ByteBuffer.allocate(3);
+        channel.read(bom, 0);
+        boolean hasBom = bom.get(0) == (byte) 0xEF && bom.get(1) == (byte) 0xBB && bom.get(2) == (byte) 0xBF;
+        return hasBom ? 3 : 0;
+    }
+
+    private String decode(ByteBuffer window, int from, int to, byte[] lineBuffer) {
+        int end = to;
+        if (end > from && window.get(end - 1) == CR) {
+            end--;
+        }
+        int length = Math.min(end - from, MAX_LINE_BYTES);
+        for (int i = 0; i < length; i++) {
+            lineBuffer[i] = window.get(from + i);
+        }
+        return new String(lineBuffer, 0, length, charset);
+    }
+
+    private static byte[] ensureCapacity(byte[] buffer, int length) {
+        int required = Math.min(length, MAX_LINE_BYTES);
+        if (buffer.length >= required) {
+            return buffer;
+        }
+        return new byte[Math.max(required, Math.min(buffer.length * 2, MAX_LINE_BYTES))];
+    }
+}
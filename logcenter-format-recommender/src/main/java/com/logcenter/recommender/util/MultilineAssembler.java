@@ -0,0 +1,195 @@
+package com.logcenter.recommender.util;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.regex.Pattern;
+
+/**
+ * 증분 멀티라인 이벤트 조립기
+ * 라인을 하나씩 받아 이벤트 시작 규칙에 따라 멀티라인 이벤트(스택 트레이스, Windows 이벤트 등)로 묶는다.
+ * 현재 조립 중인 이벤트 하나만 보관하므로 메모리 사용량은 최대 이벤트 크기로 제한된다.
+ *
+ * 사용 방법:
+ * - 푸시 방식: {@link #offer(String)}가 완성된 이벤트를 반환, 입력이 끝나면 {@link #flush()}
+ * - 반복자 방식: {@link #events(Iterator, EventStartRule)}
+ *
+ * 스레드 안전하지 않음
+ */
+public class MultilineAssembler {
+
+    /** 이벤트당 기본 최대 라인 수 */
+    public static final int DEFAULT_MAX_LINES = 1000;
+
+    /** 이벤트당 기본 최대 문자 수 */
+    public static final int DEFAULT_MAX_CHARS = 1024 * 1024;
+
+    /**
+     * 이벤트 시작 규칙
+     */
+    public interface EventStartRule {
+        /**
+         * @return 라인이 새 이벤트의 시작이면 true, 이전 이벤트의 연속이면 false
+         */
+        boolean isStart(String line);
+    }
+
+    /**
+     * 기본 시작 규칙
+     * 타임스탬프로 시작하면 새 이벤트, 스택 트레이스 등 연속 패턴이거나 빈 라인이면 이전 이벤트에 포함.
+     * 연속 패턴은 첫 글자가 공백, 'C', '.', '#'인 경우에만 정규식으로 확인한다.
+     */
+    public static final EventStartRule DEFAULT_RULE = MultilineAssembler::isDefaultStart;
+
+    private final EventStartRule rule;
+    private final int maxLines;
+    private final int maxChars;
+
+    private final StringBuilder current = new StringBuilder();
+    private int currentLines;
+
+    public MultilineAssembler(EventStartRule rule) {
+        this(rule, DEFAULT_MAX_LINES, DEFAULT_MAX_CHARS);
+    }
+
+    /**
+     * @param rule 이벤트 시작 규칙
+     * @param maxLines 이벤트당 최대 라인 수 (초과 시 현재 이벤트를 내보내고 새 이벤트 시작)
+     * @param maxChars 이벤트당 최대 문자 수 (초과분은 잘라냄)
+     */
+    public MultilineAssembler(EventStartRule rule, int maxLines, int maxChars) {
+        this.rule = rule != null ? rule : DEFAULT_RULE;
+        this.maxLines = Math.max(1, maxLines);
+        this.maxChars = Math.max(1, maxChars);
+    }
+
+    /**
+     * 라인 추가
+     * @return 이 라인으로 인해 완성된 이전 이벤트, 없으면 null
+     */
+    public String offer(String line) {
+        if (line == null) {
+            return null;
+        }
+
+        // 내용 없이 빈 라인만 있던 이벤트는 버림
+        if (current.length() == 0) {
+            currentLines = 0;
+        }
+
+        String completed = null;
+        if (currentLines > 0 && (currentLines >= maxLines || rule.isStart(line))) {
+            completed = current.toString();
+            current.setLength(0);
+            currentLines = 0;
+        }
+
+        if (currentLines > 0) {
+            append("\n");
+        }
+        append(line);
+        currentLines++;
+        return completed;
+    }
+
+    /**
+     * 조립 중인 마지막 이벤트 반환
+     * @return 마지막 이벤트, 없으면 null
+     */
+    public String flush() {
+        if (current.length() == 0) {
+            currentLines = 0;
+            return null;
+        }
+        String completed = current.toString();
+        current.setLength(0);
+        currentLines = 0;
+        return completed;
+    }
+
+    /**
+     * 조립 중인 이벤트가 있는지 확인
+     */
+    public boolean hasPending() {
+        return current.length() > 0;
+    }
+
+    /**
+     * 라인 반복자를 이벤트 반복자로 변환 (다음 이벤트 시작 라인까지만 미리 읽음)
+     */
+    public static Iterator<String> events(Iterator<String> lines, EventStartRule rule) {
+        return events(lines, new MultilineAssembler(rule));
+    }
+
+    public static Iterator<String> events(Iterator<String> lines, MultilineAssembler assembler) {
+        return new Iterator<String>() {
+            private String next;
+
+            @Override
+            public boolean hasNext() {
+                while (next == null && lines.hasNext()) {
+                    next = assembler.offer(lines.next());
+                }
+                if (next == null) {
+                    next = assembler.flush();
+                }
+                return next != null;
+            }
+
+            @Override
+            public String next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                String event = next;
+                next = null;
+                return event;
+            }
+        };
+    }
+
+    private void append(String text) {
+        int available = maxChars - current.length();
+        if (available <= 0) {
+            return;
+        }
+        current.append(text, 0, Math.min(text.length(), available));
+    }
+
+    /**
+     * 기본 규칙 (기존 LogParser 판단과 동일): 빈 라인은 연속, 타임스탬프로 시작하면 새 이벤트, 연속 패턴이면 연속, 그 외는 새 이벤트
+     */
+    private static boolean isDefaultStart(String line) {
+        int first = firstNonWhitespace(line);
+        if (first < 0) {
+            return false;
+        }
+
+        // 연속 패턴 후보가 아니면 정규식 없이 새 이벤트로 판단
+        char c = line.charAt(first);
+        boolean indented = first > 0;
+        if (!(indented && c == 'a') && c != 'C' && c != '.' && c != '#') {
+            return true;
+        }
+
+        for (Pattern pattern : LogParser.TIMESTAMP_PATTERNS) {
+            if (pattern.matcher(line).find()) {
+                return true;
+            }
+        }
+        for (Pattern pattern : LogParser.MULTILINE_START_PATTERNS) {
+            if (pattern.matcher(line).find()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int firstNonWhitespace(String line) {
+        for (int i = 0; i < line.length(); i++) {
+            if (line.charAt(i) > ' ') {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
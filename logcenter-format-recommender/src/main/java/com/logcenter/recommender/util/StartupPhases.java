@@ -0,0 +1,176 @@
+package com.logcenter.recommender.util;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 시작 단계 실행기 및 프로파일러
+ * 초기화 단계를 의존 관계에 따라 실행하고(서로 독립인 단계는 동시에) 단계별 시작 시각과 소요 시간을 기록한다.
+ * 단계는 앞 단계의 완료를 기다리며 스레드를 점유하지 않으므로 스레드가 하나인 풀에서도 멈추지 않는다.
+ */
+public final class StartupPhases {
+
+    private final long originNanos;
+    private final List<Phase> phases = Collections.synchronizedList(new ArrayList<>());
+
+    public StartupPhases() {
+        this.originNanos = System.nanoTime();
+    }
+
+    /**
+     * 단계를 실행기에서 비동기로 실행
+     * @param name 단계 이름
+     * @param executor 실행기
+     * @param task 단계 작업
+     * @param dependencies 먼저 끝나야 하는 단계
+     * @return 단계 결과
+     */
+    public <T> CompletableFuture<T> submit(String name, Executor executor, Supplier<T> task,
+                                           CompletableFuture<?>... dependencies) {
+        return CompletableFuture.allOf(dependencies)
+            .thenApplyAsync(ignored -> run(name, task), executor);
+    }
+
+    /**
+     * 단계를 현재 스레드에서 실행
+     * @param name 단계 이름
+     * @param task 단계 작업
+     * @return 작업 결과
+     */
+    public <T> T run(String name, Supplier<T> task) {
+        long start = System.nanoTime();
+        try {
+            return task.get();
+        } finally {
+            record(name, start, System.nanoTime());
+        }
+    }
+
+    /**
+     * 단계를 현재 스레드에서 실행 (결과 없음)
+     */
+    public void run(String name, Runnable task) {
+        run(name, () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    /**
+     * JVM 시작부터 지금까지를 단계로 기록 (클래스 로딩, 명령행 파싱 등)
+     * @param name 단계 이름
+     */
+    public void recordSinceJvmStart(String name) {
+        long uptimeNanos = TimeUnit.MILLISECONDS.toNanos(ManagementFactory.getRuntimeMXBean().getUptime());
+        long now = System.nanoTime();
+        record(name, now - uptimeNanos, now);
+    }
+
+    private void record(String name, long startNanos, long endNanos) {
+        phases.add(new Phase(name, Thread.currentThread().getName(),
+            startNanos - originNanos, endNanos - startNanos));
+    }
+
+    /**
+     * 단계 결과 기다리기 (단계에서 발생한 예외는 그대로 다시 던짐)
+     */
+    public static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 기록된 단계 (시작 순서)
+     */
+    public List<Phase> getPhases() {
+        List<Phase> snapshot;
+        synchronized (phases) {
+            snapshot = new ArrayList<>(phases);
+        }
+        snapshot.sort(Comparator.comparingLong(Phase::getStartNanos));
+        return snapshot;
+    }
+
+    /**
+     * 단계별 시작 시각, 소요 시간, 실행 스레드 표
+     */
+    public String report() {
+        List<Phase> snapshot = getPhases();
+        long first = 0;
+        long last = 0;
+        int nameWidth = 5;
+        for (Phase phase : snapshot) {
+            first = Math.min(first, phase.getStartNanos());
+            last = Math.max(last, phase.getStartNanos() + phase.getDurationNanos());
+            nameWidth = Math.max(nameWidth, phase.getName().length());
+        }
+
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("시작 단계 프로파일 (전체 %dms)%n", toMillis(last - first)));
+        String row = "  %-" + nameWidth + "s %8s %8s  %s%n";
+        sb.append(String.format(row, "단계", "시작", "소요", "스레드"));
+        for (Phase phase : snapshot) {
+            sb.append(String.format(row, phase.getName(),
+                toMillis(phase.getStartNanos() - first) + "ms",
+                toMillis(phase.getDurationNanos()) + "ms",
+                phase.getThread()));
+        }
+        return sb.toString();
+    }
+
+    private static long toMillis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    /**
+     * 기록된 단계
+     */
+    public static final class Phase {
+        private final String name;
+        private final String thread;
+        private final long startNanos;
+        private final long durationNanos;
+
+        Phase(String name, String thread, long startNanos, long durationNanos) {
+            this.name = name;
+            this.thread = thread;
+            this.startNanos = startNanos;
+            this.durationNanos = durationNanos;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getThread() {
+            return thread;
+        }
+
+        /** 실행기 생성 시각 기준 시작 시각 (JVM 시작 단계는 음수) */
+        public long getStartNanos() {
+            return startNanos;
+        }
+
+        public long getDurationNanos() {
+            return durationNanos;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.logcenter.recommender.util;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 작업 스레드 풀 유틸리티
+ * 풀 작업 안에서 같은 풀로 다시 작업을 나누고 기다리면 스레드가 모두 대기 상태가 되어 멈춘다.
+ * 이 클래스로 만든 풀은 현재 스레드가 해당 풀의 작업 스레드인지 확인할 수 있으므로
+ * 호출 측은 풀 안에서는 작업을 나누지 않고 호출 스레드에서 바로 실행한다.
+ */
+public final class WorkerThreads {
+
+    // 현재 스레드를 만든 스레드 팩토리
+    private static final ThreadLocal<ThreadFactory> OWNER = new ThreadLocal<>();
+
+    private WorkerThreads() {
+    }
+
+    /**
+     * 고정 크기 데몬 스레드 풀 생성
+     * @param name 스레드 이름 접두어
+     * @param threads 스레드 수
+     */
+    public static ThreadPoolExecutor newFixedPool(String name, int threads) {
+        int size = Math.max(1, threads);
+        return new ThreadPoolExecutor(size, size, 0L, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(), new MarkingThreadFactory(name));
+    }
+
+    /**
+     * 현재 스레드가 주어진 풀의 작업 스레드인지 확인
+     */
+    public static boolean isWorkerOf(ThreadPoolExecutor pool) {
+        return pool != null && OWNER.get() == pool.getThreadFactory();
+    }
+
+    /**
+     * 풀 크기 변경 (늘릴 때는 최대값, 줄일 때는 코어값을 먼저 변경)
+     */
+    public static void resize(ThreadPoolExecutor pool, int threads) {
+        int size = Math.max(1, threads);
+        if (size > pool.getMaximumPoolSize()) {
+            pool.setMaximumPoolSize(size);
+            pool.setCorePoolSize(size);
+        } else {
+            pool.setCorePoolSize(size);
+            pool.setMaximumPoolSize(size);
+        }
+    }
+
+    private static final class MarkingThreadFactory implements ThreadFactory {
+        private final String name;
+        private final AtomicInteger sequence = new AtomicInteger();
+
+        MarkingThreadFactory(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(() -> {
+                OWNER.set(this);
+                runnable.run();
+            }, name + "-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -5,38 +5,72 @@ import com.logcenter.recommender.grok.GrokCompilerWrapper;
 import com.logcenter.recommender.model.LogFormat;
 import com.logcenter.recommender.model.ValidationResult;
 import com.logcenter.recommender.model.ValidationResult.Status;
+import com.logcenter.recommender.util.DeadlineCharSequence;
 import com.logcenter.recommender.util.JacksonJsonUtils;
+import com.logcenter.recommender.util.WorkerThreads;
 import com.fasterxml.jackson.core.type.TypeReference;
 import io.krakens.grok.api.Grok;
 import io.krakens.grok.api.Match;
-import io.krakens.grok.api.exception.GrokException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.*;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 /**
  * 로그 포맷 검증기
  * setting_logformat.json의 모든 포맷을 검증하여 패턴 컴파일 오류와 파싱 문제를 미리 발견
+ * 포맷은 작업 스레드에서 병렬로 검증하고, 패턴마다 제한 시간을 두어
+ * 역추적이 폭주하는 패턴은 매칭 중인 스레드 안에서 끝내고 TIMEOUT으로 보고한다.
  */
 public class LogFormatValidator {
     
     private static final Logger logger = LoggerFactory.getLogger(LogFormatValidator.class);
     
+    /** 패턴 하나의 기본 검증 제한 시간 (밀리초) */
+    public static final long DEFAULT_PATTERN_TIMEOUT_MS = 2000;
+    
     private final GrokCompilerWrapper grokCompiler;
-    private final int maxValidationTime = 10000; // 10초 타임아웃
+    private final long patternTimeoutMs;
+    private final ThreadPoolExecutor executor;
     
     public LogFormatValidator() {
+        this(Runtime.getRuntime().availableProcessors(), DEFAULT_PATTERN_TIMEOUT_MS);
+    }
+    
+    /**
+     * @param threads 동시에 검증할 포맷 수
+     * @param patternTimeoutMs 패턴 하나의 검증 제한 시간 (밀리초)
+     */
+    public LogFormatValidator(int threads, long patternTimeoutMs) {
         this.grokCompiler = new GrokCompilerWrapper();
-        logger.info("LogFormatValidator 초기화: 순차 처리 모드");
+        this.patternTimeoutMs = patternTimeoutMs;
+        this.executor = WorkerThreads.newFixedPool("validator", threads);
+        logger.info("LogFormatValidator 초기화: 동시 {}개, 패턴 제한 시간 {}ms",
+            executor.getMaximumPoolSize(), patternTimeoutMs);
         
         // 커스텀 패턴 로드
         loadCustomPatterns();
     }
     
+    /**
+     * 진행 상황 수신자
+     * 포맷 하나의 검증이 끝날 때마다 호출되며, 동시에 호출되지 않고 completed는 1씩 증가한다.
+     */
+    @FunctionalInterface
+    public interface ProgressListener {
+        /**
+         * @param completed 검증을 마친 포맷 수
+         * @param total 전체 포맷 수
+         */
+        void onProgress(int completed, int total);
+    }
+    
     /**
      * 커스텀 패턴 로드
      */
@@ -64,6 +98,14 @@ public class LogFormatValidator {
      * 지정된 파일의 모든 로그 포맷 검증
      */
     public List<ValidationResult> validateAllFormats(String resourcePath) {
+        return validateAllFormats(resourcePath, null);
+    }
+    
+    /**
+     * 지정된 파일의 모든 로그 포맷 검증
+     * @param listener 진행 상황 수신자 (null 가능)
+     */
+    public List<ValidationResult> validateAllFormats(String resourcePath, ProgressListener listener) {
         List<LogFormat> formats = loadFormats(resourcePath);
         
         if (formats.isEmpty()) {
@@ -72,38 +114,59 @@ public class LogFormatValidator {
         }
         
         logger.info("총 {}개의 포맷을 검증합니다", formats.size());
+        long start = System.nanoTime();
+        List<ValidationResult> results = validateFormats(formats, listener);
+        logger.info("검증 완료: 총 {}개 포맷 처리 ({}ms)", formats.size(),
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
         
-        // 순차 처리로 변경
-        List<ValidationResult> allResults = new ArrayList<>();
-        int totalFormats = formats.size();
-        int processedFormats = 0;
-        
+        return results;
+    }
+    
+    /**
+     * 여러 로그 포맷을 병렬로 검증
+     * 결과는 끝난 순서와 관계없이 입력 포맷 순서(포맷 안에서는 패턴 순서)로 반환한다.
+     * @param listener 진행 상황 수신자 (null 가능)
+     */
+    public List<ValidationResult> validateFormats(List<LogFormat> formats, ProgressListener listener) {
+        Progress progress = new Progress(formats.size(), listener);
+        List<Future<List<ValidationResult>>> futures = new ArrayList<>(formats.size());
         for (LogFormat format : formats) {
-            processedFormats++;
-            if (processedFormats % 10 == 0 || processedFormats == totalFormats) {
-                logger.info("진행 상황: {}/{} 포맷 처리 완료 ({}%)", 
-                    processedFormats, totalFormats, 
-                    (processedFormats * 100) / totalFormats);
-            }
-            
-            try {
-                // 각 포맷을 순차적으로 검증
-                List<ValidationResult> results = validateFormat(format);
-                allResults.addAll(results);
-            } catch (Exception e) {
-                logger.error("포맷 {} 검증 중 오류: {}", format.getFormatName(), e.getMessage());
-                // 오류가 발생해도 다음 포맷 계속 처리
-                ValidationResult errorResult = new ValidationResult(format.getFormatId(), format.getFormatName());
-                errorResult.addError("검증 중 예외 발생: " + e.getMessage());
-                allResults.add(errorResult);
-            }
+            futures.add(executor.submit(() -> {
+                List<ValidationResult> results = validateFormatSafely(format);
+                progress.formatDone();
+                return results;
+            }));
         }
         
-        logger.info("검증 완료: 총 {}개 포맷 처리", processedFormats);
-        
+        List<ValidationResult> allResults = new ArrayList<>();
+        try {
+            for (Future<List<ValidationResult>> future : futures) {
+                allResults.addAll(future.get());
+            }
+        } catch (InterruptedException e) {
+            futures.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("검증이 중단되었습니다", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("검증 작업 실패", e.getCause());
+        }
         return allResults;
     }
     
+    /**
+     * 포맷 검증 (예외가 발생해도 다른 포맷 검증은 계속되도록 오류 결과로 변환)
+     */
+    private List<ValidationResult> validateFormatSafely(LogFormat format) {
+        try {
+            return validateFormat(format);
+        } catch (Exception e) {
+            logger.error("포맷 {} 검증 중 오류: {}", format.getFormatName(), e.getMessage());
+            ValidationResult errorResult = new ValidationResult(format.getFormatId(), format.getFormatName());
+            errorResult.addError("검증 중 예외 발생: " + e.getMessage());
+            return Collections.singletonList(errorResult);
+        }
+    }
+    
     /**
      * 단일 로그 포맷 검증
      */
@@ -144,6 +207,7 @@ public class LogFormatValidator {
      */
     private ValidationResult validatePattern(LogFormat format, LogFormat.LogType logType, LogFormat.Pattern pattern) {
         long startTime = System.currentTimeMillis();
+        long deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(patternTimeoutMs);
         
         ValidationResult result = new ValidationResult(format.getFormatId(), format.getFormatName());
         result.setExpName(pattern.getExpName());
@@ -178,18 +242,10 @@ public class LogFormatValidator {
         // 3. 샘플 로그 테스트
         if (pattern.getSampleLog() != null && !pattern.getSampleLog().trim().isEmpty()) {
             try {
-                // 직접 매칭 실행 (순차 처리)
-                final String sampleLog = pattern.getSampleLog();
-                long matchStartTime = System.currentTimeMillis();
-                
-                Match match = grok.match(sampleLog);
+                // 매칭 중 제한 시간이 지나면 입력을 읽는 시점에 중단됨
+                Match match = grok.match(new DeadlineCharSequence(pattern.getSampleLog(), deadlineNanos));
                 Map<String, Object> captures = match.capture();
                 
-                long matchTime = System.currentTimeMillis() - matchStartTime;
-                if (matchTime > 5000) { // 5초 이상 걸리면 경고
-                    logger.warn("매칭 시간이 오래 걸림: {} - {}ms", pattern.getExpName(), matchTime);
-                }
-                
                 if (captures == null || captures.isEmpty()) {
                     result.addError("샘플 로그와 패턴이 매칭되지 않음");
                 } else {
@@ -203,6 +259,11 @@ public class LogFormatValidator {
                         result.setStatus(result.hasWarnings() ? Status.WARNING : Status.PASS);
                     }
                 }
+            } catch (DeadlineCharSequence.DeadlineExceededException e) {
+                logger.warn("매칭 시간 초과: {} ({}ms 제한)", pattern.getExpName(), patternTimeoutMs);
+                result.markTimedOut(String.format("매칭 시간 초과 (%dms 제한)", patternTimeoutMs));
+            } catch (StackOverflowError e) {
+                result.addError("매칭 중 오류: 정규식 재귀가 너무 깊음");
             } catch (Exception e) {
                 result.addError(String.format("매칭 중 오류: %s", e.getMessage()));
             }
@@ -290,7 +351,28 @@ public class LogFormatValidator {
      * 리소스 정리
      */
     public void shutdown() {
-        // 순차 처리에서는 스레드 풀이 없으므로 특별한 종료 작업 불필요
+        executor.shutdownNow();
         logger.info("LogFormatValidator 종료");
     }
+    
+    /**
+     * 포맷 완료 수 집계 및 진행 상황 통지
+     */
+    private static final class Progress {
+        private final int total;
+        private final ProgressListener listener;
+        private int completed;
+        
+        Progress(int total, ProgressListener listener) {
+            this.total = total;
+            this.listener = listener;
+        }
+        
+        synchronized void formatDone() {
+            completed++;
+            if (listener != null) {
+                listener.onProgress(completed, total);
+            }
+        }
+    }
 }
\ No newline at end of file
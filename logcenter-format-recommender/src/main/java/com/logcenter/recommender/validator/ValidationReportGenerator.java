@@ -40,6 +40,7 @@ public class ValidationReportGenerator {
         report.append(String.format("✓ 통과: %d\n", statistics.getOrDefault(Status.PASS, 0L)));
         report.append(String.format("⚠ 경고: %d\n", statistics.getOrDefault(Status.WARNING, 0L)));
         report.append(String.format("✗ 실패: %d\n", statistics.getOrDefault(Status.FAIL, 0L)));
+        report.append(String.format("⏱ 시간 초과: %d\n", statistics.getOrDefault(Status.TIMEOUT, 0L)));
         report.append(String.format("— 건너뜀: %d\n", statistics.getOrDefault(Status.SKIPPED, 0L)));
         
         double successRate = calculateSuccessRate(results);
@@ -61,9 +62,10 @@ public class ValidationReportGenerator {
                 long passCount = groupResults.stream().filter(r -> r.getStatus() == Status.PASS).count();
                 long warnCount = groupResults.stream().filter(r -> r.getStatus() == Status.WARNING).count();
                 long failCount = groupResults.stream().filter(r -> r.getStatus() == Status.FAIL).count();
+                long timeoutCount = groupResults.stream().filter(r -> r.getStatus() == Status.TIMEOUT).count();
                 
-                report.append(String.format("%-20s: 전체 %3d | 통과 %3d | 경고 %3d | 실패 %3d\n",
-                    groupName, groupResults.size(), passCount, warnCount, failCount));
+                report.append(String.format("%-20s: 전체 %3d | 통과 %3d | 경고 %3d | 실패 %3d | 시간 초과 %3d\n",
+                    groupName, groupResults.size(), passCount, warnCount, failCount, timeoutCount));
             }
             report.append("\n");
         }
@@ -100,6 +102,21 @@ public class ValidationReportGenerator {
             report.append("\n");
         }
         
+        // 시간 초과 목록 (역추적이 폭주하는 패턴 후보)
+        List<ValidationResult> timeouts = results.stream()
+            .filter(r -> r.getStatus() == Status.TIMEOUT)
+            .collect(Collectors.toList());
+        
+        if (!timeouts.isEmpty()) {
+            report.append("■ 시간 초과 패턴\n");
+            report.append("---------------------------------------------------------\n");
+            
+            for (ValidationResult result : timeouts) {
+                report.append(String.format("  %s (%s)\n", result.getFormatName(), result.getExpName()));
+            }
+            report.append("\n");
+        }
+        
         // 경고 목록 (선택적)
         List<ValidationResult> warnings = results.stream()
             .filter(r -> r.getStatus() == Status.WARNING)
@@ -149,6 +166,7 @@ public class ValidationReportGenerator {
         html.append(".pass { color: green; }\n");
         html.append(".warning { color: orange; }\n");
         html.append(".fail { color: red; }\n");
+        html.append(".timeout { color: purple; }\n");
         html.append(".statistics { background-color: #f9f9f9; padding: 15px; margin: 20px 0; }\n");
         html.append(".error-details { background-color: #ffe5e5; padding: 10px; margin: 10px 0; }\n");
         html.append("</style>\n");
@@ -170,6 +188,7 @@ public class ValidationReportGenerator {
         html.append("<li class='pass'>통과: ").append(statistics.getOrDefault(Status.PASS, 0L)).append("</li>\n");
         html.append("<li class='warning'>경고: ").append(statistics.getOrDefault(Status.WARNING, 0L)).append("</li>\n");
         html.append("<li class='fail'>실패: ").append(statistics.getOrDefault(Status.FAIL, 0L)).append("</li>\n");
+        html.append("<li class='timeout'>시간 초과: ").append(statistics.getOrDefault(Status.TIMEOUT, 0L)).append("</li>\n");
         html.append("<li>건너뜀: ").append(statistics.getOrDefault(Status.SKIPPED, 0L)).append("</li>\n");
         html.append(String.format("<li><strong>성공률: %.2f%%</strong></li>\n", successRate));
         html.append("</ul>\n");
@@ -237,6 +256,7 @@ public class ValidationReportGenerator {
         stats.put("passed", statistics.getOrDefault(Status.PASS, 0L));
         stats.put("warnings", statistics.getOrDefault(Status.WARNING, 0L));
         stats.put("failed", statistics.getOrDefault(Status.FAIL, 0L));
+        stats.put("timedOut", statistics.getOrDefault(Status.TIMEOUT, 0L));
         stats.put("skipped", statistics.getOrDefault(Status.SKIPPED, 0L));
         report.put("statistics", stats);
         
@@ -26,6 +26,8 @@ public class ValidatorMain {
         String resourcePath = "/setting_logformat.json";
         String outputFormat = "text"; // text, html, json
         String outputFile = null;
+        int threads = Runtime.getRuntime().availableProcessors();
+        long timeoutMs = LogFormatValidator.DEFAULT_PATTERN_TIMEOUT_MS;
         
         for (int i = 0; i < args.length; i++) {
             switch (args[i]) {
@@ -46,6 +48,16 @@ public class ValidatorMain {
                         outputFormat = args[++i].toLowerCase();
                     }
                     break;
+                case "--threads":
+                    if (i + 1 < args.length) {
+                        threads = Integer.parseInt(args[++i]);
+                    }
+                    break;
+                case "--timeout":
+                    if (i + 1 < args.length) {
+                        timeoutMs = Long.parseLong(args[++i]);
+                    }
+                    break;
                 case "-h":
                 case "--help":
                     printHelp();
@@ -54,14 +66,23 @@ public class ValidatorMain {
         }
         
         // 검증 실행
-        LogFormatValidator validator = new LogFormatValidator();
+        LogFormatValidator validator = new LogFormatValidator(threads, timeoutMs);
         ValidationReportGenerator reportGenerator = new ValidationReportGenerator();
         
         try {
             System.out.println("포맷 파일 로드 중: " + resourcePath);
             
-            // 검증 수행
-            List<ValidationResult> results = validator.validateAllFormats(resourcePath);
+            // 검증 수행 (진행 상황은 한 줄로 갱신)
+            long start = System.currentTimeMillis();
+            List<ValidationResult> results = validator.validateAllFormats(resourcePath, (completed, total) -> {
+                if (completed % 10 == 0 || completed == total) {
+                    System.err.print(String.format("\r진행 상황: %d/%d 포맷 (%d%%)", completed, total, completed * 100 / total));
+                }
+                if (completed == total) {
+                    System.err.println();
+                }
+            });
+            System.out.println(String.format("검증 시간: %dms", System.currentTimeMillis() - start));
             
             if (results.isEmpty()) {
                 System.err.println("검증할 포맷이 없습니다.");
@@ -95,10 +116,20 @@ public class ValidatorMain {
                 System.out.println("\n" + report);
             }
             
-            // 종료 코드 설정 (실패가 있으면 1, 없으면 0)
+            // 종료 코드 설정 (실패나 시간 초과가 있으면 1, 없으면 0)
             long failCount = results.stream()
                 .filter(r -> r.getStatus() == Status.FAIL)
                 .count();
+            List<String> timedOutFormats = results.stream()
+                .filter(r -> r.getStatus() == Status.TIMEOUT)
+                .map(r -> String.format("%s (%s)", r.getFormatName(), r.getExpName()))
+                .collect(Collectors.toList());
+            
+            if (!timedOutFormats.isEmpty()) {
+                System.err.println(String.format("\n⚠ 경고: %d개의 패턴이 제한 시간(%dms) 안에 매칭을 끝내지 못했습니다.",
+                    timedOutFormats.size(), timeoutMs));
+                timedOutFormats.forEach(f -> System.err.println("  - " + f));
+            }
             
             if (failCount > 0) {
                 System.err.println(String.format("\n⚠ 경고: %d개의 포맷에서 오류가 발견되었습니다.", failCount));
@@ -112,6 +143,8 @@ public class ValidatorMain {
                 System.err.println("실패 포맷:");
                 failedFormats.forEach(f -> System.err.println("  - " + f));
                 
+                System.exit(1);
+            } else if (!timedOutFormats.isEmpty()) {
                 System.exit(1);
             } else {
                 System.out.println("\n✓ 모든 포맷이 검증을 통과했습니다.");
@@ -132,6 +165,9 @@ public class ValidatorMain {
         System.out.println("  -f, --file <path>    검증할 포맷 파일 경로 (기본값: /setting_logformat.json)");
         System.out.println("  -o, --output <file>  결과를 파일로 저장");
         System.out.println("  --format <type>      출력 형식: text, html, json (기본값: text)");
+        System.out.println("  --threads <n>        동시에 검증할 포맷 수 (기본값: CPU 수)");
+        System.out.println("  --timeout <ms>       패턴 하나의 매칭 제한 시간 (기본값: "
+            + LogFormatValidator.DEFAULT_PATTERN_TIMEOUT_MS + ")");
         System.out.println("  -h, --help           도움말 표시");
         System.out.println();
         System.out.println("예시:");
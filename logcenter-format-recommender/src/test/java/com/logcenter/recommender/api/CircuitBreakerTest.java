@@ -0,0 +1,85 @@
+package com.logcenter.recommender.api;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+/**
+ * CircuitBreaker 단위 테스트
+ */
+public class CircuitBreakerTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    private CircuitBreaker newBreaker() {
+        // 최근 10개 중 최소 4개, 실패율 50%, p90 지연 1000ms, 열림 5초
+        return new CircuitBreaker(10, 4, 50, 0.9, 1000, 5000, now::get);
+    }
+
+    @Test
+    public void testOpensOnFailureRate() {
+        CircuitBreaker breaker = newBreaker();
+        breaker.recordSuccess(10);
+        breaker.recordFailure(10);
+        breaker.recordSuccess(10);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+        breaker.recordFailure(10);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.allowRequest());
+        assertEquals(1, breaker.getOpenCount());
+    }
+
+    @Test
+    public void testOpensOnLatencyPercentile() {
+        CircuitBreaker breaker = newBreaker();
+        for (int i = 0; i < 3; i++) {
+            breaker.recordSuccess(100);
+        }
+        assertEquals(-1, breaker.latencyPercentile(0.5));
+
+        breaker.recordSuccess(1200);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    public void testHalfOpenAllowsSingleProbe() {
+        CircuitBreaker breaker = newBreaker();
+        for (int i = 0; i < 4; i++) {
+            breaker.recordFailure(10);
+        }
+        assertFalse(breaker.allowRequest());
+
+        // 열린 시간이 지나면 시험 호출 하나만 허용
+        now.addAndGet(5000);
+        assertTrue(breaker.allowRequest());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertFalse(breaker.allowRequest());
+
+        // 시험 호출 실패 -> 다시 열림
+        breaker.recordFailure(10);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+        // 시험 호출이 결과 없이 취소되면 다음 요청이 다시 시험 호출
+        now.addAndGet(5000);
+        assertTrue(breaker.allowRequest());
+        breaker.releaseProbe();
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertTrue(breaker.allowRequest());
+        assertFalse(breaker.allowRequest());
+        breaker.recordFailure(10);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+        // 다음 시험 호출 성공 -> 닫힘
+        now.addAndGet(5000);
+        assertTrue(breaker.allowRequest());
+        breaker.recordSuccess(10);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.allowRequest());
+        assertEquals(3, breaker.getOpenCount());
+    }
+}
\ No newline at end of file
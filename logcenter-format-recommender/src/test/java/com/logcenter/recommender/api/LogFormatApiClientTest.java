@@ -1,10 +1,15 @@
 package com.logcenter.recommender.api;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.logcenter.recommender.api.cache.CacheManager;
 import com.logcenter.recommender.api.model.ApiResponse;
 import com.logcenter.recommender.api.model.LogFormatRequest;
+import com.logcenter.recommender.api.model.SampleResult;
+import com.logcenter.recommender.cache.PersistentCacheManager;
+import com.logcenter.recommender.config.AppConfig;
 import com.logcenter.recommender.model.FormatRecommendation;
 import com.logcenter.recommender.model.LogFormat;
+import com.logcenter.recommender.util.JacksonJsonUtils;
 import org.apache.http.HttpEntity;
 import org.apache.http.HttpResponse;
 import org.apache.http.StatusLine;
@@ -14,13 +19,26 @@ import org.apache.http.client.methods.HttpPost;
 import org.apache.http.client.methods.HttpUriRequest;
 import org.apache.http.entity.StringEntity;
 import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.message.BasicHeader;
+import org.apache.http.util.EntityUtils;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.mockito.ArgumentCaptor;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
 
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
@@ -34,6 +52,9 @@ public class LogFormatApiClientTest {
     private LogFormatApiClient apiClient;
     private ObjectMapper objectMapper;
     
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+    
     @Before
     public void setUp() throws Exception {
         mockHttpClient = mock(CloseableHttpClient.class);
@@ -107,6 +128,42 @@ public class LogFormatApiClientTest {
         verify(mockHttpClient, times(2)).execute(any(HttpGet.class));
     }
     
+    @Test
+    public void testGetLogFormats_ConditionalRequestUsesCache() throws Exception {
+        // Given - 영구 캐시 사용
+        AppConfig config = AppConfig.getInstance();
+        String originalCacheDir = config.getString(AppConfig.PERSISTENT_CACHE_DIR);
+        config.setProperty(AppConfig.PERSISTENT_CACHE_DIR, tempFolder.newFolder("cache").getPath());
+        try {
+            PersistentCacheManager cacheManager = new PersistentCacheManager();
+            cacheManager.initialize();
+            apiClient.setCatalogCache(cacheManager);
+            
+            LogFormat format = createLogFormat("format1", "FIREWALL", "CISCO");
+            format.setFormatId("format1");
+            String jsonResponse = JacksonJsonUtils.toJson(new ApiResponse<>(true, "success", Arrays.asList(format)));
+            CloseableHttpResponse fullResponse = createMockResponse(200, jsonResponse);
+            when(fullResponse.getFirstHeader("ETag")).thenReturn(new BasicHeader("ETag", "\"v1\""));
+            CloseableHttpResponse notModified = createMockResponse(304, null);
+            when(mockHttpClient.execute(any(HttpGet.class))).thenReturn(fullResponse).thenReturn(notModified);
+            
+            // When
+            List<LogFormat> first = apiClient.getLogFormats();
+            List<LogFormat> second = apiClient.getLogFormats();
+            
+            // Then - 두 번째 요청은 ETag로 확인하고 304면 캐시 사용
+            ArgumentCaptor<HttpGet> captor = ArgumentCaptor.forClass(HttpGet.class);
+            verify(mockHttpClient, times(2)).execute(captor.capture());
+            assertNull(captor.getAllValues().get(0).getFirstHeader("If-None-Match"));
+            assertEquals("\"v1\"", captor.getAllValues().get(1).getFirstHeader("If-None-Match").getValue());
+            assertEquals(1, first.size());
+            assertEquals(1, second.size());
+            assertEquals("format1", second.get(0).getFormatId());
+        } finally {
+            config.setProperty(AppConfig.PERSISTENT_CACHE_DIR, originalCacheDir);
+        }
+    }
+    
     @Test
     public void testRecommendFormats_Success() throws IOException {
         // Given
@@ -253,12 +310,282 @@ public class LogFormatApiClientTest {
         verify(mockHttpClient, times(3)).execute(any(HttpPost.class));
     }
     
+    @Test
+    public void testCancelAbortsInFlightRequest() throws Exception {
+        LogFormatRequest request = new LogFormatRequest();
+        request.setLogSamples(Arrays.asList("test log"));
+        
+        // 응답이 오지 않는 요청 (끊기면 HttpClient처럼 IOException)
+        CountDownLatch sent = new CountDownLatch(1);
+        List<HttpPost> requests = new ArrayList<>();
+        when(mockHttpClient.execute(any(HttpPost.class))).thenAnswer(invocation -> {
+            HttpPost post = invocation.getArgument(0);
+            requests.add(post);
+            sent.countDown();
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (!post.isAborted() && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            throw new IOException("request aborted");
+        });
+        
+        CompletableFuture<List<FormatRecommendation>> future = apiClient.recommendFormatsAsync(request, false);
+        assertTrue(sent.await(5, TimeUnit.SECONDS));
+        future.cancel(true);
+        
+        assertTrue("취소된 요청은 끊겨야 합니다", requests.get(0).isAborted());
+        // 취소 후에는 재시도하지 않음
+        Thread.sleep(200);
+        verify(mockHttpClient, times(1)).execute(any(HttpPost.class));
+    }
+    
+    @Test
+    public void testRecommendFormats_ClientErrorNotRetried() throws IOException {
+        // Given
+        LogFormatRequest request = new LogFormatRequest();
+        request.setLogSamples(Arrays.asList("test log"));
+        
+        CloseableHttpResponse mockResponse = createMockResponse(400, "{\"success\":false,\"message\":\"Bad Request\"}");
+        when(mockHttpClient.execute(any(HttpPost.class))).thenReturn(mockResponse);
+        
+        // When/Then - 4xx 오류는 재시도하지 않음
+        try {
+            apiClient.recommendFormats(request);
+            fail("IOException이 발생해야 합니다");
+        } catch (IOException e) {
+            assertEquals("API 오류 (400): Bad Request", e.getMessage());
+        }
+        verify(mockHttpClient, times(1)).execute(any(HttpPost.class));
+    }
+    
+    @Test
+    public void testRecommendBatch_AssemblesPerSampleResults() throws Exception {
+        // Given - 배치 단위 2, 샘플 5개 -> 요청 3개
+        LogFormatApiClient chunkedClient = createChunkedClient(2);
+        
+        // 서버는 샘플마다 그 샘플을 포맷 이름으로 하는 결과를 역순으로 돌려줌 (순서가 아닌 인덱스로 모아야 함)
+        when(mockHttpClient.execute(any(HttpPost.class))).thenAnswer(invocation -> {
+            LogFormatRequest sent = readRequest(invocation.getArgument(0));
+            List<SampleResult> samples = new ArrayList<>();
+            for (int i = sent.getLogSamples().size() - 1; i >= 0; i--) {
+                samples.add(new SampleResult(sent.getSampleOffset() + i,
+                    Arrays.asList(createRecommendation(sent.getLogSamples().get(i), 90.0))));
+            }
+            return createMockResponse(200, JacksonJsonUtils.toJson(new ApiResponse<>(true, "success", samples)));
+        });
+        
+        LogFormatRequest request = new LogFormatRequest();
+        request.setLogSamples(Arrays.asList("a", "b", "c", "d", "e"));
+        request.setGroupFilter("WEB");
+        
+        try {
+            // When
+            Map<Integer, String> streamed = new ConcurrentHashMap<>();
+            List<List<FormatRecommendation>> results = chunkedClient.recommendBatchAsync(request,
+                (index, recommendations) -> streamed.put(index, recommendations.get(0).getLogFormat().getFormatName()))
+                .get();
+            
+            // Then - 각 샘플은 자신의 결과를 받음
+            assertEquals(5, results.size());
+            String[] expected = {"a", "b", "c", "d", "e"};
+            for (int i = 0; i < expected.length; i++) {
+                assertEquals(expected[i], results.get(i).get(0).getLogFormat().getFormatName());
+                assertEquals(expected[i], streamed.get(i));
+            }
+            
+            ArgumentCaptor<HttpPost> captor = ArgumentCaptor.forClass(HttpPost.class);
+            verify(mockHttpClient, times(3)).execute(captor.capture());
+            for (HttpPost post : captor.getAllValues()) {
+                assertEquals("http://localhost:8080/api/v1/recommend/batch", post.getURI().toString());
+                LogFormatRequest sent = readRequest(post);
+                assertTrue(sent.getLogSamples().size() <= 2);
+                assertEquals("WEB", sent.getGroupFilter());
+            }
+        } finally {
+            chunkedClient.close();
+        }
+    }
+    
+    @Test
+    public void testRecommendBatch_MissingSampleIsRetried() throws Exception {
+        // Given - 첫 응답은 샘플 하나가 빠짐
+        LogFormatApiClient chunkedClient = createChunkedClient(10);
+        String partial = JacksonJsonUtils.toJson(new ApiResponse<>(true, "success",
+            Arrays.asList(new SampleResult(0, Arrays.asList(createRecommendation("x", 80.0))))));
+        String complete = JacksonJsonUtils.toJson(new ApiResponse<>(true, "success", Arrays.asList(
+            new SampleResult(0, Arrays.asList(createRecommendation("x", 80.0))),
+            new SampleResult(1, new ArrayList<>()))));
+        CloseableHttpResponse partialResponse = createMockResponse(200, partial);
+        CloseableHttpResponse completeResponse = createMockResponse(200, complete);
+        when(mockHttpClient.execute(any(HttpPost.class))).thenReturn(partialResponse).thenReturn(completeResponse);
+        
+        try {
+            // When
+            List<List<FormatRecommendation>> results = chunkedClient.recommendBatch(
+                new LogFormatRequest(Arrays.asList("x", "y")));
+            
+            // Then
+            assertEquals(1, results.get(0).size());
+            assertTrue(results.get(1).isEmpty());
+            verify(mockHttpClient, times(2)).execute(any(HttpPost.class));
+        } finally {
+            chunkedClient.close();
+        }
+    }
+    
+    @Test
+    public void testRecommendBatch_FallsBackWhenBatchEndpointMissing() throws Exception {
+        // Given - 배치 엔드포인트가 없는 서버
+        LogFormatApiClient chunkedClient = createChunkedClient(2);
+        String whole = JacksonJsonUtils.toJson(new ApiResponse<>(true, "success",
+            Arrays.asList(createRecommendation("whole", 70.0))));
+        when(mockHttpClient.execute(any(HttpPost.class))).thenAnswer(invocation -> {
+            HttpPost post = invocation.getArgument(0);
+            if (post.getURI().getPath().endsWith("/batch")) {
+                return createMockResponse(404, "{\"success\":false,\"message\":\"Not Found\"}");
+            }
+            return createMockResponse(200, whole);
+        });
+        
+        try {
+            // When
+            List<List<FormatRecommendation>> results = chunkedClient.recommendBatch(
+                new LogFormatRequest(Arrays.asList("a", "b", "c")));
+            
+            // Then - 요청 단위 결과를 그 요청의 샘플에 사용
+            assertEquals(3, results.size());
+            for (List<FormatRecommendation> recommendations : results) {
+                assertEquals("whole", recommendations.get(0).getLogFormat().getFormatName());
+            }
+        } finally {
+            chunkedClient.close();
+        }
+    }
+    
+    @Test
+    public void testLargeRequestBodyIsGzipped() throws Exception {
+        // Given
+        List<String> samples = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            samples.add("192.168.0." + (i % 255) + " - - [10/Oct/2024:13:55:36 +0900] \"GET /index.html HTTP/1.1\" 200 " + i);
+        }
+        String jsonResponse = JacksonJsonUtils.toJson(new ApiResponse<>(true, "success",
+            Arrays.asList(createRecommendation("format1", 90.0))));
+        CloseableHttpResponse mockResponse = createMockResponse(200, jsonResponse);
+        when(mockHttpClient.execute(any(HttpPost.class))).thenReturn(mockResponse);
+        
+        // When
+        apiClient.recommendFormats(new LogFormatRequest(samples));
+        
+        // Then
+        ArgumentCaptor<HttpPost> captor = ArgumentCaptor.forClass(HttpPost.class);
+        verify(mockHttpClient).execute(captor.capture());
+        HttpEntity entity = captor.getValue().getEntity();
+        assertEquals("gzip", entity.getContentEncoding().getValue());
+        byte[] compressed = EntityUtils.toByteArray(entity);
+        LogFormatRequest sent = objectMapper.readValue(new GZIPInputStream(new ByteArrayInputStream(compressed)),
+            LogFormatRequest.class);
+        assertEquals(samples, sent.getLogSamples());
+        assertTrue(compressed.length < JacksonJsonUtils.toJsonCompact(sent).length() / 4);
+    }
+    
+    @Test
+    public void testRecommendFormats_ResponseCacheCoalescesIdenticalRequests() throws Exception {
+        // Given - 응답이 늦게 오는 서버
+        apiClient.setResponseCache(newResponseCache());
+        String jsonResponse = objectMapper.writeValueAsString(new ApiResponse<>(true, "success",
+            Arrays.asList(createRecommendation("format1", 95.0))));
+        CountDownLatch release = new CountDownLatch(1);
+        when(mockHttpClient.execute(any(HttpPost.class))).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return createMockResponse(200, jsonResponse);
+        });
+        LogFormatRequest request = new LogFormatRequest(Arrays.asList("test log sample"));
+        
+        // When - 같은 요청 두 개가 동시에 진행된 뒤 다시 요청
+        CompletableFuture<List<FormatRecommendation>> first = apiClient.recommendFormatsAsync(request);
+        CompletableFuture<List<FormatRecommendation>> second = apiClient.recommendFormatsAsync(request);
+        release.countDown();
+        List<FormatRecommendation> cached = apiClient.recommendFormats(request);
+        
+        // Then - 요청은 한 번만 보냄
+        assertEquals(1, first.get().size());
+        assertEquals(1, second.get().size());
+        assertEquals(1, cached.size());
+        verify(mockHttpClient, times(1)).execute(any(HttpPost.class));
+        
+        // 캐시를 거치지 않는 요청은 새로 보냄
+        apiClient.recommendFormatsAsync(request, false).get();
+        verify(mockHttpClient, times(2)).execute(any(HttpPost.class));
+    }
+    
+    @Test
+    public void testGroupAndVendorStatisticsShareCachedCatalog() throws Exception {
+        // Given
+        CacheManager cache = newResponseCache();
+        apiClient.setResponseCache(cache);
+        List<LogFormat> formats = Arrays.asList(
+            createLogFormat("format1", "FIREWALL", "CISCO"),
+            createLogFormat("format2", "FIREWALL", "FORTINET"),
+            createLogFormat("format3", "IPS", "CISCO"));
+        String jsonResponse = JacksonJsonUtils.toJson(new ApiResponse<>(true, "success", formats));
+        when(mockHttpClient.execute(any(HttpGet.class)))
+            .thenAnswer(invocation -> createMockResponse(200, jsonResponse));
+        
+        // When
+        Map<String, Integer> groups = apiClient.getGroupStatistics();
+        Map<String, Integer> vendors = apiClient.getVendorStatistics();
+        List<LogFormat> catalog = apiClient.getLogFormats();
+        
+        // Then - 카탈로그는 한 번만 받음
+        assertEquals(Integer.valueOf(2), groups.get("FIREWALL"));
+        assertEquals(Integer.valueOf(1), groups.get("IPS"));
+        assertEquals(Integer.valueOf(2), vendors.get("CISCO"));
+        assertEquals(3, catalog.size());
+        verify(mockHttpClient, times(1)).execute(any(HttpGet.class));
+        assertTrue(cache.getStats(CacheManager.LOG_FORMATS).getHitCount() > 0);
+    }
+    
+    @Test
+    public void testBackoffDelay_ExponentialWithJitter() {
+        for (int i = 0; i < 100; i++) {
+            long first = LogFormatApiClient.backoffDelay(1);
+            long third = LogFormatApiClient.backoffDelay(3);
+            long capped = LogFormatApiClient.backoffDelay(30);
+            assertTrue(first >= 0 && first <= 1000);
+            assertTrue(third >= 0 && third <= 4000);
+            assertTrue(capped >= 0 && capped <= 10000);
+        }
+    }
+    
     // Helper methods
     
+    private LogFormatApiClient createChunkedClient(int chunkSize) throws Exception {
+        LogFormatApiClient client = new LogFormatApiClient("http://localhost:8080", "test-api-key", 4, chunkSize);
+        java.lang.reflect.Field field = LogFormatApiClient.class.getDeclaredField("httpClient");
+        field.setAccessible(true);
+        field.set(client, mockHttpClient);
+        return client;
+    }
+    
+    /**
+     * 다른 테스트와 섞이지 않도록 새 응답 캐시 생성
+     */
+    private CacheManager newResponseCache() throws Exception {
+        java.lang.reflect.Field instanceField = CacheManager.class.getDeclaredField("instance");
+        instanceField.setAccessible(true);
+        instanceField.set(null, null);
+        return CacheManager.getInstance();
+    }
+    
+    private LogFormatRequest readRequest(HttpPost post) throws IOException {
+        return objectMapper.readValue(post.getEntity().getContent(), LogFormatRequest.class);
+    }
+    
     private CloseableHttpResponse createMockResponse(int statusCode, String content) throws IOException {
         CloseableHttpResponse response = mock(CloseableHttpResponse.class);
         StatusLine statusLine = mock(StatusLine.class);
-        HttpEntity entity = new StringEntity(content);
+        HttpEntity entity = content != null ? new StringEntity(content, StandardCharsets.UTF_8) : null;
         
         when(response.getStatusLine()).thenReturn(statusLine);
         when(statusLine.getStatusCode()).thenReturn(statusCode);
@@ -3,9 +3,13 @@ package com.logcenter.recommender.api.cache;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.io.IOException;
 import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.*;
 
@@ -199,4 +203,79 @@ public class CacheManagerTest {
         assertEquals(Integer.valueOf(42), intValue);
         assertEquals(3, listValue.size());
     }
+    
+    @Test
+    public void testGetAsyncCoalescesInFlightLoads() throws Exception {
+        // Given - 아직 끝나지 않은 불러오기
+        AtomicInteger loads = new AtomicInteger();
+        CompletableFuture<String> pending = new CompletableFuture<>();
+        
+        // When - 같은 키를 두 번 요청
+        CompletableFuture<String> first = cacheManager.getAsync("apiResponses", "key", () -> {
+            loads.incrementAndGet();
+            return pending;
+        });
+        CompletableFuture<String> second = cacheManager.getAsync("apiResponses", "key", () -> {
+            loads.incrementAndGet();
+            return CompletableFuture.completedFuture("other");
+        });
+        first.cancel(true);
+        pending.complete("value");
+        
+        // Then - 한 번만 불러오고, 한 호출자의 취소는 다른 호출자에 영향 없음
+        assertEquals(1, loads.get());
+        assertEquals("value", second.get());
+        assertFalse(pending.isCancelled());
+        assertEquals("value", cacheManager.get("apiResponses", "key"));
+    }
+    
+    @Test
+    public void testGetAsyncDoesNotCacheFailures() throws Exception {
+        // Given
+        CompletableFuture<String> failed = new CompletableFuture<>();
+        failed.completeExceptionally(new IOException("down"));
+        
+        // When
+        try {
+            cacheManager.<String>getAsync("apiResponses", "key", () -> failed).get();
+            fail("실패가 전달되어야 합니다");
+        } catch (ExecutionException expected) {
+            // 정상
+        }
+        String value = cacheManager.<String>getAsync("apiResponses", "key",
+            () -> CompletableFuture.completedFuture("value")).get();
+        
+        // Then
+        assertEquals("value", value);
+    }
+    
+    @Test
+    public void testGetAsyncServesStaleWhileRefreshing() throws Exception {
+        // Given - 갱신 주기가 짧은 캐시
+        String cacheName = "refreshCache";
+        cacheManager.createCache(cacheName, 100, Duration.ofMinutes(5), Duration.ofMillis(50));
+        AtomicInteger loads = new AtomicInteger();
+        CompletableFuture<String> refreshed = new CompletableFuture<>();
+        
+        assertEquals("v1", cacheManager.<String>getAsync(cacheName, "key",
+            () -> loads.incrementAndGet() == 1 ? CompletableFuture.completedFuture("v1") : refreshed).get());
+        Thread.sleep(100);
+        
+        // When - 갱신 주기가 지난 뒤 조회
+        String stale = cacheManager.<String>getAsync(cacheName, "key",
+            () -> CompletableFuture.completedFuture("other")).get();
+        
+        // Then - 기존 값을 바로 받고, 처음 저장된 작업으로 백그라운드 갱신
+        assertEquals("v1", stale);
+        for (int i = 0; i < 50 && loads.get() < 2; i++) {
+            Thread.sleep(20);
+        }
+        assertEquals(2, loads.get());
+        assertEquals("v1", cacheManager.get(cacheName, "key"));
+        refreshed.complete("v2");
+        for (int i = 0; i < 50 && !"v2".equals(cacheManager.get(cacheName, "key")); i++) {
+            Thread.sleep(20);
+        }
+        assertEquals("v2", cacheManager.get(cacheName, "key"));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,206 @@
+package com.logcenter.recommender.cache;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.reflect.TypeToken;
+import com.logcenter.recommender.grok.FilePatternRepository;
+import com.logcenter.recommender.model.LogFormat;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * BinaryCatalogCodec 단위 테스트
+ */
+public class BinaryCatalogCodecTest {
+
+    @Test
+    public void testRoundTripPreservesAllFields() throws IOException {
+        LogFormat format = createFormat("APACHE_HTTP_1.00", "Web Server", "APACHE");
+        format.setRequiredFields(Arrays.asList("clientip", "verb"));
+
+        List<LogFormat> decoded = roundTrip(Collections.singletonList(format));
+
+        assertEquals(1, decoded.size());
+        LogFormat copy = decoded.get(0);
+        assertEquals("APACHE_HTTP_1.00", copy.getFormatId());
+        assertEquals("APACHE_HTTP", copy.getFormatName());
+        assertEquals("1.00", copy.getFormatVersion());
+        assertEquals("Web Server", copy.getGroupName());
+        assertEquals("APACHE", copy.getVendor());
+        assertNull(copy.getModel());
+        assertEquals("%{IP:clientip} %{WORD:verb} 한글", copy.getGrokPattern());
+        assertEquals(Arrays.asList("clientip", "verb"), copy.getRequiredFields());
+
+        LogFormat.Pattern pattern = copy.getLogTypes().get(0).getPatterns().get(0);
+        assertEquals("APACHE_HTTP_1.00_1", pattern.getExpName());
+        assertEquals("10.0.0.1 GET 한글", pattern.getSampleLog());
+        LogFormat.DataTable field = pattern.getDataTable().get(0);
+        assertEquals("clientip", field.getFieldName());
+        assertEquals("O", field.getPattern());
+        assertEquals("클라이언트 IP", field.getExplanation());
+    }
+
+    @Test
+    public void testNullAndEmptyListsAreDistinguished() throws IOException {
+        LogFormat empty = new LogFormat();
+        empty.setFormatId("EMPTY");
+        empty.setLogTypes(new ArrayList<>());
+        LogFormat bare = new LogFormat();
+        bare.setFormatId("BARE");
+        bare.setLogTypes(null);
+
+        List<LogFormat> decoded = roundTrip(Arrays.asList(empty, bare));
+
+        assertNotNull(decoded.get(0).getLogTypes());
+        assertTrue(decoded.get(0).getLogTypes().isEmpty());
+        assertNull(decoded.get(1).getLogTypes());
+    }
+
+    @Test
+    public void testRepeatedStringsShareInstance() throws IOException {
+        List<LogFormat> decoded = roundTrip(Arrays.asList(
+            createFormat("A_1.00", "Firewall", "FORTINET"),
+            createFormat("B_1.00", "Firewall", "FORTINET")));
+
+        assertSame(decoded.get(0).getGroupName(), decoded.get(1).getGroupName());
+        assertSame(decoded.get(0).getVendor(), decoded.get(1).getVendor());
+    }
+
+    @Test
+    public void testCorruptedPayloadIsRejected() throws IOException {
+        byte[] bytes = encode(Collections.singletonList(createFormat("A_1.00", "Firewall", "FORTINET")));
+        bytes[bytes.length - 3] ^= 0x01;
+
+        try {
+            BinaryCatalogCodec.read(new ByteArrayInputStream(bytes));
+            fail("체크섬 오류가 발생해야 합니다");
+        } catch (IOException expected) {
+            // 정상
+        }
+    }
+
+    @Test
+    public void testTruncatedFileIsRejected() throws IOException {
+        byte[] bytes = encode(Collections.singletonList(createFormat("A_1.00", "Firewall", "FORTINET")));
+        byte[] truncated = Arrays.copyOf(bytes, bytes.length - 5);
+
+        try {
+            BinaryCatalogCodec.read(new ByteArrayInputStream(truncated));
+            fail("잘린 파일은 거부되어야 합니다");
+        } catch (IOException expected) {
+            // 정상
+        }
+    }
+
+    @Test
+    public void testOtherSchemaVersionIsRejected() throws IOException {
+        byte[] bytes = encode(Collections.singletonList(createFormat("A_1.00", "Firewall", "FORTINET")));
+        bytes[7] = (byte) (BinaryCatalogCodec.SCHEMA_VERSION + 1);
+
+        try {
+            BinaryCatalogCodec.read(new ByteArrayInputStream(bytes));
+            fail("다른 스키마 버전은 거부되어야 합니다");
+        } catch (IOException e) {
+            assertTrue(e.getMessage().contains("버전"));
+        }
+    }
+
+    @Test
+    public void testLegacyJsonIsRejected() {
+        byte[] json = "[{\"formatId\":\"A\"}]".getBytes(StandardCharsets.UTF_8);
+
+        try {
+            BinaryCatalogCodec.read(new ByteArrayInputStream(json));
+            fail("JSON 캐시는 바이너리 형식으로 읽히지 않아야 합니다");
+        } catch (IOException expected) {
+            // 정상
+        }
+    }
+
+    @Test
+    public void testBundledCatalogRoundTripAndLoadTime() throws IOException {
+        FilePatternRepository repository = new FilePatternRepository();
+        long start = System.nanoTime();
+        assertTrue(repository.initialize());
+        long sourceNanos = System.nanoTime() - start;
+        List<LogFormat> formats = repository.getAllFormats();
+
+        // 이전 캐시 경로: Gson pretty-print JSON
+        Gson gson = new GsonBuilder().setPrettyPrinting().create();
+        byte[] json = gson.toJson(formats).getBytes(StandardCharsets.UTF_8);
+        Type type = new TypeToken<List<LogFormat>>(){}.getType();
+        start = System.nanoTime();
+        List<LogFormat> fromJson = gson.fromJson(new String(json, StandardCharsets.UTF_8), type);
+        long jsonNanos = System.nanoTime() - start;
+
+        byte[] binary = encode(formats);
+        start = System.nanoTime();
+        List<LogFormat> fromBinary = BinaryCatalogCodec.read(new ByteArrayInputStream(binary));
+        long binaryNanos = System.nanoTime() - start;
+
+        assertEquals(formats.size(), fromJson.size());
+        assertEquals(formats.size(), fromBinary.size());
+        for (int i = 0; i < formats.size(); i++) {
+            LogFormat expected = formats.get(i);
+            LogFormat actual = fromBinary.get(i);
+            assertEquals(expected.getFormatId(), actual.getFormatId());
+            assertEquals(expected.getGrokPattern(), actual.getGrokPattern());
+            assertEquals(expected.getLogTypes() == null ? 0 : expected.getLogTypes().size(),
+                actual.getLogTypes() == null ? 0 : actual.getLogTypes().size());
+        }
+        assertTrue("바이너리 캐시가 JSON 캐시보다 작아야 합니다", binary.length < json.length);
+
+        // 시간은 환경에 따라 달라지므로 로그만 출력
+        System.out.printf("카탈로그 로드: 원본 JSON %dms, Gson 캐시 %dms (%d bytes), 바이너리 캐시 %dms (%d bytes)%n",
+            sourceNanos / 1_000_000, jsonNanos / 1_000_000, json.length,
+            binaryNanos / 1_000_000, binary.length);
+    }
+
+    private List<LogFormat> roundTrip(List<LogFormat> formats) throws IOException {
+        return BinaryCatalogCodec.read(new ByteArrayInputStream(encode(formats)));
+    }
+
+    private byte[] encode(List<LogFormat> formats) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinaryCatalogCodec.write(formats, out);
+        return out.toByteArray();
+    }
+
+    private LogFormat createFormat(String formatId, String groupName, String vendor) {
+        LogFormat format = new LogFormat();
+        format.setFormatId(formatId);
+        format.setFormatName(formatId.substring(0, formatId.lastIndexOf('_')));
+        format.setFormatVersion(formatId.substring(formatId.lastIndexOf('_') + 1));
+        format.setGroupName(groupName);
+        format.setVendor(vendor);
+        format.setGrokPattern("%{IP:clientip} %{WORD:verb} 한글");
+
+        LogFormat.DataTable field = new LogFormat.DataTable();
+        field.setFieldName("clientip");
+        field.setPattern("O");
+        field.setExplanation("클라이언트 IP");
+
+        LogFormat.Pattern pattern = new LogFormat.Pattern();
+        pattern.setExpName(formatId + "_1");
+        pattern.setGrokExp(format.getGrokPattern());
+        pattern.setSampleLog("10.0.0.1 GET 한글");
+        pattern.setDataTable(Collections.singletonList(field));
+
+        LogFormat.LogType logType = new LogFormat.LogType();
+        logType.setTypeName("Event Log");
+        logType.setPatterns(Collections.singletonList(pattern));
+        format.setLogTypes(Collections.singletonList(logType));
+        return format;
+    }
+}
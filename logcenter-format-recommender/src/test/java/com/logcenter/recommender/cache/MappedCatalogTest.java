@@ -0,0 +1,226 @@
+package com.logcenter.recommender.cache;
+
+import com.logcenter.recommender.grok.FilePatternRepository;
+import com.logcenter.recommender.model.LogFormat;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * MappedCatalog 단위 테스트
+ */
+public class MappedCatalogTest {
+
+    private static List<LogFormat> bundledFormats;
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @BeforeClass
+    public static void loadBundledCatalog() {
+        FilePatternRepository repository = new FilePatternRepository();
+        assertTrue(repository.initialize());
+        bundledFormats = new ArrayList<>(repository.getAllFormats());
+    }
+
+    @Test
+    public void testMatchingViewsKeepMatchingFieldsOnly() throws IOException {
+        MappedCatalog catalog = MappedCatalog.open(writeCatalog(bundledFormats));
+
+        List<LogFormat> views = catalog.matchingViews();
+
+        assertEquals(bundledFormats.size(), catalog.size());
+        assertEquals(bundledFormats.size(), views.size());
+        for (int i = 0; i < views.size(); i++) {
+            LogFormat expected = bundledFormats.get(i);
+            LogFormat view = views.get(i);
+            assertEquals(expected.getFormatId(), view.getFormatId());
+            assertEquals(expected.getGroupName(), view.getGroupName());
+            assertEquals(expected.getVendor(), view.getVendor());
+            assertEquals(expected.getGrokPattern(), view.getGrokPattern());
+            assertEquals(patternCount(expected), patternCount(view));
+            for (LogFormat.LogType logType : view.getLogTypes()) {
+                assertNull(logType.getTypeDescription());
+                for (LogFormat.Pattern pattern : logType.getPatterns()) {
+                    assertNotNull(pattern.getGrokExp());
+                    assertNull(pattern.getSampleLog());
+                    assertNull(pattern.getDataTable());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testMaterializeRestoresDetails() throws IOException {
+        MappedCatalog catalog = MappedCatalog.open(writeCatalog(bundledFormats));
+
+        for (LogFormat expected : bundledFormats) {
+            LogFormat full = catalog.materialize(expected.getFormatId());
+            assertNotNull(full);
+            for (int t = 0; t < expected.getLogTypes().size(); t++) {
+                LogFormat.LogType expectedType = expected.getLogTypes().get(t);
+                LogFormat.LogType fullType = full.getLogTypes().get(t);
+                assertEquals(expectedType.getTypeDescription(), fullType.getTypeDescription());
+                for (int p = 0; p < expectedType.getPatterns().size(); p++) {
+                    assertEquals(expectedType.getPatterns().get(p).getSampleLog(),
+                        fullType.getPatterns().get(p).getSampleLog());
+                    List<LogFormat.DataTable> expectedTable = expectedType.getPatterns().get(p).getDataTable();
+                    List<LogFormat.DataTable> fullTable = fullType.getPatterns().get(p).getDataTable();
+                    if (expectedTable == null) {
+                        assertNull(fullTable);
+                        continue;
+                    }
+                    assertEquals(expectedTable.size(), fullTable.size());
+                    for (int f = 0; f < expectedTable.size(); f++) {
+                        assertEquals(expectedTable.get(f).getFieldName(), fullTable.get(f).getFieldName());
+                        assertEquals(expectedTable.get(f).getExplanation(), fullTable.get(f).getExplanation());
+                        assertEquals(expectedTable.get(f).getValue(), fullTable.get(f).getValue());
+                    }
+                }
+            }
+        }
+        assertNull(catalog.materialize("NO_SUCH_FORMAT"));
+    }
+
+    @Test
+    public void testStreamingReadMatchesMaterialize() throws IOException {
+        Path file = writeCatalog(bundledFormats);
+        List<LogFormat> streamed;
+        try (InputStream in = Files.newInputStream(file)) {
+            streamed = BinaryCatalogCodec.read(in);
+        }
+        MappedCatalog catalog = MappedCatalog.open(file);
+
+        LogFormat first = streamed.get(0);
+        LogFormat full = catalog.materialize(first.getFormatId());
+        assertEquals(first.getLogTypes().get(0).getTypeDescription(), full.getLogTypes().get(0).getTypeDescription());
+        assertEquals(first.getRequiredFields(), full.getRequiredFields());
+    }
+
+    @Test
+    public void testCorruptedFileIsRejected() throws IOException {
+        Path file = writeCatalog(Collections.singletonList(bundledFormats.get(0)));
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length / 2] ^= 0x01;
+        Files.write(file, bytes);
+
+        try {
+            MappedCatalog.open(file);
+            fail("체크섬 오류가 발생해야 합니다");
+        } catch (IOException expected) {
+            // 정상
+        }
+    }
+
+    @Test
+    public void testTruncatedFileIsRejected() throws IOException {
+        Path file = writeCatalog(Collections.singletonList(bundledFormats.get(0)));
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, java.util.Arrays.copyOf(bytes, bytes.length - 1));
+
+        try {
+            MappedCatalog.open(file);
+            fail("잘린 파일은 거부되어야 합니다");
+        } catch (IOException expected) {
+            // 정상
+        }
+    }
+
+    @Test
+    public void testLoadTimeAndRetainedStrings() throws IOException {
+        Path file = writeCatalog(bundledFormats);
+
+        long start = System.nanoTime();
+        List<LogFormat> full;
+        try (InputStream in = Files.newInputStream(file)) {
+            full = BinaryCatalogCodec.read(in);
+        }
+        long fullNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        List<LogFormat> views = MappedCatalog.open(file).matchingViews();
+        long mappedNanos = System.nanoTime() - start;
+
+        long fullChars = retainedChars(full);
+        long viewChars = retainedChars(views);
+        assertTrue("매칭용 포맷이 더 적은 문자열을 가져야 합니다", viewChars < fullChars);
+
+        // 시간은 환경에 따라 달라지므로 로그만 출력
+        System.out.printf("카탈로그 로드: 전체 %dms (문자열 %d자), 매핑+매칭용 %dms (문자열 %d자)%n",
+            fullNanos / 1_000_000, fullChars, mappedNanos / 1_000_000, viewChars);
+    }
+
+    private Path writeCatalog(List<LogFormat> formats) throws IOException {
+        Path file = tempFolder.newFile().toPath();
+        try (OutputStream out = Files.newOutputStream(file)) {
+            BinaryCatalogCodec.write(formats, out);
+        }
+        return file;
+    }
+
+    private static int patternCount(LogFormat format) {
+        int count = 0;
+        if (format.getLogTypes() != null) {
+            for (LogFormat.LogType logType : format.getLogTypes()) {
+                count += logType.getPatterns() != null ? logType.getPatterns().size() : 0;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 포맷이 참조하는 서로 다른 String 인스턴스의 문자 수 합계
+     */
+    private static long retainedChars(List<LogFormat> formats) {
+        Map<String, Boolean> seen = new IdentityHashMap<>();
+        for (LogFormat format : formats) {
+            add(seen, format.getFormatId(), format.getFormatName(), format.getFormatVersion(),
+                format.getGroupName(), format.getGroupId(), format.getVendor(), format.getModel(),
+                format.getSmType(), format.getGrokPattern());
+            if (format.getRequiredFields() != null) {
+                format.getRequiredFields().forEach(field -> add(seen, field));
+            }
+            if (format.getLogTypes() == null) {
+                continue;
+            }
+            for (LogFormat.LogType logType : format.getLogTypes()) {
+                add(seen, logType.getTypeName(), logType.getTypeDescription());
+                for (LogFormat.Pattern pattern : logType.getPatterns()) {
+                    add(seen, pattern.getExpName(), pattern.getGrokExp(), pattern.getSampleLog(), pattern.getOrder());
+                    if (pattern.getDataTable() != null) {
+                        for (LogFormat.DataTable field : pattern.getDataTable()) {
+                            add(seen, field.getExplanation(), field.getPattern(), field.getValue(), field.getFieldName());
+                        }
+                    }
+                }
+            }
+        }
+        long chars = 0;
+        for (String value : seen.keySet()) {
+            chars += value.length();
+        }
+        return chars;
+    }
+
+    private static void add(Map<String, Boolean> seen, String... values) {
+        for (String value : values) {
+            if (value != null) {
+                seen.put(value, Boolean.TRUE);
+            }
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.logcenter.recommender.cache;
+
+import com.logcenter.recommender.config.AppConfig;
+import com.logcenter.recommender.grok.FilePatternRepository;
+import com.logcenter.recommender.model.LogFormat;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * PersistentCacheManager 단위 테스트 (여러 프로세스가 같은 캐시 디렉토리를 쓰는 경우)
+ */
+public class PersistentCacheManagerTest {
+
+    private static final String LOG_FORMATS_PATH = "setting_logformat.json";
+    private static final String CUSTOM_PATTERNS_PATH = "custom-grok-patterns";
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private String originalCacheDir;
+    private Path cacheDir;
+
+    @Before
+    public void setUp() throws IOException {
+        AppConfig config = AppConfig.getInstance();
+        originalCacheDir = config.getString(AppConfig.PERSISTENT_CACHE_DIR);
+        cacheDir = tempFolder.newFolder("cache").toPath();
+        config.setProperty(AppConfig.PERSISTENT_CACHE_DIR, cacheDir.toString());
+    }
+
+    @After
+    public void tearDown() {
+        AppConfig.getInstance().setProperty(AppConfig.PERSISTENT_CACHE_DIR, originalCacheDir);
+    }
+
+    @Test
+    public void testRebuildLockIsExclusive() throws IOException {
+        PersistentCacheManager first = newManager();
+        PersistentCacheManager second = newManager();
+
+        try (PersistentCacheManager.RebuildLock lock = first.tryLockForRebuild(LOG_FORMATS_PATH)) {
+            assertNotNull(lock);
+            assertNull("다른 관리자는 잠금을 얻지 못해야 합니다", second.tryLockForRebuild(LOG_FORMATS_PATH));
+
+            // 다른 캐시 파일의 잠금은 독립적
+            try (PersistentCacheManager.RebuildLock other = second.tryLockForRebuild(CUSTOM_PATTERNS_PATH)) {
+                assertNotNull(other);
+            }
+        }
+
+        try (PersistentCacheManager.RebuildLock lock = second.tryLockForRebuild(LOG_FORMATS_PATH)) {
+            assertNotNull("해제 후에는 잠금을 얻어야 합니다", lock);
+        }
+    }
+
+    @Test
+    public void testSavedCacheIsValidForAnotherManager() throws IOException {
+        PersistentCacheManager writer = newManager();
+        List<LogFormat> formats = loadBundledFormats();
+
+        try (PersistentCacheManager.RebuildLock lock = writer.tryLockForRebuild(LOG_FORMATS_PATH)) {
+            assertNotNull(lock);
+            writer.saveLogFormats(formats);
+            writer.saveResourceChecksum(LOG_FORMATS_PATH);
+        }
+
+        PersistentCacheManager reader = newManager();
+        assertTrue(reader.isResourceCacheValid(LOG_FORMATS_PATH));
+        MappedCatalog catalog = reader.openLogFormatCatalog();
+        assertNotNull(catalog);
+        assertEquals(formats.size(), catalog.size());
+        assertTrue("임시 파일이 남지 않아야 합니다", tempFiles().isEmpty());
+    }
+
+    @Test
+    public void testMetadataFromBothManagersIsMerged() throws IOException {
+        PersistentCacheManager first = newManager();
+        PersistentCacheManager second = newManager();
+
+        first.saveLogFormats(loadBundledFormats());
+        first.saveResourceChecksum(LOG_FORMATS_PATH);
+
+        // 두 번째 관리자는 첫 번째 관리자의 저장 이전 메타데이터를 가지고 있음
+        second.saveCustomPatterns(new HashMap<>());
+        second.saveResourceChecksum(CUSTOM_PATTERNS_PATH);
+
+        PersistentCacheManager reader = newManager();
+        assertTrue("먼저 저장된 항목이 지워지지 않아야 합니다", reader.isResourceCacheValid(LOG_FORMATS_PATH));
+        assertTrue(reader.isResourceCacheValid(CUSTOM_PATTERNS_PATH));
+    }
+
+    @Test
+    public void testStaleTempFilesAreRemovedByLockHolder() throws IOException {
+        PersistentCacheManager manager = newManager();
+        Path stale = Files.createFile(cacheDir.resolve("log_formats.bin12345.tmp"));
+
+        try (PersistentCacheManager.RebuildLock lock = manager.tryLockForRebuild(LOG_FORMATS_PATH)) {
+            assertNotNull(lock);
+            assertFalse(Files.exists(stale));
+        }
+    }
+
+    @Test
+    public void testRemoteCatalogValidators() {
+        String url = "http://localhost:8080/api/v1/logformats";
+        List<LogFormat> formats = loadBundledFormats().subList(0, 3);
+        PersistentCacheManager writer = newManager();
+
+        // 검증자가 없는 응답은 저장하지 않음
+        writer.saveRemoteCatalog(url, formats, null, null);
+        assertNull(writer.getRemoteCatalogValidators(url));
+
+        writer.saveRemoteCatalog(url, formats, "\"v1\"", "Wed, 21 Oct 2026 07:28:00 GMT");
+
+        PersistentCacheManager reader = newManager();
+        PersistentCacheManager.CatalogValidators validators = reader.getRemoteCatalogValidators(url);
+        assertNotNull(validators);
+        assertEquals("\"v1\"", validators.getEtag());
+        assertEquals("Wed, 21 Oct 2026 07:28:00 GMT", validators.getLastModified());
+        assertNull("URL별로 저장되어야 합니다", reader.getRemoteCatalogValidators(url + "?group=WEB"));
+        assertEquals(3, reader.loadRemoteCatalog(url).size());
+
+        // 읽을 수 없는 캐시를 지우면 다음 조회는 검증자 없이 전체 요청
+        reader.removeRemoteCatalog(url);
+        assertNull(reader.getRemoteCatalogValidators(url));
+        assertNull(newManager().getRemoteCatalogValidators(url));
+    }
+
+    private PersistentCacheManager newManager() {
+        PersistentCacheManager manager = new PersistentCacheManager();
+        manager.initialize();
+        assertTrue(manager.isEnabled());
+        return manager;
+    }
+
+    private static List<LogFormat> loadBundledFormats() {
+        FilePatternRepository repository = new FilePatternRepository();
+        assertTrue(repository.initialize());
+        return new ArrayList<>(repository.getAllFormats());
+    }
+
+    private List<Path> tempFiles() throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(cacheDir, "*.tmp")) {
+            stream.forEach(files::add);
+        }
+        return files;
+    }
+}
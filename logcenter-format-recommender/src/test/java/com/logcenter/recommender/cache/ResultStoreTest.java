@@ -0,0 +1,127 @@
+package com.logcenter.recommender.cache;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+/**
+ * ResultStore 단위 테스트
+ */
+public class ResultStoreTest {
+
+    private static final long CATALOG_VERSION = 42L;
+    private static final int MAX_BYTES = 1024 * 1024;
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Test
+    public void testResultsSurviveReopen() throws IOException {
+        Path file = tempFolder.getRoot().toPath().resolve("recommendations.store");
+        List<ResultStore.Entry> entries = Arrays.asList(
+            new ResultStore.Entry("FW_A", 98.0), new ResultStore.Entry("FW_B", 70.0));
+
+        try (ResultStore store = ResultStore.open(file, CATALOG_VERSION, MAX_BYTES)) {
+            assertTrue(store.isWritable());
+            store.put(1L, entries);
+            store.put(2L, Collections.emptyList());
+        }
+
+        try (ResultStore store = ResultStore.open(file, CATALOG_VERSION, MAX_BYTES)) {
+            List<ResultStore.Entry> restored = store.get(1L);
+            assertNotNull(restored);
+            assertEquals(2, restored.size());
+            assertEquals("FW_A", restored.get(0).getFormatId());
+            assertEquals(98.0, restored.get(0).getConfidence(), 0.0);
+            assertEquals("FW_B", restored.get(1).getFormatId());
+            assertEquals(Collections.emptyList(), store.get(2L));
+            assertNull(store.get(3L));
+        }
+    }
+
+    @Test
+    public void testPutReplacesPreviousResult() throws IOException {
+        Path file = tempFolder.getRoot().toPath().resolve("recommendations.store");
+        try (ResultStore store = ResultStore.open(file, CATALOG_VERSION, MAX_BYTES)) {
+            store.put(7L, Collections.singletonList(new ResultStore.Entry("OLD", 50.0)));
+            store.put(7L, Collections.singletonList(new ResultStore.Entry("NEW", 98.0)));
+
+            assertEquals(1, store.size());
+            assertEquals("NEW", store.get(7L).get(0).getFormatId());
+        }
+    }
+
+    @Test
+    public void testCatalogVersionChangeInvalidates() throws IOException {
+        Path file = tempFolder.getRoot().toPath().resolve("recommendations.store");
+        try (ResultStore store = ResultStore.open(file, CATALOG_VERSION, MAX_BYTES)) {
+            store.put(1L, Collections.singletonList(new ResultStore.Entry("FW_A", 98.0)));
+        }
+
+        try (ResultStore store = ResultStore.open(file, CATALOG_VERSION + 1, MAX_BYTES)) {
+            assertNull("카탈로그가 바뀌면 이전 결과를 쓰지 않아야 합니다", store.get(1L));
+            assertEquals(0, store.size());
+        }
+    }
+
+    @Test
+    public void testSecondOpenIsReadOnly() throws IOException {
+        Path file = tempFolder.getRoot().toPath().resolve("recommendations.store");
+        try (ResultStore writer = ResultStore.open(file, CATALOG_VERSION, MAX_BYTES)) {
+            writer.put(1L, Collections.singletonList(new ResultStore.Entry("FW_A", 98.0)));
+
+            try (ResultStore reader = ResultStore.open(file, CATALOG_VERSION, MAX_BYTES)) {
+                assertNotNull(reader);
+                assertFalse(reader.isWritable());
+                assertEquals("FW_A", reader.get(1L).get(0).getFormatId());
+
+                reader.put(2L, Collections.singletonList(new ResultStore.Entry("FW_B", 98.0)));
+                assertNull(reader.get(2L));
+            }
+        }
+    }
+
+    @Test
+    public void testCompactionKeepsRecentResultsWithinBound() throws IOException {
+        Path file = tempFolder.getRoot().toPath().resolve("recommendations.store");
+        int total = 20000;
+        try (ResultStore store = ResultStore.open(file, CATALOG_VERSION, MAX_BYTES)) {
+            for (long key = 1; key <= total; key++) {
+                store.put(key, Collections.singletonList(new ResultStore.Entry("FORMAT_" + key, 98.0)));
+            }
+
+            assertTrue("압축 후 일부만 남아야 합니다", store.size() < total);
+            assertNotNull("최근 결과는 남아야 합니다", store.get(total));
+            assertEquals("FORMAT_" + total, store.get(total).get(0).getFormatId());
+            assertNull("오래된 결과는 제거되어야 합니다", store.get(1L));
+        }
+        assertTrue(Files.size(file) <= MAX_BYTES);
+        try (Stream<Path> files = Files.list(tempFolder.getRoot().toPath())) {
+            assertEquals(0, files.filter(p -> p.toString().endsWith(".tmp")).count());
+        }
+    }
+
+    @Test
+    public void testTemplateFingerprintIgnoresDigitValues() {
+        long a = ResultStore.templateFingerprint("2024-01-01 12:00:01 deny src=10.0.0.1", 0);
+        long b = ResultStore.templateFingerprint("2024-03-05 18:42:59 deny src=10.0.0.9", 0);
+        long c = ResultStore.templateFingerprint("2024-03-05 18:42:59 allow src=10.0.0.9", 0);
+        long d = ResultStore.templateFingerprint("2024-01-01 12:00:01 deny src=10.0.0.1", 1);
+
+        assertEquals(a, b);
+        assertNotEquals(a, c);
+        assertNotEquals("옵션이 다르면 지문도 달라야 합니다", a, d);
+        assertNotEquals(ResultStore.lineFingerprint("2024-01-01 12:00:01 deny src=10.0.0.1", 0),
+            ResultStore.lineFingerprint("2024-03-05 18:42:59 deny src=10.0.0.9", 0));
+    }
+}
@@ -7,11 +7,14 @@ import org.junit.Test;
 import picocli.CommandLine;
 import static org.junit.Assert.*;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
 import java.io.PrintStream;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 
 /**
  * CLI 명령어 테스트
@@ -255,6 +258,27 @@ public class CliCommandTest {
             output.contains("분석된 로그 라인"));
     }
     
+    @Test
+    public void testStdinAnalysis() {
+        // '-' 입력은 표준 입력을 끝까지 읽어 요약 출력
+        String logs = "192.168.1.1 - - [04/Oct/2023:14:14:53 +0900] \"GET /index.html HTTP/1.1\" 200 2326\n"
+            + "\n"
+            + "192.168.1.2 - - [04/Oct/2023:14:14:54 +0900] \"POST /api/data HTTP/1.1\" 201 125\n";
+        InputStream originalIn = System.in;
+        System.setIn(new ByteArrayInputStream(logs.getBytes(StandardCharsets.UTF_8)));
+        try {
+            CommandLine cmd = new CommandLine(new CliCommand());
+            int exitCode = cmd.execute("-", "--progress-interval", "0");
+            
+            assertEquals(0, exitCode);
+            String output = outContent.toString();
+            assertTrue("표준 입력 요약이 출력되어야 함", output.contains("표준 입력 분석 요약"));
+            assertTrue(output.contains("분석된 로그: 2"));
+        } finally {
+            System.setIn(originalIn);
+        }
+    }
+    
     @Test
     public void testNoInput() {
         // 입력 없이 실행
@@ -0,0 +1,123 @@
+package com.logcenter.recommender.cli;
+
+import com.logcenter.recommender.model.FormatRecommendation;
+import com.logcenter.recommender.model.LogFormat;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * DirectoryAnalyzer 단위 테스트
+ */
+public class DirectoryAnalyzerTest {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Test
+    public void testRecursiveDefaultFilter() throws IOException {
+        Path root = createTree();
+
+        DirectoryAnalyzer analyzer = new DirectoryAnalyzer(root, null, null);
+
+        assertEquals(Arrays.asList("a.log", "archive/old.log.gz", "web/access.log", "web/nested/error.txt"),
+            names(analyzer, analyzer.findFiles()));
+    }
+
+    @Test
+    public void testIncludeAndExcludeGlobs() throws IOException {
+        Path root = createTree();
+
+        // '/' 없는 규칙은 이름, 있는 규칙은 상대 경로에 적용. 제외 디렉토리는 하위 전체 제외
+        DirectoryAnalyzer analyzer = new DirectoryAnalyzer(root,
+            Arrays.asList("*.log", "web/**/*.txt"), Collections.singletonList("archive"));
+        assertEquals(Arrays.asList("a.log", "web/access.log", "web/nested/error.txt"),
+            names(analyzer, analyzer.findFiles()));
+
+        analyzer = new DirectoryAnalyzer(root, null, Collections.singletonList("web/nested/**"));
+        assertEquals(Arrays.asList("a.log", "archive/old.log.gz", "web/access.log"),
+            names(analyzer, analyzer.findFiles()));
+    }
+
+    @Test
+    public void testParallelRunWithBoundedInFlight() throws Exception {
+        Path root = tempFolder.getRoot().toPath();
+        List<Path> files = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            files.add(root.resolve("f" + i + ".log"));
+        }
+
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        List<String> delivered = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            DirectoryAnalyzer analyzer = new DirectoryAnalyzer(root, null, null);
+            DirectoryAnalyzer.Summary summary = analyzer.run(files, executor, 3, file -> {
+                int now = running.incrementAndGet();
+                peak.accumulateAndGet(now, Math::max);
+                try {
+                    Thread.sleep(5);
+                    if (file.getFileName().toString().equals("f7.log")) {
+                        throw new IOException("읽기 실패");
+                    }
+                    String formatId = file.getFileName().toString().compareTo("f5") < 0 ? "A" : "B";
+                    return Arrays.asList(
+                        Collections.singletonList(recommendation(formatId)),
+                        Collections.singletonList(recommendation(formatId)),
+                        Collections.<FormatRecommendation>emptyList());
+                } finally {
+                    running.decrementAndGet();
+                }
+            }, result -> delivered.add(result.getDisplayName()));
+
+            assertTrue("동시 분석 파일 수 초과: " + peak.get(), peak.get() <= 3);
+            assertEquals(20, delivered.size());
+            assertEquals(20, summary.getFileCount());
+            assertEquals(1, summary.getFailedCount());
+            assertEquals(57, summary.getTotalSamples());
+            assertEquals(38, summary.getMatchedSamples());
+            // f0..f4, f10..f19는 A, f5, f6, f8, f9는 B
+            assertEquals(Integer.valueOf(15), summary.getDominantFiles().get("A"));
+            assertEquals(Integer.valueOf(4), summary.getDominantFiles().get("B"));
+            assertEquals(Integer.valueOf(30), summary.getSampleCounts().get("A"));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Path createTree() throws IOException {
+        Path root = tempFolder.newFolder("logs").toPath();
+        Files.createDirectories(root.resolve("web/nested"));
+        Files.createDirectories(root.resolve("archive"));
+        Files.write(root.resolve("a.log"), "x".getBytes());
+        Files.write(root.resolve("notes.md"), "x".getBytes());
+        Files.write(root.resolve("web/access.log"), "x".getBytes());
+        Files.write(root.resolve("web/nested/error.txt"), "x".getBytes());
+        Files.write(root.resolve("archive/old.log.gz"), "x".getBytes());
+        return root;
+    }
+
+    private static List<String> names(DirectoryAnalyzer analyzer, List<Path> files) {
+        return files.stream().map(analyzer::relativize).collect(Collectors.toList());
+    }
+
+    private static FormatRecommendation recommendation(String formatId) {
+        LogFormat format = new LogFormat();
+        format.setFormatId(formatId);
+        return new FormatRecommendation(format);
+    }
+}
@@ -0,0 +1,145 @@
+package com.logcenter.recommender.cli;
+
+import com.logcenter.recommender.model.FormatRecommendation;
+import com.logcenter.recommender.model.LogFormat;
+import com.logcenter.recommender.util.LogParser;
+import com.logcenter.recommender.util.MultilineAssembler;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * StreamAnalyzer 단위 테스트
+ */
+public class StreamAnalyzerTest {
+
+    @Test
+    public void testBatchesAndSummary() throws IOException {
+        StringBuilder input = new StringBuilder();
+        for (int i = 0; i < 7; i++) {
+            input.append(i % 2 == 0 ? "alpha " : "beta ").append(i).append("\r\n");
+        }
+        input.append("\n   \nnone\ntail alpha");
+
+        List<Integer> batchSizes = new ArrayList<>();
+        StreamAnalyzer analyzer = new StreamAnalyzer(samples -> {
+            batchSizes.add(samples.size());
+            return classify(samples);
+        }, 3, null, StreamAnalyzer.DEFAULT_MAX_LINE_CHARS, 4);
+
+        StreamAnalyzer.Summary summary = analyzer.run(new StringReader(input.toString()), 0, null);
+
+        assertEquals(9, summary.getTotalEvents());
+        assertEquals(8, summary.getMatchedEvents());
+        assertEquals(Long.valueOf(5), summary.getFormatCounts().get("ALPHA"));
+        assertEquals(Long.valueOf(3), summary.getFormatCounts().get("BETA"));
+        for (int size : batchSizes) {
+            assertTrue(size <= 3);
+        }
+        // 마지막 4개: beta 5, alpha 6, none, tail alpha
+        assertEquals("ALPHA", summary.getRecentDominant());
+    }
+
+    @Test
+    public void testLongLinesAreTruncated() throws IOException {
+        StringBuilder longLine = new StringBuilder("alpha ");
+        for (int i = 0; i < 100000; i++) {
+            longLine.append('x');
+        }
+        String input = longLine + "\nbeta\n";
+
+        List<String> seen = new ArrayList<>();
+        StreamAnalyzer analyzer = new StreamAnalyzer(samples -> {
+            seen.addAll(samples);
+            return classify(samples);
+        }, 10, null, 100, 10);
+
+        StreamAnalyzer.Summary summary = analyzer.run(new StringReader(input), 0, null);
+
+        assertEquals(2, seen.size());
+        assertEquals(100, seen.get(0).length());
+        assertEquals("beta", seen.get(1));
+        assertEquals(1, summary.getTruncatedLines());
+    }
+
+    @Test
+    public void testMultilineEvents() throws IOException {
+        String input = "2024-01-01 10:00:00 ERROR alpha failed\n"
+            + "\tat com.example.Foo.bar(Foo.java:10)\n"
+            + "2024-01-01 10:00:01 INFO beta ok\n";
+
+        List<String> seen = new ArrayList<>();
+        StreamAnalyzer analyzer = new StreamAnalyzer(samples -> {
+            seen.addAll(samples);
+            return classify(samples);
+        }, 10, MultilineAssembler.DEFAULT_RULE, StreamAnalyzer.DEFAULT_MAX_LINE_CHARS, 10);
+
+        assertEquals(2, analyzer.run(new StringReader(input), 0, null).getTotalEvents());
+        assertTrue(seen.get(0).contains("at com.example.Foo.bar"));
+    }
+
+    @Test
+    public void testListenerCanStopAndFailuresAreCounted() throws IOException {
+        StringBuilder input = new StringBuilder();
+        for (int i = 0; i < 50; i++) {
+            input.append("alpha ").append(i).append('\n');
+        }
+
+        int[] calls = new int[1];
+        StreamAnalyzer analyzer = new StreamAnalyzer(samples -> {
+            Thread.sleep(2);
+            throw new IOException("API 오류");
+        }, 5, null, StreamAnalyzer.DEFAULT_MAX_LINE_CHARS, 10);
+
+        StreamAnalyzer.Summary summary = analyzer.run(new StringReader(input.toString()), 1, progress -> {
+            calls[0]++;
+            return false;
+        });
+
+        // 첫 진행 상황 전달에서 중단
+        assertEquals(1, calls[0]);
+        assertTrue(summary.getTotalEvents() < 50);
+        assertEquals(summary.getTotalEvents(), summary.getFailedEvents());
+        assertEquals(0, summary.getMatchedEvents());
+    }
+
+    @Test
+    public void testStreamReaderDetectsEncoding() throws IOException {
+        byte[] bytes = "한글 로그\n".getBytes("EUC-KR");
+        Reader reader = LogParser.openStreamReader(new ByteArrayInputStream(bytes));
+
+        char[] buffer = new char[16];
+        int length = reader.read(buffer);
+        assertEquals("한글 로그\n", new String(buffer, 0, length));
+
+        reader = LogParser.openStreamReader(new ByteArrayInputStream(new byte[0]));
+        assertEquals(-1, reader.read());
+    }
+
+    private static List<List<FormatRecommendation>> classify(List<String> samples) {
+        List<List<FormatRecommendation>> results = new ArrayList<>();
+        for (String sample : samples) {
+            if (sample.contains("alpha")) {
+                results.add(Collections.singletonList(recommendation("ALPHA")));
+            } else if (sample.contains("beta")) {
+                results.add(Collections.singletonList(recommendation("BETA")));
+            } else {
+                results.add(Collections.<FormatRecommendation>emptyList());
+            }
+        }
+        return results;
+    }
+
+    private static FormatRecommendation recommendation(String formatId) {
+        LogFormat format = new LogFormat();
+        format.setFormatId(formatId);
+        return new FormatRecommendation(format);
+    }
+}
@@ -97,6 +97,17 @@ public class PatternFilterTest {
         assertTrue(score2 > score1);
     }
     
+    @Test
+    public void testHasLiteralDigits() {
+        assertTrue(PatternFilter.hasLiteralDigits("^%{METHOD:method} %{URL:url} HTTP/1.1$"));
+        assertTrue(PatternFilter.hasLiteralDigits("^%{LOG_TIME:log_time} %ASA-%{INT:level}-106001: %{MESSAGE:message}$"));
+        
+        // Grok 참조 이름과 반복 횟수의 숫자는 리터럴이 아님
+        assertFalse(PatternFilter.hasLiteralDigits("^%{DATE_FORMAT1:log_time} %{SRC_IP:src_ip} %{DST_PORT:dst_port}$"));
+        assertFalse(PatternFilter.hasLiteralDigits("^%{WORD:action}\\s{1,3}%{SRC_IP:src_ip}$"));
+        assertFalse(PatternFilter.hasLiteralDigits(null));
+    }
+    
     @Test
     public void testFieldCounting() {
         // 실제 SECUI_BLUEMAX_NGF 패턴처럼 복잡한 패턴
@@ -0,0 +1,227 @@
+package com.logcenter.recommender.follow;
+
+import com.logcenter.recommender.util.MappedLogReader;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * LogTailer / CheckpointStore / FollowSession 단위 테스트
+ */
+public class LogTailerTest {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Test
+    public void testIncrementalReadWithPartialLine() throws IOException {
+        Path file = tempFolder.newFile("app.log").toPath();
+        append(file, "line 1\nline 2\npart");
+
+        try (LogTailer tailer = new LogTailer(file, StandardCharsets.UTF_8, null)) {
+            List<String> lines = new ArrayList<>();
+            assertEquals(2, tailer.poll(collect(lines)));
+            assertEquals(14, tailer.getOffset());
+
+            // 새 내용이 없으면 아무것도 읽지 않음
+            assertEquals(0, tailer.poll(collect(lines)));
+
+            append(file, "ial line\r\nline 4\n");
+            assertEquals(2, tailer.poll(collect(lines)));
+            assertEquals(Arrays.asList("line 1", "line 2", "partial line", "line 4"), lines);
+        }
+    }
+
+    @Test
+    public void testTruncation() throws IOException {
+        Path file = tempFolder.newFile("app.log").toPath();
+        append(file, "old line 1\nold line 2\n");
+
+        try (LogTailer tailer = new LogTailer(file, StandardCharsets.UTF_8, null)) {
+            tailer.poll(collect(new ArrayList<>()));
+
+            Files.write(file, "new\n".getBytes(StandardCharsets.UTF_8), StandardOpenOption.TRUNCATE_EXISTING);
+            List<String> lines = new ArrayList<>();
+            tailer.poll(collect(lines));
+
+            assertEquals(Arrays.asList("new"), lines);
+            assertEquals(4, tailer.getOffset());
+        }
+    }
+
+    @Test
+    public void testRotationDrainsOldFile() throws IOException {
+        Path file = tempFolder.newFile("app.log").toPath();
+        append(file, "before rotation\n");
+
+        try (LogTailer tailer = new LogTailer(file, StandardCharsets.UTF_8, null)) {
+            tailer.poll(collect(new ArrayList<>()));
+
+            // 이전 파일에 마지막으로 기록된 후 이름 변경, 새 파일 생성
+            append(file, "last old line\n");
+            Files.move(file, file.resolveSibling("app.log.1"));
+            append(file, "first new line\n");
+
+            List<String> lines = new ArrayList<>();
+            tailer.poll(collect(lines));
+
+            assertEquals(Arrays.asList("last old line", "first new line"), lines);
+        }
+    }
+
+    @Test
+    public void testOverlongLineIsTruncatedOnce() throws IOException {
+        Path file = tempFolder.newFile("app.log").toPath();
+        char[] longLine = new char[MappedLogReader.MAX_LINE_BYTES * 3];
+        Arrays.fill(longLine, 'x');
+        // 줄바꿈 없이 최대 길이를 넘어도 아직 전달하지 않음
+        append(file, "head\n" + new String(longLine));
+
+        try (LogTailer tailer = new LogTailer(file, StandardCharsets.UTF_8, null)) {
+            List<String> lines = new ArrayList<>();
+            assertEquals(1, tailer.poll(collect(lines)));
+            assertEquals(5, tailer.getOffset());
+
+            // 줄바꿈이 오면 앞부분만 한 번 전달하고 나머지는 버림
+            append(file, "yyy\nnext\n");
+            assertEquals(2, tailer.poll(collect(lines)));
+            assertEquals(3, lines.size());
+            assertEquals(MappedLogReader.MAX_LINE_BYTES, lines.get(1).length());
+            assertEquals("next", lines.get(2));
+            assertEquals(Files.size(file), tailer.getOffset());
+        }
+    }
+
+    @Test
+    public void testResumeFromCheckpoint() throws IOException {
+        Path file = tempFolder.newFile("app.log").toPath();
+        CheckpointStore store = new CheckpointStore(tempFolder.newFolder("checkpoints").toPath());
+        append(file, "A\nB\n");
+
+        try (LogTailer tailer = new LogTailer(file, StandardCharsets.UTF_8, store.load(file))) {
+            tailer.poll(collect(new ArrayList<>()));
+            store.save(tailer.checkpoint());
+        }
+
+        append(file, "C\n");
+        TailCheckpoint checkpoint = store.load(file);
+        assertNotNull(checkpoint);
+        assertEquals(4, checkpoint.getOffset());
+
+        try (LogTailer tailer = new LogTailer(file, StandardCharsets.UTF_8, checkpoint)) {
+            List<String> lines = new ArrayList<>();
+            tailer.poll(collect(lines));
+            assertEquals(Arrays.asList("C"), lines);
+        }
+    }
+
+    @Test
+    public void testFollowSessionReportsDominantChanges() throws IOException {
+        Path file = tempFolder.newFile("app.log").toPath();
+        CheckpointStore store = new CheckpointStore(tempFolder.newFolder("checkpoints").toPath());
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        try (LogTailer tailer = new LogTailer(file, StandardCharsets.UTF_8, null)) {
+            FollowSession session = new FollowSession(tailer, store,
+                line -> {
+                    // 분류기는 앞뒤 공백이 제거된 바이트를 받음
+                    String text = tailer.decode(line);
+                    return text.startsWith("fw") ? "FIREWALL_1.00" : (text.startsWith("web") ? "APACHE_1.00" : null);
+                },
+                new RollingFormatWindow(4), new PrintStream(output, true));
+
+            append(file, "fw 1\nfw 2\n\n  fw 3 \r\n");
+            assertEquals(3, session.pollOnce());
+            append(file, "web 1\nweb 2\nweb 3\n");
+            assertEquals(3, session.pollOnce());
+
+            assertEquals("APACHE_1.00", session.getWindow().getDominant());
+            assertEquals(6, session.getTotalLines());
+            assertEquals(tailer.getOffset(), store.load(file).getOffset());
+        }
+
+        String printed = output.toString();
+        assertTrue(printed.contains("FIREWALL_1.00"));
+        assertTrue(printed.contains("APACHE_1.00"));
+        assertEquals(2, printed.split("\n").length);
+    }
+
+    @Test
+    public void testFollowSessionCapsLinesPerPoll() throws IOException {
+        Path file = tempFolder.newFile("app.log").toPath();
+        CheckpointStore store = new CheckpointStore(tempFolder.newFolder("checkpoints").toPath());
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < FollowSession.MAX_LINES_PER_POLL + 5; i++) {
+            content.append("line\n");
+        }
+        append(file, content.toString());
+
+        try (LogTailer tailer = new LogTailer(file, StandardCharsets.UTF_8, null)) {
+            FollowSession session = new FollowSession(tailer, store, line -> "APP_1.00",
+                new RollingFormatWindow(4), new PrintStream(new ByteArrayOutputStream(), true));
+
+            // 처음 따라잡을 때도 한 번에 최대 라인 수까지만 읽고 위치 저장
+            assertEquals(FollowSession.MAX_LINES_PER_POLL, session.pollOnce());
+            assertEquals(FollowSession.MAX_LINES_PER_POLL * 5L, tailer.getOffset());
+            assertEquals(tailer.getOffset(), store.load(file).getOffset());
+
+            assertEquals(5, session.pollOnce());
+            assertEquals(Files.size(file), tailer.getOffset());
+        }
+    }
+
+    @Test
+    public void testFollowSessionStopsMidPoll() throws Exception {
+        Path file = tempFolder.newFile("app.log").toPath();
+        CheckpointStore store = new CheckpointStore(tempFolder.newFolder("checkpoints").toPath());
+        append(file, "A\nB\nC\nD\n");
+
+        try (LogTailer tailer = new LogTailer(file, StandardCharsets.UTF_8, null)) {
+            FollowSession[] holder = new FollowSession[1];
+            int[] classified = new int[1];
+            holder[0] = new FollowSession(tailer, store, line -> {
+                    // 두 번째 라인을 분류하는 중에 종료 요청
+                    if (++classified[0] == 2) {
+                        holder[0].stop();
+                    }
+                    return "APP_1.00";
+                },
+                new RollingFormatWindow(4), new PrintStream(new ByteArrayOutputStream(), true));
+            FollowSession session = holder[0];
+
+            assertEquals(2, session.pollOnce());
+            assertEquals(4, tailer.getOffset());
+            assertEquals(4, store.load(file).getOffset());
+
+            // 종료 요청 후에는 더 읽지 않고 바로 끝남
+            session.run(10_000L);
+            assertTrue(session.awaitFinished(0L));
+            assertEquals(2, session.getTotalLines());
+            assertEquals(4, store.load(file).getOffset());
+        }
+    }
+
+    private static MappedLogReader.LineHandler collect(List<String> lines) {
+        return line -> {
+            lines.add(line);
+            return true;
+        };
+    }
+
+    private static void append(Path file, String content) throws IOException {
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8),
+            StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+}
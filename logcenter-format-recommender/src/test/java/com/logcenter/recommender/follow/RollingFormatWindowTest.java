@@ -0,0 +1,48 @@
+package com.logcenter.recommender.follow;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.Map;
+
+/**
+ * RollingFormatWindow 단위 테스트
+ */
+public class RollingFormatWindowTest {
+
+    @Test
+    public void testDominantChangeAndEviction() {
+        RollingFormatWindow window = new RollingFormatWindow(3);
+
+        assertTrue(window.add("A"));
+        assertFalse(window.add("A"));
+        assertFalse(window.add("B"));
+        assertEquals("A", window.getDominant());
+
+        // A 하나가 밀려나 A:1, B:2
+        assertTrue(window.add("B"));
+        assertEquals("B", window.getDominant());
+        assertEquals(3, window.size());
+        assertEquals(2.0 / 3, window.getDominantRatio(), 0.0001);
+    }
+
+    @Test
+    public void testTieKeepsCurrentDominant() {
+        RollingFormatWindow window = new RollingFormatWindow(4);
+        window.add("A");
+        window.add("B");
+        window.add("A");
+        window.add("B");
+
+        assertEquals("A", window.getDominant());
+
+        Map<String, Integer> distribution = window.getDistribution();
+        assertEquals(Integer.valueOf(2), distribution.get("A"));
+        assertEquals(Integer.valueOf(2), distribution.get("B"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidCapacity() {
+        new RollingFormatWindow(0);
+    }
+}
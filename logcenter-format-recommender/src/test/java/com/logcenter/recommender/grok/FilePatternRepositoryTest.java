@@ -268,6 +268,89 @@ public class FilePatternRepositoryTest {
         assertTrue("Grok 패턴을 가진 포맷이 있어야 합니다", formatsWithGrokPattern > 0);
     }
     
+    @Test
+    public void testMatchingProfileKeepsMatchingFieldsOnly() {
+        repository.initialize();
+        FilePatternRepository matching = new FilePatternRepository("setting_logformat.json", FormatLoadProfile.MATCHING);
+        assertTrue(matching.initialize());
+        
+        assertEquals(repository.size(), matching.size());
+        for (LogFormat full : repository.getAllFormats()) {
+            LogFormat slim = matching.getFormatById(full.getFormatId());
+            assertNotNull(slim);
+            assertEquals(full.getGroupName(), slim.getGroupName());
+            assertEquals(full.getVendor(), slim.getVendor());
+            assertEquals(full.getGrokPattern(), slim.getGrokPattern());
+            assertEquals(full.getLogTypes().size(), slim.getLogTypes().size());
+            for (LogFormat.LogType logType : slim.getLogTypes()) {
+                assertNull(logType.getTypeDescription());
+                for (LogFormat.Pattern pattern : logType.getPatterns()) {
+                    assertNotNull(pattern.getGrokExp());
+                    assertNull(pattern.getSampleLog());
+                    assertNull(pattern.getDataTable());
+                }
+            }
+        }
+        
+        // 같은 그룹의 포맷은 그룹명 인스턴스를 공유
+        for (List<LogFormat> group : groupedByName(matching.getAllFormats()).values()) {
+            for (LogFormat format : group) {
+                assertSame(group.get(0).getGroupName(), format.getGroupName());
+            }
+        }
+    }
+    
+    @Test
+    public void testMatchingProfileLoadsFullFormatOnDemand() {
+        FilePatternRepository matching = new FilePatternRepository("setting_logformat.json", FormatLoadProfile.MATCHING);
+        assertTrue(matching.initialize());
+        
+        LogFormat slim = matching.getAllFormats().get(0);
+        LogFormat full = matching.getFullFormat(slim.getFormatId());
+        
+        assertNotSame(slim, full);
+        assertEquals(slim.getFormatId(), full.getFormatId());
+        LogFormat.Pattern pattern = full.getLogTypes().get(0).getPatterns().get(0);
+        assertNotNull(pattern.getSampleLog());
+        assertNotNull(pattern.getDataTable());
+        assertNull(matching.getFullFormat("NO_SUCH_FORMAT"));
+    }
+    
+    @Test
+    public void testMatchingProfileHeapUsage() {
+        // 두 저장소를 모두 유지한 채 차례로 늘어난 힙을 측정
+        long base = usedHeapAfterGc();
+        FilePatternRepository full = new FilePatternRepository("setting_logformat.json", FormatLoadProfile.FULL);
+        assertTrue(full.initialize());
+        long afterFull = usedHeapAfterGc();
+        FilePatternRepository matching = new FilePatternRepository("setting_logformat.json", FormatLoadProfile.MATCHING);
+        assertTrue(matching.initialize());
+        long afterMatching = usedHeapAfterGc();
+        assertEquals(full.size(), matching.size());
+        
+        // GC 구현에 따라 달라지므로 로그만 출력
+        System.out.printf("카탈로그 힙 사용량: full %dKB, matching %dKB%n",
+            (afterFull - base) / 1024, (afterMatching - afterFull) / 1024);
+    }
+    
+    private static long usedHeapAfterGc() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+    
+    private static Map<String, List<LogFormat>> groupedByName(List<LogFormat> formats) {
+        Map<String, List<LogFormat>> groups = new java.util.HashMap<>();
+        for (LogFormat format : formats) {
+            if (format.getGroupName() != null) {
+                groups.computeIfAbsent(format.getGroupName(), k -> new java.util.ArrayList<>()).add(format);
+            }
+        }
+        return groups;
+    }
+    
     @Test
     public void testNonExistentFile() {
         // 존재하지 않는 파일로 테스트
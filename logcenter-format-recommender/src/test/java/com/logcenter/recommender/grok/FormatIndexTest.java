@@ -0,0 +1,102 @@
+package com.logcenter.recommender.grok;
+
+import com.logcenter.recommender.model.LogFormat;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * FormatIndex 단위 테스트
+ */
+public class FormatIndexTest {
+
+    private FormatIndex index;
+
+    @Before
+    public void setUp() {
+        index = FormatIndex.build(Arrays.asList(
+            createFormat("FORTIGATE_1.00", "Firewall", "FORTINET", "FG600C", "logformat6"),
+            createFormat("FORTIGATE_2.00", "Firewall", "FORTINET", "FG1000", "logformat6"),
+            createFormat("SECUI_MF2_1.00", "Firewall", "SECUI", "MF2", "logformat6"),
+            createFormat("APACHE_HTTP_1.00", "Web Server", "APACHE", "HTTP", "logformat6"),
+            createFormat("WAPPLES_1.00", "Web Firewall", "PENTASECURITY", "WAPPLES", "logformat5")
+        ));
+    }
+
+    @Test
+    public void testNoFilterReturnsAll() {
+        List<LogFormat> all = index.find(null, null, null, "");
+
+        assertEquals(5, all.size());
+        assertEquals(5, index.size());
+        assertEquals("FORTIGATE_1.00", all.get(0).getFormatId());
+    }
+
+    @Test
+    public void testGroupAndVendorFilter() {
+        List<LogFormat> candidates = index.find("FIREWALL", "fortinet", null, null);
+
+        assertEquals(2, candidates.size());
+        for (LogFormat format : candidates) {
+            assertEquals("FORTINET", format.getVendor());
+        }
+    }
+
+    @Test
+    public void testKeyNormalization() {
+        // 대소문자, 공백, 밑줄 무시
+        assertEquals(1, index.count("WEBSERVER", null, null, null));
+        assertEquals(1, index.count("web_server", null, null, null));
+        assertEquals(1, index.count("Web Firewall", null, null, null));
+        assertEquals(3, index.count("Firewall", null, null, null));
+    }
+
+    @Test
+    public void testCompositeFilter() {
+        List<LogFormat> candidates = index.find("Firewall", "FORTINET", "FG1000", "logformat6");
+
+        assertEquals(1, candidates.size());
+        assertEquals("FORTIGATE_2.00", candidates.get(0).getFormatId());
+
+        // 동일 조합 재조회 시 같은 결과
+        assertEquals(candidates, index.find("firewall", "fortinet", "fg1000", "LOGFORMAT6"));
+
+        assertEquals(1, index.count(null, null, null, "logformat5"));
+        assertEquals(2, index.count(null, "FORTINET", null, "logformat6"));
+    }
+
+    @Test
+    public void testUnknownKeyReturnsEmpty() {
+        assertTrue(index.find("UNKNOWN", null, null, null).isEmpty());
+        assertTrue(index.find("Firewall", "APACHE", null, null).isEmpty());
+        assertTrue(index.find("Firewall", null, "NOPE", "logformat6").isEmpty());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testCandidatesAreReadOnly() {
+        index.find("Firewall", null, null, null).clear();
+    }
+
+    @Test
+    public void testEmptyIndex() {
+        FormatIndex empty = FormatIndex.build(null);
+
+        assertEquals(0, empty.size());
+        assertTrue(empty.find(null, null, null, null).isEmpty());
+        assertTrue(empty.find("Firewall", null, null, null).isEmpty());
+    }
+
+    private LogFormat createFormat(String id, String group, String vendor, String model, String smType) {
+        LogFormat format = new LogFormat();
+        format.setFormatId(id);
+        format.setFormatName(id);
+        format.setGroupName(group);
+        format.setVendor(vendor);
+        format.setModel(model);
+        format.setSmType(smType);
+        return format;
+    }
+}
@@ -0,0 +1,123 @@
+package com.logcenter.recommender.matcher;
+
+import com.logcenter.recommender.grok.GrokCompilerWrapper;
+import com.logcenter.recommender.model.LogFormat;
+import com.logcenter.recommender.util.MultilineAssembler;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+/**
+ * FormatStartRule 단위 테스트
+ */
+public class FormatStartRuleTest {
+
+    private GrokCompilerWrapper grokCompiler;
+
+    @Before
+    public void setUp() {
+        grokCompiler = new GrokCompilerWrapper();
+        grokCompiler.loadStandardPatterns();
+        grokCompiler.loadCustomPatterns();
+    }
+
+    @Test
+    public void testHeadToken() {
+        assertEquals("LOG_TIME", FormatStartRule.headToken("^%{LOG_TIME:log_time} <%{PRI:pri}>"));
+        assertEquals("SKIP", FormatStartRule.headToken("%{SKIP} %{IP:src_ip}"));
+        assertNull(FormatStartRule.headToken("\\[%{DATA:x}\\]"));
+        assertNull(FormatStartRule.headToken(null));
+    }
+
+    @Test
+    public void testCatalogDerivedRule() {
+        LogFormat format = createFormat("^%{LOG_TIME:log_time} %{GREEDYDATA:message}", "20191015175852 sshd started");
+
+        MultilineAssembler.EventStartRule rule = FormatStartRule.forFormat(format, grokCompiler);
+
+        assertTrue(rule instanceof FormatStartRule);
+        assertTrue(rule.isStart("20191015175852 new event"));
+        // 첫 글자 검사에서 바로 제외
+        assertFalse(rule.isStart("\tat com.example.Main.main(Main.java:10)"));
+        assertFalse(rule.isStart("EventID=4624"));
+        // 숫자로 시작하지만 LOG_TIME(14자리)이 아님
+        assertFalse(rule.isStart("2019 continuation"));
+    }
+
+    @Test
+    public void testWindowsEventContinuation() {
+        LogFormat format = createFormat("^%{LOG_TIME:log_time} %{GREEDYDATA:message}", "20191015175852 Security 4624");
+        MultilineAssembler assembler = new MultilineAssembler(FormatStartRule.forFormat(format, grokCompiler));
+
+        assertNull(assembler.offer("20191015175852 Security 4624 An account was successfully logged on."));
+        assertNull(assembler.offer("Subject:"));
+        assertNull(assembler.offer("    Security ID: SYSTEM"));
+        String event = assembler.offer("20191015175900 Security 4634 An account was logged off.");
+
+        assertEquals(3, event.split("\n").length);
+    }
+
+    @Test
+    public void testRuleWithoutSamplesSkipsFirstCharacterCheck() {
+        // 매칭 전용 카탈로그 뷰는 샘플 로그가 없음
+        LogFormat format = createFormat("^%{QS:event} %{GREEDYDATA:message}", null);
+
+        MultilineAssembler.EventStartRule rule = FormatStartRule.forFormat(format, grokCompiler);
+
+        // 기호로 시작하는 라인도 첫 토큰 정규식으로 판단
+        assertTrue(rule instanceof FormatStartRule);
+        assertTrue(rule.isStart("\"login\" user=admin result=success"));
+        assertFalse(rule.isStart("\tat com.example.Main.main(Main.java:10)"));
+        assertFalse(rule.isStart("\"unterminated detail"));
+    }
+
+    @Test
+    public void testUnusableHeadFallsBackToDefault() {
+        // SKIP(.*?)은 빈 문자열과 일치하므로 시작 판단 불가
+        LogFormat format = createFormat("%{SKIP} %{IP:src_ip}", "x 10.0.0.1");
+
+        assertSame(MultilineAssembler.DEFAULT_RULE, FormatStartRule.forFormat(format, grokCompiler));
+        assertSame(MultilineAssembler.DEFAULT_RULE, FormatStartRule.forFormat(null, grokCompiler));
+    }
+
+    @Test
+    public void testFilteredFormatsCombineRules() {
+        LogFormat logTime = createFormat("^%{LOG_TIME:log_time} %{GREEDYDATA:message}", "20191015175852 sshd started");
+        LogFormat syslog = createFormat("^%{SYSLOGTIMESTAMP:timestamp} %{GREEDYDATA:message}",
+            "Oct 15 17:58:52 host sshd started");
+
+        MultilineAssembler.EventStartRule rule = FormatStartRule.forFormats(Arrays.asList(logTime, syslog), grokCompiler);
+
+        // 후보 중 하나라도 시작으로 보면 새 이벤트
+        assertTrue(rule.isStart("20191015175852 new event"));
+        assertTrue(rule.isStart("Oct 15 17:58:53 host sshd stopped"));
+        assertFalse(rule.isStart("\tat com.example.Main.main(Main.java:10)"));
+        assertFalse(rule.isStart("Caused by: java.io.IOException"));
+
+        // 시작 규칙을 만들 수 없는 후보가 있으면 기본 규칙
+        LogFormat skip = createFormat("%{SKIP} %{IP:src_ip}", "x 10.0.0.1");
+        assertSame(MultilineAssembler.DEFAULT_RULE,
+            FormatStartRule.forFormats(Arrays.asList(logTime, skip), grokCompiler));
+        assertSame(MultilineAssembler.DEFAULT_RULE,
+            FormatStartRule.forFormats(Collections.emptyList(), grokCompiler));
+    }
+
+    private LogFormat createFormat(String grokExp, String sampleLog) {
+        LogFormat.Pattern pattern = new LogFormat.Pattern();
+        pattern.setExpName("TEST_1.00_1");
+        pattern.setGrokExp(grokExp);
+        pattern.setSampleLog(sampleLog);
+
+        LogFormat.LogType logType = new LogFormat.LogType();
+        logType.setTypeName("Event Log");
+        logType.setPatterns(Collections.singletonList(pattern));
+
+        LogFormat format = new LogFormat();
+        format.setFormatId("TEST_1.00");
+        format.setLogTypes(Arrays.asList(logType));
+        return format;
+    }
+}
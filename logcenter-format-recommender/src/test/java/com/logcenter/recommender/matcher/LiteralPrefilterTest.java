@@ -0,0 +1,138 @@
+package com.logcenter.recommender.matcher;
+
+import com.logcenter.recommender.grok.FilePatternRepository;
+import com.logcenter.recommender.grok.GrokCompilerWrapper;
+import com.logcenter.recommender.model.LogFormat;
+import io.krakens.grok.api.Grok;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * LiteralPrefilter 단위 테스트
+ */
+public class LiteralPrefilterTest {
+
+    @Test
+    public void testRequiredPieces() {
+        assertEquals(Arrays.asList("<", ">", "devname=\"", "\""),
+            LiteralPrefilter.requiredPieces("^%{LOG_TIME:log_time} <%{INT:pri}> devname=\"%{DATA:dev}\""));
+        // 수량자가 붙은 문자, 그룹, 문자 클래스는 필수가 아님
+        assertEquals(Arrays.asList("[", "]", "act", "act"),
+            LiteralPrefilter.requiredPieces("\\[%{IP:ip}\\] (foo)? [a-z]+ acts? act\\s+"));
+        assertEquals(Collections.singletonList("ab"), LiteralPrefilter.requiredPieces("ab+c*"));
+        // 최상위 선택, 해석하지 않는 이스케이프
+        assertNull(LiteralPrefilter.requiredPieces("foo|bar"));
+        assertNull(LiteralPrefilter.requiredPieces("\\x41BC"));
+    }
+
+    @Test
+    public void testByteAndStringFiltering() {
+        LogFormat fortigate = createFormat("FORTIGATE", "%{LOG_TIME:log_time} devname=%{WORD:dev} srcip=%{IP:src}");
+        LogFormat csv = createFormat("CSV", "%{IP:src},%{IP:dst},%{INT:port},%{WORD:action}");
+        LogFormat generic = createFormat("ANY", "%{TEXT1:log_time} %{GREEDYDATA:message}");
+        List<LogFormat> candidates = Arrays.asList(fortigate, csv, generic);
+        LiteralPrefilter prefilter = LiteralPrefilter.build(candidates);
+
+        String fortiLine = "20240101120000 DEVNAME=fw01 srcip=10.0.0.1";
+        assertEquals(Arrays.asList(fortigate, generic), prefilter.survivors(fortiLine, candidates));
+        assertEquals(Arrays.asList(fortigate, generic), prefilter.survivors(bytes(fortiLine), candidates));
+
+        // 쉼표 3개 미만이면 CSV 제외
+        assertEquals(Collections.singletonList(generic), prefilter.survivors("10.0.0.1,10.0.0.2,80", candidates));
+        assertSame(candidates, prefilter.survivors("10.0.0.1,10.0.0.2,80,allow devname= srcip=", candidates));
+
+        List<LogFormat> specific = Arrays.asList(fortigate, csv);
+        assertTrue(prefilter.survivors(bytes("plain text"), specific).isEmpty());
+    }
+
+    @Test
+    public void testSliceIsNotConsumed() {
+        LogFormat format = createFormat("KV", "%{WORD:a} action=%{WORD:b}");
+        LiteralPrefilter prefilter = LiteralPrefilter.build(Collections.singletonList(format));
+
+        ByteBuffer buffer = ByteBuffer.wrap("xx action=deny\nyy".getBytes(StandardCharsets.UTF_8));
+        buffer.limit(14);
+        buffer.position(3);
+
+        assertEquals(1, prefilter.survivors(buffer, Collections.singletonList(format)).size());
+        assertEquals(3, buffer.position());
+        buffer.position(0).limit(2);
+        assertTrue(prefilter.survivors(buffer, Collections.singletonList(format)).isEmpty());
+    }
+
+    @Test
+    public void testAsciiCompatibility() {
+        assertTrue(LiteralPrefilter.isAsciiCompatible(StandardCharsets.UTF_8));
+        assertTrue(LiteralPrefilter.isAsciiCompatible(Charset.forName("EUC-KR")));
+        assertFalse(LiteralPrefilter.isAsciiCompatible(StandardCharsets.UTF_16LE));
+    }
+
+    @Test
+    public void testCatalogSamplesAreNeverFilteredOut() {
+        FilePatternRepository repository = new FilePatternRepository("setting_logformat.json");
+        assertTrue(repository.initialize());
+        GrokCompilerWrapper grokCompiler = new GrokCompilerWrapper();
+        grokCompiler.loadStandardPatterns();
+        grokCompiler.loadCustomPatterns();
+
+        List<LogFormat> formats = repository.getAllFormats();
+        LiteralPrefilter prefilter = LiteralPrefilter.build(formats);
+
+        int checked = 0;
+        long survivorTotal = 0;
+        for (LogFormat format : formats) {
+            if (format.getLogTypes() == null) {
+                continue;
+            }
+            for (LogFormat.LogType logType : format.getLogTypes()) {
+                if (logType.getPatterns() == null) {
+                    continue;
+                }
+                for (LogFormat.Pattern pattern : logType.getPatterns()) {
+                    String sample = pattern.getSampleLog();
+                    Grok grok = grokCompiler.compileSafe(pattern.getGrokExp());
+                    if (sample == null || grok == null || grok.match(sample.trim()).capture().isEmpty()) {
+                        continue;
+                    }
+                    // 실제로 매칭되는 샘플의 포맷은 반드시 남아야 함
+                    List<LogFormat> fromString = prefilter.survivors(sample, formats);
+                    List<LogFormat> fromBytes = prefilter.survivors(bytes(sample), formats);
+                    assertTrue(format.getFormatId() + ": " + pattern.getGrokExp(), fromString.contains(format));
+                    assertEquals(fromString, fromBytes);
+                    checked++;
+                    survivorTotal += fromString.size();
+                }
+            }
+        }
+
+        assertTrue(checked > 0);
+        // 평균적으로 전체 포맷 중 일부만 남아야 함
+        assertTrue(survivorTotal / checked < formats.size());
+    }
+
+    private static ByteBuffer bytes(String line) {
+        return ByteBuffer.wrap(line.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static LogFormat createFormat(String formatId, String grokExp) {
+        LogFormat.Pattern pattern = new LogFormat.Pattern();
+        pattern.setExpName(formatId + "_1");
+        pattern.setGrokExp(grokExp);
+
+        LogFormat.LogType logType = new LogFormat.LogType();
+        logType.setTypeName("Event Log");
+        logType.setPatterns(Collections.singletonList(pattern));
+
+        LogFormat format = new LogFormat();
+        format.setFormatId(formatId);
+        format.setLogTypes(Collections.singletonList(logType));
+        return format;
+    }
+}
@@ -0,0 +1,55 @@
+package com.logcenter.recommender.matcher;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * TopKSelector 단위 테스트
+ */
+public class TopKSelectorTest {
+
+    @Test
+    public void testOrderByKeys() {
+        TopKSelector<String> selector = new TopKSelector<>(2);
+        selector.add("low", 0, 5, 0.99);
+        selector.add("high", 2, 1, 0.50);
+        selector.add("mid-conf", 1, 3, 0.90);
+        selector.add("mid-fields", 1, 4, 0.10);
+
+        assertEquals(4, selector.size());
+        assertEquals(Arrays.asList("high", "mid-fields", "mid-conf", "low"), selector.select(0));
+    }
+
+    @Test
+    public void testSelectTopK() {
+        TopKSelector<Integer> selector = new TopKSelector<>();
+        for (int i = 0; i < 100; i++) {
+            selector.add(i, i % 7, 0, i / 100.0);
+        }
+
+        List<Integer> top = selector.select(3);
+
+        // 1차 키 6인 후보 중 신뢰도가 높은 순
+        assertEquals(Arrays.asList(97, 90, 83), top);
+    }
+
+    @Test
+    public void testTiesKeepInsertionOrder() {
+        TopKSelector<String> selector = new TopKSelector<>();
+        selector.add("a", 1, 1, 0.5);
+        selector.add("b", 1, 1, 0.5);
+        selector.add("c", 1, 1, 0.5);
+        selector.add("d", 1, 1, 0.5);
+
+        assertEquals(Arrays.asList("a", "b"), selector.select(2));
+        assertEquals(Arrays.asList("a", "b", "c", "d"), selector.select(10));
+    }
+
+    @Test
+    public void testEmpty() {
+        assertTrue(new TopKSelector<String>().select(5).isEmpty());
+    }
+}
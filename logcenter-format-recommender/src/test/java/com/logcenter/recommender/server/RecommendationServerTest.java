@@ -0,0 +1,159 @@
+package com.logcenter.recommender.server;
+
+import com.logcenter.recommender.api.LogFormatApiClient;
+import com.logcenter.recommender.api.model.LogFormatRequest;
+import com.logcenter.recommender.grok.FilePatternRepository;
+import com.logcenter.recommender.grok.GrokCompilerWrapper;
+import com.logcenter.recommender.model.FormatRecommendation;
+import com.logcenter.recommender.model.LogFormat;
+import com.logcenter.recommender.service.LogFormatRecommender;
+import com.logcenter.recommender.service.LogFormatRecommenderImpl;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * RecommendationServer 단위 테스트 (localhost에서 LogFormatApiClient로 호출)
+ */
+public class RecommendationServerTest {
+
+    private static final String APACHE_LOG =
+        "192.168.1.100 - - [01/Jan/2024:12:00:00 +0000] \"GET /index.html HTTP/1.1\" 200 1234";
+
+    private static LogFormatRecommenderImpl recommender;
+    private static RecommendationServer server;
+    private static String baseUrl;
+
+    @BeforeClass
+    public static void startServer() throws IOException {
+        recommender = new LogFormatRecommenderImpl(new FilePatternRepository("setting_logformat.json"),
+            new GrokCompilerWrapper());
+        assertTrue(recommender.initialize());
+        server = new RecommendationServer(recommender, 2, 64 * 1024, 100);
+        assertTrue(server.warmUp() > 0);
+        InetSocketAddress address = server.start(new InetSocketAddress("127.0.0.1", 0));
+        baseUrl = "http://127.0.0.1:" + address.getPort();
+    }
+
+    @AfterClass
+    public static void stopServer() {
+        server.close();
+        recommender.shutdown();
+    }
+
+    @Test
+    public void testHealthAndCatalog() throws Exception {
+        try (LogFormatApiClient client = new LogFormatApiClient(baseUrl, "")) {
+            assertTrue(client.isHealthy());
+
+            List<LogFormat> formats = client.getLogFormats();
+            assertEquals(recommender.getAvailableFormats().size(), formats.size());
+            assertEquals(recommender.getAvailableFormats().get(0).getFormatId(), formats.get(0).getFormatId());
+
+            Map<String, Integer> groups = client.getGroupStatistics();
+            assertEquals(recommender.getGroupStatistics(), groups);
+        }
+    }
+
+    @Test
+    public void testCatalogConditionalRequest() throws Exception {
+        HttpURLConnection first = open("/api/v1/logformats");
+        assertEquals(200, first.getResponseCode());
+        String etag = first.getHeaderField("ETag");
+        assertNotNull(etag);
+        first.disconnect();
+
+        HttpURLConnection second = open("/api/v1/logformats");
+        second.setRequestProperty("If-None-Match", etag);
+        assertEquals(304, second.getResponseCode());
+        second.disconnect();
+    }
+
+    @Test
+    public void testRecommendMatchesLocalEngine() throws Exception {
+        LogFormatRecommender.RecommendOptions options = new LogFormatRecommender.RecommendOptions();
+        options.setMaxResults(3);
+        List<FormatRecommendation> local = recommender.recommend(APACHE_LOG, options);
+
+        try (LogFormatApiClient client = new LogFormatApiClient(baseUrl, "")) {
+            LogFormatRequest request = new LogFormatRequest(Arrays.asList(APACHE_LOG));
+            request.setTopN(3);
+            List<FormatRecommendation> remote = client.recommendFormats(request);
+
+            assertEquals(local.size(), remote.size());
+            assertEquals(local.get(0).getLogFormat().getFormatId(), remote.get(0).getLogFormat().getFormatId());
+            assertEquals(local.get(0).getConfidence(), remote.get(0).getConfidence(), 0.001);
+        }
+    }
+
+    @Test
+    public void testBatchReturnsPerSampleResultsAcrossChunks() throws Exception {
+        List<String> samples = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            samples.add(i % 2 == 0 ? APACHE_LOG : "unmatched line " + i);
+        }
+        LogFormatRecommender.RecommendOptions options = new LogFormatRecommender.RecommendOptions();
+        List<List<FormatRecommendation>> local = recommender.recommendBatch(samples, options);
+
+        try (LogFormatApiClient client = new LogFormatApiClient(baseUrl, "", 2, 2)) {
+            List<List<FormatRecommendation>> remote = client.recommendBatch(new LogFormatRequest(samples));
+
+            assertEquals(samples.size(), remote.size());
+            for (int i = 0; i < samples.size(); i++) {
+                assertEquals(local.get(i).size(), remote.get(i).size());
+                if (!local.get(i).isEmpty()) {
+                    assertEquals(local.get(i).get(0).getLogFormat().getFormatId(),
+                        remote.get(i).get(0).getLogFormat().getFormatId());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testRequestLimits() throws Exception {
+        try (LogFormatApiClient client = new LogFormatApiClient(baseUrl, "", 1, 1000)) {
+            // 샘플 수 초과 (4xx는 재시도하지 않음)
+            List<String> samples = new ArrayList<>();
+            for (int i = 0; i < 101; i++) {
+                samples.add("line " + i);
+            }
+            try {
+                client.recommendBatch(new LogFormatRequest(samples));
+                fail("샘플 수 제한을 넘으면 거절되어야 합니다");
+            } catch (IOException expected) {
+                assertTrue(expected.getMessage(), expected.getMessage().contains("100"));
+            }
+
+            // 빈 요청
+            try {
+                client.recommendFormats(new LogFormatRequest(new ArrayList<>()));
+                fail("빈 요청은 거절되어야 합니다");
+            } catch (IOException expected) {
+                // 정상
+            }
+        }
+
+        HttpURLConnection unknown = open("/api/v1/unknown");
+        assertEquals(404, unknown.getResponseCode());
+        unknown.disconnect();
+
+        HttpURLConnection wrongMethod = open("/api/v1/recommend");
+        assertEquals(405, wrongMethod.getResponseCode());
+        wrongMethod.disconnect();
+    }
+
+    private static HttpURLConnection open(String path) throws IOException {
+        return (HttpURLConnection) new URL(baseUrl + path).openConnection();
+    }
+}
\ No newline at end of file
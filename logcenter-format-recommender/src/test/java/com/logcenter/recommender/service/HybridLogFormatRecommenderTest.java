@@ -0,0 +1,169 @@
+package com.logcenter.recommender.service;
+
+import com.logcenter.recommender.api.CircuitBreaker;
+import com.logcenter.recommender.api.LogFormatApiClient;
+import com.logcenter.recommender.api.model.LogFormatRequest;
+import com.logcenter.recommender.model.FormatRecommendation;
+import com.logcenter.recommender.model.LogFormat;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * HybridLogFormatRecommender 단위 테스트
+ */
+public class HybridLogFormatRecommenderTest {
+
+    private static final long BUDGET_MS = 300;
+
+    private LogFormatApiClient apiClient;
+    private LogFormatRecommender local;
+    private CircuitBreaker breaker;
+    private LogFormatRecommender.RecommendOptions options;
+
+    @Before
+    public void setUp() {
+        apiClient = mock(LogFormatApiClient.class);
+        local = mock(LogFormatRecommender.class);
+        breaker = new CircuitBreaker(10, 2, 50, 0.95, 1000, 60000);
+        options = new LogFormatRecommender.RecommendOptions();
+        when(local.recommend(anyString(), any())).thenReturn(recommendations("local"));
+    }
+
+    @Test
+    public void testRemoteResultWithinBudget() {
+        when(apiClient.recommendFormatsAsync(any(), anyBoolean()))
+            .thenReturn(CompletableFuture.completedFuture(recommendations("remote")));
+        HybridLogFormatRecommender hybrid = newHybrid(0);
+
+        assertEquals("remote", topFormat(hybrid.recommend("line", options)));
+
+        assertEquals(1, hybrid.getStats().getRemote());
+        assertEquals(0, hybrid.getStats().getLocal());
+        verify(local, never()).recommend(anyString(), any());
+    }
+
+    @Test
+    public void testSlowRemoteFallsBackToLocalWithinBudget() {
+        when(apiClient.recommendFormatsAsync(any(), anyBoolean())).thenReturn(new CompletableFuture<>());
+        HybridLogFormatRecommender hybrid = newHybrid(0);
+
+        long start = System.nanoTime();
+        assertEquals("local", topFormat(hybrid.recommend("line", options)));
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue("예산 안에서 대체되어야 합니다: " + elapsedMs + "ms", elapsedMs < BUDGET_MS + 200);
+        assertEquals(1, hybrid.getStats().getLocalBudget());
+    }
+
+    @Test
+    public void testOpenBreakerSkipsRemote() {
+        CompletableFuture<List<FormatRecommendation>> failed = new CompletableFuture<>();
+        failed.completeExceptionally(new java.io.IOException("down"));
+        when(apiClient.recommendFormatsAsync(any(), anyBoolean())).thenReturn(failed);
+        HybridLogFormatRecommender hybrid = newHybrid(0);
+
+        // 두 번 실패하면 차단기가 열리고 이후 요청은 원격 호출 없이 로컬 처리
+        for (int i = 0; i < 5; i++) {
+            assertEquals("local", topFormat(hybrid.recommend("line", options)));
+        }
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        verify(apiClient, times(2)).recommendFormatsAsync(any(), anyBoolean());
+        assertEquals(2, hybrid.getStats().getLocalError());
+        assertEquals(3, hybrid.getStats().getLocalBreakerOpen());
+    }
+
+    @Test
+    public void testInterruptedProbeDoesNotLeaveBreakerHalfOpen() throws InterruptedException {
+        breaker = new CircuitBreaker(10, 2, 50, 0.95, 1000, 50);
+        CompletableFuture<List<FormatRecommendation>> failed = new CompletableFuture<>();
+        failed.completeExceptionally(new java.io.IOException("down"));
+        when(apiClient.recommendFormatsAsync(any(), anyBoolean()))
+            .thenReturn(failed)
+            .thenReturn(failed)
+            .thenReturn(new CompletableFuture<>())
+            .thenReturn(CompletableFuture.completedFuture(recommendations("remote")));
+        HybridLogFormatRecommender hybrid = newHybrid(0);
+
+        hybrid.recommend("line", options);
+        hybrid.recommend("line", options);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        Thread.sleep(100);
+
+        // 시험 호출을 기다리던 스레드가 인터럽트되면 시험 호출은 취소됨
+        Thread.currentThread().interrupt();
+        try {
+            assertEquals("local", topFormat(hybrid.recommend("line", options)));
+        } finally {
+            assertTrue(Thread.interrupted());
+        }
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+
+        // 다음 요청이 다시 시험 호출을 보내고 성공하면 닫힘
+        assertEquals("remote", topFormat(hybrid.recommend("line", options)));
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    public void testBackupRequestServesWhenPrimaryStalls() {
+        CompletableFuture<List<FormatRecommendation>> stalled = new CompletableFuture<>();
+        when(apiClient.recommendFormatsAsync(any(), eq(true))).thenReturn(stalled);
+        when(apiClient.recommendFormatsAsync(any(), eq(false)))
+            .thenReturn(CompletableFuture.completedFuture(recommendations("backup")));
+        HybridLogFormatRecommender hybrid = newHybrid(50);
+
+        assertEquals("backup", topFormat(hybrid.recommend("line", options)));
+
+        assertEquals(1, hybrid.getStats().getRemote());
+        assertEquals(1, hybrid.getStats().getBackupWins());
+        assertTrue("진 요청은 취소되어야 합니다", stalled.isCancelled());
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    public void testBatchKeepsReceivedLinesAndFillsRestLocally() {
+        when(apiClient.recommendBatchAsync(any(LogFormatRequest.class), any())).thenAnswer(invocation -> {
+            LogFormatApiClient.SampleResultListener listener = invocation.getArgument(1);
+            listener.onResult(0, recommendations("remote"));
+            return new CompletableFuture<>();
+        });
+        when(local.recommendBatch(anyList(), any()))
+            .thenReturn(Arrays.asList(recommendations("local"), recommendations("local")));
+        HybridLogFormatRecommender hybrid = newHybrid(0);
+
+        List<List<FormatRecommendation>> results = hybrid.recommendBatch(Arrays.asList("a", "b", "c"), options);
+
+        assertEquals("remote", topFormat(results.get(0)));
+        assertEquals("local", topFormat(results.get(1)));
+        assertEquals("local", topFormat(results.get(2)));
+        verify(local).recommendBatch(Arrays.asList("b", "c"), options);
+        assertEquals(1, hybrid.getStats().getRemote());
+        assertEquals(2, hybrid.getStats().getLocalBudget());
+    }
+
+    private HybridLogFormatRecommender newHybrid(long hedgeDelayMs) {
+        return new HybridLogFormatRecommender(apiClient, local, breaker, BUDGET_MS, hedgeDelayMs);
+    }
+
+    private static List<FormatRecommendation> recommendations(String formatId) {
+        LogFormat format = new LogFormat();
+        format.setFormatId(formatId);
+        return Collections.singletonList(new FormatRecommendation(format));
+    }
+
+    private static String topFormat(List<FormatRecommendation> recommendations) {
+        return recommendations.get(0).getLogFormat().getFormatId();
+    }
+}
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.logcenter.recommender.service;
 
+import com.logcenter.recommender.cache.ResultStore;
 import com.logcenter.recommender.grok.FilePatternRepository;
 import com.logcenter.recommender.grok.GrokCompilerWrapper;
 import com.logcenter.recommender.grok.PatternRepository;
@@ -7,11 +8,23 @@ import com.logcenter.recommender.model.FormatRecommendation;
 import com.logcenter.recommender.model.LogFormat;
 import org.junit.Before;
 import org.junit.After;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
 
 /**
  * LogFormatRecommenderImpl 단위 테스트
@@ -22,6 +35,9 @@ public class LogFormatRecommenderImplTest {
     private PatternRepository patternRepository;
     private GrokCompilerWrapper grokCompiler;
     
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+    
     @Before
     public void setUp() {
         // 테스트용 패턴 저장소 생성
@@ -113,6 +129,55 @@ public class LogFormatRecommenderImplTest {
         }
     }
     
+    @Test(timeout = 60000)
+    public void testBatchOnSingleThreadPool() throws Exception {
+        // 스레드 1개에서도 배치 작업과 포맷 매칭이 같은 풀을 기다리며 멈추지 않아야 함
+        recommender.setOptions(new LogFormatRecommender.RecommendOptions.Builder()
+            .parallelThreads(1)
+            .build());
+        assertEquals(1, recommender.getParallelism());
+        
+        List<String> logSamples = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            logSamples.add("192.168.1." + i + " - - [01/Jan/2024:12:00:00 +0000] \"GET /page HTTP/1.1\" 200 " + i);
+        }
+        
+        assertNotNull(recommender.recommendBatch(logSamples));
+        List<List<FormatRecommendation>> results = recommender.recommendBatch(logSamples,
+            new LogFormatRecommender.RecommendOptions.Builder().parallelThreads(1).build());
+        assertEquals(logSamples.size(), results.size());
+        
+        // 파일 단위 작업도 같은 풀에서 실행 가능
+        List<List<FormatRecommendation>> nested = CompletableFuture
+            .supplyAsync(() -> recommender.recommendBatch(logSamples,
+                new LogFormatRecommender.RecommendOptions.Builder().build()), recommender.getExecutor())
+            .get();
+        assertEquals(logSamples.size(), nested.size());
+    }
+    
+    @Test
+    public void testRecommendFromBytes() {
+        String apacheLog = "192.168.1.100 - - [01/Jan/2024:12:00:00 +0000] \"GET /index.html HTTP/1.1\" 200 1234";
+        LogFormatRecommender.RecommendOptions options = new LogFormatRecommender.RecommendOptions.Builder()
+            .enableCaching(false)
+            .build();
+        
+        List<FormatRecommendation> fromString = recommender.recommend(apacheLog, options);
+        List<FormatRecommendation> fromBytes = recommender.recommend(
+            ByteBuffer.wrap(apacheLog.getBytes(StandardCharsets.UTF_8)), StandardCharsets.UTF_8, options);
+        
+        // 사전 필터는 결과를 바꾸지 않음
+        assertEquals(fromString.size(), fromBytes.size());
+        for (int i = 0; i < fromString.size(); i++) {
+            assertEquals(fromString.get(i).getFormatId(), fromBytes.get(i).getFormatId());
+        }
+        
+        // UTF-16은 디코딩 후 일반 경로로 처리
+        List<FormatRecommendation> fromUtf16 = recommender.recommend(
+            ByteBuffer.wrap(apacheLog.getBytes(StandardCharsets.UTF_16LE)), StandardCharsets.UTF_16LE, options);
+        assertEquals(fromString.size(), fromUtf16.size());
+    }
+    
     @Test
     public void testRecommendInGroup() {
         // 특정 그룹에서만 추천
@@ -141,6 +206,88 @@ public class LogFormatRecommenderImplTest {
         }
     }
     
+    @Test
+    public void testRecommendWithGroupAndVendorFilter() {
+        // 필터는 매칭 전에 적용되어야 함
+        LogFormatRecommender.RecommendOptions options = 
+            new LogFormatRecommender.RecommendOptions.Builder()
+                .groupFilter("FIREWALL")
+                .vendorFilter("secui")
+                .minConfidence(0.0)
+                .build();
+        
+        String log = "2024-01-01 12:00:00 ALLOW TCP 192.168.1.100:12345 -> 10.0.0.1:443";
+        List<FormatRecommendation> recommendations = recommender.recommend(log, options);
+        
+        assertNotNull(recommendations);
+        for (FormatRecommendation rec : recommendations) {
+            assertEquals("Firewall", rec.getGroupName());
+            assertEquals("SECUI", rec.getVendor());
+        }
+        
+        // 존재하지 않는 벤더는 결과 없음
+        options.setVendorFilter("NO_SUCH_VENDOR");
+        assertTrue(recommender.recommend(log, options).isEmpty());
+    }
+    
+    @Test(timeout = 60000)
+    public void testConcurrentCallsKeepTheirOwnOptions() throws Exception {
+        // 호출별 옵션은 다른 스레드의 호출에 섞이지 않아야 함
+        String webLog = "192.168.1.100 - - [01/Jan/2024:12:00:00 +0000] \"GET /index.html HTTP/1.1\" 200 1234";
+        String sshLog = "Oct 11 22:14:15 host sshd[123]: Accepted password for root from 10.0.0.1 port 22 ssh2";
+        LogFormatRecommender.RecommendOptions webOptions = new LogFormatRecommender.RecommendOptions.Builder()
+            .groupFilter("Web Server").maxResults(1).minConfidence(0.0).enableCaching(false).build();
+        LogFormatRecommender.RecommendOptions sshOptions = new LogFormatRecommender.RecommendOptions.Builder()
+            .groupFilter("System").maxResults(2).minConfidence(0.0).enableCaching(false).build();
+        
+        CountDownLatch start = new CountDownLatch(1);
+        CompletableFuture<Void> web = CompletableFuture.runAsync(
+            () -> recommendRepeatedly(start, webLog, webOptions, "Web Server", 1));
+        CompletableFuture<Void> ssh = CompletableFuture.runAsync(
+            () -> recommendRepeatedly(start, sshLog, sshOptions, "System", 2));
+        start.countDown();
+        web.get();
+        ssh.get();
+    }
+    
+    private void recommendRepeatedly(CountDownLatch start, String log, LogFormatRecommender.RecommendOptions options,
+                                     String group, int maxResults) {
+        try {
+            start.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        for (int i = 0; i < 200; i++) {
+            List<FormatRecommendation> recommendations = recommender.recommend(log, options);
+            assertFalse("필터 " + group + "의 결과가 비어서는 안 됨", recommendations.isEmpty());
+            assertTrue(recommendations.size() <= maxResults);
+            for (FormatRecommendation rec : recommendations) {
+                assertEquals(group, rec.getGroupName());
+            }
+        }
+    }
+    
+    @Test
+    public void testCacheKeyCoversOptionsAndFullSample() {
+        String sshLog = "Oct 11 22:14:15 host sshd[123]: Accepted password for root from 10.0.0.1 port 22 ssh2";
+        LogFormatRecommender.RecommendOptions top1 = new LogFormatRecommender.RecommendOptions.Builder()
+            .groupFilter("System").maxResults(1).minConfidence(0.0).build();
+        LogFormatRecommender.RecommendOptions top3 = new LogFormatRecommender.RecommendOptions.Builder()
+            .groupFilter("System").maxResults(3).minConfidence(0.0).build();
+        
+        // 같은 라인이라도 결과 개수가 다르면 캐시된 결과를 재사용하지 않음
+        assertEquals(1, recommender.recommend(sshLog, top1).size());
+        assertTrue(recommender.recommend(sshLog, top3).size() > 1);
+        
+        // hashCode가 같은 다른 라인은 다른 키
+        assertEquals("Aa".hashCode(), "BB".hashCode());
+        assertNotEquals(LogFormatRecommenderImpl.generateCacheKey("Aa", top1),
+            LogFormatRecommenderImpl.generateCacheKey("BB", top1));
+        assertNotEquals(LogFormatRecommenderImpl.generateCacheKey(sshLog, top1),
+            LogFormatRecommenderImpl.generateCacheKey(sshLog, top3));
+    }
+    
     @Test
     public void testRecommendOptions() {
         // 옵션 설정
@@ -233,6 +380,99 @@ public class LogFormatRecommenderImplTest {
         assertNotNull(recommendations);
     }
     
+    @Test
+    public void testResultStoreReusesVerdictForSameTemplate() throws IOException {
+        Path file = tempFolder.getRoot().toPath().resolve("recommendations.store");
+        ResultStore store = ResultStore.open(file, 1L, 1024 * 1024);
+        recommender.setResultStore(store);
+        LogFormatRecommender.RecommendOptions options = new LogFormatRecommender.RecommendOptions.Builder()
+            .enableCaching(false)
+            .build();
+        
+        String first = "192.168.1.100 - - [01/Jan/2024:12:00:00 +0000] \"GET /index.html HTTP/1.1\" 200 1234";
+        String second = "192.168.1.101 - - [02/Jan/2024:13:14:15 +0000] \"GET /index.html HTTP/1.1\" 404 5678";
+        List<FormatRecommendation> expected = recommender.recommend(first, options);
+        assertFalse(expected.isEmpty());
+        assertEquals(1, store.size());
+        
+        // 숫자만 다른 라인은 저장된 포맷만 다시 매칭
+        List<FormatRecommendation> restored = recommender.recommend(second, options);
+        assertEquals(1, store.size());
+        assertEquals(expected.size(), restored.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getLogFormat().getFormatId(), restored.get(i).getLogFormat().getFormatId());
+        }
+        assertFalse("필드는 현재 라인에서 추출되어야 합니다",
+            restored.get(0).getMatchedFields().containsValue("1234"));
+        
+        // 매칭되지 않는 라인은 라인 지문으로 저장
+        recommender.recommend("이 라인은 어떤 포맷과도 맞지 않습니다 ###", options);
+        
+        recommender.shutdown();
+        try (ResultStore reopened = ResultStore.open(file, 1L, 1024 * 1024)) {
+            assertTrue(reopened.size() >= 1);
+        }
+    }
+    
+    @Test
+    public void testResultStoreRechecksFormatsWithLiteralDigits() throws IOException {
+        // 숫자만 다른 라인이라도 숫자 리터럴이 있는 포맷은 결과가 달라질 수 있음
+        LogFormat generic = createFormat("TEST_GENERIC",
+            "^%{SRC_IP:src_ip} %{SRC_PORT:src_port} %{WORD:action} %{WORD:version}$");
+        LogFormat literal = createFormat("TEST_LITERAL_V2",
+            "^%{SRC_IP:src_ip} %{SRC_PORT:src_port} %{WORD:action} v2$");
+        List<LogFormat> formats = Arrays.asList(generic, literal);
+        PatternRepository repository = mock(PatternRepository.class);
+        when(repository.initialize()).thenReturn(true);
+        when(repository.getAllFormats()).thenReturn(formats);
+        when(repository.findCandidates(any(), any(), any(), any())).thenReturn(formats);
+        when(repository.getFormatById("TEST_GENERIC")).thenReturn(generic);
+        when(repository.getFormatById("TEST_LITERAL_V2")).thenReturn(literal);
+        when(repository.size()).thenReturn(formats.size());
+        
+        LogFormatRecommenderImpl withStore = new LogFormatRecommenderImpl(repository, grokCompiler);
+        try {
+            assertTrue(withStore.initialize());
+            withStore.setResultStore(ResultStore.open(
+                tempFolder.getRoot().toPath().resolve("literal.store"), 1L, 1024 * 1024));
+            LogFormatRecommender.RecommendOptions options = new LogFormatRecommender.RecommendOptions.Builder()
+                .enableCaching(false)
+                .minConfidence(0.0)
+                .build();
+            
+            List<FormatRecommendation> first = withStore.recommend("192.168.1.1 8080 allow v1", options);
+            assertEquals(1, first.size());
+            assertEquals("TEST_GENERIC", first.get(0).getFormatId());
+            
+            // 같은 템플릿이지만 리터럴 v2와 매칭되는 라인은 전체 매칭 결과와 같아야 함
+            List<FormatRecommendation> second = withStore.recommend("192.168.1.2 8081 allow v2", options);
+            List<String> ids = new ArrayList<>();
+            for (FormatRecommendation rec : second) {
+                ids.add(rec.getFormatId());
+            }
+            assertTrue(ids.contains("TEST_GENERIC"));
+            assertTrue("숫자 리터럴 포맷이 누락되면 안 됩니다", ids.contains("TEST_LITERAL_V2"));
+        } finally {
+            withStore.shutdown();
+        }
+    }
+    
+    private static LogFormat createFormat(String formatId, String grokExp) {
+        LogFormat.Pattern pattern = new LogFormat.Pattern();
+        pattern.setExpName(formatId + "_1");
+        pattern.setGrokExp(grokExp);
+        LogFormat.LogType logType = new LogFormat.LogType();
+        logType.setTypeName("Test");
+        logType.setPatterns(Arrays.asList(pattern));
+        LogFormat format = new LogFormat();
+        format.setFormatId(formatId);
+        format.setFormatName(formatId);
+        format.setGroupName("TEST_GROUP");
+        format.setVendor("TEST_VENDOR");
+        format.setLogTypes(Arrays.asList(logType));
+        return format;
+    }
+    
     @Test
     public void testNullInputs() {
         // null 입력 테스트
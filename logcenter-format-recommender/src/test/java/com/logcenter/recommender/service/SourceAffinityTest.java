@@ -0,0 +1,156 @@
+package com.logcenter.recommender.service;
+
+import com.logcenter.recommender.grok.FilePatternRepository;
+import com.logcenter.recommender.grok.GrokCompilerWrapper;
+import com.logcenter.recommender.model.FormatRecommendation;
+import com.logcenter.recommender.model.LogFormat;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * SourceAffinity 단위 테스트
+ */
+public class SourceAffinityTest {
+
+    private LogFormatRecommenderImpl recommender;
+    private LogFormatRecommender.RecommendOptions options;
+
+    @Before
+    public void setUp() {
+        recommender = new LogFormatRecommenderImpl(new FixedPatternRepository(
+            format("ALPHA", "^%{IP:src_ip}:%{INT:src_port} %{WORD:action} %{IP:dst_ip}:%{INT:dst_port}$"),
+            format("BETA", "^%{WORD:protocol}\\|%{IP:src}\\|%{IP:dst}\\|%{INT:rule_id}$")), new GrokCompilerWrapper());
+        assertTrue(recommender.initialize());
+        options = new LogFormatRecommender.RecommendOptions();
+        options.setParallelProcessing(false);
+        options.setEnableCaching(false);
+    }
+
+    @After
+    public void tearDown() {
+        recommender.shutdown();
+    }
+
+    @Test
+    public void testLockVerifyAndRedetect() {
+        String first = "10.0.0.1:51234 allow 10.0.0.2:443";
+        String second = "tcp|10.0.0.1|10.0.0.2|42";
+        String firstFormat = "ALPHA";
+        String secondFormat = "BETA";
+
+        SourceAffinity affinity = new SourceAffinity(recommender, options, 5, 0.8, 10, 0.3, 100);
+
+        // 최근 5개가 모두 같은 포맷이면 고정
+        for (int i = 0; i < 5; i++) {
+            affinity.recommend("host-a", first);
+        }
+        assertEquals(firstFormat, affinity.getLockedFormat("host-a"));
+        assertEquals(1, affinity.getLocks());
+
+        // 고정 후에는 고정된 포맷만 검증
+        for (int i = 0; i < 20; i++) {
+            List<FormatRecommendation> result = affinity.recommend("host-a", first);
+            assertEquals(1, result.size());
+            assertEquals(firstFormat, result.get(0).getFormatId());
+        }
+        assertEquals(20, affinity.getVerifiedLines());
+        assertEquals(5, affinity.getDetectedLines());
+        assertNull(affinity.getLockedFormat("host-b"));
+
+        // 포맷이 바뀌면 불일치 라인은 전체 추천, 불일치 비율이 임계값을 넘으면 다시 감지
+        List<FormatRecommendation> changed = affinity.recommend("host-a", second);
+        assertEquals(secondFormat, changed.get(0).getFormatId());
+        for (int i = 0; i < 3; i++) {
+            affinity.recommend("host-a", second);
+        }
+        assertEquals(1, affinity.getRedetections());
+        assertNull(affinity.getLockedFormat("host-a"));
+
+        for (int i = 0; i < 5; i++) {
+            affinity.recommend("host-a", second);
+        }
+        assertEquals(secondFormat, affinity.getLockedFormat("host-a"));
+        assertEquals(0.0, affinity.getMismatchRate("host-a"), 0.0);
+    }
+
+    @Test
+    public void testPatternViewsHoldOnePatternEach() {
+        LogFormat.Pattern p1 = new LogFormat.Pattern();
+        p1.setGrokExp("%{IP:src} a");
+        LogFormat.Pattern p2 = new LogFormat.Pattern();
+        p2.setGrokExp("%{IP:src} b");
+        LogFormat.LogType logType = new LogFormat.LogType();
+        logType.setPatterns(Arrays.asList(p1, p2));
+
+        LogFormat format = new LogFormat();
+        format.setFormatId("F");
+        format.setGroupName("FIREWALL");
+        format.setGrokPattern("%{GREEDYDATA:message}");
+        format.setLogTypes(Arrays.asList(logType));
+
+        List<LogFormat> views = SourceAffinity.patternViews(format);
+        assertEquals(2, views.size());
+        for (int i = 0; i < views.size(); i++) {
+            LogFormat view = views.get(i);
+            assertEquals("F", view.getFormatId());
+            assertEquals("FIREWALL", view.getGroupName());
+            assertNull(view.getGrokPattern());
+            assertEquals(1, view.getLogTypes().get(0).getPatterns().size());
+        }
+        assertSame(p2, views.get(1).getLogTypes().get(0).getPatterns().get(0));
+    }
+
+    private static LogFormat format(String formatId, String grokExp) {
+        LogFormat.Pattern pattern = new LogFormat.Pattern();
+        pattern.setExpName(formatId + "_1");
+        pattern.setGrokExp(grokExp);
+        LogFormat.LogType logType = new LogFormat.LogType();
+        logType.setTypeName("Event Log");
+        logType.setPatterns(Arrays.asList(pattern));
+
+        LogFormat format = new LogFormat();
+        format.setFormatId(formatId);
+        format.setFormatName(formatId);
+        format.setGroupName("TEST");
+        format.setVendor("TEST");
+        format.setLogTypes(Arrays.asList(logType));
+        return format;
+    }
+
+    /**
+     * 고정된 포맷 목록만 제공하는 저장소
+     */
+    private static class FixedPatternRepository extends FilePatternRepository {
+
+        private final List<LogFormat> formats;
+
+        FixedPatternRepository(LogFormat... formats) {
+            this.formats = Arrays.asList(formats);
+        }
+
+        @Override
+        public boolean initialize() {
+            return true;
+        }
+
+        @Override
+        public List<LogFormat> getAllFormats() {
+            return formats;
+        }
+
+        @Override
+        public List<LogFormat> findCandidates(String groupName, String vendor, String model, String smType) {
+            return formats;
+        }
+
+        @Override
+        public int size() {
+            return formats.size();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.logcenter.recommender.syslog;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * SyslogFrameDecoder 단위 테스트
+ */
+public class SyslogFrameDecoderTest {
+
+    @Test
+    public void testOctetCountingAndNewlineFraming() {
+        String stream = "11 <13>hello\n!"
+            + "<14>line one\r\n"
+            + "2024-01-01 starts with digits\n"
+            + "10 <15>한글";
+        List<String> frames = decodeInPieces(new SyslogFrameDecoder(1024), stream, 1);
+
+        assertEquals(Arrays.asList("<13>hello\n!", "<14>line one", "2024-01-01 starts with digits", "<15>한글"), frames);
+    }
+
+    @Test
+    public void testPiecesOfAnySize() {
+        String stream = "5 <1>ab3 <2>x\ny\nz";
+        List<String> expected = Arrays.asList("<1>ab", "<2>", "x", "y", "z");
+        for (int piece = 1; piece <= stream.length(); piece++) {
+            assertEquals("piece " + piece, expected, decodeInPieces(new SyslogFrameDecoder(1024), stream, piece));
+        }
+    }
+
+    @Test
+    public void testOversizedFramesAreTruncated() {
+        StringBuilder longLine = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            longLine.append('a');
+        }
+        SyslogFrameDecoder decoder = new SyslogFrameDecoder(16);
+        List<String> frames = decodeInPieces(decoder, "<1>" + longLine + "\n50 " + longLine.substring(0, 50) + "ok\n", 7);
+
+        assertEquals(3, frames.size());
+        assertEquals(16, frames.get(0).length());
+        assertEquals(16, frames.get(1).length());
+        assertEquals("ok", frames.get(2));
+        assertEquals(2, decoder.getTruncatedFrames());
+    }
+
+    private static List<String> decodeInPieces(SyslogFrameDecoder decoder, String stream, int pieceSize) {
+        byte[] bytes = stream.getBytes(StandardCharsets.UTF_8);
+        List<String> frames = new ArrayList<>();
+        for (int offset = 0; offset < bytes.length; offset += pieceSize) {
+            decoder.decode(ByteBuffer.wrap(bytes, offset, Math.min(pieceSize, bytes.length - offset)), frames::add);
+        }
+        decoder.flush(frames::add);
+        return frames;
+    }
+}
@@ -0,0 +1,148 @@
+package com.logcenter.recommender.syslog;
+
+import com.logcenter.recommender.model.FormatRecommendation;
+import com.logcenter.recommender.model.LogFormat;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.io.OutputStream;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+/**
+ * SyslogListener 단위 테스트 (localhost 송신)
+ */
+public class SyslogListenerTest {
+
+    private static final InetSocketAddress ANY_LOCAL_PORT = new InetSocketAddress("127.0.0.1", 0);
+
+    @Test
+    public void testUdpAndTcpPerSource() throws Exception {
+        SourceFormatTracker tracker = new SourceFormatTracker(50, 100);
+        try (SyslogListener listener = new SyslogListener(SyslogListenerTest::classify, tracker, 10000, 2)) {
+            InetSocketAddress udp = listener.bindUdp(ANY_LOCAL_PORT);
+            InetSocketAddress tcp = listener.bindTcp(ANY_LOCAL_PORT);
+            listener.start();
+
+            // UDP: 127.0.0.2에서 alpha 20건
+            try (DatagramSocket socket = new DatagramSocket(new InetSocketAddress("127.0.0.2", 0))) {
+                for (int i = 0; i < 20; i++) {
+                    byte[] data = ("<13>Oct 11 22:14:15 host app: alpha " + i + "\n").getBytes(StandardCharsets.UTF_8);
+                    socket.send(new DatagramPacket(data, data.length, udp));
+                }
+            }
+
+            // TCP: 127.0.0.1에서 옥텟 카운팅과 LF 구분을 섞어 beta 10건, 미분류 1건
+            try (Socket socket = new Socket(InetAddress.getByName("127.0.0.1"), tcp.getPort())) {
+                OutputStream out = socket.getOutputStream();
+                StringBuilder stream = new StringBuilder();
+                for (int i = 0; i < 10; i++) {
+                    String message = "<14>1 2024-01-01T00:00:00Z host app - - - beta " + i;
+                    if (i % 2 == 0) {
+                        stream.append(message.getBytes(StandardCharsets.UTF_8).length).append(' ').append(message);
+                    } else {
+                        stream.append(message).append('\n');
+                    }
+                }
+                stream.append("<14>unknown message\n");
+                byte[] bytes = stream.toString().getBytes(StandardCharsets.UTF_8);
+                // 프레임 경계와 무관하게 나누어 전송
+                for (int offset = 0; offset < bytes.length; offset += 37) {
+                    out.write(bytes, offset, Math.min(37, bytes.length - offset));
+                    out.flush();
+                }
+            }
+
+            waitFor(() -> listener.getProcessed() >= 31);
+            assertEquals(31, listener.getReceived());
+            assertEquals(0, listener.getDropped());
+
+            SourceFormatTracker.SourceSnapshot udpSource = tracker.getSnapshot("127.0.0.2");
+            assertEquals("ALPHA", udpSource.getTopFormat());
+            assertEquals(20, udpSource.getTotalMessages());
+            assertEquals(90.0, udpSource.getTopConfidence(), 0.001);
+
+            SourceFormatTracker.SourceSnapshot tcpSource = tracker.getSnapshot("127.0.0.1");
+            assertEquals("BETA", tcpSource.getTopFormat());
+            assertEquals(11, tcpSource.getTotalMessages());
+            assertEquals(10, tcpSource.getMatchedMessages());
+            assertEquals(Integer.valueOf(1), tcpSource.getDistribution().get(SourceFormatTracker.UNKNOWN_FORMAT));
+
+            assertEquals(2, tracker.getSnapshots().size());
+            assertEquals("127.0.0.2", tracker.getSnapshots().get(0).getSource());
+        }
+    }
+
+    @Test
+    public void testFullQueueDropsMessages() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        SourceFormatTracker tracker = new SourceFormatTracker(10, 10);
+        try (SyslogListener listener = new SyslogListener(message -> {
+            release.await();
+            return null;
+        }, tracker, 2, 1)) {
+            InetSocketAddress tcp = listener.bindTcp(ANY_LOCAL_PORT);
+            listener.start();
+
+            try (Socket socket = new Socket(tcp.getAddress(), tcp.getPort())) {
+                StringBuilder stream = new StringBuilder();
+                for (int i = 0; i < 20; i++) {
+                    stream.append("<13>message ").append(i).append('\n');
+                }
+                socket.getOutputStream().write(stream.toString().getBytes(StandardCharsets.UTF_8));
+            }
+
+            waitFor(() -> listener.getReceived() == 20);
+            // 작업 스레드 1개가 처리 중, 큐 2개를 제외한 나머지는 버림
+            assertTrue(listener.getDropped() >= 17);
+            release.countDown();
+            waitFor(() -> listener.getProcessed() == 20 - listener.getDropped());
+        }
+    }
+
+    @Test
+    public void testTrackerEvictsOldestSource() throws InterruptedException {
+        SourceFormatTracker tracker = new SourceFormatTracker(10, 2);
+        tracker.record("a", "X", 80);
+        Thread.sleep(2);
+        tracker.record("b", "Y", 70);
+        Thread.sleep(2);
+        tracker.record("a", "X", 90);
+        tracker.record("c", null, 0);
+
+        assertEquals(2, tracker.getSourceCount());
+        assertNull(tracker.getSnapshot("b"));
+        assertEquals(85.0, tracker.getSnapshot("a").getTopConfidence(), 0.001);
+        assertEquals(SourceFormatTracker.UNKNOWN_FORMAT, tracker.getSnapshot("c").getTopFormat());
+    }
+
+    private static FormatRecommendation classify(SyslogMessage message) {
+        String body = message.getBody();
+        String formatId = body.contains("alpha") ? "ALPHA" : body.contains("beta") ? "BETA" : null;
+        if (formatId == null) {
+            return null;
+        }
+        LogFormat format = new LogFormat();
+        format.setFormatId(formatId);
+        FormatRecommendation recommendation = new FormatRecommendation(format);
+        recommendation.setConfidence(90.0);
+        return recommendation;
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                fail("대기 시간 초과");
+            }
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.logcenter.recommender.syslog;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * SyslogParser 단위 테스트
+ */
+public class SyslogParserTest {
+
+    @Test
+    public void testRfc3164() {
+        SyslogMessage message = SyslogParser.parse("10.0.0.1",
+            "<34>Oct 11 22:14:15 mymachine su: 'su root' failed\n", 1L);
+
+        assertEquals(34, message.getPriority());
+        assertEquals(4, message.getFacility());
+        assertEquals(2, message.getSeverity());
+        assertEquals(SyslogMessage.RFC3164, message.getVersion());
+        assertEquals("Oct 11 22:14:15 mymachine su: 'su root' failed", message.getBody());
+        assertEquals("10.0.0.1", message.getSource());
+    }
+
+    @Test
+    public void testRfc5424() {
+        SyslogMessage message = SyslogParser.parse("10.0.0.2",
+            "<165>1 2003-10-11T22:14:15.003Z mymachine.example.com evntslog - ID47 "
+                + "[exampleSDID@32473 iut=\"3\" eventSource=\"App\\\"lication\"][other x=\"]\"] "
+                + "\uFEFFAn application event", 1L);
+
+        assertEquals(165, message.getPriority());
+        assertEquals(SyslogMessage.RFC5424, message.getVersion());
+        assertEquals("mymachine.example.com", message.getHostname());
+        assertEquals("evntslog", message.getAppName());
+        assertEquals("An application event", message.getBody());
+
+        message = SyslogParser.parse("10.0.0.2", "<13>1 2003-10-11T22:14:15Z - - - - -", 1L);
+        assertNull(message.getHostname());
+        assertEquals("", message.getBody());
+    }
+
+    @Test
+    public void testFallbacks() {
+        // PRI 없음
+        SyslogMessage message = SyslogParser.parse("h", "plain log line", 1L);
+        assertEquals(-1, message.getPriority());
+        assertEquals("plain log line", message.getBody());
+
+        // 범위를 벗어난 PRI
+        assertEquals("<999>x", SyslogParser.parse("h", "<999>x", 1L).getBody());
+
+        // 버전 뒤 헤더가 불완전하면 RFC 3164로 처리
+        message = SyslogParser.parse("h", "<14>1 broken", 1L);
+        assertEquals(SyslogMessage.RFC3164, message.getVersion());
+        assertEquals("1 broken", message.getBody());
+    }
+}
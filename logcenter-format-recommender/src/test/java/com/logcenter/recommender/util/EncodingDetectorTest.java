@@ -0,0 +1,113 @@
+package com.logcenter.recommender.util;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+/**
+ * EncodingDetector 단위 테스트
+ */
+public class EncodingDetectorTest {
+
+    private static final String KOREAN_LOG = "2024-01-15 10:30:45 방화벽 차단 정책=허용 안됨 사용자=관리자\n";
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Before
+    public void setUp() {
+        EncodingDetector.clearCache();
+    }
+
+    @Test
+    public void testAsciiAndUtf8() {
+        assertEquals(StandardCharsets.UTF_8, EncodingDetector.detect("plain ascii log".getBytes(StandardCharsets.US_ASCII)));
+        assertEquals(StandardCharsets.UTF_8, EncodingDetector.detect(KOREAN_LOG.getBytes(StandardCharsets.UTF_8)));
+        assertEquals(StandardCharsets.UTF_8, EncodingDetector.detect(new byte[0]));
+    }
+
+    @Test
+    public void testBom() {
+        assertEquals(StandardCharsets.UTF_16LE, EncodingDetector.detect(new byte[] {(byte) 0xFF, (byte) 0xFE, 'a', 0}));
+        assertEquals(StandardCharsets.UTF_16BE, EncodingDetector.detect(new byte[] {(byte) 0xFE, (byte) 0xFF, 0, 'a'}));
+        assertEquals(StandardCharsets.UTF_8, EncodingDetector.detect(new byte[] {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF, 'a'}));
+    }
+
+    @Test
+    public void testTruncatedUtf8PrefixIsStillUtf8() {
+        byte[] bytes = KOREAN_LOG.getBytes(StandardCharsets.UTF_8);
+        // 멀티바이트 문자 중간에서 잘린 샘플
+        byte[] truncated = new byte[bytes.length - 2];
+        System.arraycopy(bytes, 0, truncated, 0, truncated.length);
+        int cut = KOREAN_LOG.indexOf("방") + 1;
+        byte[] midChar = new byte[KOREAN_LOG.substring(0, cut).getBytes(StandardCharsets.UTF_8).length - 1];
+        System.arraycopy(bytes, 0, midChar, 0, midChar.length);
+
+        assertEquals(StandardCharsets.UTF_8, EncodingDetector.detect(truncated));
+        assertEquals(StandardCharsets.UTF_8, EncodingDetector.detect(midChar));
+    }
+
+    @Test
+    public void testEucKr() {
+        Charset eucKr = Charset.forName("EUC-KR");
+
+        assertEquals(eucKr, EncodingDetector.detect(KOREAN_LOG.getBytes(eucKr)));
+    }
+
+    @Test
+    public void testCp949ExtendedSyllable() {
+        Charset cp949 = Charset.forName("x-windows-949");
+        // '똠'은 EUC-KR(KS X 1001)에 없고 CP949에만 있음
+        byte[] bytes = (KOREAN_LOG + "호스트=똠방각하\n").getBytes(cp949);
+
+        assertEquals(cp949, EncodingDetector.detect(bytes));
+    }
+
+    @Test
+    public void testFileDetectionIsCached() throws IOException {
+        Charset eucKr = Charset.forName("EUC-KR");
+        Path file = tempFolder.newFile("legacy.log").toPath();
+        Files.write(file, KOREAN_LOG.getBytes(eucKr));
+
+        assertEquals(eucKr, EncodingDetector.detect(file));
+        assertEquals(eucKr, LogParser.detectEncoding(file.toString()));
+
+        // 내용이 바뀌면 다시 감지
+        Files.write(file, KOREAN_LOG.getBytes(StandardCharsets.UTF_8));
+        Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() + 10000));
+        assertEquals(StandardCharsets.UTF_8, EncodingDetector.detect(file));
+    }
+
+    @Test
+    public void testLargeFileSampledWindows() throws IOException {
+        Charset eucKr = Charset.forName("EUC-KR");
+        StringBuilder content = new StringBuilder();
+        while (content.length() < EncodingDetector.PREFIX_BYTES * 5) {
+            content.append("2024-01-15 10:30:45 ascii only line\n");
+        }
+        // 앞부분은 ASCII, 끝부분에만 EUC-KR 한글
+        content.append(KOREAN_LOG);
+        Path file = tempFolder.newFile("large.log").toPath();
+        Files.write(file, content.toString().getBytes(eucKr));
+
+        assertEquals(eucKr, EncodingDetector.detect(file));
+    }
+
+    @Test
+    public void testReadLogFileWithDetectedLegacyEncoding() throws IOException {
+        Charset eucKr = Charset.forName("EUC-KR");
+        Path file = tempFolder.newFile("read.log").toPath();
+        Files.write(file, KOREAN_LOG.getBytes(eucKr));
+
+        assertEquals(KOREAN_LOG.trim(), LogParser.readLogFile(file.toString()).get(0));
+    }
+}
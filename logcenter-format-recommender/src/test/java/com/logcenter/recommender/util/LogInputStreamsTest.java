@@ -0,0 +1,131 @@
+package com.logcenter.recommender.util;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * LogInputStreams 단위 테스트
+ */
+public class LogInputStreamsTest {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Test
+    public void testCompressionDetection() throws IOException {
+        Path plain = tempFolder.newFile("app.log").toPath();
+        Files.write(plain, "plain\n".getBytes(StandardCharsets.UTF_8));
+        // 확장자가 없어도 매직 바이트로 판단
+        Path gzipNoExtension = tempFolder.newFile("app.log.1").toPath();
+        Files.write(gzipNoExtension, gzip("line\n"));
+
+        assertEquals(LogInputStreams.Compression.NONE, LogInputStreams.compressionOf(plain));
+        assertEquals(LogInputStreams.Compression.GZIP, LogInputStreams.compressionOf(gzipNoExtension));
+        assertTrue(LogInputStreams.hasCompressedExtension(tempFolder.getRoot().toPath().resolve("syslog.2.gz")));
+        assertFalse(LogInputStreams.hasCompressedExtension(plain));
+    }
+
+    @Test
+    public void testMultiMemberGzip() throws IOException {
+        Path file = tempFolder.newFile("rotated.log.gz").toPath();
+        ByteArrayOutputStream members = new ByteArrayOutputStream();
+        members.write(gzip("first member line 1\nfirst member line 2\n"));
+        members.write(gzip("second member line\n"));
+        Files.write(file, members.toByteArray());
+
+        assertEquals(Arrays.asList("first member line 1", "first member line 2", "second member line"),
+            LogParser.readSamples(file.toString(), 0));
+    }
+
+    @Test
+    public void testZipEntriesAreConcatenated() throws IOException {
+        Path file = tempFolder.newFile("archive.zip").toPath();
+        try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(file))) {
+            zip.putNextEntry(new ZipEntry("logs/"));
+            zip.closeEntry();
+            zip.putNextEntry(new ZipEntry("logs/a.log"));
+            zip.write("entry a without newline".getBytes(StandardCharsets.UTF_8));
+            zip.closeEntry();
+            zip.putNextEntry(new ZipEntry("logs/b.log"));
+            zip.write("entry b\n".getBytes(StandardCharsets.UTF_8));
+            zip.closeEntry();
+        }
+
+        try (InputStream in = LogInputStreams.open(file)) {
+            assertEquals(Arrays.asList("entry a without newline", "entry b"), LogParser.readSamples(in, 0));
+        }
+    }
+
+    @Test
+    public void testCompressedSamplesStopEarlyAndDetectEncoding() throws IOException {
+        Charset eucKr = Charset.forName("EUC-KR");
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            content.append("2024-01-15 10:30:45 차단 이벤트 ").append(i).append('\n');
+        }
+        Path file = tempFolder.newFile("korean.log.gz").toPath();
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(file))) {
+            out.write(content.toString().getBytes(eucKr));
+        }
+
+        List<String> samples = LogParser.readSamples(file.toString(), 100);
+
+        assertEquals(100, samples.size());
+        assertEquals("2024-01-15 10:30:45 차단 이벤트 0", samples.get(0));
+    }
+
+    @Test
+    public void testCompressedLongLineIsTruncated() throws IOException {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < MappedLogReader.MAX_LINE_BYTES + 1000; i++) {
+            content.append('x');
+        }
+        content.append("\r\nnext\rlast");
+        Path file = tempFolder.newFile("long.log.gz").toPath();
+        Files.write(file, gzip(content.toString()));
+
+        List<String> samples = LogParser.readSamples(file.toString(), 0);
+
+        // 메모리 매핑 경로와 같은 최대 길이로 잘림
+        assertEquals(3, samples.size());
+        assertEquals(MappedLogReader.MAX_LINE_BYTES, samples.get(0).length());
+        assertEquals(Arrays.asList("next", "last"), samples.subList(1, 3));
+    }
+
+    @Test
+    public void testCompressedLineEndingsAcrossBuffers() throws IOException {
+        StringBuilder first = new StringBuilder();
+        for (int i = 0; i < 8 * 1024 - 1; i++) {
+            first.append('x');
+        }
+        // CRLF가 읽기 버퍼 경계에 걸치고, CR만 있는 줄바꿈과 빈 라인이 섞인 입력
+        Path file = tempFolder.newFile("endings.log.gz").toPath();
+        Files.write(file, gzip(first + "\r\na\rb\r\r\n\nc\r\nd"));
+
+        assertEquals(Arrays.asList(first.toString(), "a", "b", "c", "d"), LogParser.readSamples(file.toString(), 0));
+    }
+
+    private static byte[] gzip(String content) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(content.getBytes(StandardCharsets.UTF_8));
+        }
+        return bytes.toByteArray();
+    }
+}
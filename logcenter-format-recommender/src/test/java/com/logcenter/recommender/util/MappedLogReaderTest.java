@@ -0,0 +1,146 @@
+package com.logcenter.recommender.util;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * MappedLogReader 단위 테스트
+ */
+public class MappedLogReaderTest {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Test
+    public void testReadLinesMatchesReadAllLines() throws IOException {
+        Path file = write("a.log", "first line\r\nsecond 한글 라인\n\nlast line without newline");
+
+        try (MappedLogReader reader = MappedLogReader.open(file, StandardCharsets.UTF_8)) {
+            assertEquals(Files.readAllLines(file, StandardCharsets.UTF_8), reader.readLines(0));
+        }
+    }
+
+    @Test
+    public void testSmallWindowsHandleLinesAcrossBoundaries() throws IOException {
+        StringBuilder content = new StringBuilder();
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            String line = "2024-01-15 10:30:" + (i % 60) + " event-" + i + " 값=" + i;
+            expected.add(line);
+            content.append(line).append('\n');
+        }
+        Path file = write("b.log", content.toString());
+
+        List<String> lines = new ArrayList<>();
+        try (MappedLogReader reader = MappedLogReader.open(file, StandardCharsets.UTF_8, 64)) {
+            assertTrue(reader.forEachLine(lines::add));
+        }
+        assertEquals(expected, lines);
+    }
+
+    @Test
+    public void testByteLinesAreDecodedOnDemand() throws IOException {
+        Path file = write("bytes.log", "keep 한글\r\nskip this\nkeep last");
+
+        List<String> kept = new ArrayList<>();
+        int[] seen = new int[1];
+        try (MappedLogReader reader = MappedLogReader.open(file, StandardCharsets.UTF_8, 64)) {
+            assertTrue(reader.forEachLineBytes(line -> {
+                seen[0]++;
+                // 앞 4바이트만 보고 디코딩 여부 결정
+                if (line.remaining() >= 4 && line.get(line.position()) == 'k') {
+                    kept.add(reader.decode(line));
+                }
+                return true;
+            }));
+        }
+        assertEquals(3, seen[0]);
+        assertEquals(Arrays.asList("keep 한글", "keep last"), kept);
+    }
+
+    @Test
+    public void testLongLineIsTruncatedAndReadingContinues() throws IOException {
+        StringBuilder longLine = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            longLine.append("0123456789");
+        }
+        Path file = write("c.log", "head\n" + longLine + "\ntail\n");
+
+        List<String> lines = new ArrayList<>();
+        try (MappedLogReader reader = MappedLogReader.open(file, StandardCharsets.UTF_8, 64)) {
+            reader.forEachLine(lines::add);
+        }
+        assertEquals(3, lines.size());
+        assertEquals("head", lines.get(0));
+        assertEquals(64, lines.get(1).length());
+        assertEquals("tail", lines.get(2));
+    }
+
+    @Test
+    public void testHeadLimitAndEarlyStop() throws IOException {
+        Path file = write("e.log", "aaaa\nbbbb\ncccc\ndddd\n");
+
+        try (MappedLogReader reader = MappedLogReader.open(file, StandardCharsets.UTF_8)) {
+            // 7바이트 제한: 두 번째 라인까지 포함
+            assertEquals(2, reader.readLines(7).size());
+
+            List<String> lines = new ArrayList<>();
+            assertFalse(reader.forEachLine(line -> {
+                lines.add(line);
+                return lines.size() < 3;
+            }));
+            assertEquals(3, lines.size());
+        }
+    }
+
+    @Test
+    public void testBomIsSkipped() throws IOException {
+        Path file = tempFolder.newFile("f.log").toPath();
+        Files.write(file, new byte[] {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF, 'o', 'k', '\n'});
+
+        try (MappedLogReader reader = MappedLogReader.open(file, StandardCharsets.UTF_8)) {
+            assertEquals("ok", reader.readLines(0).get(0));
+        }
+    }
+
+    @Test
+    public void testSupportedCharsets() {
+        assertTrue(MappedLogReader.supports(StandardCharsets.UTF_8));
+        assertTrue(MappedLogReader.supports(StandardCharsets.ISO_8859_1));
+        assertTrue(MappedLogReader.supports(Charset.forName("EUC-KR")));
+        assertFalse(MappedLogReader.supports(StandardCharsets.UTF_16LE));
+    }
+
+    @Test
+    public void testReadSamples() throws IOException {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            content.append("  sample ").append(i).append("  \n\n");
+        }
+        File file = write("g.log", content.toString()).toFile();
+
+        List<String> samples = LogParser.readSamples(file.getPath(), 100);
+
+        assertEquals(100, samples.size());
+        assertEquals("sample 0", samples.get(0));
+        assertEquals("sample 99", samples.get(99));
+    }
+
+    private Path write(String name, String content) throws IOException {
+        Path file = tempFolder.newFile(name).toPath();
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+}
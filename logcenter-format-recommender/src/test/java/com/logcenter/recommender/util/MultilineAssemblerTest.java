@@ -0,0 +1,108 @@
+package com.logcenter.recommender.util;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * MultilineAssembler 단위 테스트
+ */
+public class MultilineAssemblerTest {
+
+    private static final List<String> STACK_TRACE_LOG = Arrays.asList(
+        "2024-01-15 10:30:46 ERROR Connection failed",
+        "java.io.IOException: refused",
+        "\tat com.example.Main.connect(Main.java:45)",
+        "Caused by: java.net.ConnectException",
+        "    ... 3 more",
+        "2024-01-15 10:30:47 INFO Retry connection"
+    );
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Test
+    public void testStackTraceIsOneEvent() {
+        List<String> events = drain(MultilineAssembler.events(STACK_TRACE_LOG.iterator(), MultilineAssembler.DEFAULT_RULE));
+
+        // 예외 메시지 라인은 연속 패턴이 아니므로 새 이벤트 (기존 병합 규칙과 동일)
+        assertEquals(3, events.size());
+        assertEquals("java.io.IOException: refused\n"
+            + "\tat com.example.Main.connect(Main.java:45)\n"
+            + "Caused by: java.net.ConnectException\n"
+            + "    ... 3 more", events.get(1));
+        assertEquals("2024-01-15 10:30:47 INFO Retry connection", events.get(2));
+    }
+
+    @Test
+    public void testPushModeAndFlush() {
+        MultilineAssembler assembler = new MultilineAssembler(line -> line.startsWith("<Event>"));
+
+        assertNull(assembler.offer("<Event>"));
+        assertNull(assembler.offer("  <System>4624</System>"));
+        assertEquals("<Event>\n  <System>4624</System>", assembler.offer("<Event>"));
+        assertTrue(assembler.hasPending());
+        assertEquals("<Event>", assembler.flush());
+        assertNull(assembler.flush());
+    }
+
+    @Test
+    public void testMaxEventSizeGuard() {
+        MultilineAssembler assembler = new MultilineAssembler(line -> line.startsWith("START"), 3, 12);
+        List<String> events = new ArrayList<>();
+        for (String line : Arrays.asList("START", "a", "b", "c", "d")) {
+            String event = assembler.offer(line);
+            if (event != null) {
+                events.add(event);
+            }
+        }
+        events.add(assembler.flush());
+
+        // 3라인 초과 시 분리, 12자 초과분은 잘림
+        assertEquals(Arrays.asList("START\na\nb", "c\nd"), events);
+
+        MultilineAssembler small = new MultilineAssembler(line -> false, 100, 5);
+        small.offer("123456789");
+        assertEquals("12345", small.flush());
+    }
+
+    @Test
+    public void testLeadingBlankLinesAreDropped() {
+        List<String> events = drain(MultilineAssembler.events(
+            Arrays.asList("", "first", "", "second").iterator(), MultilineAssembler.DEFAULT_RULE));
+
+        assertEquals(Arrays.asList("first\n", "second"), events);
+        assertEquals(events, LogParser.mergeMultilineLog(Arrays.asList("", "first", "", "second")));
+    }
+
+    @Test
+    public void testStreamingEventSamples() throws IOException {
+        Path file = tempFolder.newFile("app.log").toPath();
+        Files.write(file, String.join("\n", STACK_TRACE_LOG).getBytes(StandardCharsets.UTF_8));
+
+        List<String> events = LogParser.readSamples(file.toString(), 2, MultilineAssembler.DEFAULT_RULE);
+
+        assertEquals(2, events.size());
+        assertTrue(events.get(1).startsWith("java.io.IOException"));
+        assertTrue(events.get(1).endsWith("... 3 more"));
+        assertEquals(3, LogParser.readSamples(file.toString(), 0, MultilineAssembler.DEFAULT_RULE).size());
+    }
+
+    private static List<String> drain(Iterator<String> events) {
+        List<String> list = new ArrayList<>();
+        while (events.hasNext()) {
+            list.add(events.next());
+        }
+        return list;
+    }
+}
@@ -0,0 +1,76 @@
+package com.logcenter.recommender.util;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+/**
+ * StartupPhases 단위 테스트
+ */
+public class StartupPhasesTest {
+
+    private final ExecutorService pool = WorkerThreads.newFixedPool("startup-test", 1);
+
+    @After
+    public void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    public void testDependentPhaseRunsAfterDependencies() {
+        StartupPhases phases = new StartupPhases();
+        AtomicLong firstEnd = new AtomicLong();
+
+        CompletableFuture<Integer> first = phases.submit("first", pool, () -> {
+            firstEnd.set(System.nanoTime());
+            return 1;
+        });
+        CompletableFuture<Integer> independent = phases.submit("independent", pool, () -> 2);
+        CompletableFuture<Long> second = phases.submit("second", pool, System::nanoTime, first);
+
+        // 스레드가 하나인 풀에서도 의존 단계가 스레드를 점유하지 않아 모두 끝남
+        assertEquals(Integer.valueOf(1), StartupPhases.join(first));
+        assertEquals(Integer.valueOf(2), StartupPhases.join(independent));
+        assertTrue(StartupPhases.join(second) >= firstEnd.get());
+
+        List<StartupPhases.Phase> recorded = phases.getPhases();
+        assertEquals(3, recorded.size());
+        assertTrue(recorded.stream().allMatch(phase -> phase.getThread().startsWith("startup-test")));
+    }
+
+    @Test
+    public void testJoinRethrowsPhaseFailure() {
+        StartupPhases phases = new StartupPhases();
+        CompletableFuture<Object> failing = phases.submit("failing", pool, () -> {
+            throw new IllegalStateException("실패");
+        });
+
+        try {
+            StartupPhases.join(failing);
+            fail("단계 예외가 전달되어야 합니다");
+        } catch (IllegalStateException expected) {
+            assertEquals("실패", expected.getMessage());
+        }
+        assertEquals("실패한 단계도 기록되어야 합니다", 1, phases.getPhases().size());
+    }
+
+    @Test
+    public void testReportListsPhasesInStartOrder() {
+        StartupPhases phases = new StartupPhases();
+        phases.recordSinceJvmStart("jvm");
+        phases.run("config", () -> { });
+        Integer value = phases.run("catalog", () -> 42);
+
+        assertEquals(Integer.valueOf(42), value);
+        String report = phases.report();
+        assertTrue(report.indexOf("jvm") < report.indexOf("config"));
+        assertTrue(report.indexOf("config") < report.indexOf("catalog"));
+        assertTrue(phases.getPhases().get(0).getStartNanos() <= 0);
+    }
+}
@@ -146,6 +146,69 @@ public class LogFormatValidatorTest {
             .anyMatch(msg -> msg.contains("샘플 로그가 없")));
     }
     
+    @Test(timeout = 10000)
+    public void testCatastrophicBacktrackingTimesOut() {
+        // 역추적이 폭주하는 패턴은 제한 시간 안에 TIMEOUT으로 끝나야 함
+        LogFormatValidator shortDeadline = new LogFormatValidator(1, 200);
+        try {
+            LogFormat format = createTestFormat(
+                "TEST_FORMAT_6",
+                "Test Format with Backtracking",
+                "^(.*a){20}%{WORD:word}$",
+                "aaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaa!"
+            );
+            
+            long start = System.currentTimeMillis();
+            List<ValidationResult> results = shortDeadline.validateFormat(format);
+            long elapsed = System.currentTimeMillis() - start;
+            
+            ValidationResult result = results.get(0);
+            assertEquals(Status.TIMEOUT, result.getStatus());
+            assertFalse(result.isSuccess());
+            assertTrue(result.getErrorMessages().get(0).contains("시간 초과"));
+            assertTrue("제한 시간 후 바로 끝나야 함: " + elapsed + "ms", elapsed < 5000);
+        } finally {
+            shortDeadline.shutdown();
+        }
+    }
+    
+    @Test(timeout = 30000)
+    public void testValidateFormatsKeepsInputOrderAndReportsProgress() {
+        // 시간 초과 포맷이 섞여 끝나는 순서가 달라도 결과는 입력 순서
+        LogFormatValidator parallel = new LogFormatValidator(4, 200);
+        try {
+            List<LogFormat> formats = new ArrayList<>();
+            for (int i = 0; i < 12; i++) {
+                if (i % 4 == 0) {
+                    formats.add(createTestFormat("SLOW_" + i, "Slow " + i,
+                        "^(.*a){20}%{WORD:word}$", "aaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaa!"));
+                } else {
+                    formats.add(createTestFormat("FAST_" + i, "Fast " + i,
+                        "%{LOG_TIME:log_time} %{SRC_IP:src_ip} %{SRC_PORT:src_port} %{ACTION:action}",
+                        "20240101120000 192.168.1.1 8080 allow"));
+                }
+            }
+            
+            List<Integer> progress = new ArrayList<>();
+            List<ValidationResult> results = parallel.validateFormats(formats, (completed, total) -> {
+                assertEquals(formats.size(), total);
+                progress.add(completed);
+            });
+            
+            assertEquals(formats.size(), results.size());
+            for (int i = 0; i < formats.size(); i++) {
+                assertEquals(formats.get(i).getFormatId(), results.get(i).getFormatId());
+                assertEquals(i % 4 == 0 ? Status.TIMEOUT : Status.PASS, results.get(i).getStatus());
+            }
+            assertEquals(formats.size(), progress.size());
+            for (int i = 0; i < progress.size(); i++) {
+                assertEquals(Integer.valueOf(i + 1), progress.get(i));
+            }
+        } finally {
+            parallel.shutdown();
+        }
+    }
+    
     // 전체 포맷 검증 테스트는 시간이 오래 걸려서 주석 처리
     // 필요시 주석 해제하여 실행
     /*